@@ -0,0 +1,116 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.bits;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary message field extraction microbenchmarks.  Each operation extracts a 24-bit field from a deterministic
+ * random 196-bit message, either from a field index array, as used by the message parser classes, or from a
+ * contiguous bit range.  The split field spans two runs of indices, like the fields that straddle a parity or
+ * status symbol, and the long range crosses a 64-bit word boundary.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BinaryMessageBenchmark
+{
+    private static final int[] FIELD = {72, 73, 74, 75, 76, 77, 78, 79, 80, 81, 82, 83, 84, 85, 86, 87, 88, 89, 90,
+        91, 92, 93, 94, 95};
+    private static final int[] SPLIT_FIELD = {60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71, 74, 75, 76, 77, 78, 79,
+        80, 81, 82, 83, 84, 85};
+
+    private BinaryMessage mMessage = new BinaryMessage(196);
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+
+        for(int x = 0; x < mMessage.size(); x++)
+        {
+            if(random.nextBoolean())
+            {
+                mMessage.set(x);
+            }
+        }
+    }
+
+    @Benchmark
+    public int getIntFieldIndices()
+    {
+        return mMessage.getInt(FIELD);
+    }
+
+    @Benchmark
+    public int getIntRange()
+    {
+        return mMessage.getInt(72, 95);
+    }
+
+    @Benchmark
+    public int getIntSplitFieldIndices()
+    {
+        return mMessage.getInt(SPLIT_FIELD);
+    }
+
+    @Benchmark
+    public long getLongRange()
+    {
+        return mMessage.getLong(40, 87);
+    }
+
+    @Benchmark
+    public BinaryMessage load()
+    {
+        mMessage.load(72, 24, 0xA5A5A5);
+        return mMessage;
+    }
+
+    @Benchmark
+    public BinaryMessage rotateLeft()
+    {
+        mMessage.rotateLeft(5, 72, 95);
+        return mMessage;
+    }
+
+    @Benchmark
+    public BinaryMessage subMessage()
+    {
+        return mMessage.getSubMessage(48, 144);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
+import io.github.dsheirer.sample.buffer.ReusableChannelResultsBufferQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polyphase channelizer filter and IFFT stage microbenchmarks.  Each operation processes one sample buffer containing
+ * 64 channelizer blocks of deterministic random samples.  The filter stage is processed on the calling thread, plus
+ * (threads - 1) filter stage worker threads.
+ *
+ * Run with the GC profiler (-prof gc) to measure the heap bytes allocated per operation.  After warm-up, the single
+ * threaded filter stage should not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComplexPolyphaseChannelizerM2Benchmark
+{
+    private static final int BLOCKS_PER_BUFFER = 64;
+
+    @Param({"2400000", "6000000", "10000000", "20000000"})
+    public int sampleRate;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private ComplexPolyphaseChannelizerM2 mChannelizer;
+    private ComplexPolyphaseChannelizerM2.IFFTTask mIFFTTask;
+    private ReusableChannelResultsBufferQueue mBufferQueue = new ReusableChannelResultsBufferQueue("Benchmark");
+    private float[] mSamples;
+
+    @Setup
+    public void setup() throws FilterDesignException
+    {
+        mChannelizer = new ComplexPolyphaseChannelizerM2(sampleRate, 9);
+        mChannelizer.setThreadCount(threads);
+
+        //Creates the worker pools.  The IFFT processor thread remains idle since filter() doesn't queue the results.
+        mChannelizer.start();
+
+        mIFFTTask = mChannelizer.new IFFTTask(mChannelizer.getChannelCount());
+
+        //One channelizer block is channel count interleaved sample values (ie channel count / 2 complex samples)
+        mSamples = new float[mChannelizer.getChannelCount() * BLOCKS_PER_BUFFER];
+
+        Random random = new Random(0);
+
+        for(int x = 0; x < mSamples.length; x++)
+        {
+            mSamples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        mChannelizer.stop();
+    }
+
+    /**
+     * Polyphase filter stage only
+     */
+    @Benchmark
+    public int filter()
+    {
+        ReusableChannelResultsBuffer buffer = mBufferQueue.getBuffer();
+        mChannelizer.filter(mSamples, buffer);
+        int blocks = buffer.getChannelResults().size();
+        buffer.decrementUserCount();
+        return blocks;
+    }
+
+    /**
+     * Polyphase filter stage followed by a full inverse FFT of each channel results array
+     */
+    @Benchmark
+    public int filterAndIFFT()
+    {
+        ReusableChannelResultsBuffer buffer = mBufferQueue.getBuffer();
+        mChannelizer.filter(mSamples, buffer);
+        int blocks = buffer.getChannelResults().size();
+        mIFFTTask.setResults(buffer.getChannelResults(), 0, blocks, false);
+        mIFFTTask.run();
+        buffer.decrementUserCount();
+        return blocks;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import org.jtransforms.fft.FloatFFT_1D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pruned inverse DFT microbenchmarks comparing the full inverse FFT against the pruned inverse DFT for common
+ * channelizer sizes and requested channel counts.  Each operation transforms one channel results array of
+ * deterministic random samples.  The requested channel count where the pruned benchmark time exceeds the full inverse
+ * FFT benchmark time is the measured crossover for the host, for comparison with the heuristic crossover from
+ * PrunedInverseDFT.getCrossoverChannelCount() (3, 4, 5 and 5 channels for the sizes below).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrunedInverseDFTBenchmark
+{
+    @Param({"96", "240", "400", "800"})
+    public int channelCount;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int requestedChannels;
+
+    private FloatFFT_1D mFFT;
+    private PrunedInverseDFT mPrunedInverseDFT;
+    private float[] mSamples;
+    private float[] mTransformed;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+
+        mSamples = new float[channelCount * 2];
+        mTransformed = new float[channelCount * 2];
+
+        for(int x = 0; x < mSamples.length; x++)
+        {
+            mSamples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+
+        mFFT = new FloatFFT_1D(channelCount);
+        mPrunedInverseDFT = new PrunedInverseDFT(channelCount);
+
+        while(mPrunedInverseDFT.applyRequestedChannels() < requestedChannels)
+        {
+            mPrunedInverseDFT.requestChannel(random.nextInt(channelCount));
+        }
+    }
+
+    /**
+     * Full inverse FFT of all channels
+     */
+    @Benchmark
+    public float[] fullInverseFFT()
+    {
+        System.arraycopy(mSamples, 0, mTransformed, 0, mSamples.length);
+        mFFT.complexInverse(mTransformed, true);
+        return mTransformed;
+    }
+
+    /**
+     * Pruned inverse DFT of the requested channels only
+     */
+    @Benchmark
+    public float[] prunedInverse()
+    {
+        System.arraycopy(mSamples, 0, mTransformed, 0, mSamples.length);
+        mPrunedInverseDFT.inverse(mTransformed);
+        return mTransformed;
+    }
+}
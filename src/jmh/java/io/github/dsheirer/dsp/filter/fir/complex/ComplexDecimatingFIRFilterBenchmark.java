@@ -0,0 +1,159 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.filter.fir.complex;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.dsp.filter.fir.DecimationStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decimating complex FIR filter microbenchmarks for the analog demodulator channel specifications.  Each operation
+ * filters a buffer of 2048 deterministic random interleaved complex samples.
+ *
+ * The filterAndDiscard benchmark filters at the full input rate with ComplexFIRFilter2, as the previous approach did,
+ * before discarding the unused outputs.  The decimating benchmark uses a single stage decimating filter with the same
+ * taps.  The decimationStages benchmark uses the multi-stage decimation plan designed by FilterFactory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComplexDecimatingFIRFilterBenchmark
+{
+    private static final int SAMPLE_COUNT = 2048;
+
+    /**
+     * Channel sample rate, decimation and pass and stop band frequencies
+     */
+    public enum Specification
+    {
+        RATE_50000_DECIMATION_2(50000, 2, 12000, 13000),
+        RATE_50000_DECIMATION_6(50000, 6, 3000, 4000),
+        RATE_50000_DECIMATION_7(50000, 7, 3000, 4000),
+        RATE_100000_DECIMATION_12(100000, 12, 3000, 4000);
+
+        private int mSampleRate;
+        private int mDecimation;
+        private int mPassFrequency;
+        private int mStopFrequency;
+
+        Specification(int sampleRate, int decimation, int passFrequency, int stopFrequency)
+        {
+            mSampleRate = sampleRate;
+            mDecimation = decimation;
+            mPassFrequency = passFrequency;
+            mStopFrequency = stopFrequency;
+        }
+    }
+
+    @Param({"RATE_50000_DECIMATION_2", "RATE_50000_DECIMATION_6", "RATE_50000_DECIMATION_7",
+        "RATE_100000_DECIMATION_12"})
+    public Specification specification;
+
+    private ComplexFIRFilter2 mFullRateFilter;
+    private ComplexDecimatingFIRFilter mFilter;
+    private ComplexDecimatingFIRFilter[] mStages;
+    private float[] mSamples = new float[SAMPLE_COUNT * 2];
+    private float[] mFiltered = new float[SAMPLE_COUNT * 2];
+
+    @Setup
+    public void setup() throws FilterDesignException
+    {
+        int sampleRate = specification.mSampleRate;
+        int pass = specification.mPassFrequency;
+        int stop = specification.mStopFrequency;
+
+        int length = FilterFactory.getKaiserTapCount(sampleRate, pass, stop, 60.0);
+        float[] taps = FilterFactory.getKaiserSinc(length, (pass + stop) / 2.0 / sampleRate, 60.0);
+        List<DecimationStage> stages = FilterFactory.getDecimationStages(sampleRate, specification.mDecimation,
+            pass, stop, 60.0);
+
+        mFullRateFilter = new ComplexFIRFilter2(taps);
+        mFilter = new ComplexDecimatingFIRFilter(taps, specification.mDecimation);
+        mStages = new ComplexDecimatingFIRFilter[stages.size()];
+
+        for(int x = 0; x < mStages.length; x++)
+        {
+            mStages[x] = new ComplexDecimatingFIRFilter(stages.get(x));
+        }
+
+        Random random = new Random(0);
+
+        for(int x = 0; x < mSamples.length; x++)
+        {
+            mSamples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+    }
+
+    /**
+     * Full rate filtering of the sample buffer, before discarding the unused outputs
+     */
+    @Benchmark
+    public float[] filterAndDiscard()
+    {
+        mFullRateFilter.filter(mSamples, mFiltered);
+        return mFiltered;
+    }
+
+    /**
+     * Single stage decimating filter
+     */
+    @Benchmark
+    public int decimating()
+    {
+        return mFilter.filter(mSamples, mFiltered);
+    }
+
+    /**
+     * Multi-stage decimation plan, filtered in place
+     */
+    @Benchmark
+    public int decimationStages()
+    {
+        System.arraycopy(mSamples, 0, mFiltered, 0, mSamples.length);
+        int count = SAMPLE_COUNT;
+
+        for(ComplexDecimatingFIRFilter stage: mStages)
+        {
+            count = stage.filter(mFiltered, 2 * count, mFiltered);
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.filter.fir.complex;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
+import io.github.dsheirer.dsp.filter.fir.FIRKernel;
+import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complex FIR filter microbenchmarks.  Each operation filters a buffer of 2048 deterministic random interleaved
+ * complex samples using the P25 and DMR decoder baseband filter specification designed by FilterFactory at the
+ * specified channel sample rate.
+ *
+ * The filterBuffer benchmark uses the interleaved complex filter.  The filterRealPair benchmark uses a pair of direct
+ * form real filters, one each for I and Q, as the previous implementation did, for comparison.  The selected kernel
+ * benchmark uses a pair of real filters with the automatically selected (symmetric) kernel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComplexFIRFilter2Benchmark
+{
+    private static final int SAMPLE_COUNT = 2048;
+
+    @Param({"25000", "50000", "100000"})
+    public int sampleRate;
+
+    private ComplexFIRFilter2 mFilter;
+    private RealFIRFilter2 mInphaseFilter;
+    private RealFIRFilter2 mQuadratureFilter;
+    private RealFIRFilter2 mSelectedInphaseFilter;
+    private RealFIRFilter2 mSelectedQuadratureFilter;
+    private float[] mSamples = new float[SAMPLE_COUNT * 2];
+    private float[] mFiltered = new float[SAMPLE_COUNT * 2];
+
+    @Setup
+    public void setup() throws FilterDesignException
+    {
+        FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
+            .sampleRate(sampleRate)
+            .passBandCutoff(5100)
+            .passBandAmplitude(1.0)
+            .passBandRipple(0.01)
+            .stopBandAmplitude(0.0)
+            .stopBandStart(6500)
+            .stopBandRipple(0.01)
+            .build();
+
+        float[] taps = FilterFactory.getTaps(specification);
+
+        mFilter = new ComplexFIRFilter2(taps);
+        mInphaseFilter = new RealFIRFilter2(taps, 1.0f, FIRKernel.GENERAL);
+        mQuadratureFilter = new RealFIRFilter2(taps, 1.0f, FIRKernel.GENERAL);
+        mSelectedInphaseFilter = new RealFIRFilter2(taps);
+        mSelectedQuadratureFilter = new RealFIRFilter2(taps);
+
+        Random random = new Random(0);
+
+        for(int x = 0; x < mSamples.length; x++)
+        {
+            mSamples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+    }
+
+    /**
+     * Block filtering of the interleaved sample buffer with the interleaved complex filter
+     */
+    @Benchmark
+    public float[] filterBuffer()
+    {
+        mFilter.filter(mSamples, mFiltered);
+        return mFiltered;
+    }
+
+    /**
+     * Filtering of the interleaved sample buffer with a pair of direct form real filters
+     */
+    @Benchmark
+    public float[] filterRealPair()
+    {
+        return filter(mInphaseFilter, mQuadratureFilter);
+    }
+
+    /**
+     * Filtering of the interleaved sample buffer with a pair of real filters using the selected kernel
+     */
+    @Benchmark
+    public float[] filterRealPairSelectedKernel()
+    {
+        return filter(mSelectedInphaseFilter, mSelectedQuadratureFilter);
+    }
+
+    private float[] filter(RealFIRFilter2 inphaseFilter, RealFIRFilter2 quadratureFilter)
+    {
+        for(int x = 0; x < mSamples.length; x += 2)
+        {
+            mFiltered[x] = inphaseFilter.filter(mSamples[x]);
+            mFiltered[x + 1] = quadratureFilter.filter(mSamples[x + 1]);
+        }
+
+        return mFiltered;
+    }
+}
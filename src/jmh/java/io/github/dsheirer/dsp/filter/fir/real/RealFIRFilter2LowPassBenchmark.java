@@ -0,0 +1,115 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.filter.fir.real;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.Window;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.dsp.filter.fir.FIRKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Real FIR filter microbenchmarks comparing the direct form (GENERAL) and folded symmetric (SYMMETRIC) kernels for
+ * each tap count.  Each operation filters a buffer of 2048 deterministic random samples using a linear-phase low-pass
+ * (0.1 x sample rate cutoff) windowed sinc filter designed by FilterFactory with the specified tap count.  Unlike the
+ * half-band filters in RealFIRFilter2Benchmark, these filters don't have zero-valued taps, so they measure the gain
+ * from folding alone, as for the decoder baseband filters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RealFIRFilter2LowPassBenchmark
+{
+    private static final int BUFFER_SIZE = 2048;
+
+    @Param({"GENERAL", "SYMMETRIC"})
+    public FIRKernel kernel;
+
+    @Param({"37", "79", "159", "255", "391"})
+    public int taps;
+
+    private RealFIRFilter2 mFilter;
+    private float[] mSamples = new float[BUFFER_SIZE];
+    private float[] mFiltered = new float[BUFFER_SIZE];
+
+    @Setup
+    public void setup() throws FilterDesignException
+    {
+        float[] coefficients = FilterFactory.getSinc(0.1, taps, Window.WindowType.BLACKMAN);
+
+        if(FIRKernel.getKernel(coefficients) != FIRKernel.SYMMETRIC)
+        {
+            throw new IllegalStateException("Filter with [" + taps + "] taps is not a symmetric filter");
+        }
+
+        mFilter = new RealFIRFilter2(coefficients, 1.0f, kernel);
+
+        Random random = new Random(0);
+
+        for(int x = 0; x < mSamples.length; x++)
+        {
+            mSamples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+    }
+
+    /**
+     * Block filtering of the sample buffer
+     */
+    @Benchmark
+    public float[] filterBuffer()
+    {
+        mFilter.filter(mSamples, mFiltered);
+        return mFiltered;
+    }
+
+    /**
+     * Sample at a time filtering of the sample buffer
+     */
+    @Benchmark
+    public float filterSamples()
+    {
+        float accumulator = 0.0f;
+
+        for(float sample: mSamples)
+        {
+            accumulator += mFilter.filter(sample);
+        }
+
+        return accumulator;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.fm;
+
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FM demodulator microbenchmarks.  Each operation demodulates a buffer of 2048 complex samples of a deterministic
+ * 1 kHz tone with 2.5 kHz deviation at a 25 kHz sample rate with added noise.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FMDemodulatorBenchmark
+{
+    private static final int SAMPLE_COUNT = 2048;
+    private static final double SAMPLE_RATE = 25000.0;
+    private static final double TONE = 1000.0;
+    private static final double DEVIATION = 2500.0;
+
+    private FMDemodulator mDemodulator = new FMDemodulator();
+    private ReusableComplexBufferQueue mBufferQueue = new ReusableComplexBufferQueue("Benchmark");
+    private float[] mSamples = new float[SAMPLE_COUNT * 2];
+    private float[] mDemodulated = new float[SAMPLE_COUNT];
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+        double phase = 0.0;
+
+        for(int x = 0; x < SAMPLE_COUNT; x++)
+        {
+            phase += 2.0 * Math.PI * DEVIATION * Math.sin(2.0 * Math.PI * TONE * x / SAMPLE_RATE) / SAMPLE_RATE;
+            mSamples[2 * x] = (float)(Math.cos(phase) + random.nextGaussian() * 0.05);
+            mSamples[2 * x + 1] = (float)(Math.sin(phase) + random.nextGaussian() * 0.05);
+        }
+    }
+
+    /**
+     * Sample at a time demodulation into a float array
+     */
+    @Benchmark
+    public float[] demodulateSamples()
+    {
+        for(int x = 0; x < SAMPLE_COUNT; x++)
+        {
+            mDemodulated[x] = mDemodulator.demodulate(mSamples[2 * x], mSamples[2 * x + 1]);
+        }
+
+        return mDemodulated;
+    }
+
+    /**
+     * Reusable buffer demodulation, including the copy into a pooled complex buffer and the pooled demodulated
+     * buffer overhead
+     */
+    @Benchmark
+    public int demodulateBuffer()
+    {
+        ReusableComplexBuffer buffer = mBufferQueue.getBuffer(mSamples.length);
+        System.arraycopy(mSamples, 0, buffer.getSamples(), 0, mSamples.length);
+        ReusableFloatBuffer demodulated = mDemodulator.demodulate(buffer);
+        int length = demodulated.getSamples().length;
+        demodulated.decrementUserCount();
+        return length;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.psk;
+
+import io.github.dsheirer.dsp.psk.pll.CostasLoop;
+import io.github.dsheirer.dsp.symbol.Dibit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DQPSK decision-directed demodulator microbenchmark using the P25 phase 1 C4FM configuration.  Each operation
+ * demodulates 2048 complex samples of a deterministic random pi/4 DQPSK symbol sequence at 4800 symbols per second
+ * and a 50 kHz sample rate, where the phase transitions linearly across each symbol period.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DQPSKDecisionDirectedDemodulatorBenchmark
+{
+    private static final int SAMPLE_COUNT = 2048;
+    private static final double SAMPLE_RATE = 50000.0;
+    private static final double SYMBOL_RATE = 4800.0;
+    private static final float SAMPLE_COUNTER_GAIN = 0.3f;
+    private static final double[] PHASE_CHANGES = {Math.PI / 4.0, 3.0 * Math.PI / 4.0, -Math.PI / 4.0,
+        -3.0 * Math.PI / 4.0};
+
+    private DQPSKDecisionDirectedDemodulator mDemodulator;
+    private float[] mSamples = new float[SAMPLE_COUNT * 2];
+    private int mSymbolCount;
+
+    @Setup
+    public void setup()
+    {
+        float samplesPerSymbol = (float)(SAMPLE_RATE / SYMBOL_RATE);
+        mDemodulator = new DQPSKDecisionDirectedDemodulator(new CostasLoop(SAMPLE_RATE, SYMBOL_RATE),
+            new InterpolatingSampleBuffer(samplesPerSymbol, SAMPLE_COUNTER_GAIN));
+        mDemodulator.setSymbolListener(this::receive);
+
+        Random random = new Random(0);
+        double symbolPhase = 0.0;
+        double phaseChange = PHASE_CHANGES[random.nextInt(4)];
+        double symbolPosition = 0.0;
+
+        for(int x = 0; x < SAMPLE_COUNT; x++)
+        {
+            double phase = symbolPhase + phaseChange * symbolPosition;
+            mSamples[2 * x] = (float)Math.cos(phase);
+            mSamples[2 * x + 1] = (float)Math.sin(phase);
+
+            symbolPosition += 1.0 / samplesPerSymbol;
+
+            if(symbolPosition >= 1.0)
+            {
+                symbolPosition -= 1.0;
+                symbolPhase += phaseChange;
+                phaseChange = PHASE_CHANGES[random.nextInt(4)];
+            }
+        }
+    }
+
+    private void receive(Dibit dibit)
+    {
+        mSymbolCount++;
+    }
+
+    @Benchmark
+    public int demodulate()
+    {
+        for(int x = 0; x < mSamples.length; x += 2)
+        {
+            mDemodulator.receive(mSamples[x], mSamples[x + 1]);
+        }
+
+        return mSymbolCount;
+    }
+}
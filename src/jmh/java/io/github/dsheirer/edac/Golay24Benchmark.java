@@ -0,0 +1,237 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.edac;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Golay 24/12/8 error detection and correction microbenchmark.  Each operation restores and corrects one of 64
+ * deterministic random codewords containing the specified number of bit errors.
+ *
+ * The checkAndCorrect benchmark uses the table driven message decoder, the correct benchmark uses the table driven
+ * integer decoder and the checkAndCorrectReference benchmark uses the previous bit-flipping and rotating decoder, for
+ * comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Golay24Benchmark
+{
+    private static final int CODEWORD_COUNT = 64;
+
+    @Param({"0", "1", "2", "3"})
+    public int errors;
+
+    private CorrectedBinaryMessage[] mCodewords = new CorrectedBinaryMessage[CODEWORD_COUNT];
+    private int[] mValues = new int[CODEWORD_COUNT];
+    private CorrectedBinaryMessage mMessage = new CorrectedBinaryMessage(24);
+    private int mIndex;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+
+        for(int x = 0; x < CODEWORD_COUNT; x++)
+        {
+            CorrectedBinaryMessage codeword = new CorrectedBinaryMessage(24);
+            int checksum = 0;
+
+            for(int bit = 0; bit < 12; bit++)
+            {
+                if(random.nextBoolean())
+                {
+                    codeword.set(bit);
+                    checksum ^= Golay24.CHECKSUMS[bit];
+                }
+            }
+
+            codeword.load(12, 11, checksum);
+
+            //Overall parity bit
+            if(codeword.cardinality() % 2 != 0)
+            {
+                codeword.set(23);
+            }
+
+            int errorMask = 0;
+
+            while(Integer.bitCount(errorMask) < errors)
+            {
+                errorMask |= 1 << random.nextInt(24);
+            }
+
+            for(int bit = 0; bit < 24; bit++)
+            {
+                if((errorMask & (1 << bit)) != 0)
+                {
+                    codeword.flip(bit);
+                }
+            }
+
+            mCodewords[x] = codeword;
+            mValues[x] = codeword.getInt(0, 23);
+        }
+    }
+
+    @Benchmark
+    public int checkAndCorrect()
+    {
+        CorrectedBinaryMessage codeword = mCodewords[mIndex++ & (CODEWORD_COUNT - 1)];
+        mMessage.clear();
+        mMessage.or(codeword);
+        mMessage.setCorrectedBitCount(0);
+        return Golay24.checkAndCorrect(mMessage, 0);
+    }
+
+    @Benchmark
+    public int correct()
+    {
+        return Golay24.correct(mValues[mIndex++ & (CODEWORD_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public int checkAndCorrectReference()
+    {
+        CorrectedBinaryMessage codeword = mCodewords[mIndex++ & (CODEWORD_COUNT - 1)];
+        mMessage.clear();
+        mMessage.or(codeword);
+        mMessage.setCorrectedBitCount(0);
+        return ReferenceGolay24.checkAndCorrect(mMessage, 0);
+    }
+
+    /**
+     * Previous Golay24 decoder that corrects errors by flipping bits and rotating the message until the syndrome
+     * weight is 3 or less.
+     */
+    private static class ReferenceGolay24
+    {
+        private static int checkAndCorrect(CorrectedBinaryMessage message, int startIndex)
+        {
+            boolean parityError = message.cardinality() % 2 != 0;
+
+            int syndrome = getSyndrome(message, startIndex);
+
+            if(syndrome == 0)
+            {
+                if(parityError)
+                {
+                    message.flip(startIndex + 23);
+                    message.incrementCorrectedBitCount(1);
+                    return 1;
+                }
+
+                return 0;
+            }
+
+            int original = message.getInt(0, 22);
+
+            int index = -1;
+            int syndromeWeight = 3;
+            int errors = 0;
+
+            while(index < 23)
+            {
+                if(index != -1)
+                {
+                    if(index > 0)
+                    {
+                        message.flip(index - 1);
+                    }
+
+                    message.flip(index);
+
+                    syndromeWeight = 2;
+                }
+
+                syndrome = getSyndrome(message, startIndex);
+
+                if(syndrome > 0)
+                {
+                    for(int i = 0; i < 23; i++)
+                    {
+                        errors = Integer.bitCount(syndrome);
+
+                        if(errors <= syndromeWeight)
+                        {
+                            message.xor(12, 11, syndrome);
+
+                            message.rotateRight(i, startIndex, startIndex + 22);
+
+                            int corrected = message.getInt(0, 22);
+
+                            if(Integer.bitCount(original ^ corrected) > 3)
+                            {
+                                return 2;
+                            }
+
+                            return 1;
+                        }
+                        else
+                        {
+                            message.rotateLeft(startIndex, startIndex + 22);
+                            syndrome = getSyndrome(message, startIndex);
+                        }
+                    }
+
+                    index++;
+                }
+            }
+
+            return 2;
+        }
+
+        private static int getSyndrome(BinaryMessage message, int startIndex)
+        {
+            int calculated = 0;
+
+            for(int i = message.nextSetBit(startIndex);
+                i >= startIndex && i < startIndex + 12;
+                i = message.nextSetBit(i + 1))
+            {
+                calculated ^= Golay24.CHECKSUMS[i - startIndex];
+            }
+
+            int checksum = message.getInt(startIndex + 12, startIndex + 22);
+
+            return (checksum ^ calculated);
+        }
+    }
+}
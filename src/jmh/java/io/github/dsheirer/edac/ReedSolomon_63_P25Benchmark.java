@@ -0,0 +1,104 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.edac;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * APCO-25 RS(63,47,17) Reed-Solomon decoder microbenchmark, as used for the header data unit.  The code is linear,
+ * so the all-zero codeword is used with the specified number of symbol errors placed in the 36 transmitted symbol
+ * positions.  Each operation decodes one of 64 deterministic random error patterns.
+ *
+ * Zero errors measures clean frames (zero syndrome fast path), 4 and 8 errors measure correctable noisy frames and
+ * 12 errors measures irrecoverable frames.  The decode benchmark uses the decoder's per-thread workspace and the
+ * decodeWorkspace benchmark uses a caller supplied workspace.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReedSolomon_63_P25Benchmark
+{
+    private static final int CODEWORD_COUNT = 64;
+    private static final int TRANSMITTED_SYMBOLS = 36;
+
+    @Param({"0", "4", "8", "12"})
+    public int errors;
+
+    private ReedSolomon_63_47_17_P25 mDecoder = new ReedSolomon_63_47_17_P25();
+    private int[][] mCodewords = new int[CODEWORD_COUNT][];
+    private int[] mOutput = new int[63];
+    private BerlekempMassey.Workspace mWorkspace = mDecoder.createWorkspace();
+    private int mIndex;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+
+        for(int x = 0; x < CODEWORD_COUNT; x++)
+        {
+            int[] codeword = new int[63];
+            int placed = 0;
+
+            while(placed < errors)
+            {
+                int position = random.nextInt(TRANSMITTED_SYMBOLS);
+
+                if(codeword[position] == 0)
+                {
+                    codeword[position] = 1 + random.nextInt(63);
+                    placed++;
+                }
+            }
+
+            mCodewords[x] = codeword;
+        }
+    }
+
+    @Benchmark
+    public boolean decode()
+    {
+        return mDecoder.decode(mCodewords[mIndex++ & (CODEWORD_COUNT - 1)], mOutput);
+    }
+
+    @Benchmark
+    public boolean decodeWorkspace()
+    {
+        return mDecoder.decode(mCodewords[mIndex++ & (CODEWORD_COUNT - 1)], mOutput, mWorkspace);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.edac.trellis;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DMR 3/4 rate trellis decoder microbenchmark.  Each operation decodes one of 64 deterministic random 144-bit
+ * messages that are trellis encoded (196 bits, deinterleaved) with the specified number of bit errors.
+ *
+ * The decode benchmark uses the array-based trellis and the decodeReference benchmark uses the node/path based
+ * reference implementation, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ViterbiDecoder_3_4_DMRBenchmark
+{
+    private static final int CODEWORD_COUNT = 64;
+    private static final int TRIBIT_COUNT = 48;
+
+    @Param({"0", "4", "8"})
+    public int errors;
+
+    private ViterbiDecoder_3_4_DMR mDecoder = new ViterbiDecoder_3_4_DMR();
+    private int[][] mSymbols = new int[CODEWORD_COUNT][];
+    private int mIndex;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+
+        for(int x = 0; x < CODEWORD_COUNT; x++)
+        {
+            int[] tribits = new int[TRIBIT_COUNT];
+
+            for(int y = 0; y < TRIBIT_COUNT; y++)
+            {
+                tribits[y] = random.nextInt(8);
+            }
+
+            BinaryMessage codeword = encode(tribits);
+
+            BitSet errorPositions = new BitSet();
+
+            while(errorPositions.cardinality() < errors)
+            {
+                errorPositions.set(random.nextInt(codeword.size()));
+            }
+
+            codeword.xor(errorPositions);
+
+            mSymbols[x] = mDecoder.getSymbols(codeword);
+        }
+    }
+
+    /**
+     * Trellis encodes the input tribits followed by a flushing zero tribit, producing one 4-bit constellation symbol
+     * per tribit from the encoder state (previous tribit) and the input tribit.
+     */
+    private static BinaryMessage encode(int[] tribits)
+    {
+        BinaryMessage encoded = new BinaryMessage((tribits.length + 1) * 4);
+        int state = 0;
+
+        for(int x = 0; x <= tribits.length; x++)
+        {
+            int input = x < tribits.length ? tribits[x] : 0;
+            encoded.load(x * 4, 4, DMR_3_4_Node.DMR_TRANSITION_MATRIX[state][input]);
+            state = input;
+        }
+
+        return encoded;
+    }
+
+    @Benchmark
+    public CorrectedBinaryMessage decode()
+    {
+        return mDecoder.decodeMessage(mSymbols[mIndex++ & (CODEWORD_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public Path decodeReference()
+    {
+        return mDecoder.decode(mSymbols[mIndex++ & (CODEWORD_COUNT - 1)]);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.airspy;
+
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Airspy sample conversion microbenchmarks comparing the hilbert transform and the fused FS/4 half-band conversion
+ * modes for unpacked and packed samples.  Each operation converts a 256 kB native buffer of deterministic random
+ * bytes into a pooled complex sample buffer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AirspySampleConverterBenchmark
+{
+    private static final int BUFFER_SIZE = 262144;
+
+    @Param({"HILBERT", "FS4_HALF_BAND"})
+    public AirspyConversionMode mode;
+
+    @Param({"false", "true"})
+    public boolean packed;
+
+    private ByteBuffer mNativeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private AirspySampleConverter mConverter;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+
+        for(int x = 0; x < BUFFER_SIZE; x++)
+        {
+            mNativeBuffer.put((byte)random.nextInt());
+        }
+
+        mConverter = new AirspySampleConverter();
+        mConverter.setConversionMode(mode);
+        mConverter.setSamplePacking(packed);
+    }
+
+    @Benchmark
+    public float convert()
+    {
+        ReusableComplexBuffer buffer = mConverter.convert(mNativeBuffer, BUFFER_SIZE);
+        float sample = buffer.getSamples()[0];
+        buffer.decrementUserCount();
+        return sample;
+    }
+}
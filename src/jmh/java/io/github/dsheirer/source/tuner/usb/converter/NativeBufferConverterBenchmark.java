@@ -0,0 +1,206 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.usb.converter;
+
+import io.github.dsheirer.dsp.filter.dc.DCRemovalFilter;
+import io.github.dsheirer.dsp.filter.hilbert.HilbertTransform;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+import io.github.dsheirer.source.tuner.airspy.AirspySampleConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Native USB transfer buffer conversion microbenchmarks for each tuner sample format.  Each operation converts a
+ * 256 kB native buffer of deterministic random bytes into a pooled complex sample buffer.  The legacy benchmark
+ * measures the previous conversion path, which converted one get()/put() at a time into an intermediate heap float
+ * buffer and then copied the float buffer into the pooled buffer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NativeBufferConverterBenchmark
+{
+    private static final int BUFFER_SIZE = 262144;
+
+    @Param({"RTL_SDR", "HACKRF", "AIRSPY", "AIRSPY_PACKED"})
+    public String format;
+
+    private ByteBuffer mNativeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private NativeBufferConverter mConverter;
+    private LegacyConverter mLegacyConverter;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+
+        for(int x = 0; x < BUFFER_SIZE; x++)
+        {
+            mNativeBuffer.put((byte)random.nextInt());
+        }
+
+        switch(format)
+        {
+            case "RTL_SDR":
+                mConverter = new ByteSampleConverter();
+                break;
+            case "HACKRF":
+                mConverter = new SignedByteSampleConverter();
+                break;
+            default:
+                AirspySampleConverter airspy = new AirspySampleConverter();
+                airspy.setSamplePacking(format.equals("AIRSPY_PACKED"));
+                mConverter = airspy;
+                break;
+        }
+
+        mLegacyConverter = new LegacyConverter(format);
+    }
+
+    @Benchmark
+    public float convert()
+    {
+        ReusableComplexBuffer buffer = mConverter.convert(mNativeBuffer, BUFFER_SIZE);
+        float sample = buffer.getSamples()[0];
+        buffer.decrementUserCount();
+        return sample;
+    }
+
+    @Benchmark
+    public float convertLegacy()
+    {
+        ReusableComplexBuffer buffer = mLegacyConverter.convert(mNativeBuffer);
+        float sample = buffer.getSamples()[0];
+        buffer.decrementUserCount();
+        return sample;
+    }
+
+    /**
+     * Previous conversion path for each sample format.
+     */
+    private static class LegacyConverter
+    {
+        private ReusableComplexBufferQueue mQueue = new ReusableComplexBufferQueue("LegacyConverter");
+        private DCRemovalFilter mDCFilter = new DCRemovalFilter(0.01f);
+        private HilbertTransform mHilbertTransform = new HilbertTransform();
+        private FloatBuffer mFloatBuffer;
+        private float[] mConvertedSamples;
+        private String mFormat;
+
+        public LegacyConverter(String format)
+        {
+            mFormat = format;
+        }
+
+        public ReusableComplexBuffer convert(ByteBuffer nativeBuffer)
+        {
+            nativeBuffer.rewind();
+
+            if(mFormat.equals("RTL_SDR") || mFormat.equals("HACKRF"))
+            {
+                boolean unsigned = mFormat.equals("RTL_SDR");
+
+                if(mFloatBuffer == null)
+                {
+                    mFloatBuffer = FloatBuffer.allocate(nativeBuffer.capacity());
+                }
+
+                mFloatBuffer.rewind();
+
+                while(nativeBuffer.hasRemaining())
+                {
+                    int sample = nativeBuffer.get() & 0xFF;
+                    mFloatBuffer.put(unsigned ? (float)(sample - 127) / 128.0f : (float)((byte)sample) / 128.0f);
+                }
+            }
+            else
+            {
+                int pointer = 0;
+
+                if(mFormat.equals("AIRSPY"))
+                {
+                    if(mConvertedSamples == null)
+                    {
+                        mConvertedSamples = new float[nativeBuffer.capacity() / 2];
+                    }
+
+                    while(nativeBuffer.remaining() >= 2)
+                    {
+                        byte lsb = nativeBuffer.get();
+                        byte msb = nativeBuffer.get();
+                        mConvertedSamples[pointer++] = AirspySampleConverter.scale((lsb & 0xFF) | (msb << 8));
+                    }
+                }
+                else
+                {
+                    if(mConvertedSamples == null)
+                    {
+                        mConvertedSamples = new float[nativeBuffer.capacity() / 3 * 2];
+                    }
+
+                    while(nativeBuffer.remaining() >= 3)
+                    {
+                        byte b1 = nativeBuffer.get();
+                        byte b2 = nativeBuffer.get();
+                        byte b3 = nativeBuffer.get();
+                        mConvertedSamples[pointer++] =
+                            AirspySampleConverter.scale(((b1 << 4) & 0xFF0) | ((b2 >> 4) & 0xF));
+                        mConvertedSamples[pointer++] = AirspySampleConverter.scale(((b2 << 8) & 0xF00) | (b3 & 0xFF));
+                    }
+                }
+
+                mDCFilter.filter(mConvertedSamples);
+                float[] samples = mHilbertTransform.filter(mConvertedSamples);
+
+                if(mFloatBuffer == null)
+                {
+                    mFloatBuffer = FloatBuffer.allocate(samples.length);
+                }
+
+                mFloatBuffer.rewind();
+                mFloatBuffer.put(samples);
+            }
+
+            ReusableComplexBuffer buffer = mQueue.getBuffer(mFloatBuffer.capacity());
+            buffer.reloadFrom(mFloatBuffer, System.currentTimeMillis());
+            return buffer;
+        }
+    }
+}
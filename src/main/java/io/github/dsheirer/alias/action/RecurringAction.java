@@ -57,10 +57,10 @@ public abstract class RecurringAction extends AliasAction
                     break;
                 case DELAYED_RESET:
                     performThreadedAction(alias, message);
-                    ThreadPool.SCHEDULED.schedule(new ResetTask(), mPeriod, TimeUnit.SECONDS);
+                    ThreadPool.HOUSEKEEPING.schedule(new ResetTask(), mPeriod, TimeUnit.SECONDS);
                     break;
                 case UNTIL_DISMISSED:
-                    mPerpetualAction = ThreadPool.SCHEDULED.scheduleAtFixedRate(
+                    mPerpetualAction = ThreadPool.HOUSEKEEPING.scheduleAtFixedRate(
                         new PerformActionTask(alias, message), 0, mPeriod, TimeUnit.SECONDS);
 
                     StringBuilder sb = new StringBuilder();
@@ -78,7 +78,7 @@ public abstract class RecurringAction extends AliasAction
 
                         dismiss(false);
 
-                        ThreadPool.SCHEDULED.schedule(new ResetTask(), 15, TimeUnit.SECONDS);
+                        ThreadPool.HOUSEKEEPING.schedule(new ResetTask(), 15, TimeUnit.SECONDS);
                     });
                     break;
                 default:
@@ -92,7 +92,7 @@ public abstract class RecurringAction extends AliasAction
      */
     private void performThreadedAction(final Alias alias, final IMessage message)
     {
-        ThreadPool.SCHEDULED.schedule(() -> performAction(alias, message), 0, TimeUnit.SECONDS);
+        ThreadPool.HOUSEKEEPING.schedule(() -> performAction(alias, message), 0, TimeUnit.SECONDS);
     }
 
     @Override
@@ -83,7 +83,7 @@ public class AudioStreamingManager implements Listener<AudioSegment>
     {
         if(mAudioSegmentProcessorFuture == null)
         {
-            mAudioSegmentProcessorFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(new AudioSegmentProcessor(),
+            mAudioSegmentProcessorFuture = ThreadPool.AUDIO_IO.scheduleAtFixedRate(new AudioSegmentProcessor(),
                 0, 250, TimeUnit.MILLISECONDS);
         }
     }
@@ -90,7 +90,7 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Audio
         mIconModel = iconModel;
 
         //Monitor to remove temporary recording files that have been streamed by all audio broadcasters
-        ThreadPool.SCHEDULED.scheduleAtFixedRate(new RecordingDeletionMonitor(), 15l, 15l, TimeUnit.SECONDS);
+        ThreadPool.AUDIO_IO.scheduleAtFixedRate(new RecordingDeletionMonitor(), 15l, 15l, TimeUnit.SECONDS);
 
         removeOrphanedTemporaryRecordings();
     }
@@ -495,7 +495,7 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Audio
                     if(broadcastConfiguration.isEnabled())
                     {
                         //Delay restarting the broadcaster to allow remote server time to cleanup
-                        ThreadPool.SCHEDULED.schedule(new DelayedBroadcasterStartup(broadcastConfiguration),
+                        ThreadPool.AUDIO_IO.schedule(new DelayedBroadcasterStartup(broadcastConfiguration),
                             1, TimeUnit.SECONDS);
                     }
 
@@ -698,7 +698,7 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Audio
      */
     private void removeOrphanedTemporaryRecordings()
     {
-        ThreadPool.SCHEDULED.submit(new Runnable()
+        ThreadPool.AUDIO_IO.submit(new Runnable()
         {
             @Override
             public void run()
@@ -108,7 +108,7 @@ public class BroadcastifyCallBroadcaster extends AbstractAudioBroadcaster<Broadc
 
         if(mAudioRecordingProcessorFuture == null)
         {
-            mAudioRecordingProcessorFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(new AudioRecordingProcessor(),
+            mAudioRecordingProcessorFuture = ThreadPool.AUDIO_IO.scheduleAtFixedRate(new AudioRecordingProcessor(),
                 0, 500, TimeUnit.MILLISECONDS);
         }
     }
@@ -179,7 +179,7 @@ public class ShoutcastV1AudioBroadcaster extends AudioStreamingBroadcaster
                 }
             };
 
-            ThreadPool.SCHEDULED.schedule(runnable, 0l, TimeUnit.SECONDS);
+            ThreadPool.AUDIO_IO.schedule(runnable, 0l, TimeUnit.SECONDS);
         }
 
         return connected();
@@ -138,7 +138,7 @@ public class ShoutcastV1BroadcastMetadataUpdater implements IBroadcastMetadataUp
 
                 if(updateRequest != null)
                 {
-                    ThreadPool.SCHEDULED.schedule(new Runnable()
+                    ThreadPool.AUDIO_IO.schedule(new Runnable()
                     {
                         @Override
                         public void run()
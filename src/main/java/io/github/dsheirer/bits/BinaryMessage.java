@@ -25,15 +25,32 @@ import io.github.dsheirer.edac.CRC;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.math3.util.FastMath;
 
+import java.util.Arrays;
 import java.util.BitSet;
 
-public class BinaryMessage extends BitSet
+/**
+ * Binary message bit container.
+ *
+ * Bits are packed into an array of long words with bit 0 of the message in the most significant bit of the first
+ * word, so that multi-bit field values can be extracted from (and loaded into) a contiguous range of bits with
+ * shift and mask operations instead of one bit at a time.  The container provides the java.util.BitSet style bit
+ * access methods (get, set, clear, flip, nextSetBit, cardinality, and, or, xor, etc.) and, like BitSet, grows as
+ * needed when bits are set beyond the current capacity.
+ */
+public class BinaryMessage
 {
-    private static final long serialVersionUID = 1L;
+    private static final int BITS_PER_WORD = 64;
+    private static final long WORD_MASK = 0xFFFFFFFFFFFFFFFFL;
+    private static final long MSB = 0x8000000000000000L;
 
     /**
-     * Logical (ie constructed) size of this bitset, despite the actual size of
-     * the super bitset that this class is based on
+     * Packed bits.  Bit index i is stored in word (i / 64) at bit position (63 - (i % 64)).
+     */
+    private long[] mWords;
+
+    /**
+     * Logical (ie constructed) size of this bitset, despite the actual capacity of the word array that this class is
+     * based on
      */
     private int mSize = 0;
 
@@ -43,15 +60,6 @@ public class BinaryMessage extends BitSet
      */
     private int mPointer = 0;
 
-    /**
-     * Bitset that buffers bits added one at a time, up to the size of the this
-     * bitset. 
-     *
-     * Note: the super class bitset behind this class may have a size larger 
-     * that the size parameter specified.
-     * @param size
-     */
-
     /**
      * Used for temporary storage of CRC check results when we're passing this
      * message to an EDAC function.
@@ -60,7 +68,12 @@ public class BinaryMessage extends BitSet
 
     public BinaryMessage(int size)
     {
-        super(size);
+        if(size < 0)
+        {
+            throw new NegativeArraySizeException("size < 0: " + size);
+        }
+
+        mWords = new long[getWordCount(size)];
         mSize = size;
     }
 
@@ -112,147 +125,843 @@ public class BinaryMessage extends BitSet
         this.mPointer = size - 1;
     }
 
-    public BinaryMessage(byte[] data)
-    {
-        this(BitSet.valueOf(data), data.length * 8);
+    /**
+     * Constructs a message of the specified size, loaded with the bits from the message argument.
+     */
+    public BinaryMessage(BinaryMessage message, int size)
+    {
+        this(size);
+        this.or(message);
+        this.mPointer = size - 1;
+    }
+
+    /**
+     * Constructs a message from the byte array, where each byte is loaded least significant bit first, as in
+     * BitSet.valueOf(byte[]).
+     */
+    public BinaryMessage(byte[] data)
+    {
+        this(data.length * 8);
+
+        for(int x = 0; x < data.length; x++)
+        {
+            for(int bit = 0; bit < 8; bit++)
+            {
+                if((data[x] & (1 << bit)) != 0)
+                {
+                    set(x * 8 + bit);
+                }
+            }
+        }
+
+        this.mPointer = mSize - 1;
+    }
+
+    /**
+     * Number of long words required to hold the number of bits
+     */
+    private static int getWordCount(int bits)
+    {
+        return (bits + BITS_PER_WORD - 1) >> 6;
+    }
+
+    /**
+     * Word mask for the bit index
+     */
+    private static long getBitMask(int bitIndex)
+    {
+        //Note: shift distance uses the lower 6 bits of the bit index
+        return MSB >>> bitIndex;
+    }
+
+    /**
+     * Grows the word array to hold at least the number of words
+     */
+    private void ensureCapacity(int wordsRequired)
+    {
+        if(mWords.length < wordsRequired)
+        {
+            mWords = Arrays.copyOf(mWords, Math.max(2 * mWords.length, wordsRequired));
+        }
+    }
+
+    private static void checkIndex(int bitIndex)
+    {
+        if(bitIndex < 0)
+        {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        }
+    }
+
+    private static void checkRange(int fromIndex, int toIndex)
+    {
+        if(fromIndex < 0)
+        {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+
+        if(toIndex < 0)
+        {
+            throw new IndexOutOfBoundsException("toIndex < 0: " + toIndex);
+        }
+
+        if(fromIndex > toIndex)
+        {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + " > toIndex: " + toIndex);
+        }
+    }
+
+    /**
+     * Extracts a field value from a contiguous range of bits.
+     *
+     * @param bitIndex of the most significant bit of the value
+     * @param width of the value in bits, 1 - 64
+     * @return value, right justified
+     */
+    private long extract(int bitIndex, int width)
+    {
+        int word = bitIndex >> 6;
+        int offset = bitIndex & 63;
+
+        long value = word < mWords.length ? mWords[word] << offset : 0;
+
+        if(offset + width > BITS_PER_WORD && word + 1 < mWords.length)
+        {
+            value |= mWords[word + 1] >>> (BITS_PER_WORD - offset);
+        }
+
+        return value >>> (BITS_PER_WORD - width);
+    }
+
+    /**
+     * Loads a field value into a contiguous range of bits.
+     *
+     * @param bitIndex for the most significant bit of the value
+     * @param width of the value in bits, 1 - 64
+     * @param value, right justified
+     */
+    private void insert(int bitIndex, int width, long value)
+    {
+        ensureCapacity(((bitIndex + width - 1) >> 6) + 1);
+
+        int word = bitIndex >> 6;
+        int offset = bitIndex & 63;
+        long bits = value << (BITS_PER_WORD - width);
+        long mask = WORD_MASK << (BITS_PER_WORD - width);
+
+        mWords[word] = (mWords[word] & ~(mask >>> offset)) | (bits >>> offset);
+
+        if(offset + width > BITS_PER_WORD)
+        {
+            int shift = BITS_PER_WORD - offset;
+            mWords[word + 1] = (mWords[word + 1] & ~(mask << shift)) | (bits << shift);
+        }
+    }
+
+    /**
+     * Performs exclusive or of a field value against a contiguous range of bits.
+     *
+     * @param bitIndex for the most significant bit of the value
+     * @param width of the value in bits, 1 - 64
+     * @param value, right justified
+     */
+    private void exclusiveOr(int bitIndex, int width, long value)
+    {
+        ensureCapacity(((bitIndex + width - 1) >> 6) + 1);
+
+        int word = bitIndex >> 6;
+        int offset = bitIndex & 63;
+        long bits = value << (BITS_PER_WORD - width);
+
+        mWords[word] ^= bits >>> offset;
+
+        if(offset + width > BITS_PER_WORD)
+        {
+            mWords[word + 1] ^= bits << (BITS_PER_WORD - offset);
+        }
+    }
+
+    /**
+     * Extracts the value of the bits at the field indices (plus offset), with the first index as the most significant
+     * bit.  The field indices are processed as runs of consecutive bit positions and each run is extracted with a
+     * single shift and mask operation, so that a contiguous field is extracted in one operation.
+     *
+     * @param bits field indices, 64 or less
+     * @param offset to apply to each of the field indices
+     * @return value
+     */
+    private long getField(int[] bits, int offset)
+    {
+        long value = 0;
+        int x = 0;
+
+        while(x < bits.length)
+        {
+            int start = bits[x];
+            int run = 1;
+
+            while(x + run < bits.length && bits[x + run] == start + run)
+            {
+                run++;
+            }
+
+            //Note: run is only 64 for the first and only run, when value is 0 and the shift distance is ignored
+            value = (value << run) | extract(start + offset, run);
+            x += run;
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns a mew binary message containing the bits from (inclusive) to
+     * end (exclusive).
+     *
+     * @param start
+     * @param end
+     * @return
+     */
+    public BinaryMessage getSubMessage(int start, int end)
+    {
+        return get(start, end);
+    }
+
+    public CRC getCRC()
+    {
+        return mCRC;
+    }
+
+    public void setCRC(CRC crc)
+    {
+        mCRC = crc;
+    }
+
+    /**
+     * Indicates the number of bit errors that were corrected in this message.
+     *
+     * @return number of corrected bits in this message
+     * @see CorrectedBinaryMessage subclass that supports setting this value
+     */
+    public int getCorrectedBitCount()
+    {
+        return 0;
+    }
+
+    /**
+     * Current pointer index
+     */
+    public int pointer()
+    {
+        return mPointer;
+    }
+
+    /**
+     * Sets the pointer to a specific value
+     *
+     * @param index
+     */
+    public void setPointer(int index)
+    {
+        mPointer = index;
+    }
+
+    /**
+     * Moves the current pointer position left (negative adjustment) or
+     * right (positive adjustment)
+     */
+    public void adjustPointer(int adjustment)
+    {
+        mPointer += adjustment;
+    }
+
+    /**
+     * Static method to construct a new BitSetBuffer, preloaded with the bits
+     * from the preload parameter, and then filled with the bits from the
+     * second bitsetbuffer parameter.
+     *
+     * @param preloadBits - boolean array of bits to be prepended to the new
+     * bitset
+     * @param bitsetToAppend - full bitset to be appended to the residual bits array
+     * @return - new Bitset preloaded with residual bits and new bitset
+     */
+    public static BinaryMessage merge(boolean[] preloadBits, BinaryMessage bitsetToAppend)
+    {
+        BinaryMessage returnValue = new BinaryMessage(preloadBits.length + bitsetToAppend.size(), preloadBits);
+
+        int pointer = 0;
+
+        while(pointer < bitsetToAppend.size() && !returnValue.isFull())
+        {
+            try
+            {
+                returnValue.add(bitsetToAppend.get(pointer));
+            }
+            catch(BitSetFullException e)
+            {
+                e.printStackTrace();
+            }
+
+            pointer++;
+        }
+
+        return returnValue;
+    }
+
+    /**
+     * Returns a (new) copy of this bitsetbuffer
+     *
+     * @return
+     */
+    public BinaryMessage copy()
+    {
+        return new BinaryMessage(this);
+    }
+
+    public boolean isFull()
+    {
+        return mPointer >= mSize;
+    }
+
+    /**
+     * Returns the value specified at instantiation.  The actual capacity of the word array may be larger than this
+     * value.
+     */
+    public int size()
+    {
+        return mSize;
+    }
+
+    public void setSize(int size)
+    {
+        mSize = size;
+    }
+
+    /**
+     * Clears (sets to false or 0) the bits in this bitset and resets the
+     * pointer to zero.
+     */
+    public void clear()
+    {
+        this.clear(0, mSize);
+        mPointer = 0;
+    }
+
+    /**
+     * Value of the bit at the index.  Bits beyond the capacity of this message are false.
+     */
+    public boolean get(int bitIndex)
+    {
+        checkIndex(bitIndex);
+
+        int word = bitIndex >> 6;
+
+        return word < mWords.length && (mWords[word] & getBitMask(bitIndex)) != 0;
+    }
+
+    /**
+     * Sets the bit at the index to true
+     */
+    public void set(int bitIndex)
+    {
+        checkIndex(bitIndex);
+
+        int word = bitIndex >> 6;
+        ensureCapacity(word + 1);
+        mWords[word] |= getBitMask(bitIndex);
+    }
+
+    /**
+     * Sets the bit at the index to the value
+     */
+    public void set(int bitIndex, boolean value)
+    {
+        if(value)
+        {
+            set(bitIndex);
+        }
+        else
+        {
+            clear(bitIndex);
+        }
+    }
+
+    /**
+     * Sets the bits from the from index (inclusive) to the to index (exclusive) to true
+     */
+    public void set(int fromIndex, int toIndex)
+    {
+        checkRange(fromIndex, toIndex);
+
+        if(fromIndex == toIndex)
+        {
+            return;
+        }
+
+        int firstWord = fromIndex >> 6;
+        int lastWord = (toIndex - 1) >> 6;
+        long firstMask = WORD_MASK >>> (fromIndex & 63);
+        long lastMask = WORD_MASK << (63 - ((toIndex - 1) & 63));
+
+        ensureCapacity(lastWord + 1);
+
+        if(firstWord == lastWord)
+        {
+            mWords[firstWord] |= firstMask & lastMask;
+        }
+        else
+        {
+            mWords[firstWord] |= firstMask;
+
+            for(int x = firstWord + 1; x < lastWord; x++)
+            {
+                mWords[x] = WORD_MASK;
+            }
+
+            mWords[lastWord] |= lastMask;
+        }
+    }
+
+    /**
+     * Sets the bits from the from index (inclusive) to the to index (exclusive) to the value
+     */
+    public void set(int fromIndex, int toIndex, boolean value)
+    {
+        if(value)
+        {
+            set(fromIndex, toIndex);
+        }
+        else
+        {
+            clear(fromIndex, toIndex);
+        }
+    }
+
+    /**
+     * Sets the bit at the index to false
+     */
+    public void clear(int bitIndex)
+    {
+        checkIndex(bitIndex);
+
+        int word = bitIndex >> 6;
+
+        if(word < mWords.length)
+        {
+            mWords[word] &= ~getBitMask(bitIndex);
+        }
+    }
+
+    /**
+     * Sets the bits from the from index (inclusive) to the to index (exclusive) to false
+     */
+    public void clear(int fromIndex, int toIndex)
+    {
+        checkRange(fromIndex, toIndex);
+
+        int firstWord = fromIndex >> 6;
+
+        if(fromIndex == toIndex || firstWord >= mWords.length)
+        {
+            return;
+        }
+
+        int lastWord = (toIndex - 1) >> 6;
+        long firstMask = WORD_MASK >>> (fromIndex & 63);
+        long lastMask = WORD_MASK << (63 - ((toIndex - 1) & 63));
+
+        if(lastWord >= mWords.length)
+        {
+            lastWord = mWords.length - 1;
+            lastMask = WORD_MASK;
+        }
+
+        if(firstWord == lastWord)
+        {
+            mWords[firstWord] &= ~(firstMask & lastMask);
+        }
+        else
+        {
+            mWords[firstWord] &= ~firstMask;
+
+            for(int x = firstWord + 1; x < lastWord; x++)
+            {
+                mWords[x] = 0;
+            }
+
+            mWords[lastWord] &= ~lastMask;
+        }
+    }
+
+    /**
+     * Toggles the value of the bit at the index
+     */
+    public void flip(int bitIndex)
+    {
+        checkIndex(bitIndex);
+
+        int word = bitIndex >> 6;
+        ensureCapacity(word + 1);
+        mWords[word] ^= getBitMask(bitIndex);
+    }
+
+    /**
+     * Toggles the value of the bits from the from index (inclusive) to the to index (exclusive)
+     */
+    public void flip(int fromIndex, int toIndex)
+    {
+        checkRange(fromIndex, toIndex);
+
+        if(fromIndex == toIndex)
+        {
+            return;
+        }
+
+        int firstWord = fromIndex >> 6;
+        int lastWord = (toIndex - 1) >> 6;
+        long firstMask = WORD_MASK >>> (fromIndex & 63);
+        long lastMask = WORD_MASK << (63 - ((toIndex - 1) & 63));
+
+        ensureCapacity(lastWord + 1);
+
+        if(firstWord == lastWord)
+        {
+            mWords[firstWord] ^= firstMask & lastMask;
+        }
+        else
+        {
+            mWords[firstWord] ^= firstMask;
+
+            for(int x = firstWord + 1; x < lastWord; x++)
+            {
+                mWords[x] ^= WORD_MASK;
+            }
+
+            mWords[lastWord] ^= lastMask;
+        }
+    }
+
+    /**
+     * Number of bits set to true
+     */
+    public int cardinality()
+    {
+        int count = 0;
+
+        for(long word : mWords)
+        {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * Index of the highest set bit plus one, or zero if there are no set bits.
+     */
+    public int length()
+    {
+        for(int x = mWords.length - 1; x >= 0; x--)
+        {
+            if(mWords[x] != 0)
+            {
+                return (x * BITS_PER_WORD) + BITS_PER_WORD - Long.numberOfTrailingZeros(mWords[x]);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Indicates if there are no bits set to true
+     */
+    public boolean isEmpty()
+    {
+        for(long word : mWords)
+        {
+            if(word != 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Index of the first bit set to true that occurs on or after the from index, or -1 if there is no such bit.
+     */
+    public int nextSetBit(int fromIndex)
+    {
+        checkIndex(fromIndex);
+
+        int word = fromIndex >> 6;
+
+        if(word >= mWords.length)
+        {
+            return -1;
+        }
+
+        long value = mWords[word] & (WORD_MASK >>> (fromIndex & 63));
+
+        while(true)
+        {
+            if(value != 0)
+            {
+                return (word * BITS_PER_WORD) + Long.numberOfLeadingZeros(value);
+            }
+
+            if(++word == mWords.length)
+            {
+                return -1;
+            }
+
+            value = mWords[word];
+        }
+    }
+
+    /**
+     * Index of the first bit set to false that occurs on or after the from index.
+     */
+    public int nextClearBit(int fromIndex)
+    {
+        checkIndex(fromIndex);
+
+        int word = fromIndex >> 6;
+
+        if(word >= mWords.length)
+        {
+            return fromIndex;
+        }
+
+        long value = ~mWords[word] & (WORD_MASK >>> (fromIndex & 63));
+
+        while(true)
+        {
+            if(value != 0)
+            {
+                return (word * BITS_PER_WORD) + Long.numberOfLeadingZeros(value);
+            }
+
+            if(++word == mWords.length)
+            {
+                return word * BITS_PER_WORD;
+            }
+
+            value = ~mWords[word];
+        }
+    }
+
+    /**
+     * Index of the nearest bit set to true that occurs on or before the from index, or -1 if there is no such bit.
+     */
+    public int previousSetBit(int fromIndex)
+    {
+        if(fromIndex < 0)
+        {
+            if(fromIndex == -1)
+            {
+                return -1;
+            }
+
+            throw new IndexOutOfBoundsException("fromIndex < -1: " + fromIndex);
+        }
+
+        int word = fromIndex >> 6;
+        long value;
+
+        if(word >= mWords.length)
+        {
+            word = mWords.length - 1;
+            value = word >= 0 ? mWords[word] : 0;
+        }
+        else
+        {
+            value = mWords[word] & (WORD_MASK << (63 - (fromIndex & 63)));
+        }
+
+        while(word >= 0)
+        {
+            if(value != 0)
+            {
+                return (word * BITS_PER_WORD) + 63 - Long.numberOfTrailingZeros(value);
+            }
+
+            if(--word >= 0)
+            {
+                value = mWords[word];
+            }
+        }
+
+        return -1;
     }
 
     /**
-     * Returns a mew binary message containing the bits from (inclusive) to
-     * end (exclusive).
-     *
-     * @param start
-     * @param end
-     * @return
+     * Performs a logical AND of this message with the argument message
      */
-    public BinaryMessage getSubMessage(int start, int end)
+    public void and(BinaryMessage message)
     {
-        BitSet subset = this.get(start, end);
+        int common = Math.min(mWords.length, message.mWords.length);
 
-        return new BinaryMessage(subset, end - start);
-    }
+        for(int x = 0; x < common; x++)
+        {
+            mWords[x] &= message.mWords[x];
+        }
 
-    public CRC getCRC()
-    {
-        return mCRC;
+        Arrays.fill(mWords, common, mWords.length, 0);
     }
 
-    public void setCRC(CRC crc)
+    /**
+     * Clears all of the bits in this message whose corresponding bit is set in the argument message
+     */
+    public void andNot(BinaryMessage message)
     {
-        mCRC = crc;
+        int common = Math.min(mWords.length, message.mWords.length);
+
+        for(int x = 0; x < common; x++)
+        {
+            mWords[x] &= ~message.mWords[x];
+        }
     }
 
     /**
-     * Indicates the number of bit errors that were corrected in this message.
-     *
-     * @return number of corrected bits in this message
-     * @see CorrectedBinaryMessage subclass that supports setting this value
+     * Performs a logical OR of this message with the argument message
      */
-    public int getCorrectedBitCount()
+    public void or(BinaryMessage message)
     {
-        return 0;
+        ensureCapacity(message.mWords.length);
+
+        for(int x = 0; x < message.mWords.length; x++)
+        {
+            mWords[x] |= message.mWords[x];
+        }
     }
 
     /**
-     * Current pointer index
+     * Performs a logical OR of this message with the argument bitset
      */
-    public int pointer()
+    public void or(BitSet bitSet)
     {
-        return mPointer;
+        for(int x = bitSet.nextSetBit(0); x >= 0; x = bitSet.nextSetBit(x + 1))
+        {
+            set(x);
+        }
     }
 
     /**
-     * Sets the pointer to a specific value
-     *
-     * @param index
+     * Performs a logical XOR of this message with the argument message
      */
-    public void setPointer(int index)
+    public void xor(BinaryMessage message)
     {
-        mPointer = index;
+        ensureCapacity(message.mWords.length);
+
+        for(int x = 0; x < message.mWords.length; x++)
+        {
+            mWords[x] ^= message.mWords[x];
+        }
     }
 
     /**
-     * Moves the current pointer position left (negative adjustment) or
-     * right (positive adjustment)
+     * Performs a logical XOR of this message with the argument bitset
      */
-    public void adjustPointer(int adjustment)
+    public void xor(BitSet bitSet)
     {
-        mPointer += adjustment;
+        for(int x = bitSet.nextSetBit(0); x >= 0; x = bitSet.nextSetBit(x + 1))
+        {
+            flip(x);
+        }
     }
 
     /**
-     * Static method to construct a new BitSetBuffer, preloaded with the bits
-     * from the preload parameter, and then filled with the bits from the
-     * second bitsetbuffer parameter.
-     *
-     * @param preloadBits - boolean array of bits to be prepended to the new
-     * bitset
-     * @param bitsetToAppend - full bitset to be appended to the residual bits array
-     * @return - new Bitset preloaded with residual bits and new bitset
+     * Indicates if the argument message has any set bits in common with this message
      */
-    public static BinaryMessage merge(boolean[] preloadBits, BinaryMessage bitsetToAppend)
+    public boolean intersects(BinaryMessage message)
     {
-        BinaryMessage returnValue = new BinaryMessage(preloadBits.length + bitsetToAppend.size(), preloadBits);
+        int common = Math.min(mWords.length, message.mWords.length);
 
-        int pointer = 0;
-
-        while(pointer < bitsetToAppend.size() && !returnValue.isFull())
+        for(int x = 0; x < common; x++)
         {
-            try
+            if((mWords[x] & message.mWords[x]) != 0)
             {
-                returnValue.add(bitsetToAppend.get(pointer));
-            }
-            catch(BitSetFullException e)
-            {
-                e.printStackTrace();
+                return true;
             }
-
-            pointer++;
         }
 
-        return returnValue;
+        return false;
     }
 
     /**
-     * Returns a (new) copy of this bitsetbuffer
-     *
-     * @return
+     * Converts this message to a java.util.BitSet with the same set bit indices
      */
-    public BinaryMessage copy()
+    public BitSet toBitSet()
     {
-        return new BinaryMessage(this);
-    }
+        BitSet bitSet = new BitSet(mSize);
 
-    public boolean isFull()
-    {
-        return mPointer >= mSize;
+        for(int x = nextSetBit(0); x >= 0; x = nextSetBit(x + 1))
+        {
+            bitSet.set(x);
+        }
+
+        return bitSet;
     }
 
     /**
-     * Overrides the in-build size() method of the bitset and returns the value
-     * specified at instantiation.  The actual bitset size may be larger than
-     * this value, and that size is managed by the super class.
+     * Indicates if the argument is a binary message with the same set bits as this message.  As with BitSet, the
+     * message size is not compared.
      */
     @Override
-    public int size()
+    public boolean equals(Object o)
     {
-        return mSize;
-    }
+        if(this == o)
+        {
+            return true;
+        }
 
-    public void setSize(int size)
-    {
-        mSize = size;
+        if(!(o instanceof BinaryMessage))
+        {
+            return false;
+        }
+
+        long[] other = ((BinaryMessage)o).mWords;
+        int common = Math.min(mWords.length, other.length);
+
+        for(int x = 0; x < common; x++)
+        {
+            if(mWords[x] != other[x])
+            {
+                return false;
+            }
+        }
+
+        for(int x = common; x < mWords.length; x++)
+        {
+            if(mWords[x] != 0)
+            {
+                return false;
+            }
+        }
+
+        for(int x = common; x < other.length; x++)
+        {
+            if(other[x] != 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
     }
 
-    /**
-     * Clears (sets to false or 0) the bits in this bitset and resets the
-     * pointer to zero.
-     */
     @Override
-    public void clear()
+    public int hashCode()
     {
-        this.clear(0, mSize);
-        mPointer = 0;
+        long hash = 1234;
+
+        for(int x = mWords.length; --x >= 0; )
+        {
+            hash ^= mWords[x] * (x + 1);
+        }
+
+        return (int)((hash >> 32) ^ hash);
     }
 
     /**
@@ -303,15 +1012,26 @@ public class BinaryMessage extends BitSet
     }
 
     /**
-     * Overrides the parent method which returns a BitSet so that we can return a BinaryMessage
+     * Returns a new binary message containing the bits from (inclusive) to (exclusive)
      * @param from
      * @param to
      * @return
      */
-    @Override
     public BinaryMessage get(int from, int to)
     {
-        return new BinaryMessage(super.get(from, to), (to - from));
+        checkRange(from, to);
+
+        BinaryMessage message = new BinaryMessage(to - from);
+
+        for(int x = 0; x < message.size(); x += BITS_PER_WORD)
+        {
+            int width = Math.min(BITS_PER_WORD, message.size() - x);
+            message.insert(x, width, extract(from + x, width));
+        }
+
+        message.mPointer = message.size() - 1;
+
+        return message;
     }
 
     /**
@@ -433,19 +1153,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive integer value");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return (int)getField(bits, 0);
     }
 
     /**
@@ -465,19 +1173,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive integer value");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index + offset))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return (int)getField(bits, offset);
     }
 
     public void setInt(int value, int[] indices)
@@ -513,19 +1209,7 @@ public class BinaryMessage extends BitSet
                 + "indexes to form a proper byte");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index))
-            {
-                value++;
-            }
-        }
-
-        return (byte)(value & 0xFF);
+        return (byte)(getField(bits, 0) & 0xFF);
     }
 
     /**
@@ -545,19 +1229,7 @@ public class BinaryMessage extends BitSet
                 + "indexes to form a proper byte");
         }
 
-        int value = 0;
-
-        for(int index : bits)
-        {
-            value = Integer.rotateLeft(value, 1);
-
-            if(get(index + offset))
-            {
-                value++;
-            }
-        }
-
-        return (byte)(value & 0xFF);
+        return (byte)(getField(bits, offset) & 0xFF);
     }
 
     /**
@@ -569,6 +1241,11 @@ public class BinaryMessage extends BitSet
      */
     public byte getByte(int startIndex)
     {
+        if(startIndex + 7 <= size())
+        {
+            return (byte)extract(startIndex, 8);
+        }
+
         int value = 0;
 
         for(int x = 0; x < 8; x++)
@@ -613,6 +1290,11 @@ public class BinaryMessage extends BitSet
      */
     public int getNibble(int startIndex)
     {
+        if(startIndex + 3 <= size())
+        {
+            return (int)extract(startIndex, 4);
+        }
+
         int value = 0;
 
         for(int x = 0; x < 4; x++)
@@ -640,21 +1322,7 @@ public class BinaryMessage extends BitSet
     {
         Validate.isTrue((index + 8) <= size());
 
-        int mask = 0x80;
-
-        for(int x = 0; x < 8; x++)
-        {
-            if((mask & value) == mask)
-            {
-                set(index + x);
-            }
-            else
-            {
-                clear(index + x);
-            }
-
-            mask = mask >> 1;
-        }
+        insert(index, 8, value & 0xFF);
     }
 
     /**
@@ -673,19 +1341,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive long value");
         }
 
-        long value = 0;
-
-        for(int index : bits)
-        {
-            value = Long.rotateLeft(value, 1);
-
-            if(get(index))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return getField(bits, 0);
     }
 
     /**
@@ -705,19 +1361,7 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive long value");
         }
 
-        long value = 0;
-
-        for(int index : bits)
-        {
-            value = Long.rotateLeft(value, 1);
-
-            if(get(index + offset))
-            {
-                value++;
-            }
-        }
-
-        return value;
+        return getField(bits, offset);
     }
 
     /**
@@ -802,6 +1446,11 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive integer value");
         }
 
+        if(start < end && end - start < 32)
+        {
+            return (int)extract(start, end - start + 1);
+        }
+
         int value = 0;
 
         if(start < end)
@@ -872,6 +1521,11 @@ public class BinaryMessage extends BitSet
                 + "or less to fit into a primitive long value");
         }
 
+        if(start < end && end - start < 64)
+        {
+            return extract(start, end - start + 1);
+        }
+
         long value = 0;
 
         if(start < end)
@@ -930,6 +1584,12 @@ public class BinaryMessage extends BitSet
      */
     public void load(int offset, int width, long value)
     {
+        if(width > 0 && width <= BITS_PER_WORD)
+        {
+            insert(offset, width, value);
+            return;
+        }
+
         for(int x = 0; x < width; x++)
         {
             long mask = Long.rotateLeft(1, width - x - 1);
@@ -956,16 +1616,10 @@ public class BinaryMessage extends BitSet
      */
     public void load(int offset, BinaryMessage binaryMessage)
     {
-        for(int x = 0; x < binaryMessage.size(); x++)
+        for(int x = 0; x < binaryMessage.size(); x += BITS_PER_WORD)
         {
-            if(binaryMessage.get(x))
-            {
-                set(x + offset);
-            }
-            else
-            {
-                clear(x + offset);
-            }
+            int width = Math.min(BITS_PER_WORD, binaryMessage.size() - x);
+            insert(offset + x, width, binaryMessage.extract(x, width));
         }
     }
 
@@ -1045,6 +1699,14 @@ public class BinaryMessage extends BitSet
      */
     public void rotateLeft(int places, int startIndex, int endIndex)
     {
+        int width = endIndex - startIndex + 1;
+
+        if(places > 0 && width > 1 && width <= BITS_PER_WORD)
+        {
+            rotateField(startIndex, width, places % width);
+            return;
+        }
+
         for(int x = 0; x < places; x++)
         {
             rotateLeft(startIndex, endIndex);
@@ -1057,6 +1719,14 @@ public class BinaryMessage extends BitSet
      */
     public void rotateLeft(int startIndex, int endIndex)
     {
+        int width = endIndex - startIndex + 1;
+
+        if(width > 1 && width <= BITS_PER_WORD)
+        {
+            rotateField(startIndex, width, 1);
+            return;
+        }
+
         boolean wrapBit = get(startIndex);
 
         for(int x = startIndex; x < endIndex; x++)
@@ -1086,6 +1756,14 @@ public class BinaryMessage extends BitSet
      */
     public void rotateRight(int places, int startIndex, int endIndex)
     {
+        int width = endIndex - startIndex + 1;
+
+        if(places > 0 && width > 1 && width <= BITS_PER_WORD)
+        {
+            rotateField(startIndex, width, width - (places % width));
+            return;
+        }
+
         for(int x = 0; x < places; x++)
         {
             rotateRight(startIndex, endIndex);
@@ -1098,6 +1776,14 @@ public class BinaryMessage extends BitSet
      */
     public void rotateRight(int startIndex, int endIndex)
     {
+        int width = endIndex - startIndex + 1;
+
+        if(width > 1 && width <= BITS_PER_WORD)
+        {
+            rotateField(startIndex, width, width - 1);
+            return;
+        }
+
         boolean wrapBit = get(endIndex);
 
         for(int x = endIndex - 1; x >= startIndex; x--)
@@ -1122,12 +1808,38 @@ public class BinaryMessage extends BitSet
         }
     }
 
+    /**
+     * Left rotates the contiguous field of bits, number of places.
+     *
+     * @param startIndex of the field
+     * @param width of the field, 2 - 64
+     * @param places to rotate left, 0 - (width - 1)
+     */
+    private void rotateField(int startIndex, int width, int places)
+    {
+        checkIndex(startIndex);
+
+        if(places == 0 || places == width)
+        {
+            return;
+        }
+
+        long value = extract(startIndex, width);
+        insert(startIndex, width, (value << places) | (value >>> (width - places)));
+    }
+
     /**
      * Performs exclusive or of the value against this bitset starting at the
      * offset position using width bits from the value.
      */
     public void xor(int offset, int width, int value)
     {
+        if(width > 0 && width <= BITS_PER_WORD)
+        {
+            exclusiveOr(offset, width, value);
+            return;
+        }
+
         BinaryMessage mask = new BinaryMessage(this.size());
 
         mask.load(offset, width, value);
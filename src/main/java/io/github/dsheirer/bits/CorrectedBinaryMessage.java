@@ -21,11 +21,13 @@
  */
 package io.github.dsheirer.bits;
 
+import java.util.Arrays;
 import java.util.BitSet;
 
 public class CorrectedBinaryMessage extends BinaryMessage
 {
     private int mCorrectedBitCount;
+    private byte[] mReliabilities;
 
     /**
      * Subclass of binary message class to allow capturing a corrected bits metric.
@@ -46,6 +48,11 @@ public class CorrectedBinaryMessage extends BinaryMessage
         super(bitset, size);
     }
 
+    public CorrectedBinaryMessage(BinaryMessage message, int size)
+    {
+        super(message, size);
+    }
+
     public CorrectedBinaryMessage(byte[] data)
     {
         super(data);
@@ -81,6 +88,40 @@ public class CorrectedBinaryMessage extends BinaryMessage
         mCorrectedBitCount += additionalCount;
     }
 
+    /**
+     * Indicates if this message has soft decision bit reliabilities
+     */
+    public boolean hasReliabilities()
+    {
+        return mReliabilities != null;
+    }
+
+    /**
+     * Optional soft decision bit reliabilities (see SymbolReliability) with one value per message bit.
+     *
+     * @return reliabilities or null if this message only contains hard decision bits
+     */
+    public byte[] getReliabilities()
+    {
+        return mReliabilities;
+    }
+
+    /**
+     * Sets the soft decision bit reliabilities for this message.
+     *
+     * @param reliabilities with one value per message bit, or null to clear the reliabilities
+     */
+    public void setReliabilities(byte[] reliabilities)
+    {
+        if(reliabilities != null && reliabilities.length < size())
+        {
+            throw new IllegalArgumentException("Reliabilities length [" + reliabilities.length +
+                "] must match the message size [" + size() + "]");
+        }
+
+        mReliabilities = reliabilities;
+    }
+
     /**
      * Returns a new binary message containing the bits from (inclusive) to end (exclusive).
      *
@@ -90,7 +131,13 @@ public class CorrectedBinaryMessage extends BinaryMessage
      */
     public CorrectedBinaryMessage getSubMessage(int start, int end)
     {
-        BitSet subset = this.get(start, end);
-        return new CorrectedBinaryMessage(subset, end - start);
+        CorrectedBinaryMessage subMessage = new CorrectedBinaryMessage(get(start, end), end - start);
+
+        if(mReliabilities != null)
+        {
+            subMessage.setReliabilities(Arrays.copyOfRange(mReliabilities, start, end));
+        }
+
+        return subMessage;
     }
 }
@@ -22,8 +22,23 @@ public class NamingThreadFactory implements ThreadFactory
     
     private final String mNamePrefix;
 
+    private final int mPriority;
+
     public NamingThreadFactory( String prefix ) 
     {
+        this(prefix, Thread.NORM_PRIORITY);
+    }
+
+    /**
+     * Constructs a thread factory that applies the name prefix and thread priority to each created thread.
+     *
+     * @param prefix for the thread names
+     * @param priority for each thread, in the range Thread.MIN_PRIORITY to Thread.MAX_PRIORITY
+     */
+    public NamingThreadFactory(String prefix, int priority)
+    {
+        mPriority = Math.max(Thread.MIN_PRIORITY, Math.min(Thread.MAX_PRIORITY, priority));
+
     	SecurityManager s = System.getSecurityManager();
         
         mThreadGroup = (s != null)? s.getThreadGroup() : Thread.currentThread().getThreadGroup();
@@ -41,9 +56,9 @@ public class NamingThreadFactory implements ThreadFactory
             thread.setDaemon( false );
         }
         
-        if( thread.getPriority() != Thread.NORM_PRIORITY )
+        if( thread.getPriority() != mPriority )
         {
-            thread.setPriority( Thread.NORM_PRIORITY );
+            thread.setPriority( mPriority );
         }
 
         thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler()
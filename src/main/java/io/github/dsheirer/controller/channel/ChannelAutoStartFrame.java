@@ -197,7 +197,7 @@ public class ChannelAutoStartFrame extends JFrame
     {
         if(mTimerFuture == null)
         {
-            mTimerFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(new CountdownTimer(), 0, 1, TimeUnit.SECONDS);
+            mTimerFuture = ThreadPool.HOUSEKEEPING.scheduleAtFixedRate(new CountdownTimer(), 0, 1, TimeUnit.SECONDS);
         }
     }
 
@@ -264,7 +264,7 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
             {
                 if(request.isPersistentAttempt())
                 {
-                    ScheduledFuture<?> future = ThreadPool.SCHEDULED
+                    ScheduledFuture<?> future = ThreadPool.HOUSEKEEPING
                         .schedule(new DelayedChannelStartTask(request), 500, TimeUnit.MILLISECONDS);
                     mDelayedChannelStartTasks.add(future);
                 }
@@ -23,6 +23,7 @@
 package io.github.dsheirer.dsp.filter;
 
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.dsp.filter.fir.DecimationStage;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
 import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesignerWithLagrange;
@@ -31,7 +32,9 @@ import org.jtransforms.fft.FloatFFT_1D;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -504,6 +507,188 @@ public class FilterFactory
             (double)stopFrequency);
     }
 
+    /**
+     * Designs a single or multi-stage decimation plan that decimates the sample rate by the total decimation factor
+     * while preserving the pass band, using polyphase decimating filters for each stage.
+     *
+     * All ordered factorizations of the decimation factor are evaluated and the plan with the lowest multiply-
+     * accumulate cost per input sample is selected.  Intermediate stages only need to protect the final pass band
+     * from aliasing, so each intermediate stage uses a wide transition band that ends at the stage output sample rate
+     * minus the final stop frequency, and the final stage applies the requested transition band at the lowest rate.
+     * Each stage filter is a Kaiser windowed sinc with unity gain at DC.
+     *
+     * @param sampleRate of the input samples
+     * @param decimation total decimation factor
+     * @param passFrequency end of the pass band in hertz
+     * @param stopFrequency start of the stop band in hertz
+     * @param attenuation for the stop band in dB
+     * @return decimation stages in processing order
+     * @throws FilterDesignException if the stage filters can't be designed
+     * @throws IllegalArgumentException if the decimated sample rate would alias into the pass band
+     */
+    public static List<DecimationStage> getDecimationStages(double sampleRate, int decimation, int passFrequency,
+                                                            int stopFrequency, double attenuation)
+        throws FilterDesignException
+    {
+        if(decimation < 1)
+        {
+            throw new IllegalArgumentException("Decimation factor must be 1 or greater");
+        }
+
+        if(passFrequency >= stopFrequency || stopFrequency > sampleRate / 2.0)
+        {
+            throw new IllegalArgumentException("Stop frequency [" + stopFrequency + "] must be greater than pass " +
+                "frequency [" + passFrequency + "] and less than half of the sample rate [" + sampleRate + "]");
+        }
+
+        if(decimation > 1 && (sampleRate / decimation) < (passFrequency + stopFrequency))
+        {
+            throw new IllegalArgumentException("Decimated sample rate [" + (sampleRate / decimation) + "] must be " +
+                "at least the pass frequency plus the stop frequency [" + (passFrequency + stopFrequency) + "]");
+        }
+
+        List<int[]> plans = new ArrayList<>();
+
+        if(decimation == 1)
+        {
+            plans.add(new int[]{1});
+        }
+        else
+        {
+            addDecimationPlans(decimation, new ArrayList<>(), plans);
+        }
+
+        int[] bestPlan = null;
+        double bestCost = Double.MAX_VALUE;
+
+        //Plans are ordered with the fewest stages first so that equal cost plans favor fewer stages
+        plans.sort((a, b) -> Integer.compare(a.length, b.length));
+
+        for(int[] plan: plans)
+        {
+            double cost = getDecimationCost(sampleRate, plan, passFrequency, stopFrequency, attenuation);
+
+            if(cost < bestCost)
+            {
+                bestCost = cost;
+                bestPlan = plan;
+            }
+        }
+
+        List<DecimationStage> stages = new ArrayList<>();
+        double stageRate = sampleRate;
+
+        for(int x = 0; x < bestPlan.length; x++)
+        {
+            double stageStop = getStageStopFrequency(stageRate, bestPlan, x, stopFrequency);
+            int length = getKaiserTapCount(stageRate, passFrequency, stageStop, attenuation);
+            float[] taps = getKaiserSinc(length, (passFrequency + stageStop) / 2.0 / stageRate, attenuation);
+
+            //Normalize to unity gain at DC
+            float sum = 0.0f;
+
+            for(float tap: taps)
+            {
+                sum += tap;
+            }
+
+            for(int y = 0; y < taps.length; y++)
+            {
+                taps[y] /= sum;
+            }
+
+            stages.add(new DecimationStage(stageRate, bestPlan[x], taps));
+            stageRate /= bestPlan[x];
+        }
+
+        return stages;
+    }
+
+    /**
+     * Recursively adds each ordered factorization of the remaining decimation value to the plans list.
+     */
+    private static void addDecimationPlans(int remaining, List<Integer> factors, List<int[]> plans)
+    {
+        if(remaining == 1)
+        {
+            plans.add(factors.stream().mapToInt(Integer::intValue).toArray());
+            return;
+        }
+
+        for(Integer factor: getFactors(remaining))
+        {
+            if(factor > 1)
+            {
+                factors.add(factor);
+                addDecimationPlans(remaining / factor, factors, plans);
+                factors.remove(factors.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * Stop frequency for the stage at the index in the decimation plan.  Intermediate stages can allow aliasing into
+     * the transition band down to the final stop frequency, so their stop band starts at the stage output sample
+     * rate minus the final stop frequency.
+     */
+    private static double getStageStopFrequency(double stageRate, int[] plan, int index, int stopFrequency)
+    {
+        if(index == plan.length - 1)
+        {
+            return stopFrequency;
+        }
+
+        return (stageRate / plan[index]) - stopFrequency;
+    }
+
+    /**
+     * Calculates the multiply-accumulate cost per input sample of the decimation plan, where the cost of each stage
+     * is the tap count divided by the cumulative decimation at the output of the stage.
+     */
+    private static double getDecimationCost(double sampleRate, int[] plan, int passFrequency, int stopFrequency,
+                                            double attenuation)
+    {
+        double cost = 0.0;
+        double stageRate = sampleRate;
+        int cumulativeDecimation = 1;
+
+        for(int x = 0; x < plan.length; x++)
+        {
+            double stageStop = getStageStopFrequency(stageRate, plan, x, stopFrequency);
+            cumulativeDecimation *= plan[x];
+            cost += (double)getKaiserTapCount(stageRate, passFrequency, stageStop, attenuation) / cumulativeDecimation;
+            stageRate /= plan[x];
+        }
+
+        return cost;
+    }
+
+    /**
+     * Estimates the odd number of taps required for a Kaiser windowed sinc filter to achieve the stop band
+     * attenuation across the transition band.
+     *
+     * Implements the Kaiser filter order estimate from Oppenheim and Schafer, Discrete-Time Signal Processing, 3e,
+     * section 7.6.1.
+     *
+     * @param sampleRate in hertz
+     * @param pass pass frequency in hertz
+     * @param stop stop frequency in hertz
+     * @param attenuation in dB
+     * @return odd tap count
+     */
+    public static int getKaiserTapCount(double sampleRate, double pass, double stop, double attenuation)
+    {
+        double transition = 2.0 * FastMath.PI * (stop - pass) / sampleRate;
+        int length = (int)FastMath.ceil((attenuation - 8.0) / (2.285 * transition)) + 1;
+
+        if(length % 2 == 0)
+        {
+            length++;
+        }
+
+        return FastMath.max(length, 3);
+    }
+
     /**
      * Assumes that the pass band is 1/4 of the output sample rate.
      *
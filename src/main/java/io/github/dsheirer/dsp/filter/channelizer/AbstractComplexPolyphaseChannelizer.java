@@ -72,6 +72,7 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<Re
     {
         mSampleRate = sampleRate;
         mChannelCount = channelCount;
+        mSubChannelCount = channelCount * 2;
         mChannelSampleRate = mSampleRate / (double)mChannelCount;
     }
 
@@ -107,7 +108,18 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<Re
      */
     protected void dispatch(ReusableChannelResultsBuffer channelResultsBuffer)
     {
-        for(PolyphaseChannelSource channel : mChannels)
+        dispatch(channelResultsBuffer, mChannels);
+    }
+
+    /**
+     * Dispatches the processed channel samples to the specified polyphase channel outputs.
+     *
+     * @param channelResultsBuffer containing an array of an array of I/Q samples per channel
+     * @param channels to receive the channel results buffer
+     */
+    protected void dispatch(ReusableChannelResultsBuffer channelResultsBuffer, List<PolyphaseChannelSource> channels)
+    {
+        for(PolyphaseChannelSource channel : channels)
         {
             channelResultsBuffer.incrementUserCount();
             channel.receiveChannelResults(channelResultsBuffer);
@@ -144,6 +156,14 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<Re
         }
     }
 
+    /**
+     * Polyphase channels registered to receive sample streams
+     */
+    protected List<PolyphaseChannelSource> getChannels()
+    {
+        return mChannels;
+    }
+
     /**
      * Number of polyphase channels registered to receive sample streams
      */
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.controller.NamingThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fixed-size worker pool for partitioning channelizer processing stages across multiple threads.
+ *
+ * The calling thread always executes the first partition, so a pool with a partition count of N uses N-1 worker
+ * threads.  The run() method blocks until all partitions are complete, so the calling thread retains ownership of
+ * the processing order and each stage produces output in the same order as the single-threaded implementation.
+ */
+public class ChannelizerWorkerPool
+{
+    private final static Logger mLog = LoggerFactory.getLogger(ChannelizerWorkerPool.class);
+
+    private ExecutorService mExecutorService;
+    private Future<?>[] mFutures;
+    private int mPartitionCount;
+
+    /**
+     * Constructs an instance
+     *
+     * @param name prefix for the worker threads
+     * @param partitionCount number of partitions (including the calling thread) to split each stage across
+     */
+    public ChannelizerWorkerPool(String name, int partitionCount)
+    {
+        if(partitionCount < 2)
+        {
+            throw new IllegalArgumentException("Worker pool partition count must be 2 or more");
+        }
+
+        mPartitionCount = partitionCount;
+        mFutures = new Future<?>[partitionCount];
+        mExecutorService = Executors.newFixedThreadPool(partitionCount - 1, new NamingThreadFactory(name));
+    }
+
+    /**
+     * Number of partitions, including the calling thread
+     */
+    public int getPartitionCount()
+    {
+        return mPartitionCount;
+    }
+
+    /**
+     * Executes the partition tasks, running the first task on the calling thread and the remaining tasks on the
+     * worker threads, and blocks until all tasks are complete.
+     *
+     * @param tasks to execute
+     * @param count of tasks to execute from the tasks array (maximum is the partition count)
+     */
+    public void run(Runnable[] tasks, int count)
+    {
+        for(int x = 1; x < count; x++)
+        {
+            mFutures[x] = mExecutorService.submit(tasks[x]);
+        }
+
+        if(count > 0)
+        {
+            tasks[0].run();
+        }
+
+        for(int x = 1; x < count; x++)
+        {
+            try
+            {
+                mFutures[x].get();
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch(ExecutionException ee)
+            {
+                mLog.error("Error executing channelizer worker partition", ee);
+            }
+
+            mFutures[x] = null;
+        }
+    }
+
+    /**
+     * Shuts down the worker threads
+     */
+    public void shutdown()
+    {
+        mExecutorService.shutdownNow();
+    }
+}
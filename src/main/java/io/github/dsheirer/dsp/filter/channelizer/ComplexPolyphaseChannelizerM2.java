@@ -22,6 +22,8 @@ import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.sample.IOverflowListener;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.OverflowableTransferQueue;
+import io.github.dsheirer.sample.QueueMetrics;
 import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import org.apache.commons.math3.util.FastMath;
@@ -30,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -42,21 +45,26 @@ import java.util.List;
  * Processing for Communications Systems, p230-233.
  *
  * Samples are loaded into this filter one block at a time (1/2 channel count) and a filtered output is calculated
- * to produce an overall 2x oversampled channel sample rate.  Each sample block load is preceded by a serpentine
- * shift of the existing sample blocks.  We use the java System.arrayCopy() method which is able to leverage
- * native processor intrinsics for efficiency.
+ * to produce an overall 2x oversampled channel sample rate.  Instead of a serpentine shift of the existing sample
+ * blocks for each new block, incoming samples are appended to an arrival-ordered sample buffer that retains the
+ * sample history needed by the filter, and each block is filtered by indexing backwards from the end of the block.
+ * Since each block's output depends only on the retained history, the blocks in a sample buffer can be filtered
+ * independently and the filter stage can be partitioned across multiple worker threads.
  *
  * The prototype filter for the channelizer is rearranged to align with the structure of the sample buffer.
  *
  * Instead of using an array of channel filters as described in the Harris text, this filter and the sample buffer
  * are arranged as a contiguous array to maximize Java's ability to leverage native processor Single Instruction
- * Multiple Data (SIMD) intrinsics (since Java 8).  The filter process is broken into four steps:
+ * Multiple Data (SIMD) intrinsics (since Java 8).  The filter process is broken into three steps:
  *
- *   -Multiply the inline array of samples and filter coefficients
- *   -Accumulate the results for each sub-channel
+ *   -Multiply the inline array of samples and filter coefficients and accumulate the results for each sub-channel
  *   -Rearrange the sub-channel results to correctly order the sub-channels
  *   -Perform IFFT
  *
+ * The filter stage and the IFFT stage can each be partitioned across a configurable number of threads (see
+ * setThreadCount()).  Each stage blocks until all partitions are complete, so sample ordering and buffer timestamps
+ * are identical to single-threaded processing.
+ *
  * Note: design the prototype filter as a Nyquist windowed filter with a -6.02 db attenuation at the channel edge
  * frequency if you need Perfect Reconstruction where you'll later re-join two or more channels to form a wider
  * bandwidth channel or to isolate a signal that located between two channels.
@@ -69,15 +77,22 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
 
     //Sized at 152 buffers a second where max = 5 seconds and reset = 2 seconds worth of buffers
     private IFFTProcessor mIFFTProcessor = new IFFTProcessor((5 * 152), (2 * 152));
-    private FloatFFT_1D mFFT;
-    private float[] mInlineSamples;
+    private volatile int mPrunedIFFTCrossover;
+    private float[] mArrivalSamples;
     private float[] mInlineFilter;
+    private float[][] mBlockResults = new float[0][];
     private boolean mTopBlockIndicator = true;
     private int[] mTopBlockMap;
     private int[] mMiddleBlockMap;
-    private int mSampleBufferPointer;
+    private int mHistoryLength;
+    private int mPendingLength;
     private int mSamplesPerBlock;
     private int mTapsPerChannel;
+    private int mThreadCount = 1;
+    private FilterTask[] mFilterTasks;
+    private IFFTTask[] mIFFTTasks;
+    private ChannelizerWorkerPool mFilterWorkerPool;
+    private ChannelizerWorkerPool mIFFTWorkerPool;
 
     /**
      * Creates a NMDPFB channelizer instance.
@@ -128,6 +143,19 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      */
     public void start()
     {
+        if(mThreadCount > 1)
+        {
+            if(mFilterWorkerPool == null)
+            {
+                mFilterWorkerPool = new ChannelizerWorkerPool("sdrtrunk channelizer filter", mThreadCount);
+            }
+
+            if(mIFFTWorkerPool == null)
+            {
+                mIFFTWorkerPool = new ChannelizerWorkerPool("sdrtrunk channelizer ifft", mThreadCount);
+            }
+        }
+
         mIFFTProcessor.start();
     }
 
@@ -137,6 +165,64 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
     public void stop()
     {
         mIFFTProcessor.stop();
+
+        ChannelizerWorkerPool filterWorkerPool = mFilterWorkerPool;
+        mFilterWorkerPool = null;
+
+        if(filterWorkerPool != null)
+        {
+            filterWorkerPool.shutdown();
+        }
+
+        ChannelizerWorkerPool ifftWorkerPool = mIFFTWorkerPool;
+        mIFFTWorkerPool = null;
+
+        if(ifftWorkerPool != null)
+        {
+            ifftWorkerPool.shutdown();
+        }
+    }
+
+    /**
+     * Sets the number of threads used to process each of the filter and IFFT stages.  The default of 1 processes
+     * the filter stage on the calling (sample buffer) thread and the IFFT stage on the IFFT processor thread.  Values
+     * greater than 1 add (count - 1) worker threads to each stage.  This value should be set before invoking start().
+     *
+     * @param threadCount for each processing stage
+     */
+    public void setThreadCount(int threadCount)
+    {
+        mThreadCount = FastMath.max(threadCount, 1);
+        createTasks();
+    }
+
+    /**
+     * Number of threads used to process each of the filter and IFFT stages.
+     */
+    public int getThreadCount()
+    {
+        return mThreadCount;
+    }
+
+    /**
+     * Snapshot of the metrics for the queue of filtered channel results awaiting the IFFT stage
+     */
+    public QueueMetrics getQueueMetrics()
+    {
+        return mIFFTProcessor.getQueueMetrics("channelizer ifft");
+    }
+
+    /**
+     * Sets the active polyphase channel count below which the IFFT stage calculates only the active channels using a
+     * pruned inverse DFT instead of a full inverse FFT.  The default crossover is a heuristic estimate (see
+     * PrunedInverseDFT.getCrossoverChannelCount()) that is recalculated for the channel count each time the
+     * channelizer is (re)initialized.  Set to zero to always use the full inverse FFT.
+     *
+     * @param crossover active channel count
+     */
+    public void setPrunedIFFTCrossover(int crossover)
+    {
+        mPrunedIFFTCrossover = crossover;
     }
 
     /**
@@ -192,46 +278,86 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
         ReusableChannelResultsBuffer channelResultsBuffer = getChannelResultsBuffer();
         channelResultsBuffer.setTimestamp(reusableComplexBuffer.getTimestamp());
 
-        float[] samples = reusableComplexBuffer.getSamples();
+        filter(reusableComplexBuffer.getSamples(), channelResultsBuffer);
+
+        //Enqueue the channel results buffer for IFFT processing and distribution on a different thread
+        mIFFTProcessor.receive(channelResultsBuffer);
+
+        //Decrement the user count to let the originator know we're done with their buffer
+        reusableComplexBuffer.decrementUserCount();
+    }
+
+    /**
+     * Appends the interleaved complex samples to the arrival sample buffer and filters each completed block, adding a
+     * single channel results array to the channel results buffer per block.  Blocks are partitioned across the filter
+     * worker threads when multi-threaded processing is enabled.  Package-private for microbenchmark access.
+     *
+     * @param samples to filter
+     * @param channelResultsBuffer to receive the channel results arrays
+     */
+    void filter(float[] samples, ReusableChannelResultsBuffer channelResultsBuffer)
+    {
+        int arrivalLength = mHistoryLength + mPendingLength + samples.length;
+
+        if(mArrivalSamples.length < arrivalLength)
+        {
+            mArrivalSamples = Arrays.copyOf(mArrivalSamples, arrivalLength);
+        }
 
-        int samplesPointer = 0;
-        int samplesToCopy;
+        System.arraycopy(samples, 0, mArrivalSamples, mHistoryLength + mPendingLength, samples.length);
 
-        while(samplesPointer < samples.length)
+        int blockCount = (mPendingLength + samples.length) / mSamplesPerBlock;
+
+        if(blockCount > 0)
         {
-            if(mSampleBufferPointer < mSamplesPerBlock)
+            if(mBlockResults.length < blockCount)
             {
-                samplesToCopy = mSamplesPerBlock - mSampleBufferPointer;
+                mBlockResults = new float[blockCount][];
+            }
+
+            for(int block = 0; block < blockCount; block++)
+            {
+                mBlockResults[block] = channelResultsBuffer.getEmptyBuffer(getSubChannelCount());
+            }
 
-                int samplesDiff = samples.length - samplesPointer;
-                if(samplesDiff < samplesToCopy)
+            ChannelizerWorkerPool workerPool = mFilterWorkerPool;
+
+            if(workerPool != null && blockCount > 1)
+            {
+                int partitions = FastMath.min(workerPool.getPartitionCount(), blockCount);
+                int blocksPerPartition = (blockCount + partitions - 1) / partitions;
+                int partitionCount = 0;
+
+                for(int start = 0; start < blockCount; start += blocksPerPartition)
                 {
-                    samplesToCopy = samplesDiff;
+                    mFilterTasks[partitionCount++].setBlocks(start, FastMath.min(start + blocksPerPartition, blockCount));
                 }
 
-                System.arraycopy(samples, samplesPointer, mInlineSamples, mSampleBufferPointer, samplesToCopy);
-
-                mSampleBufferPointer += samplesToCopy;
-                samplesPointer += samplesToCopy;
+                workerPool.run(mFilterTasks, partitionCount);
+            }
+            else
+            {
+                mFilterTasks[0].setBlocks(0, blockCount);
+                mFilterTasks[0].run();
             }
 
-            if(mSampleBufferPointer >= mSamplesPerBlock)
+            for(int block = 0; block < blockCount; block++)
             {
-                //Filter buffered samples and produce a single sample across each of the polyphase channels
-                process(channelResultsBuffer);
+                channelResultsBuffer.addChannelResults(mBlockResults[block]);
+                mBlockResults[block] = null;
+            }
 
-                //Right-shift the samples in the buffer over to make room for a new block of samples
-                //Note: since JDK 8, hotspot JIT compiler uses native processor intrinsics for efficiency
-                System.arraycopy(mInlineSamples, 0, mInlineSamples, mSamplesPerBlock, (mInlineSamples.length - mSamplesPerBlock));
-                mSampleBufferPointer = 0;
+            //Top and middle blocks alternate, so an odd block count changes the indicator for the next buffer
+            if(blockCount % 2 == 1)
+            {
+                mTopBlockIndicator = !mTopBlockIndicator;
             }
         }
 
-        //Enqueue the channel results buffer for IFFT processing and distribution on a different thread
-        mIFFTProcessor.receive(channelResultsBuffer);
-
-        //Decrement the user count to let the originator know we're done with their buffer
-        reusableComplexBuffer.decrementUserCount();
+        //Retain the sample history and any partial block at the beginning of the arrival buffer
+        int consumed = blockCount * mSamplesPerBlock;
+        System.arraycopy(mArrivalSamples, consumed, mArrivalSamples, 0, arrivalLength - consumed);
+        mPendingLength = arrivalLength - consumed - mHistoryLength;
     }
 
     /**
@@ -330,58 +456,6 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
     }
 
 
-    /**
-     * Processes the sample buffer for each new block of sample data that is loaded and distributes the results to any
-     * registered channel listeners.
-     */
-    private void process(ReusableChannelResultsBuffer channelResultsBuffer)
-    {
-        int bufferLength = getSubChannelCount() * mTapsPerChannel;
-        float[] inlineInterimOutput = new float[bufferLength];
-
-        //Multiply each of the samples by the corresponding filter tap
-        for(int x = 0; x < mInlineSamples.length; x++)
-        {
-            inlineInterimOutput[x] = mInlineSamples[x] * mInlineFilter[x];
-        }
-
-        float[] filterAccumulator = new float[getSubChannelCount()];
-
-        int tapOffset = 0;
-
-        //Accumulate the sample/filter product results into each of the I/Q sub-channels
-        for(int tap = 0; tap < mTapsPerChannel; tap++)
-        {
-            tapOffset = tap * getSubChannelCount();
-
-            for(int channel = 0; channel < getSubChannelCount(); channel++)
-            {
-                filterAccumulator[channel] += inlineInterimOutput[tapOffset + channel];
-            }
-        }
-
-        float[] processed = channelResultsBuffer.getEmptyBuffer(getSubChannelCount());
-
-        if(mTopBlockIndicator)
-        {
-            for(int x = 0; x < getSubChannelCount(); x++)
-            {
-                processed[x] = filterAccumulator[mTopBlockMap[x]];
-            }
-        }
-        else
-        {
-            for(int x = 0; x < getSubChannelCount(); x++)
-            {
-                processed[x] = filterAccumulator[mMiddleBlockMap[x]];
-            }
-        }
-
-        channelResultsBuffer.addChannelResults(processed);
-
-        mTopBlockIndicator = !mTopBlockIndicator;
-    }
-
     /**
      * Initializes the channelizer filter structures.
      *
@@ -389,14 +463,41 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      */
     private void init(float[] coefficients)
     {
-        mFFT = new FloatFFT_1D(getChannelCount());
+        mPrunedIFFTCrossover = PrunedInverseDFT.getCrossoverChannelCount(getChannelCount());
         int channelCount = getChannelCount();
         int bufferLength = getSubChannelCount() * mTapsPerChannel;
         mSamplesPerBlock = getChannelCount(); //Same as subChannelCount / 2
         mTopBlockMap = getTopBlockMap(channelCount);
         mMiddleBlockMap = getMiddleBlockMap(channelCount);
         mInlineFilter = getAlignedFilter(coefficients, channelCount, mTapsPerChannel);
-        mInlineSamples = new float[bufferLength];
+        mHistoryLength = bufferLength - mSamplesPerBlock;
+        mArrivalSamples = new float[bufferLength];
+        mPendingLength = 0;
+        mTopBlockIndicator = true;
+        createTasks();
+    }
+
+    /**
+     * Creates the filter and IFFT partition tasks for the current channel configuration and thread count.
+     */
+    private void createTasks()
+    {
+        if(mInlineFilter == null)
+        {
+            return;
+        }
+
+        FilterTask[] filterTasks = new FilterTask[mThreadCount];
+        IFFTTask[] ifftTasks = new IFFTTask[mThreadCount];
+
+        for(int x = 0; x < mThreadCount; x++)
+        {
+            filterTasks[x] = new FilterTask(getSubChannelCount());
+            ifftTasks[x] = new IFFTTask(getChannelCount());
+        }
+
+        mFilterTasks = filterTasks;
+        mIFFTTasks = ifftTasks;
     }
 
     /**
@@ -406,25 +507,83 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      */
     public class IFFTProcessor extends ContinuousBufferProcessor<ReusableChannelResultsBuffer>
     {
+        private List<PolyphaseChannelSource> mDispatchChannels = new ArrayList<>();
+
         public IFFTProcessor(int maximumSize, int resetThreshold)
         {
-            super(maximumSize, resetThreshold);
-
-            //We create a listener interface to receive the buffers from the scheduled thread pool
-            //dispatcher thread that is part of this continuous buffer processor.  We perform an IFFT on each
-            //channel results array contained in each results buffer and then dispatch the buffer
-            //so that it can be distributed to each channel listener.
+            //Channel results buffers are only enqueued from the channelizer's filter thread
+            super(new OverflowableTransferQueue<>(maximumSize, resetThreshold, true));
+            setSignalledProcessing(1, 5);
+
+            //We create a listener interface to receive the buffers from the signalled dispatcher thread that is
+            //part of this continuous buffer processor.  We perform an IFFT on each channel results array
+            //contained in each results buffer and then dispatch the buffer so that it can be distributed to
+            //each channel listener.  When only a few polyphase channels are
+            //consumed by the registered channel sources, we use the pruned inverse DFT to calculate only the
+            //consumed channels.  The active channel set is calculated from a snapshot of the registered channels
+            //and the buffers are dispatched to the same snapshot so that each channel only receives buffers that
+            //contain transformed results for the channel indices that it consumes.
             setListener(buffers -> {
+                mDispatchChannels.clear();
+                mDispatchChannels.addAll(getChannels());
+
+                IFFTTask[] ifftTasks = mIFFTTasks;
+
+                for(IFFTTask ifftTask: ifftTasks)
+                {
+                    ifftTask.clearRequestedChannels();
+                }
+
+                for(PolyphaseChannelSource channel: mDispatchChannels)
+                {
+                    for(Integer index: channel.getPolyphaseChannelIndices())
+                    {
+                        for(IFFTTask ifftTask: ifftTasks)
+                        {
+                            ifftTask.requestChannel(index);
+                        }
+                    }
+                }
+
+                boolean pruned = false;
+
+                for(IFFTTask ifftTask: ifftTasks)
+                {
+                    pruned = ifftTask.applyRequestedChannels(mPrunedIFFTCrossover);
+                }
+
+                ChannelizerWorkerPool workerPool = mIFFTWorkerPool;
+
                 for(ReusableChannelResultsBuffer buffer: buffers)
                 {
-                    for(float[] channelResults: buffer.getChannelResults())
+                    List<float[]> channelResults = buffer.getChannelResults();
+                    int resultsCount = channelResults.size();
+
+                    if(workerPool != null && resultsCount > 1)
+                    {
+                        int partitions = FastMath.min(FastMath.min(workerPool.getPartitionCount(), ifftTasks.length),
+                            resultsCount);
+                        int resultsPerPartition = (resultsCount + partitions - 1) / partitions;
+                        int partitionCount = 0;
+
+                        for(int start = 0; start < resultsCount; start += resultsPerPartition)
+                        {
+                            ifftTasks[partitionCount++].setResults(channelResults, start,
+                                FastMath.min(start + resultsPerPartition, resultsCount), pruned);
+                        }
+
+                        workerPool.run(ifftTasks, partitionCount);
+                    }
+                    else
                     {
-                        //Rotate each of the channels to the correct phase using the IFFT
-                        mFFT.complexInverse(channelResults, true);
+                        ifftTasks[0].setResults(channelResults, 0, resultsCount, pruned);
+                        ifftTasks[0].run();
                     }
 
-                    dispatch(buffer);
+                    dispatch(buffer, mDispatchChannels);
                 }
+
+                mDispatchChannels.clear();
             });
 
             setOverflowListener(overflow -> mLog.debug("IFFTProcessor overflow changed - overflow:" + overflow));
@@ -446,4 +605,165 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
             return buffersToDispose;
         }
     }
+
+    /**
+     * Filter stage partition task.  Filters a contiguous range of the blocks in the arrival sample buffer, using a
+     * dedicated accumulator, and writes the reordered results into the corresponding block results arrays.
+     */
+    public class FilterTask implements Runnable
+    {
+        private float[] mAccumulator;
+        private int mStartBlock;
+        private int mEndBlock;
+
+        /**
+         * Constructs an instance
+         * @param subChannelCount size of the accumulator
+         */
+        public FilterTask(int subChannelCount)
+        {
+            mAccumulator = new float[subChannelCount];
+        }
+
+        /**
+         * Sets the range of blocks to process
+         * @param startBlock inclusive
+         * @param endBlock exclusive
+         */
+        public void setBlocks(int startBlock, int endBlock)
+        {
+            mStartBlock = startBlock;
+            mEndBlock = endBlock;
+        }
+
+        /**
+         * Filters each block in the range.  The filter is aligned to the serpentine ordered sample buffer where the
+         * newest half-block of samples is first, so each half-block of filter coefficients is applied to the samples
+         * located the same number of half-blocks before the end of the block in the arrival sample buffer.  The
+         * multiply and accumulate steps are fused into a single contiguous pass per half-block so that the JIT
+         * compiler can vectorize the loop.
+         */
+        @Override
+        public void run()
+        {
+            float[] arrivalSamples = mArrivalSamples;
+            float[] filter = mInlineFilter;
+            int samplesPerBlock = mSamplesPerBlock;
+            int halfBlockCount = filter.length / samplesPerBlock;
+            int subChannelCount = mAccumulator.length;
+
+            for(int block = mStartBlock; block < mEndBlock; block++)
+            {
+                Arrays.fill(mAccumulator, 0.0f);
+
+                int blockEnd = mHistoryLength + ((block + 1) * samplesPerBlock);
+
+                for(int halfBlock = 0; halfBlock < halfBlockCount; halfBlock++)
+                {
+                    int samplesOffset = blockEnd - ((halfBlock + 1) * samplesPerBlock);
+                    int filterOffset = halfBlock * samplesPerBlock;
+                    int accumulatorOffset = (halfBlock % 2) * samplesPerBlock;
+
+                    for(int x = 0; x < samplesPerBlock; x++)
+                    {
+                        mAccumulator[accumulatorOffset + x] += arrivalSamples[samplesOffset + x] *
+                            filter[filterOffset + x];
+                    }
+                }
+
+                //Top and middle blocks alternate with each block
+                int[] blockMap = (mTopBlockIndicator == (block % 2 == 0)) ? mTopBlockMap : mMiddleBlockMap;
+                float[] processed = mBlockResults[block];
+
+                for(int x = 0; x < subChannelCount; x++)
+                {
+                    processed[x] = mAccumulator[blockMap[x]];
+                }
+            }
+        }
+    }
+
+    /**
+     * IFFT stage partition task.  Rotates each channel results array in a contiguous range of the channel results
+     * to the correct phase using either a full inverse FFT or the pruned inverse DFT.  Each task has a dedicated
+     * transform instance so that tasks can execute concurrently.
+     */
+    public class IFFTTask implements Runnable
+    {
+        private FloatFFT_1D mFFT;
+        private PrunedInverseDFT mPrunedInverseDFT;
+        private List<float[]> mChannelResults;
+        private int mStart;
+        private int mEnd;
+        private boolean mPruned;
+
+        /**
+         * Constructs an instance
+         * @param channelCount size of the transform
+         */
+        public IFFTTask(int channelCount)
+        {
+            mFFT = new FloatFFT_1D(channelCount);
+            mPrunedInverseDFT = new PrunedInverseDFT(channelCount);
+        }
+
+        /**
+         * Clears the requested channels for the pruned inverse DFT
+         */
+        public void clearRequestedChannels()
+        {
+            mPrunedInverseDFT.clearRequestedChannels();
+        }
+
+        /**
+         * Adds the channel index to the requested channels for the pruned inverse DFT
+         */
+        public void requestChannel(int index)
+        {
+            mPrunedInverseDFT.requestChannel(index);
+        }
+
+        /**
+         * Applies the requested channels to the pruned inverse DFT
+         * @param crossover active channel count below which the pruned inverse DFT should be used
+         * @return true if the active channel count is below the crossover and the pruned inverse DFT should be used
+         */
+        public boolean applyRequestedChannels(int crossover)
+        {
+            return mPrunedInverseDFT.applyRequestedChannels() < crossover;
+        }
+
+        /**
+         * Sets the range of channel results to process
+         * @param channelResults list
+         * @param start index inclusive
+         * @param end index exclusive
+         * @param pruned to use the pruned inverse DFT instead of the full inverse FFT
+         */
+        public void setResults(List<float[]> channelResults, int start, int end, boolean pruned)
+        {
+            mChannelResults = channelResults;
+            mStart = start;
+            mEnd = end;
+            mPruned = pruned;
+        }
+
+        @Override
+        public void run()
+        {
+            for(int x = mStart; x < mEnd; x++)
+            {
+                if(mPruned)
+                {
+                    mPrunedInverseDFT.inverse(mChannelResults.get(x));
+                }
+                else
+                {
+                    mFFT.complexInverse(mChannelResults.get(x), true);
+                }
+            }
+
+            mChannelResults = null;
+        }
+    }
 }
@@ -15,9 +15,11 @@
  ******************************************************************************/
 package io.github.dsheirer.dsp.filter.channelizer;
 
+import io.github.dsheirer.controller.NamingThreadFactory;
 import io.github.dsheirer.sample.IOverflowListener;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.OverflowableTransferQueue;
+import io.github.dsheirer.sample.QueueMetrics;
 import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,18 +28,29 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 public class ContinuousBufferProcessor<E> implements Listener<E>
 {
     private final static Logger mLog = LoggerFactory.getLogger(ContinuousBufferProcessor.class);
+    private static final ThreadFactory SIGNALLED_THREAD_FACTORY = new NamingThreadFactory("sdrtrunk buffer processor");
 
     protected OverflowableTransferQueue<E> mQueue;
     private Listener<List<E>> mListener;
     private ScheduledFuture<?> mScheduledFuture;
     private AtomicBoolean mRunning = new AtomicBoolean();
     private long mProcessingPeriod = 5; //milliseconds
+    private boolean mSignalledProcessing = false;
+    private int mBatchSize = 1;
+    private long mMaximumLatency = TimeUnit.MILLISECONDS.toNanos(5);
+    private volatile Thread mSignalledThread;
+    private SignalledProcessor mSignalledProcessor;
+    private Thread mStoppingSignalledThread;
+    private AtomicBoolean mSignalledThreadIdle = new AtomicBoolean();
 
     /**
      * Scheduled Buffer Processor combines an internal overflowable buffer with a scheduled runnable processing task
@@ -67,13 +80,50 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     }
 
     /**
-     * Sets the processing periodicity or run interval for how often the buffer queue is processed.
+     * Sets the processing periodicity or run interval for how often the buffer queue is processed.  Changes the
+     * processing mode back to scheduled (fixed rate) processing if signalled processing was previously enabled.
+     *
+     * Note: this method must be invoked before start().
      *
      * @param milliseconds (default = 5 milliseconds)
      */
     public void setProcessingPeriod(long milliseconds)
     {
         mProcessingPeriod = milliseconds;
+        mSignalledProcessing = false;
+    }
+
+    /**
+     * Changes the processing mode from scheduled (fixed rate) processing to signalled processing.  In signalled mode a
+     * dedicated consumer thread parks while the queue is empty and is signalled by the producer once an element is
+     * enqueued.  The consumer then waits until either the queued element count reaches the batch size or the maximum
+     * latency has elapsed since the first element was observed, whichever occurs first, and distributes the queued
+     * elements to the listener.  An idle processor does not wake up, and a batch size of 1 distributes each element
+     * as soon as it arrives.
+     *
+     * Note: this method must be invoked before start().
+     *
+     * @param batchSize number of queued elements that triggers immediate processing
+     * @param maximumLatency in milliseconds to wait for a full batch before processing the queued elements
+     */
+    public void setSignalledProcessing(int batchSize, long maximumLatency)
+    {
+        if(batchSize < 1)
+        {
+            throw new IllegalArgumentException("Batch size must be 1 or greater");
+        }
+
+        mBatchSize = batchSize;
+        mMaximumLatency = TimeUnit.MILLISECONDS.toNanos(maximumLatency);
+        mSignalledProcessing = true;
+    }
+
+    /**
+     * Indicates if this processor uses signalled processing (true) or scheduled fixed rate processing (false).
+     */
+    public boolean isSignalledProcessing()
+    {
+        return mSignalledProcessing;
     }
 
     /**
@@ -125,6 +175,20 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     public void receive(E e)
     {
         mQueue.offer(e);
+
+        Thread signalledThread = mSignalledThread;
+
+        if(signalledThread != null)
+        {
+            if(mSignalledThreadIdle.get() && mSignalledThreadIdle.compareAndSet(true, false))
+            {
+                LockSupport.unpark(signalledThread);
+            }
+            else if(mQueue.getSize() >= mBatchSize)
+            {
+                LockSupport.unpark(signalledThread);
+            }
+        }
     }
 
     /**
@@ -134,7 +198,18 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     {
         if(mRunning.compareAndSet(false, true))
         {
-            mScheduledFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(new Processor(), 0, mProcessingPeriod, TimeUnit.MILLISECONDS);
+            if(mSignalledProcessing)
+            {
+                mSignalledProcessor = new SignalledProcessor(mStoppingSignalledThread);
+                mStoppingSignalledThread = null;
+                mSignalledThread = SIGNALLED_THREAD_FACTORY.newThread(mSignalledProcessor);
+                mSignalledThread.start();
+            }
+            else
+            {
+                mScheduledFuture = ThreadPool.DSP.scheduleAtFixedRate(new Processor(), 0, mProcessingPeriod,
+                    TimeUnit.MILLISECONDS);
+            }
         }
     }
 
@@ -151,7 +226,10 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
                 mScheduledFuture = null;
             }
 
-            clearQueue();
+            if(stopSignalledThread(false))
+            {
+                clearQueue();
+            }
         }
     }
 
@@ -169,8 +247,61 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
                 mScheduledFuture = null;
             }
 
-            process();
+            if(stopSignalledThread(true))
+            {
+                process();
+            }
+        }
+    }
+
+    /**
+     * Signals the signalled processing thread to exit and waits (up to 1000 ms) for it to complete any in-progress
+     * processing so that queue clearing or flushing does not overlap with a dispatch to the listener.  When the
+     * listener is still processing after the timeout, the clear or flush is handed off to the signalled thread to
+     * perform once the listener returns, so that the queue is never touched while the listener is running.
+     *
+     * @param flush true to flush the queued buffers to the listener or false to clear them
+     * @return true if the calling thread should clear or flush the queue, or false if that was handed off to the
+     * signalled thread
+     */
+    private boolean stopSignalledThread(boolean flush)
+    {
+        Thread signalledThread = mSignalledThread;
+        SignalledProcessor signalledProcessor = mSignalledProcessor;
+        mSignalledThread = null;
+        mSignalledProcessor = null;
+
+        if(signalledThread == null)
+        {
+            return true;
+        }
+
+        LockSupport.unpark(signalledThread);
+
+        if(signalledThread == Thread.currentThread())
+        {
+            return true;
+        }
+
+        try
+        {
+            signalledThread.join(1000);
+        }
+        catch(InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        if(signalledThread.isAlive() && signalledProcessor.handOff(flush))
+        {
+            mLog.warn("Timeout waiting for buffer processor thread [" + signalledThread.getName() +
+                "] to stop - the listener is still processing and the thread will " + (flush ? "flush" : "clear") +
+                " the queue once it returns");
+            mStoppingSignalledThread = signalledThread;
+            return false;
         }
+
+        return true;
     }
 
     /**
@@ -205,6 +336,16 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
         return clearedElements;
     }
 
+    /**
+     * Snapshot of the metrics for the internal queue
+     *
+     * @param name to identify the queue
+     */
+    public QueueMetrics getQueueMetrics(String name)
+    {
+        return mQueue.getMetrics(name);
+    }
+
     /**
      * Indicates if this processor is currently running
      */
@@ -224,4 +365,111 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
             process();
         }
     }
+
+    /**
+     * Processor for signalled processing mode that parks while the queue is empty and distributes queued buffers to
+     * the listener once the batch size is reached or the maximum latency has elapsed.
+     */
+    class SignalledProcessor implements Runnable
+    {
+        private static final int EXIT_ACTION_NONE = 0;
+        private static final int EXIT_ACTION_CLEAR = 1;
+        private static final int EXIT_ACTION_FLUSH = 2;
+        private static final int EXITED = 3;
+
+        private final AtomicInteger mExitAction = new AtomicInteger(EXIT_ACTION_NONE);
+        private final Thread mPreviousThread;
+
+        /**
+         * Constructs an instance
+         *
+         * @param previousThread that was stopped while its listener was still processing, or null.  This processor
+         * waits for the previous thread to exit before it starts dispatching to the listener.
+         */
+        SignalledProcessor(Thread previousThread)
+        {
+            mPreviousThread = previousThread;
+        }
+
+        /**
+         * Hands off the final clear or flush of the queue to this processor's thread, to perform when it exits.
+         *
+         * @param flush true to flush the queue to the listener or false to clear it
+         * @return true if handed off, or false if the thread has already exited
+         */
+        boolean handOff(boolean flush)
+        {
+            return mExitAction.compareAndSet(EXIT_ACTION_NONE, flush ? EXIT_ACTION_FLUSH : EXIT_ACTION_CLEAR);
+        }
+
+        /**
+         * Indicates if this processor is running and has not been stopped or replaced by a restarted processor
+         */
+        private boolean isCurrent()
+        {
+            return mRunning.get() && mSignalledThread == Thread.currentThread();
+        }
+
+        @Override
+        public void run()
+        {
+            if(mPreviousThread != null)
+            {
+                try
+                {
+                    mPreviousThread.join();
+                }
+                catch(InterruptedException ie)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            while(isCurrent())
+            {
+                if(mQueue.getSize() == 0)
+                {
+                    mSignalledThreadIdle.set(true);
+
+                    //Check again after flagging idle so that we don't miss a signal from a concurrent producer
+                    if(mQueue.getSize() == 0 && isCurrent())
+                    {
+                        LockSupport.park(this);
+                    }
+
+                    mSignalledThreadIdle.set(false);
+                    continue;
+                }
+
+                long deadline = System.nanoTime() + mMaximumLatency;
+                long remaining = mMaximumLatency;
+
+                while(isCurrent() && mQueue.getSize() < mBatchSize && remaining > 0)
+                {
+                    LockSupport.parkNanos(this, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+
+                if(isCurrent())
+                {
+                    process();
+                }
+            }
+
+            int exitAction = mExitAction.getAndSet(EXITED);
+
+            //A restarted processor dispatches any remaining buffers once this thread exits
+            if(!mRunning.get())
+            {
+                if(exitAction == EXIT_ACTION_FLUSH)
+                {
+                    process();
+                }
+                else if(exitAction == EXIT_ACTION_CLEAR)
+                {
+                    clearQueue();
+                }
+            }
+        }
+    }
 }
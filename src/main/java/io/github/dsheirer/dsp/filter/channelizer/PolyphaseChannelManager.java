@@ -28,6 +28,7 @@ import io.github.dsheirer.dsp.filter.channelizer.output.TwoChannelOutputProcesso
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.QueueMetrics;
 import io.github.dsheirer.sample.buffer.IReusableComplexBufferProvider;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.ISourceEventProcessor;
@@ -42,6 +43,7 @@ import org.apache.commons.math3.util.FastMath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -84,6 +86,7 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
     private BufferSourceEventMonitor mBufferSourceEventMonitor = new BufferSourceEventMonitor();
     private ContinuousBufferProcessor<ReusableComplexBuffer> mBufferProcessor;
     private Map<Integer,float[]> mOutputProcessorFilters = new HashMap<>();
+    private int mChannelizerThreadCount = 1;
 
     /**
      * Creates a polyphase channel manager instance.
@@ -114,6 +117,8 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         mChannelCalculator = new ChannelCalculator(sampleRate, channelCount, frequency, CHANNEL_OVERSAMPLING);
 
         mBufferProcessor = new ContinuousBufferProcessor(200, 50);
+        //Process each tuner buffer as soon as it arrives instead of waiting for the next polling interval
+        mBufferProcessor.setSignalledProcessing(1, 5);
         mBufferProcessor.setListener(mBufferSourceEventMonitor);
     }
 
@@ -127,6 +132,17 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         this(tunerController, tunerController.getFrequency(), tunerController.getSampleRate());
     }
 
+    /**
+     * Sets the number of threads used by each of the polyphase channelizer filter and IFFT processing stages.  This
+     * value is applied the next time that the channelizer is created.
+     *
+     * @param threadCount for each channelizer processing stage
+     */
+    public void setChannelizerThreadCount(int threadCount)
+    {
+        mChannelizerThreadCount = FastMath.max(threadCount, 1);
+    }
+
     /**
      * Signals to all provisioned tuner channel sources that the source complex buffer provider has an error and can
      * no longer provide channels, so that the tuner channel source can notify the consumer of the error state.
@@ -155,6 +171,24 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         return mChannelCalculator.getChannelBandwidth();
     }
 
+    /**
+     * Snapshot of the metrics for the channelizer input sample buffer queue and the internal channelizer queue(s)
+     */
+    public List<QueueMetrics> getQueueMetrics()
+    {
+        List<QueueMetrics> metrics = new ArrayList<>();
+        metrics.add(mBufferProcessor.getQueueMetrics("channelizer input"));
+
+        ComplexPolyphaseChannelizerM2 channelizer = mPolyphaseChannelizer;
+
+        if(channelizer != null)
+        {
+            metrics.add(channelizer.getQueueMetrics());
+        }
+
+        return metrics;
+    }
+
     /**
      * Provides a Digital Drop Channel (DDC) for the specified tuner channel or returns null if the channel can't be
      * sourced due to the current center frequency and/or sample rate.
@@ -345,6 +379,7 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
             {
                 mPolyphaseChannelizer = new ComplexPolyphaseChannelizerM2(tunerSampleRate,
                     POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL);
+                mPolyphaseChannelizer.setThreadCount(mChannelizerThreadCount);
             }
             catch(IllegalArgumentException iae)
             {
@@ -33,7 +33,10 @@ import io.github.dsheirer.source.tuner.channel.ChannelSpecification;
 import io.github.dsheirer.source.tuner.channel.TunerChannel;
 import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class PolyphaseChannelSource extends TunerChannelSource
@@ -107,6 +110,31 @@ public class PolyphaseChannelSource extends TunerChannelSource
         return mPolyphaseChannelOutputProcessor;
     }
 
+    /**
+     * Polyphase channel indices consumed by this channel source.  When an output processor replacement is pending,
+     * the indices consumed by both the current and the replacement output processors are included, since the swap
+     * can occur while processing the next channel results buffer.
+     */
+    public List<Integer> getPolyphaseChannelIndices()
+    {
+        IPolyphaseChannelOutputProcessor current = mPolyphaseChannelOutputProcessor;
+        IPolyphaseChannelOutputProcessor replacement = mReplacementPolyphaseChannelOutputProcessor;
+
+        if(current == null)
+        {
+            return replacement != null ? replacement.getPolyphaseChannelIndices() : Collections.emptyList();
+        }
+
+        if(replacement == null)
+        {
+            return current.getPolyphaseChannelIndices();
+        }
+
+        List<Integer> indices = new ArrayList<>(current.getPolyphaseChannelIndices());
+        indices.addAll(replacement.getPolyphaseChannelIndices());
+        return indices;
+    }
+
     /**
      * Sets/updates the output processor for this channel source, replacing the existing output processor.
      *
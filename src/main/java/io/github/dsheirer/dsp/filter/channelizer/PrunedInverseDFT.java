@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.Arrays;
+
+/**
+ * Output-pruned inverse Discrete Fourier Transform (DFT) for the polyphase channelizer.
+ *
+ * The channelizer rotates each polyphase channel to the correct phase using a full inverse FFT across all channels,
+ * even when only a few channels are consumed by channel sources.  This transform calculates the inverse DFT output
+ * only for the requested channel indices, using a direct dot product of the input samples against precomputed
+ * (and pre-scaled) cosine/sine rows for each requested channel.  The cost is proportional to the number of requested
+ * channels (N multiply-adds per channel) instead of N * log2(N) for the full transform, so it is cheaper when the
+ * requested channel count is small.
+ *
+ * Output samples are written in place at the requested channel index positions of the interleaved I/Q samples
+ * array and scaled by 1/N to match FloatFFT_1D.complexInverse(samples, true).  Values at the non-requested channel
+ * index positions are left in an undefined (untransformed) state.
+ *
+ * This class is NOT thread safe.  Requested channels are updated and the transform is applied on the same thread.
+ */
+public class PrunedInverseDFT
+{
+
+    /**
+     * Heuristic crossover, in requested channels per log2(N), estimated from operation counts and not from
+     * measurements: the full FFT costs roughly 5 * N * log2(N) flops and the pruned transform costs 8 * N flops per
+     * requested channel, so the two are about equal near 0.6 * log2(N) requested channels.  The actual crossover
+     * depends on the host and the FFT implementation and can be measured with PrunedInverseDFTBenchmark.
+     */
+    private static final double CROSSOVER_PER_LOG2_CHANNELS = 0.6;
+
+    private int mChannelCount;
+    private boolean[] mRequestedChannels;
+    private boolean[] mActiveChannels;
+    private int[] mActiveIndices;
+    private int mActiveCount;
+    private float[][] mCosines;
+    private float[][] mSines;
+    private float[] mInphase;
+    private float[] mQuadrature;
+
+    /**
+     * Constructs an instance
+     * @param channelCount number of polyphase channels (ie size of the inverse transform)
+     */
+    public PrunedInverseDFT(int channelCount)
+    {
+        mChannelCount = channelCount;
+        mRequestedChannels = new boolean[channelCount];
+        mActiveChannels = new boolean[channelCount];
+        mActiveIndices = new int[channelCount];
+        mCosines = new float[0][];
+        mSines = new float[0][];
+        mInphase = new float[channelCount];
+        mQuadrature = new float[channelCount];
+    }
+
+    /**
+     * Heuristic number of requested channels below which the pruned transform is expected to be cheaper than the full
+     * inverse FFT for the specified transform size.  See CROSSOVER_PER_LOG2_CHANNELS.
+     *
+     * @param channelCount size of the transform
+     * @return crossover requested channel count
+     */
+    public static int getCrossoverChannelCount(int channelCount)
+    {
+        return (int)(CROSSOVER_PER_LOG2_CHANNELS * FastMath.log(channelCount) / FastMath.log(2.0));
+    }
+
+    /**
+     * Clears the set of requested channels.  Use requestChannel() to build the new set of requested channels and then
+     * apply the set using applyRequestedChannels().
+     */
+    public void clearRequestedChannels()
+    {
+        Arrays.fill(mRequestedChannels, false);
+    }
+
+    /**
+     * Adds the channel index to the set of requested channels.  Indices outside of the channel range are ignored.
+     * @param index of the polyphase channel
+     */
+    public void requestChannel(int index)
+    {
+        if(0 <= index && index < mChannelCount)
+        {
+            mRequestedChannels[index] = true;
+        }
+    }
+
+    /**
+     * Applies the set of requested channels, updating the twiddle factor rows when the set of channels has changed.
+     *
+     * @return number of active channels
+     */
+    public int applyRequestedChannels()
+    {
+        if(!Arrays.equals(mRequestedChannels, mActiveChannels))
+        {
+            System.arraycopy(mRequestedChannels, 0, mActiveChannels, 0, mChannelCount);
+
+            mActiveCount = 0;
+
+            for(int x = 0; x < mChannelCount; x++)
+            {
+                if(mActiveChannels[x])
+                {
+                    mActiveIndices[mActiveCount++] = x;
+                }
+            }
+
+            mCosines = new float[mActiveCount][];
+            mSines = new float[mActiveCount][];
+
+            for(int x = 0; x < mActiveCount; x++)
+            {
+                mCosines[x] = new float[mChannelCount];
+                mSines[x] = new float[mChannelCount];
+
+                int channel = mActiveIndices[x];
+
+                for(int n = 0; n < mChannelCount; n++)
+                {
+                    //Reduce the angle index modulo N to preserve precision for large channel counts
+                    double angle = 2.0 * FastMath.PI * (((long)channel * n) % mChannelCount) / mChannelCount;
+                    mCosines[x][n] = (float)(FastMath.cos(angle) / mChannelCount);
+                    mSines[x][n] = (float)(FastMath.sin(angle) / mChannelCount);
+                }
+            }
+        }
+
+        return mActiveCount;
+    }
+
+    /**
+     * Number of currently active channels
+     */
+    public int getActiveChannelCount()
+    {
+        return mActiveCount;
+    }
+
+    /**
+     * Calculates the scaled inverse DFT output for each active channel and stores the result in place.
+     *
+     * @param samples interleaved I/Q samples with length of 2 * channel count
+     */
+    public void inverse(float[] samples)
+    {
+        for(int n = 0; n < mChannelCount; n++)
+        {
+            mInphase[n] = samples[2 * n];
+            mQuadrature[n] = samples[2 * n + 1];
+        }
+
+        for(int x = 0; x < mActiveCount; x++)
+        {
+            float[] cosines = mCosines[x];
+            float[] sines = mSines[x];
+
+            float inphase = 0.0f;
+            float quadrature = 0.0f;
+
+            for(int n = 0; n < mChannelCount; n++)
+            {
+                inphase += (mInphase[n] * cosines[n]) - (mQuadrature[n] * sines[n]);
+                quadrature += (mInphase[n] * sines[n]) + (mQuadrature[n] * cosines[n]);
+            }
+
+            int offset = 2 * mActiveIndices[x];
+            samples[offset] = inphase;
+            samples[offset + 1] = quadrature;
+        }
+    }
+}
@@ -29,17 +29,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputProcessor
 {
     private final static Logger mLog = LoggerFactory.getLogger(ChannelOutputProcessor.class);
+    private static final int RESULTS_QUEUE_MAXIMUM_SIZE = 5 * 152;
+    private static final int RESULTS_QUEUE_RESET_THRESHOLD = 2 * 152;
 
     private OverflowableReusableBufferTransferQueue<ReusableChannelResultsBuffer> mChannelResultsQueue;
     private List<ReusableChannelResultsBuffer> mChannelResultsToProcess = new ArrayList<>();
     private int mMaxResultsToProcess;
 
     private int mInputChannelCount;
+    private volatile List<Integer> mPolyphaseChannelIndices = Collections.emptyList();
     private IOscillator mFrequencyCorrectionMixer;
     private boolean mFrequencyCorrectionEnabled;
     private double mGain = 1.0;
@@ -61,7 +65,10 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
         mFrequencyCorrectionMixer = new Oscillator(0, sampleRate);
         mMaxResultsToProcess = (int)(sampleRate / 10) * 2;  //process at 100 millis interval, twice the expected inflow rate
 
-        mChannelResultsQueue = new OverflowableReusableBufferTransferQueue<>((int)(sampleRate * 3), (int)(sampleRate * 0.5));
+        //Channel results buffers arrive from the single channelizer IFFT dispatch thread at roughly 152 buffers a
+        //second, so the queue is sized in buffers where max = 5 seconds and reset = 2 seconds worth of buffers
+        mChannelResultsQueue = new OverflowableReusableBufferTransferQueue<>(RESULTS_QUEUE_MAXIMUM_SIZE,
+            RESULTS_QUEUE_RESET_THRESHOLD, true);
     }
 
     protected double getGain()
@@ -75,6 +82,23 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
         return mInputChannelCount;
     }
 
+    /**
+     * Stores a copy of the polyphase channel indices consumed by this output processor.  Sub-class implementations
+     * should invoke this method after validating the indices.
+     * @param indexes consumed by this output processor
+     */
+    @Override
+    public void setPolyphaseChannelIndices(List<Integer> indexes)
+    {
+        mPolyphaseChannelIndices = new ArrayList<>(indexes);
+    }
+
+    @Override
+    public List<Integer> getPolyphaseChannelIndices()
+    {
+        return mPolyphaseChannelIndices;
+    }
+
     public void dispose()
     {
         if(mChannelResultsQueue != null)
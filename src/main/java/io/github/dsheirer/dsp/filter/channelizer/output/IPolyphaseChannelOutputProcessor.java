@@ -64,6 +64,11 @@ public interface IPolyphaseChannelOutputProcessor
      */
     int getPolyphaseChannelIndexCount();
 
+    /**
+     * Current polyphase channel indices consumed by this output processor
+     */
+    List<Integer> getPolyphaseChannelIndices();
+
     /**
      * Updates the synthesis filter taps for this output processor
      * @param filter
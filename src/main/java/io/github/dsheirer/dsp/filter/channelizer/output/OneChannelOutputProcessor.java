@@ -68,6 +68,8 @@ public class OneChannelOutputProcessor extends ChannelOutputProcessor
         //Set the channelized output results offset to twice the channel index to account for each channel having
         //an I/Q pair
         mChannelOffset = indexes.get(0) * 2;
+
+        super.setPolyphaseChannelIndices(indexes);
     }
 
     /**
@@ -85,6 +85,8 @@ public class TwoChannelOutputProcessor extends ChannelOutputProcessor
         //an I/Q pair
         mChannelOffset1 = indexes.get(0) * 2;
         mChannelOffset2 = indexes.get(1) * 2;
+
+        super.setPolyphaseChannelIndices(indexes);
     }
 
     /**
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.fir;
+
+/**
+ * Single stage of a multi-stage decimation plan produced by the FilterFactory, describing the decimation factor and
+ * the anti-aliasing filter coefficients designed for the stage input sample rate.
+ */
+public class DecimationStage
+{
+    private double mInputSampleRate;
+    private int mDecimation;
+    private float[] mCoefficients;
+
+    /**
+     * Constructs an instance
+     *
+     * @param inputSampleRate for this stage
+     * @param decimation factor for this stage
+     * @param coefficients for the anti-aliasing filter for this stage
+     */
+    public DecimationStage(double inputSampleRate, int decimation, float[] coefficients)
+    {
+        mInputSampleRate = inputSampleRate;
+        mDecimation = decimation;
+        mCoefficients = coefficients;
+    }
+
+    /**
+     * Sample rate of the samples entering this stage
+     */
+    public double getInputSampleRate()
+    {
+        return mInputSampleRate;
+    }
+
+    /**
+     * Sample rate of the samples produced by this stage
+     */
+    public double getOutputSampleRate()
+    {
+        return mInputSampleRate / mDecimation;
+    }
+
+    /**
+     * Decimation factor for this stage
+     */
+    public int getDecimation()
+    {
+        return mDecimation;
+    }
+
+    /**
+     * Anti-aliasing filter coefficients for this stage
+     */
+    public float[] getCoefficients()
+    {
+        return mCoefficients;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Decimation Stage - input rate [" + mInputSampleRate + "] decimation [" + mDecimation + "] taps [" +
+            mCoefficients.length + "]";
+    }
+}
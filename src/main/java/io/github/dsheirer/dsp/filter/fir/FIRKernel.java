@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.fir;
+
+/**
+ * FIR filter convolution kernel types, selected by analyzing the structure of the filter coefficients.
+ */
+public enum FIRKernel
+{
+    /**
+     * Direct form kernel that multiplies every tap.
+     */
+    GENERAL,
+
+    /**
+     * Folded kernel for linear phase (symmetric) coefficients where h[n] = h[N-1-n].  The two samples that share a
+     * coefficient are added before multiplying, halving the number of multiplies.
+     */
+    SYMMETRIC,
+
+    /**
+     * Folded kernel for odd-length symmetric half-band coefficients where every other tap (except the center tap)
+     * is zero.  Zero-valued taps are skipped and the remaining taps are folded, so the number of multiplies is
+     * approximately one quarter of the tap count.
+     */
+    HALF_BAND;
+
+    /**
+     * Relative tolerance used to compare coefficients, scaled by the largest coefficient magnitude.
+     */
+    private static final float TOLERANCE = 1.0E-6f;
+
+    /**
+     * Determines the most efficient kernel that produces the same response as the direct form kernel for the
+     * coefficients.
+     *
+     * @param coefficients to analyze
+     * @return kernel type
+     */
+    public static FIRKernel getKernel(float[] coefficients)
+    {
+        int length = coefficients.length;
+
+        if(length < 3)
+        {
+            return GENERAL;
+        }
+
+        float maximum = 0.0f;
+
+        for(float coefficient: coefficients)
+        {
+            maximum = Math.max(maximum, Math.abs(coefficient));
+        }
+
+        float tolerance = maximum * TOLERANCE;
+
+        for(int x = 0; x < length / 2; x++)
+        {
+            if(Math.abs(coefficients[x] - coefficients[length - 1 - x]) > tolerance)
+            {
+                return GENERAL;
+            }
+        }
+
+        if(length % 2 == 1)
+        {
+            int center = length / 2;
+
+            //Taps at an even (non-zero) distance from the center tap must be zero-valued
+            for(int x = center % 2; x < center; x += 2)
+            {
+                if(Math.abs(coefficients[x]) > tolerance)
+                {
+                    return SYMMETRIC;
+                }
+            }
+
+            if(Math.abs(coefficients[center]) > tolerance)
+            {
+                return HALF_BAND;
+            }
+        }
+
+        return SYMMETRIC;
+    }
+
+    /**
+     * Creates the folded coefficients for this kernel type.
+     *
+     * SYMMETRIC: the first half of the coefficients, followed by the center coefficient for odd-length filters.
+     *
+     * HALF_BAND: the non-zero coefficients from the first half (every other coefficient, starting with the first
+     * coefficient that has an odd distance from the center tap), followed by the center coefficient.
+     *
+     * GENERAL: a copy of the coefficients.
+     *
+     * @param coefficients to fold
+     * @return folded coefficients
+     */
+    public float[] fold(float[] coefficients)
+    {
+        int length = coefficients.length;
+        int center = length / 2;
+
+        switch(this)
+        {
+            case SYMMETRIC:
+                float[] symmetric = new float[(length + 1) / 2];
+                System.arraycopy(coefficients, 0, symmetric, 0, symmetric.length);
+                return symmetric;
+            case HALF_BAND:
+                int first = getHalfBandFirstTap(length);
+                float[] halfBand = new float[(center - first + 1) / 2 + 1];
+
+                for(int x = 0; x < halfBand.length - 1; x++)
+                {
+                    halfBand[x] = coefficients[first + 2 * x];
+                }
+
+                halfBand[halfBand.length - 1] = coefficients[center];
+                return halfBand;
+            case GENERAL:
+            default:
+                return coefficients.clone();
+        }
+    }
+
+    /**
+     * Index of the first non-zero tap in an odd-length half-band filter (ie the first tap that is an odd distance
+     * from the center tap).
+     *
+     * @param length of the filter
+     * @return 0 or 1
+     */
+    public static int getHalfBandFirstTap(int length)
+    {
+        return (length / 2 + 1) % 2;
+    }
+}
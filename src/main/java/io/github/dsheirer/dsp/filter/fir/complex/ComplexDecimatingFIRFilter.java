@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.fir.complex;
+
+import io.github.dsheirer.dsp.filter.fir.DecimationStage;
+import io.github.dsheirer.dsp.filter.fir.FIRFilter;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+
+/**
+ * Decimating complex FIR filter that applies real filter coefficients to interleaved complex (I/Q) samples and only
+ * calculates the retained output samples.
+ *
+ * This is the commutator form of a polyphase decimator: every complex input sample is loaded into the delay line,
+ * but the inphase and quadrature dot products are only calculated once for every decimation factor input samples.
+ * The cost per input sample is tap count / decimation multiply-accumulates per rail instead of the tap count required
+ * to filter at the input rate and then discard the unused outputs.  The output is identical to ComplexFIRFilter2
+ * output where only every decimation-th sample is kept.
+ *
+ * The delay line is the same interleaved double-length circular buffer used by ComplexFIRFilter2 and the decimation
+ * phase is preserved across sample blocks, so input blocks can be any length.
+ */
+public class ComplexDecimatingFIRFilter extends FIRFilter
+{
+
+    //Recycling queues for the two most recent output block sizes.  The output block size alternates between two
+    //values as the decimation phase changes, so each queue only recycles buffers that are already the right size.
+    private ReusableComplexBufferQueue[] mReusableComplexBufferQueues = new ReusableComplexBufferQueue[2];
+    private int[] mQueueSizes = {-1, -1};
+    private int mQueueIndex;
+    private float[] mData;
+    private float[] mCoefficients;
+    private int mTapCount;
+    private int mPointer;
+    private int mDecimation;
+    private int mPhase;
+    private float mGain;
+
+    /**
+     * Constructs an instance
+     *
+     * @param coefficients - filter taps
+     * @param decimation factor - integer value of 1 or greater
+     * @param gain - gain to apply to filtered outputs - use 1.0f for no gain
+     */
+    public ComplexDecimatingFIRFilter(float[] coefficients, int decimation, float gain)
+    {
+        if(decimation < 1)
+        {
+            throw new IllegalArgumentException("Decimation factor must be 1 or greater");
+        }
+
+        mCoefficients = coefficients;
+        mTapCount = coefficients.length;
+        mData = new float[mTapCount * 4];
+        mDecimation = decimation;
+        mGain = gain;
+    }
+
+    /**
+     * Constructs an instance that uses a default gain of 1.0f.
+     *
+     * @param coefficients - filter taps
+     * @param decimation factor - integer value of 1 or greater
+     */
+    public ComplexDecimatingFIRFilter(float[] coefficients, int decimation)
+    {
+        this(coefficients, decimation, 1.0f);
+    }
+
+    /**
+     * Constructs an instance from a decimation stage produced by the FilterFactory decimation planner.
+     *
+     * @param stage containing the filter coefficients and decimation factor
+     */
+    public ComplexDecimatingFIRFilter(DecimationStage stage)
+    {
+        this(stage.getCoefficients(), stage.getDecimation());
+    }
+
+    /**
+     * Decimation factor for this filter
+     */
+    public int getDecimation()
+    {
+        return mDecimation;
+    }
+
+    /**
+     * Number of complex output samples that will be produced from the next block of complex samples.
+     *
+     * @param sampleCount number of complex input samples
+     * @return number of complex output samples
+     */
+    public int getOutputCount(int sampleCount)
+    {
+        return (mPhase + sampleCount) / mDecimation;
+    }
+
+    /**
+     * Filters and decimates a block of interleaved complex samples.  The samples and decimated arrays can be the same
+     * array.
+     *
+     * @param samples interleaved I/Q samples to filter
+     * @param decimated array to receive the decimated interleaved I/Q samples, with a length equal to or greater than
+     * twice the value returned from getOutputCount() for the complex sample count.
+     * @return number of complex samples written to the decimated array
+     */
+    public int filter(float[] samples, float[] decimated)
+    {
+        return filter(samples, samples.length, decimated);
+    }
+
+    /**
+     * Filters and decimates the first length values of a block of interleaved complex samples.  The samples and
+     * decimated arrays can be the same array, which allows multiple decimation stages to be chained over a single
+     * working array.
+     *
+     * @param samples interleaved I/Q samples to filter
+     * @param length of the interleaved sample values to filter (ie twice the complex sample count)
+     * @param decimated array to receive the decimated interleaved I/Q samples, with a length equal to or greater than
+     * twice the value returned from getOutputCount() for the complex sample count.
+     * @return number of complex samples written to the decimated array
+     */
+    public int filter(float[] samples, int length, float[] decimated)
+    {
+        float[] data = mData;
+        float[] coefficients = mCoefficients;
+        int tapCount = mTapCount;
+        int mirror = 2 * tapCount;
+        int pointer = mPointer;
+        int phase = mPhase;
+        int offset = 0;
+
+        for(int x = 0; x < length; x += 2)
+        {
+            pointer = (pointer == 0 ? tapCount : pointer) - 1;
+            int start = 2 * pointer;
+            data[start] = samples[x];
+            data[start + 1] = samples[x + 1];
+            data[start + mirror] = samples[x];
+            data[start + mirror + 1] = samples[x + 1];
+
+            if(++phase == mDecimation)
+            {
+                phase = 0;
+
+                float inphase = 0.0f;
+                float quadrature = 0.0f;
+
+                for(int y = 0; y < tapCount; y++)
+                {
+                    float coefficient = coefficients[y];
+                    int index = start + 2 * y;
+                    inphase = Math.fma(data[index], coefficient, inphase);
+                    quadrature = Math.fma(data[index + 1], coefficient, quadrature);
+                }
+
+                decimated[offset++] = inphase * mGain;
+                decimated[offset++] = quadrature * mGain;
+            }
+        }
+
+        mPointer = pointer;
+        mPhase = phase;
+
+        return offset / 2;
+    }
+
+    /**
+     * Filters and decimates the complex samples from the reusable buffer and returns a new complex buffer with the
+     * decimated output
+     *
+     * Note: the original reusable buffer user count is decremented and a new reusable buffer is returned
+     * with the user count already incremented to one.
+     *
+     * @param originalBuffer with complex samples to filter
+     * @return new buffer containing decimated complex samples
+     */
+    public ReusableComplexBuffer filter(ReusableComplexBuffer originalBuffer)
+    {
+        float[] samples = originalBuffer.getSamples();
+
+        int size = 2 * getOutputCount(samples.length / 2);
+        ReusableComplexBuffer decimatedBuffer = getReusableComplexBufferQueue(size).getBuffer(size);
+        decimatedBuffer.setTimestamp(originalBuffer.getTimestamp());
+
+        filter(samples, decimatedBuffer.getSamples());
+
+        originalBuffer.decrementUserCount();
+
+        return decimatedBuffer;
+    }
+
+    /**
+     * Recycling queue for output buffers of the specified size.  Replaces the least recently used queue when neither
+     * queue matches the size.
+     *
+     * @param size of the output buffer sample array
+     * @return queue
+     */
+    private ReusableComplexBufferQueue getReusableComplexBufferQueue(int size)
+    {
+        if(mQueueSizes[mQueueIndex] != size)
+        {
+            mQueueIndex = 1 - mQueueIndex;
+
+            if(mQueueSizes[mQueueIndex] != size)
+            {
+                if(mReusableComplexBufferQueues[mQueueIndex] != null)
+                {
+                    mReusableComplexBufferQueues[mQueueIndex].dispose();
+                }
+
+                mReusableComplexBufferQueues[mQueueIndex] =
+                    new ReusableComplexBufferQueue("Complex Decimating FIR Filter");
+                mQueueSizes[mQueueIndex] = size;
+            }
+        }
+
+        return mReusableComplexBufferQueues[mQueueIndex];
+    }
+
+    @Override
+    public void dispose()
+    {
+        mCoefficients = null;
+        mData = null;
+
+        for(ReusableComplexBufferQueue queue: mReusableComplexBufferQueues)
+        {
+            if(queue != null)
+            {
+                queue.dispose();
+            }
+        }
+    }
+}
@@ -16,33 +16,46 @@
 package io.github.dsheirer.dsp.filter.fir.complex;
 
 import io.github.dsheirer.dsp.filter.fir.FIRFilter;
-import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
 import io.github.dsheirer.sample.complex.Complex;
 
+/**
+ * Complex FIR filter that applies real filter coefficients to interleaved complex (I/Q) samples.
+ *
+ * The delay line holds interleaved I/Q samples in a double-length circular buffer where each complex sample is
+ * written twice, at complex index and complex index + tap count.  The most recent tap count complex samples are
+ * always contiguous (newest sample first), so the inphase and quadrature dot products are computed in a single pass
+ * over one contiguous interleaved window without de-interleaving and without shifting the delay line.
+ */
 public class ComplexFIRFilter2 extends FIRFilter
 {
     private ReusableComplexBufferQueue mReusableComplexBufferQueue = new ReusableComplexBufferQueue("Complex FIR Filter");
-    private RealFIRFilter2 mIFilter;
-    private RealFIRFilter2 mQFilter;
+    private float[] mData;
+    private float[] mCoefficients;
+    private int mTapCount;
+    private int mPointer;
+    private float mGain;
+    private float mInphaseAccumulator;
+    private float mQuadratureAccumulator;
 
     /**
-     * Complex FIR Filter for processing complex sample pairs that internally uses two RealFIRFilter
-     * instances.
+     * Complex FIR Filter for processing interleaved complex sample pairs.
      *
      * @param coefficients - filter taps
      * @param gain - gain to apply to filtered outputs - use 1.0f for no gain
      */
     public ComplexFIRFilter2(float[] coefficients, float gain)
     {
-        mIFilter = new RealFIRFilter2(coefficients, gain);
-        mQFilter = new RealFIRFilter2(coefficients, gain);
+        mCoefficients = coefficients;
+        mTapCount = coefficients.length;
+        mGain = gain;
+        mData = new float[mTapCount * 4];
     }
 
     /**
-     * Complex FIR Filter for processing complex sample pairs that internally uses two RealFIRFilter
-     * instances.  This constructor uses a default gain of 1.0f.
+     * Complex FIR Filter for processing interleaved complex sample pairs.  This constructor uses a default gain of
+     * 1.0f.
      *
      * @param coefficients - filter taps
      */
@@ -53,12 +66,29 @@ public class ComplexFIRFilter2 extends FIRFilter
 
     /**
      * Filters the inphase sample value.
+     *
+     * Note: this method loads a new complex sample into the delay line and must be followed by a call to
+     * filterQuadrature() with the quadrature value of the same complex sample.
+     *
      * @param sample to filter
      * @return filtered sample
      */
     public float filterInphase(float sample)
     {
-        return mIFilter.filter(sample);
+        mPointer = (mPointer == 0 ? mTapCount : mPointer) - 1;
+        int offset = 2 * mPointer;
+        mData[offset] = sample;
+        mData[offset + 2 * mTapCount] = sample;
+
+        float accumulator = 0.0f;
+
+        for(int x = 0; x < mTapCount; x++)
+        {
+            accumulator = Math.fma(mData[offset + 2 * x], mCoefficients[x], accumulator);
+        }
+
+        mInphaseAccumulator = accumulator * mGain;
+        return mInphaseAccumulator;
     }
 
     /**
@@ -66,17 +96,32 @@ public class ComplexFIRFilter2 extends FIRFilter
      */
     public float currentInphaseValue()
     {
-        return mIFilter.currentValue();
+        return mInphaseAccumulator;
     }
 
     /**
      * Filters the quadrature sample value.
+     *
+     * Note: this method completes the complex sample loaded by the preceding call to filterInphase().
+     *
      * @param sample to filter
      * @return filtered sample
      */
     public float filterQuadrature(float sample)
     {
-        return mQFilter.filter(sample);
+        int offset = 2 * mPointer + 1;
+        mData[offset] = sample;
+        mData[offset + 2 * mTapCount] = sample;
+
+        float accumulator = 0.0f;
+
+        for(int x = 0; x < mTapCount; x++)
+        {
+            accumulator = Math.fma(mData[offset + 2 * x], mCoefficients[x], accumulator);
+        }
+
+        mQuadratureAccumulator = accumulator * mGain;
+        return mQuadratureAccumulator;
     }
 
     /**
@@ -84,7 +129,7 @@ public class ComplexFIRFilter2 extends FIRFilter
      */
     public float currentQuadratureValue()
     {
-        return mQFilter.currentValue();
+        return mQuadratureAccumulator;
     }
 
     /**
@@ -100,6 +145,56 @@ public class ComplexFIRFilter2 extends FIRFilter
         return new Complex(i, q);
     }
 
+    /**
+     * Filters a block of interleaved complex samples.  The samples and filtered arrays can be the same array to
+     * filter in place.
+     *
+     * @param samples interleaved I/Q samples to filter
+     * @param filtered array to receive the filtered interleaved I/Q samples, with a length equal to or greater than
+     * the samples array length
+     */
+    public void filter(float[] samples, float[] filtered)
+    {
+        float[] data = mData;
+        float[] coefficients = mCoefficients;
+        int tapCount = mTapCount;
+        int mirror = 2 * tapCount;
+        int pointer = mPointer;
+        float gain = mGain;
+        float inphase = mInphaseAccumulator;
+        float quadrature = mQuadratureAccumulator;
+
+        for(int x = 0; x < samples.length; x += 2)
+        {
+            pointer = (pointer == 0 ? tapCount : pointer) - 1;
+            int offset = 2 * pointer;
+            data[offset] = samples[x];
+            data[offset + 1] = samples[x + 1];
+            data[offset + mirror] = samples[x];
+            data[offset + mirror + 1] = samples[x + 1];
+
+            inphase = 0.0f;
+            quadrature = 0.0f;
+
+            for(int y = 0; y < tapCount; y++)
+            {
+                float coefficient = coefficients[y];
+                int index = offset + 2 * y;
+                inphase = Math.fma(data[index], coefficient, inphase);
+                quadrature = Math.fma(data[index + 1], coefficient, quadrature);
+            }
+
+            inphase *= gain;
+            quadrature *= gain;
+            filtered[x] = inphase;
+            filtered[x + 1] = quadrature;
+        }
+
+        mPointer = pointer;
+        mInphaseAccumulator = inphase;
+        mQuadratureAccumulator = quadrature;
+    }
+
     /**
      * Filters the complex samples from the reusable buffer and returns a new complex buffer with the filtered output
      *
@@ -114,14 +209,7 @@ public class ComplexFIRFilter2 extends FIRFilter
         ReusableComplexBuffer filteredBuffer = mReusableComplexBufferQueue.getBuffer(originalBuffer.getSamples().length);
         filteredBuffer.setTimestamp(originalBuffer.getTimestamp());
 
-        float[] samples = originalBuffer.getSamples();
-        float[] filteredSamples = filteredBuffer.getSamples();
-
-        for(int x = 0; x < originalBuffer.getSamples().length; x += 2)
-        {
-            filteredSamples[x] = filterInphase(samples[x]);
-            filteredSamples[x + 1] = filterQuadrature(samples[x + 1]);
-        }
+        filter(originalBuffer.getSamples(), filteredBuffer.getSamples());
 
         originalBuffer.decrementUserCount();
 
@@ -131,8 +219,8 @@ public class ComplexFIRFilter2 extends FIRFilter
     @Override
     public void dispose()
     {
-        mIFilter.dispose();
-        mQFilter.dispose();
+        mCoefficients = null;
+        mData = null;
         mReusableComplexBufferQueue.dispose();
     }
 }
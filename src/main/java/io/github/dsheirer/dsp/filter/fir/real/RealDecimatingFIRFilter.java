@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.fir.real;
+
+import io.github.dsheirer.dsp.filter.fir.FIRFilter;
+import io.github.dsheirer.sample.buffer.ReusableBufferQueue;
+import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
+
+/**
+ * Decimating Finite Impulse Response (FIR) filter for float samples that only calculates the retained output samples.
+ *
+ * This is the commutator form of a polyphase decimator: every input sample is loaded into the delay line, but the
+ * convolution is only calculated once for every decimation factor input samples, so the cost per input sample is
+ * tap count / decimation multiply-accumulates instead of the tap count required to filter at the input rate and
+ * then discard the unused outputs.  The output is identical to filtering at the full rate and keeping every
+ * decimation-th sample.
+ *
+ * The delay line is a double-length circular buffer (see RealFIRFilter2) and the decimation phase is preserved
+ * across sample blocks, so input blocks can be any length.
+ */
+public class RealDecimatingFIRFilter extends FIRFilter
+{
+    //Recycling queues for the two most recent output block sizes.  The output block size alternates between two
+    //values as the decimation phase changes, so each queue only recycles buffers that are already the right size.
+    private ReusableBufferQueue[] mReusableBufferQueues = new ReusableBufferQueue[2];
+    private int[] mQueueSizes = {-1, -1};
+    private int mQueueIndex;
+
+    private float[] mData;
+    private float[] mCoefficients;
+    private int mTapCount;
+    private int mPointer;
+    private int mDecimation;
+    private int mPhase;
+    private float mGain;
+
+    /**
+     * Constructs an instance
+     *
+     * @param coefficients - filter coefficients in normal order.
+     * @param decimation factor - integer value of 1 or greater
+     * @param gain value to apply to the filtered output.  Use 1.0f for no gain
+     */
+    public RealDecimatingFIRFilter(float[] coefficients, int decimation, float gain)
+    {
+        if(decimation < 1)
+        {
+            throw new IllegalArgumentException("Decimation factor must be 1 or greater");
+        }
+
+        mCoefficients = coefficients;
+        mTapCount = coefficients.length;
+        mData = new float[mTapCount * 2];
+        mDecimation = decimation;
+        mGain = gain;
+    }
+
+    /**
+     * Constructs an instance that uses a default gain of 1.0f.
+     *
+     * @param coefficients - filter coefficients in normal order.
+     * @param decimation factor - integer value of 1 or greater
+     */
+    public RealDecimatingFIRFilter(float[] coefficients, int decimation)
+    {
+        this(coefficients, decimation, 1.0f);
+    }
+
+    /**
+     * Decimation factor for this filter
+     */
+    public int getDecimation()
+    {
+        return mDecimation;
+    }
+
+    /**
+     * Number of output samples that will be produced from the next block of samples of the specified length.
+     *
+     * @param sampleCount number of input samples
+     * @return number of output samples
+     */
+    public int getOutputCount(int sampleCount)
+    {
+        return (mPhase + sampleCount) / mDecimation;
+    }
+
+    /**
+     * Disposes this filter to prepare for garbage collection.
+     */
+    @Override
+    public void dispose()
+    {
+        mCoefficients = null;
+        mData = null;
+
+        for(ReusableBufferQueue queue: mReusableBufferQueues)
+        {
+            if(queue != null)
+            {
+                queue.dispose();
+            }
+        }
+    }
+
+    /**
+     * Recycling queue for output buffers of the specified size.  Replaces the least recently used queue when neither
+     * queue matches the size.
+     *
+     * @param size of the output buffer sample array
+     * @return queue
+     */
+    private ReusableBufferQueue getReusableBufferQueue(int size)
+    {
+        if(mQueueSizes[mQueueIndex] != size)
+        {
+            mQueueIndex = 1 - mQueueIndex;
+
+            if(mQueueSizes[mQueueIndex] != size)
+            {
+                if(mReusableBufferQueues[mQueueIndex] != null)
+                {
+                    mReusableBufferQueues[mQueueIndex].dispose();
+                }
+
+                mReusableBufferQueues[mQueueIndex] = new ReusableBufferQueue("RealDecimatingFIRFilter");
+                mQueueSizes[mQueueIndex] = size;
+            }
+        }
+
+        return mReusableBufferQueues[mQueueIndex];
+    }
+
+    /**
+     * Filters and decimates the block of samples.  The samples and decimated arrays can be the same array.
+     *
+     * @param samples to filter
+     * @param decimated array to receive the decimated samples, with a length equal to or greater than the value
+     * returned from getOutputCount() for the samples length.
+     * @return number of decimated samples written to the decimated array
+     */
+    public int filter(float[] samples, float[] decimated)
+    {
+        float[] data = mData;
+        float[] coefficients = mCoefficients;
+        int tapCount = mTapCount;
+        int pointer = mPointer;
+        int phase = mPhase;
+        int count = 0;
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            pointer = (pointer == 0 ? tapCount : pointer) - 1;
+            data[pointer] = samples[x];
+            data[pointer + tapCount] = samples[x];
+
+            if(++phase == mDecimation)
+            {
+                phase = 0;
+
+                float accumulator = 0.0f;
+
+                for(int y = 0; y < tapCount; y++)
+                {
+                    accumulator = Math.fma(data[pointer + y], coefficients[y], accumulator);
+                }
+
+                decimated[count++] = accumulator * mGain;
+            }
+        }
+
+        mPointer = pointer;
+        mPhase = phase;
+
+        return count;
+    }
+
+    /**
+     * Filters and decimates the samples contained in the unfilteredBuffer and returns a new reusable buffer with the
+     * decimated samples.
+     *
+     * Note: user count on the returned (new) buffer is set to one and the user count is decremented on
+     * the unfiltered buffer argument.
+     *
+     * @param unfilteredBuffer containing a sample array to be filtered
+     * @return a new reusable buffer with the decimated samples.
+     */
+    public ReusableFloatBuffer filter(ReusableFloatBuffer unfilteredBuffer)
+    {
+        float[] unfilteredSamples = unfilteredBuffer.getSamples();
+
+        int size = getOutputCount(unfilteredSamples.length);
+        ReusableFloatBuffer decimatedBuffer = getReusableBufferQueue(size).getBuffer(size);
+        decimatedBuffer.setTimestamp(unfilteredBuffer.getTimestamp());
+
+        filter(unfilteredSamples, decimatedBuffer.getSamples());
+
+        unfilteredBuffer.decrementUserCount();
+
+        return decimatedBuffer;
+    }
+}
@@ -16,12 +16,21 @@
 package io.github.dsheirer.dsp.filter.fir.real;
 
 import io.github.dsheirer.dsp.filter.fir.FIRFilter;
+import io.github.dsheirer.dsp.filter.fir.FIRKernel;
 import io.github.dsheirer.sample.buffer.ReusableBufferQueue;
 import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
 
 /**
  * Finite Impulse Response (FIR) filter for filtering individual float samples or float sample arrays.
  *
+ * The delay line is a double-length circular buffer where each sample is written twice, at index and index + tap
+ * count.  This keeps the most recent tap count samples in a contiguous window (newest sample first) at every position
+ * so that the convolution is a single contiguous dot product without shifting the delay line for each new sample.
+ *
+ * The convolution kernel is selected by analyzing the coefficients (see FIRKernel).  Linear phase (symmetric)
+ * coefficients use a folded kernel that adds the two samples sharing each coefficient before multiplying, and
+ * half-band coefficients additionally skip the zero-valued taps.
+ *
  * Note: filtering operations in this class are structured to leverage SIMD processor intrinsics when
  * available to the Java runtime.
  */
@@ -31,6 +40,11 @@ public class RealFIRFilter2 extends FIRFilter
 
     private float[] mData;
     private float[] mCoefficients;
+    private float[] mFoldedCoefficients;
+    private FIRKernel mKernel;
+    private int mFirstTap;
+    private int mTapCount;
+    private int mPointer;
     private float mGain;
     private float mAccumulator;
 
@@ -41,10 +55,27 @@ public class RealFIRFilter2 extends FIRFilter
      * @param gain value to apply to the filtered output.  Use 1.0f for no gain
      */
     public RealFIRFilter2(float[] coefficients, float gain)
+    {
+        this(coefficients, gain, FIRKernel.getKernel(coefficients));
+    }
+
+    /**
+     * Float sample FIR filter that uses the specified convolution kernel.
+     *
+     * @param coefficients - filter coefficients in normal order.
+     * @param gain value to apply to the filtered output.  Use 1.0f for no gain
+     * @param kernel to use for convolution.  The kernel must be either GENERAL or the kernel type determined by
+     * FIRKernel.getKernel() for the coefficients.
+     */
+    public RealFIRFilter2(float[] coefficients, float gain, FIRKernel kernel)
     {
         mGain = gain;
         mCoefficients = coefficients;
-        mData = new float[coefficients.length];
+        mTapCount = coefficients.length;
+        mData = new float[mTapCount * 2];
+        mKernel = kernel;
+        mFoldedCoefficients = kernel.fold(coefficients);
+        mFirstTap = FIRKernel.getHalfBandFirstTap(mTapCount);
     }
 
     /**
@@ -57,6 +88,14 @@ public class RealFIRFilter2 extends FIRFilter
         this(coefficients, 1.0f);
     }
 
+    /**
+     * Convolution kernel used by this filter
+     */
+    public FIRKernel getKernel()
+    {
+        return mKernel;
+    }
+
     /**
      * Disposes this filter to prepare for garbage collection.
      */
@@ -64,6 +103,7 @@ public class RealFIRFilter2 extends FIRFilter
     public void dispose()
     {
         mCoefficients = null;
+        mFoldedCoefficients = null;
         mData = null;
     }
 
@@ -76,22 +116,105 @@ public class RealFIRFilter2 extends FIRFilter
      */
     public float filter(float sample)
     {
-        //Use array copy to leverage SIMD intrinsics
-        System.arraycopy(mData, 0, mData, 1, mData.length - 1);
-        mData[0] = sample;
+        //Move the window start back one sample and write the sample into both halves of the delay line
+        mPointer = (mPointer == 0 ? mTapCount : mPointer) - 1;
+        mData[mPointer] = sample;
+        mData[mPointer + mTapCount] = sample;
 
-        mAccumulator = 0.0f;
+        /* Apply gain and return the filtered value */
+        mAccumulator = convolve(mPointer) * mGain;
+
+        return mAccumulator;
+    }
 
-        //Use vector dot product to leverage SIMD intrinsics
-        for(int x = 0; x < mCoefficients.length; x++)
+    /**
+     * Filters the block of samples.  The samples and filtered arrays can be the same array to filter in place.
+     *
+     * @param samples to filter
+     * @param filtered array to receive the filtered samples, with a length equal to or greater than the samples
+     */
+    public void filter(float[] samples, float[] filtered)
+    {
+        float[] data = mData;
+        int tapCount = mTapCount;
+        int pointer = mPointer;
+        float gain = mGain;
+        float accumulator = mAccumulator;
+
+        for(int x = 0; x < samples.length; x++)
         {
-            mAccumulator = Math.fma(mData[x], mCoefficients[x], mAccumulator);
+            pointer = (pointer == 0 ? tapCount : pointer) - 1;
+            data[pointer] = samples[x];
+            data[pointer + tapCount] = samples[x];
+
+            accumulator = convolve(pointer) * gain;
+            filtered[x] = accumulator;
         }
 
-        /* Apply gain and return the filtered value */
-        mAccumulator *= mGain;
+        mPointer = pointer;
+        mAccumulator = accumulator;
+    }
 
-        return mAccumulator;
+    /**
+     * Calculates the convolution of the coefficients against the delay line window that starts at the pointer,
+     * using the kernel selected for the coefficients.
+     *
+     * @param pointer to the newest sample in the delay line
+     * @return convolution result, without gain applied
+     */
+    private float convolve(int pointer)
+    {
+        float[] data = mData;
+        float accumulator = 0.0f;
+
+        switch(mKernel)
+        {
+            case SYMMETRIC:
+            {
+                float[] coefficients = mFoldedCoefficients;
+                int half = mTapCount / 2;
+                int last = pointer + mTapCount - 1;
+
+                for(int x = 0; x < half; x++)
+                {
+                    accumulator = Math.fma(data[pointer + x] + data[last - x], coefficients[x], accumulator);
+                }
+
+                if(half < coefficients.length)
+                {
+                    accumulator = Math.fma(data[pointer + half], coefficients[half], accumulator);
+                }
+
+                return accumulator;
+            }
+            case HALF_BAND:
+            {
+                float[] coefficients = mFoldedCoefficients;
+                int pairs = coefficients.length - 1;
+                int first = pointer + mFirstTap;
+                int last = pointer + mTapCount - 1 - mFirstTap;
+
+                for(int x = 0; x < pairs; x++)
+                {
+                    accumulator = Math.fma(data[first + 2 * x] + data[last - 2 * x], coefficients[x], accumulator);
+                }
+
+                return Math.fma(data[pointer + mTapCount / 2], coefficients[pairs], accumulator);
+            }
+            case GENERAL:
+            default:
+            {
+                float[] coefficients = mCoefficients;
+
+                //Use vector dot product to leverage SIMD intrinsics
+                for(int x = 0; x < mTapCount; x++)
+                {
+                    accumulator = Math.fma(data[pointer + x], coefficients[x], accumulator);
+                }
+
+                return accumulator;
+            }
+        }
     }
 
     /**
@@ -118,15 +241,11 @@ public class RealFIRFilter2 extends FIRFilter
         float[] unfilteredSamples = unfilteredBuffer.getSamples();
 
         ReusableFloatBuffer filteredBuffer = mReusableBufferQueue.getBuffer(unfilteredSamples.length);
-        float[] filteredSamples = filteredBuffer.getSamples();
 
-        for(int x = 0; x < unfilteredSamples.length; x++)
-        {
-            filteredSamples[x] = filter(unfilteredSamples[x]);
-        }
+        filter(unfilteredSamples, filteredBuffer.getSamples());
 
         unfilteredBuffer.decrementUserCount();
 
         return filteredBuffer;
     }
-}
\ No newline at end of file
+}
@@ -15,28 +15,32 @@
  ******************************************************************************/
 package io.github.dsheirer.dsp.filter.halfband.real;
 
+import io.github.dsheirer.dsp.filter.fir.FIRKernel;
+
 /**
  * Implements a half-band filter that produces one filtered output for every two input samples.
  *
+ * The delay line is a double-length circular buffer (see RealFIRFilter2) and the convolution uses the folded
+ * half-band kernel: zero-valued taps are skipped and the two samples that share each remaining coefficient are added
+ * before multiplying, so each output costs approximately one quarter of the tap count in multiplies.
+ *
  * This filter is structured for Java 8+ compiler JIT optimization for SIMD instructions when
  * supported by the host CPU.
  */
 public class HalfBandFilter2
 {
-    private static final float CENTER_COEFFICIENT = 0.5f;
+    private float[] mData;
     private float[] mCoefficients;
-    private float[] mEvenSamples;
-    private float[] mOddSamples;
-    private int mCenterSampleIndex;
-    private float mAccumulator;
+    private int mTapCount;
+    private int mFirstTap;
     private int mPointer;
     private float mGain;
 
     /**
      * Creates a half band filter with inherent decimation by two.
      *
-     * @param coefficients of the half-band filter that is odd-length where all odd index coefficients are
-     * zero valued except for the middle odd index coefficient which should be valued 0.5
+     * @param coefficients of the half-band filter that is odd-length where every other coefficient is zero valued
+     * except for the center coefficient
      * @param gain value to apply to the output
      */
     public HalfBandFilter2(float[] coefficients, float gain)
@@ -46,44 +50,82 @@ public class HalfBandFilter2
             throw new IllegalArgumentException("Half-band filter coefficients must be odd-length");
         }
 
+        if(FIRKernel.getKernel(coefficients) != FIRKernel.HALF_BAND)
+        {
+            throw new IllegalArgumentException("Filter coefficients are not symmetric half-band coefficients");
+        }
+
         mGain = gain;
+        mTapCount = coefficients.length;
+        mData = new float[mTapCount * 2];
+        mCoefficients = FIRKernel.HALF_BAND.fold(coefficients);
+        mFirstTap = FIRKernel.getHalfBandFirstTap(mTapCount);
+    }
 
-        int half = coefficients.length / 2 + 1;
+    /**
+     * Loads two consecutive samples and calculates the filtered output at the second (most recent) sample.
+     *
+     * @param sample1 first (older) sample
+     * @param sample2 second (newer) sample
+     * @return filtered and decimated sample
+     */
+    public float filter(float sample1, float sample2)
+    {
+        load(sample1);
+        load(sample2);
+
+        return convolve() * mGain;
+    }
 
-        mCoefficients = new float[half];
-        mEvenSamples = new float[half];
+    /**
+     * Filters and decimates the block of samples by two.  The samples and decimated arrays can be the same array.
+     *
+     * @param samples to filter with an even length.  A trailing odd sample is ignored.
+     * @param decimated array to receive the decimated samples with a length of at least half of the samples length
+     * @return number of decimated samples
+     */
+    public int filter(float[] samples, float[] decimated)
+    {
+        int count = samples.length / 2;
 
-        //Use only the even coefficients since the odd coefficients are all zero-valued
-        for(int x = 0; x < coefficients.length; x += 2)
+        for(int x = 0; x < count; x++)
         {
-            mCoefficients[x / 2] = coefficients[x];
+            load(samples[2 * x]);
+            load(samples[2 * x + 1]);
+            decimated[x] = convolve() * mGain;
         }
 
-        //Setup the odd samples array as a simple delay line, half the size of the even samples array
-        mOddSamples = new float[half / 2];
-        mCenterSampleIndex = mOddSamples.length - 1;
+        return count;
     }
 
-    public float filter(float sample1, float sample2)
+    /**
+     * Loads the sample into both halves of the double-length delay line
+     */
+    private void load(float sample)
     {
-        //Structured for SIMD array copy optimization when supported by host CPU
-        System.arraycopy(mEvenSamples, 0, mEvenSamples, 1, mEvenSamples.length - 1);
-        System.arraycopy(mOddSamples, 0, mOddSamples, 1, mOddSamples.length - 1);
-
-        mEvenSamples[0] = sample1;
-        mOddSamples[0] = sample2;
+        mPointer = (mPointer == 0 ? mTapCount : mPointer) - 1;
+        mData[mPointer] = sample;
+        mData[mPointer + mTapCount] = sample;
+    }
 
-        mAccumulator = 0.0f;
+    /**
+     * Calculates the folded half-band convolution for the delay line window that starts at the current pointer.
+     */
+    private float convolve()
+    {
+        float[] data = mData;
+        float[] coefficients = mCoefficients;
+        int pairs = coefficients.length - 1;
+        int first = mPointer + mFirstTap;
+        int last = mPointer + mTapCount - 1 - mFirstTap;
+        float accumulator = 0.0f;
 
         //Structured for SIMD dot.product optimization when supported by host CPU
-        for(mPointer = 0; mPointer < mEvenSamples.length; mPointer++)
+        for(int x = 0; x < pairs; x++)
         {
-            mAccumulator += (mEvenSamples[mPointer] * mCoefficients[mPointer]);
+            accumulator = Math.fma(data[first + 2 * x] + data[last - 2 * x], coefficients[x], accumulator);
         }
 
-        mAccumulator += (mOddSamples[mCenterSampleIndex] * CENTER_COEFFICIENT);
-        mAccumulator *= mGain;
-
-        return mAccumulator;
+        return Math.fma(data[mPointer + mTapCount / 2], coefficients[pairs], accumulator);
     }
 }
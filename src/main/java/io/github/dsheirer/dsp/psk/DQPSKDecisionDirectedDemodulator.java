@@ -17,10 +17,14 @@ package io.github.dsheirer.dsp.psk;
 
 import io.github.dsheirer.dsp.psk.pll.IPhaseLockedLoop;
 import io.github.dsheirer.dsp.symbol.Dibit;
+import io.github.dsheirer.dsp.symbol.ISoftDibitListener;
+import io.github.dsheirer.dsp.symbol.SymbolReliability;
 import io.github.dsheirer.sample.complex.Complex;
 
 public class DQPSKDecisionDirectedDemodulator extends PSKDemodulator<Dibit>
 {
+    private static final float NOMINAL_BOUNDARY_DISTANCE = (float)Math.sqrt(0.5);
+
     protected DQPSKDecisionDirectedSymbolEvaluator mSymbolEvaluator = new DQPSKDecisionDirectedSymbolEvaluator();
     private Complex mPreviousPrecedingSample = new Complex(0, 0);
     private Complex mPreviousCurrentSample = new Complex(0, 0);
@@ -28,6 +32,7 @@ public class DQPSKDecisionDirectedDemodulator extends PSKDemodulator<Dibit>
     private Complex mCurrentSample = new Complex(0, 0);
     private Complex mPrecedingSymbol = new Complex(0, 0);
     protected Complex mCurrentSymbol = new Complex(0, 0);
+    private ISoftDibitListener mSoftSymbolListener;
 
     /**
      * Decoder for Differential Quaternary Phase Shift Keying (DQPSK).  This decoder uses both a Costas Loop (PLL) and
@@ -44,6 +49,15 @@ public class DQPSKDecisionDirectedDemodulator extends PSKDemodulator<Dibit>
         super(interpolatingSampleBuffer, phaseLockedLoop);
     }
 
+    /**
+     * Registers a listener to receive each symbol decision with the reliability of each bit.  Symbol decisions are
+     * also broadcast to the symbol listener.
+     */
+    public void setSoftSymbolListener(ISoftDibitListener listener)
+    {
+        mSoftSymbolListener = listener;
+    }
+
     /**
      * Calculates a symbol from the interpolating buffer
      */
@@ -86,5 +100,14 @@ public class DQPSKDecisionDirectedDemodulator extends PSKDemodulator<Dibit>
         mPreviousCurrentSample.setValues(mCurrentSample);
 
         broadcast(mSymbolEvaluator.getSymbolDecision());
+
+        if(mSoftSymbolListener != null)
+        {
+            //The current symbol has unity gain, so the quadrature (bit 1) and inphase (bit 2) values are the distances
+            //from the decision boundaries and the ideal symbol distance is sin(45 degrees)
+            mSoftSymbolListener.receive(mSymbolEvaluator.getSymbolDecision(),
+                SymbolReliability.quantize(mCurrentSymbol.quadrature(), NOMINAL_BOUNDARY_DISTANCE),
+                SymbolReliability.quantize(mCurrentSymbol.inphase(), NOMINAL_BOUNDARY_DISTANCE));
+        }
     }
 }
@@ -17,15 +17,20 @@ package io.github.dsheirer.dsp.psk;
 
 import io.github.dsheirer.dsp.psk.pll.IPhaseLockedLoop;
 import io.github.dsheirer.dsp.symbol.Dibit;
+import io.github.dsheirer.dsp.symbol.ISoftDibitListener;
+import io.github.dsheirer.dsp.symbol.SymbolReliability;
 import io.github.dsheirer.sample.complex.Complex;
 
 public class DQPSKGardnerDemodulator extends PSKDemodulator<Dibit>
 {
+    private static final float NOMINAL_BOUNDARY_DISTANCE = (float)Math.sqrt(0.5);
+
     protected DQPSKGardnerSymbolEvaluator mSymbolEvaluator = new DQPSKGardnerSymbolEvaluator();
     private Complex mPreviousCurrentSample = new Complex(0, 0);
     private Complex mPreviousMiddleSample = new Complex(0, 0);
     private Complex mMiddleSymbol = new Complex(0, 0);
     protected Complex mCurrentSymbol = new Complex(0, 0);
+    private ISoftDibitListener mSoftSymbolListener;
 
     /**
      * Implements a Differential QPSK demodulator using a Costas Loop (PLL) and a Gardner timing error detector.
@@ -40,6 +45,15 @@ public class DQPSKGardnerDemodulator extends PSKDemodulator<Dibit>
         super(interpolatingSampleBuffer, phaseLockedLoop);
     }
 
+    /**
+     * Registers a listener to receive each symbol decision with the reliability of each bit.  Symbol decisions are
+     * also broadcast to the symbol listener.
+     */
+    public void setSoftSymbolListener(ISoftDibitListener listener)
+    {
+        mSoftSymbolListener = listener;
+    }
+
 	public void dispose()
 	{
 	}
@@ -86,5 +100,14 @@ public class DQPSKGardnerDemodulator extends PSKDemodulator<Dibit>
         mPreviousCurrentSample.setValues(currentSample);
 
         broadcast(mSymbolEvaluator.getSymbolDecision());
+
+        if(mSoftSymbolListener != null)
+        {
+            //The current symbol has unity gain, so the quadrature (bit 1) and inphase (bit 2) values are the distances
+            //from the decision boundaries and the ideal symbol distance is sin(45 degrees)
+            mSoftSymbolListener.receive(mSymbolEvaluator.getSymbolDecision(),
+                SymbolReliability.quantize(mCurrentSymbol.quadrature(), NOMINAL_BOUNDARY_DISTANCE),
+                SymbolReliability.quantize(mCurrentSymbol.inphase(), NOMINAL_BOUNDARY_DISTANCE));
+        }
     }
 }
@@ -0,0 +1,34 @@
+/*
+ * *********************************************************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ * *********************************************************************************************************************
+ */
+package io.github.dsheirer.dsp.symbol;
+
+/**
+ * Listener for soft symbol decisions: a hard dibit decision with a reliability value for each of the two bits.
+ *
+ * See SymbolReliability for the reliability value range.
+ */
+public interface ISoftDibitListener
+{
+    /**
+     * Receives a dibit symbol decision and the reliability of each bit
+     *
+     * @param dibit symbol decision
+     * @param bit1Reliability reliability of bit 1 (the MSB) of the dibit
+     * @param bit2Reliability reliability of bit 2 (the LSB) of the dibit
+     */
+    void receive(Dibit dibit, byte bit1Reliability, byte bit2Reliability);
+}
@@ -0,0 +1,140 @@
+/*
+ * *********************************************************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ * *********************************************************************************************************************
+ */
+package io.github.dsheirer.dsp.symbol;
+
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+
+import java.util.Arrays;
+
+/**
+ * Circular buffer for storing and accessing dibits and the reliability of each dibit bit.
+ *
+ * Dibits that are added without reliabilities have maximum reliability.  Once soft dibits have been added to the
+ * buffer, extracted messages carry the bit reliabilities.
+ */
+public class SoftDibitDelayBuffer extends DibitDelayBuffer
+{
+    private byte[] mReliabilities;
+    private boolean mSoft;
+
+    /**
+     * Constructs a soft dibit delay buffer of the specified length
+     */
+    public SoftDibitDelayBuffer(int length)
+    {
+        super(length);
+        mReliabilities = new byte[length * 2];
+        Arrays.fill(mReliabilities, SymbolReliability.MAXIMUM);
+    }
+
+    /**
+     * Resets the buffer and preloads the buffer with all zeros with maximum reliability
+     */
+    @Override
+    public void reset()
+    {
+        super.reset();
+
+        //Note: the super class constructor invokes reset before the reliabilities are allocated
+        if(mReliabilities != null)
+        {
+            Arrays.fill(mReliabilities, SymbolReliability.MAXIMUM);
+        }
+    }
+
+    /**
+     * Places the dibit with maximum reliability into the buffer, overwriting the oldest dibit.
+     */
+    @Override
+    public void put(Dibit dibit)
+    {
+        put(dibit, SymbolReliability.MAXIMUM, SymbolReliability.MAXIMUM);
+    }
+
+    /**
+     * Places the dibit and bit reliabilities into the buffer, overwriting the oldest dibit.
+     */
+    public void put(Dibit dibit, byte bit1Reliability, byte bit2Reliability)
+    {
+        mReliabilities[mPointer * 2] = bit1Reliability;
+        mReliabilities[mPointer * 2 + 1] = bit2Reliability;
+        super.put(dibit);
+    }
+
+    /**
+     * Marks this buffer as containing soft dibits so that extracted messages carry bit reliabilities.
+     */
+    public void setSoft(boolean soft)
+    {
+        mSoft = soft;
+    }
+
+    /**
+     * Swaps the bit 1 and bit 2 reliabilities of the dibit at the specified buffer index.  This is used when a dibit
+     * is corrected for a +/- 90 degree QPSK constellation misalignment, since the inphase and quadrature decision
+     * boundaries are swapped.
+     *
+     * @param index of the dibit
+     */
+    public void swapReliabilities(int index)
+    {
+        if(index < 0 || index >= mBuffer.length)
+        {
+            throw new IllegalArgumentException("Index argument must be between 0 and buffer length [" + mBuffer.length + "]");
+        }
+
+        byte bit1Reliability = mReliabilities[index * 2];
+        mReliabilities[index * 2] = mReliabilities[index * 2 + 1];
+        mReliabilities[index * 2 + 1] = bit1Reliability;
+    }
+
+    /**
+     * Extracts a corrected binary message from the dibit buffer with the bit reliabilities attached when this buffer
+     * contains soft dibits.
+     *
+     * @param start dibit index where 0 is the oldest dibit and the newest dibit is buffer length - 1
+     * @param dibitLength number of dibits to include in the message, making the message length = dibitLength * 2
+     * @return corrected binary message
+     */
+    @Override
+    public CorrectedBinaryMessage getMessage(int start, int dibitLength)
+    {
+        CorrectedBinaryMessage message = super.getMessage(start, dibitLength);
+
+        if(mSoft)
+        {
+            byte[] reliabilities = new byte[dibitLength * 2];
+            int bufferPointer = (mPointer + start) % mBuffer.length;
+
+            for(int x = 0; x < dibitLength; x++)
+            {
+                reliabilities[x * 2] = mReliabilities[bufferPointer * 2];
+                reliabilities[x * 2 + 1] = mReliabilities[bufferPointer * 2 + 1];
+                bufferPointer++;
+
+                if(bufferPointer >= mBuffer.length)
+                {
+                    bufferPointer = 0;
+                }
+            }
+
+            message.setReliabilities(reliabilities);
+        }
+
+        return message;
+    }
+}
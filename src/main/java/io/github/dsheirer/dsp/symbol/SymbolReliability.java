@@ -0,0 +1,74 @@
+/*
+ * *********************************************************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ * *********************************************************************************************************************
+ */
+package io.github.dsheirer.dsp.symbol;
+
+/**
+ * Soft symbol (bit reliability) support.
+ *
+ * A bit reliability is a small (0 - MAXIMUM) value that indicates how far the sampled symbol was from the decision
+ * boundary that determines the bit value.  A reliability of zero is an erasure: the bit could equally be a zero or a
+ * one.  A reliability of MAXIMUM indicates that the symbol was at (or beyond) the ideal constellation point for the
+ * bit.  Hard decision bits are treated as having MAXIMUM reliability.
+ *
+ * Soft symbols are disabled by default and can be enabled with the JVM system property:
+ *
+ *   -Dsdrtrunk.decoder.soft.symbols=true
+ */
+public class SymbolReliability
+{
+    public static final String SOFT_SYMBOLS_PROPERTY = "sdrtrunk.decoder.soft.symbols";
+
+    /**
+     * Maximum bit reliability value (4-bit soft decisions)
+     */
+    public static final byte MAXIMUM = 15;
+
+    private static final boolean ENABLED = Boolean.getBoolean(SOFT_SYMBOLS_PROPERTY);
+
+    private SymbolReliability()
+    {
+        //Utility class - no instances
+    }
+
+    /**
+     * Indicates if decoders should deliver soft symbols (dibits with bit reliabilities) to their message framers.
+     */
+    public static boolean isEnabled()
+    {
+        return ENABLED;
+    }
+
+    /**
+     * Quantizes the distance of a sampled symbol from a decision boundary to a bit reliability value.
+     *
+     * @param distance of the sampled symbol from the decision boundary
+     * @param nominalDistance of the ideal symbol from the decision boundary
+     * @return reliability in the range 0 - MAXIMUM
+     */
+    public static byte quantize(float distance, float nominalDistance)
+    {
+        float normalized = Math.abs(distance) / nominalDistance;
+
+        if(normalized >= 1.0f)
+        {
+            return MAXIMUM;
+        }
+
+        //Note: NaN values produce a reliability of zero
+        return (byte)(normalized * MAXIMUM + 0.5f);
+    }
+}
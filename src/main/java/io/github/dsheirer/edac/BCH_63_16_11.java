@@ -23,6 +23,8 @@ import io.github.dsheirer.bits.BinaryMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 public class BCH_63_16_11 extends ReedSolomon_63_P25
 {
     private final static Logger mLog = LoggerFactory.getLogger(BCH_63_16_11.class);
@@ -46,10 +48,18 @@ public class BCH_63_16_11 extends ReedSolomon_63_P25
     {
         CRC status = CRC.PASSED;
 
-        int[] original = message.toReverseIntegerArray(0, 62);
-        int[] corrected = new int[63];
+        Workspace workspace = getWorkspace();
+        int[] original = workspace.getInput();
+        int[] corrected = workspace.getOutput();
+
+        Arrays.fill(original, 0);
+
+        for(int i = message.nextSetBit(0); i >= 0 && i <= 62; i = message.nextSetBit(i + 1))
+        {
+            original[62 - i] = 1;
+        }
 
-        boolean irrecoverableErrors = decode(original, corrected);
+        boolean irrecoverableErrors = decode(original, corrected, workspace);
 
         if(irrecoverableErrors)
         {
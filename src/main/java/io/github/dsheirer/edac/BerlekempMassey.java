@@ -22,15 +22,20 @@
 
 package io.github.dsheirer.edac;
 
-import org.apache.commons.lang3.Validate;
 import org.apache.commons.math3.util.FastMath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 /**
  * Berlekemp Massey decoder for primitive RS/BCH block codes
  *
  * Original C implementation by Simon Rockliff, 26 June 1991
+ *
+ * Galois Field lookup tables are shared across all decoder instances that use the same field (see GaloisField).
+ * Each decode uses a Workspace of scratch arrays so that decoding doesn't allocate.  Callers can supply their own
+ * workspace, otherwise a workspace is created once for each calling thread, so an instance can safely be shared.
  */
 public class BerlekempMassey
 {
@@ -41,7 +46,6 @@ public class BerlekempMassey
 
     /* Codeword Length: NN = 2 ** MM - 1 */
     private int NN;
-    private int MAX_NN;
 
     /* Hamming distance between codewords: NN - KK + 1 = 2 * TT + 1 */
     private int KK;
@@ -53,6 +57,9 @@ public class BerlekempMassey
     int[] index_of;
     int[] gg;
 
+    private GaloisField mGaloisField;
+    private ThreadLocal<Workspace> mWorkspace = ThreadLocal.withInitial(this::createWorkspace);
+
     /**
      * Constructs an instance
      *
@@ -64,92 +71,51 @@ public class BerlekempMassey
      */
     public BerlekempMassey(int galoisFieldSize, int maxCorrectableErrors, int[] generatorPolynomial)
     {
-        //TODO: fix this
-        MM = galoisFieldSize;
-        NN = (int)FastMath.pow(2, MM) - 1;
-        TT = maxCorrectableErrors;
-        KK = NN - 2 * TT;
-
+        this(galoisFieldSize, (1 << galoisFieldSize) - 1, (1 << galoisFieldSize) - 1 - 2 * maxCorrectableErrors,
+            generatorPolynomial);
     }
 
     public BerlekempMassey(int bitSize, int n, int k, int[] generatorPolynomial)
     {
-        Validate.isTrue(bitSize == generatorPolynomial.length - 1,
-            "Generator polynomial length must be: bitSize + 1");
+        mGaloisField = GaloisField.get(bitSize, generatorPolynomial);
 
         MM = bitSize;
         NN = n;
         KK = k;
         TT = (int)Math.floor((NN - KK) / 2);
 
-        //Since this may be a shortened code, setup arrays to the max size of NN
-        int maxNN = (int)Math.pow(2, MM) - 1;
-
-        alpha_to = new int[maxNN + 1];
-        index_of = new int[maxNN + 1];
+        //Since this may be a shortened code, the field tables are sized to the max size of NN
+        alpha_to = mGaloisField.getAlphaTo();
+        index_of = mGaloisField.getIndexOf();
 
         gg = new int[NN - KK + 1];
 
-        generate_gf(generatorPolynomial);
-
         gen_poly();
     }
 
     /**
-     * Generates the Golay Field.
-     *
-     * Generates a GF( 2**mm ) from the irreducible polynomial
-     * p(X) in pp[0]..pp[mm]
-     *
-     * Lookup tables:
-     * index_of[] = polynomial form
-     * alpha_to[] = contains j=alpha**i;
-     *
-     * Polynomial form -> Index form  index_of[j=alpha**i] = i
-     *
-     * alpha_to = 2 is the primitive element of GF( 2**mm )
-     *
-     * @param generator_polynomial
+     * Galois Field used by this decoder
      */
-    private void generate_gf(int[] generator_polynomial)
+    public GaloisField getGaloisField()
     {
-        int i;
-        int mask = 1;
-
-        alpha_to[MM] = 0;
-
-        for(i = 0; i < MM; i++)
-        {
-            alpha_to[i] = mask;
-            index_of[alpha_to[i]] = i;
-
-            if(generator_polynomial[i] != 0)
-            {
-                alpha_to[MM] ^= mask;
-            }
-
-            mask <<= 1;
-        }
-
-        index_of[alpha_to[MM]] = MM;
-
-        mask >>= 1;
-
-        for(i = MM + 1; i < NN; i++)
-        {
-            if(alpha_to[i - 1] >= mask)
-            {
-                alpha_to[i] = alpha_to[MM] ^ ((alpha_to[i - 1] ^ mask) << 1);
-            }
-            else
-            {
-                alpha_to[i] = alpha_to[i - 1] << 1;
-            }
+        return mGaloisField;
+    }
 
-            index_of[alpha_to[i]] = i;
-        }
+    /**
+     * Creates a new workspace of decoder scratch arrays sized for this decoder.  A workspace can be reused for any
+     * number of decode calls, but must not be used by more than one thread at a time.
+     */
+    public Workspace createWorkspace()
+    {
+        return new Workspace(NN, KK, TT);
+    }
 
-        index_of[0] = -1;
+    /**
+     * Workspace for the calling thread
+     */
+    protected Workspace getWorkspace()
+    {
+        return mWorkspace.get();
     }
 
     /**
@@ -191,12 +157,73 @@ public class BerlekempMassey
         }
     }
 
+    /**
+     * Calculates the (NN - KK) syndromes in polynomial form: s[i] = recd(alpha**i), i=1..(NN - KK), leaving s[0]
+     * zero.
+     *
+     * @param input symbols in polynomial form
+     * @param s syndromes array to fill
+     * @return true if any syndrome is non-zero, indicating errors
+     */
+    private boolean calculateSyndromes(int[] input, int[] s)
+    {
+        int roots = NN - KK;
+
+        Arrays.fill(s, 0);
+
+        for(int j = 0; j < NN; j++)
+        {
+            if(input[j] != 0)
+            {
+                /* accumulate recd[j] * alpha**(i * j) for each syndrome without a multiply or modulo */
+                int exponent = index_of[input[j]];
+
+                for(int i = 1; i <= roots; i++)
+                {
+                    exponent += j;
+
+                    if(exponent >= NN)
+                    {
+                        exponent -= NN;
+                    }
+
+                    s[i] ^= alpha_to[exponent];
+                }
+            }
+        }
+
+        for(int i = 1; i <= roots; i++)
+        {
+            if(s[i] != 0)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Decodes using the workspace for the calling thread.
+     *
+     * @param input symbols in polynomial form
+     * @param output to receive the corrected symbols in polynomial form, or the input symbols when the errors are
+     * irrecoverable
+     * @return true if the errors are irrecoverable
+     */
+    public boolean decode(final int[] input, int[] output)
+    {
+        return decode(input, output, getWorkspace());
+    }
+
     /**
      * Decodes
      *
-     * @param input
-     * @param output
-     * @return
+     * @param input symbols in polynomial form
+     * @param output to receive the corrected symbols in polynomial form, or the input symbols when the errors are
+     * irrecoverable
+     * @param workspace created by this decoder
+     * @return true if the errors are irrecoverable
      */
     /* assume we have received bits grouped into mm-bit symbols in recd[i],
     i=0..(nn-1),  and recd[i] is polynomial form.
@@ -216,344 +243,590 @@ public class BerlekempMassey
     symbols will be okay and that if we are in luck, the errors are in the
     parity part of the transmitted codeword).  Of course, these insoluble cases
     can be returned as error flags to the calling routine if desired.   */
-    public boolean decode(final int[] input, int[] output) //input, output
+    public boolean decode(final int[] input, int[] output, Workspace workspace)
     {
         int u, q;
-        int[][] elp = new int[NN - KK + 2][NN - KK];
-        int[] d = new int[NN - KK + 2];
-        int[] l = new int[NN - KK + 2];
-        int[] u_lu = new int[NN - KK + 2];
-        int[] s = new int[NN - KK + 1];
+        int[][] elp = workspace.mElp;
+        int[] d = workspace.mD;
+        int[] l = workspace.mL;
+        int[] u_lu = workspace.mULu;
+        int[] s = workspace.mSyndromes;
         int count = 0;
-        boolean syn_error = false;
-        int[] root = new int[TT];
-        int[] loc = new int[TT];
-        int[] z = new int[TT + 1];
-        int[] err = new int[NN];
-        int[] reg = new int[TT + 1];
+        int[] root = workspace.mRoot;
+        int[] loc = workspace.mLoc;
+        int[] z = workspace.mZ;
+        int[] reg = workspace.mReg;
 
-        boolean irrecoverable_error = false;
+        /* the received codeword is output as is, unless the errors can be corrected */
+        System.arraycopy(input, 0, output, 0, NN);
 
-        /* put recd[i] into index form (ie as powers of alpha) */
-        for(int i = 0; i < NN; i++)
+        /* first form the syndromes.  No non-zero syndromes => no errors: output received codeword */
+        if(!calculateSyndromes(input, s))
         {
-            output[i] = index_of[input[i]];
+            return false;
         }
 
-        /* first form the syndromes */
+        /* convert syndromes from polynomial form to index form  */
         for(int i = 1; i <= NN - KK; i++)
         {
-            s[i] = 0;
-
-            for(int j = 0; j < NN; j++)
-            {
-                if(output[j] != -1)
-                {
-                    /* recd[j] in index form */
-                    s[i] ^= alpha_to[(output[j] + i * j) % NN];
-                }
-            }
-
-            /* convert syndrome from polynomial form to index form  */
-            if(s[i] != 0)
-            {
-                /* set flag if non-zero syndrome => error */
-                syn_error = true;
-            }
-
             s[i] = index_of[s[i]];
         }
 
-        if(syn_error) /* if errors, try and correct */
+        /* compute the error location polynomial via the Berlekamp iterative algorithm,
+         following the terminology of Lin and Costello :   d[u] is the 'mu'th
+         discrepancy, where u='mu'+1 and 'mu' (the Greek letter!) is the step number
+         ranging from -1 to 2*tt (see L&C),  l[u] is the
+         degree of the elp at that step, and u_l[u] is the difference between the
+         step number and the degree of the elp.
+         */
+
+        /* initialise table entries */
+        d[0] = 0; /* index form */
+        d[1] = s[1]; /* index form */
+        elp[0][0] = 0; /* index form */
+        elp[1][0] = 1; /* polynomial form */
+
+        for(int i = 1; i < NN - KK; i++)
         {
-            /* compute the error location polynomial via the Berlekamp iterative algorithm,
-             following the terminology of Lin and Costello :   d[u] is the 'mu'th
-             discrepancy, where u='mu'+1 and 'mu' (the Greek letter!) is the step number
-             ranging from -1 to 2*tt (see L&C),  l[u] is the
-             degree of the elp at that step, and u_l[u] is the difference between the
-             step number and the degree of the elp.
-             */
-
-            /* initialise table entries */
-            d[0] = 0; /* index form */
-            d[1] = s[1]; /* index form */
-            elp[0][0] = 0; /* index form */
-            elp[1][0] = 1; /* polynomial form */
-
-            for(int i = 1; i < NN - KK; i++)
-            {
-                elp[0][i] = -1; /* index form */
-                elp[1][i] = 0; /* polynomial form */
-            }
+            elp[0][i] = -1; /* index form */
+            elp[1][i] = 0; /* polynomial form */
+        }
+
+        l[0] = 0;
+        l[1] = 0;
+        u_lu[0] = -1;
+        u_lu[1] = 0;
+        u = 0;
 
-            l[0] = 0;
-            l[1] = 0;
-            u_lu[0] = -1;
-            u_lu[1] = 0;
-            u = 0;
+        do
+        {
+            u++;
 
-            do
+            if(d[u] == -1)
             {
-                u++;
+                l[u + 1] = l[u];
 
-                if(d[u] == -1)
+                for(int i = 0; i <= l[u]; i++)
                 {
-                    l[u + 1] = l[u];
-
-                    for(int i = 0; i <= l[u]; i++)
-                    {
-                        elp[u + 1][i] = elp[u][i];
-                        elp[u][i] = index_of[elp[u][i]];
-                    }
+                    elp[u + 1][i] = elp[u][i];
+                    elp[u][i] = index_of[elp[u][i]];
                 }
-                else
-                    /* search for words with greatest u_lu[q] for which d[q]!=0 */
+            }
+            else
+                /* search for words with greatest u_lu[q] for which d[q]!=0 */
+            {
+                q = u - 1;
+
+                while((d[q] == -1) && (q > 0))
                 {
-                    q = u - 1;
+                    q--;
+                }
 
-                    while((d[q] == -1) && (q > 0))
-                    {
-                        q--;
-                    }
+                /* have found first non-zero d[q]  */
+                if(q > 0)
+                {
+                    int j = q;
 
-                    /* have found first non-zero d[q]  */
-                    if(q > 0)
+                    do
                     {
-                        int j = q;
+                        j--;
 
-                        do
+                        if((d[j] != -1) && (u_lu[q] < u_lu[j]))
                         {
-                            j--;
-
-                            if((d[j] != -1) && (u_lu[q] < u_lu[j]))
-                            {
-                                q = j;
-                            }
+                            q = j;
                         }
-                        while(j > 0);
                     }
-                    ;
+                    while(j > 0);
+                }
 
-                    /* have now found q such that d[u]!=0 and u_lu[q] is maximum */
-                    /* store degree of new elp polynomial */
-                    l[u + 1] = FastMath.max(l[u], l[q] + u - q);
+                /* have now found q such that d[u]!=0 and u_lu[q] is maximum */
+                /* store degree of new elp polynomial */
+                l[u + 1] = FastMath.max(l[u], l[q] + u - q);
 
-                    /* form new elp(x) */
-                    for(int i = 0; i < NN - KK; i++)
-                    {
-                        elp[u + 1][i] = 0;
-                    }
+                if(l[u + 1] > TT)
+                {
+                    /* elp has degree >tt hence cannot solve */
+                    return true;
+                }
 
-                    for(int i = 0; i <= l[q]; i++)
-                    {
-                        if(elp[q][i] != -1)
-                        {
-                            elp[u + 1][i + u - q] =
-                                alpha_to[(d[u] + NN - d[q]
-                                    + elp[q][i]) % NN];
-                        }
-                    }
-                    for(int i = 0; i <= l[u]; i++)
+                /* form new elp(x) */
+                for(int i = 0; i < NN - KK; i++)
+                {
+                    elp[u + 1][i] = 0;
+                }
+
+                for(int i = 0; i <= l[q]; i++)
+                {
+                    if(elp[q][i] != -1)
                     {
-                        elp[u + 1][i] ^= elp[u][i];
-                        elp[u][i] = index_of[elp[u][i]]; /*convert old elp value to index*/
+                        elp[u + 1][i + u - q] = alpha_to[(d[u] + NN - d[q] + elp[q][i]) % NN];
                     }
                 }
+                for(int i = 0; i <= l[u]; i++)
+                {
+                    elp[u + 1][i] ^= elp[u][i];
+                    elp[u][i] = index_of[elp[u][i]]; /*convert old elp value to index*/
+                }
+            }
 
-                u_lu[u + 1] = u - l[u + 1];
+            u_lu[u + 1] = u - l[u + 1];
 
-                /* form (u+1)th discrepancy */
-                if(u < NN - KK) /* no discrepancy computed on last iteration */
+            /* form (u+1)th discrepancy */
+            if(u < NN - KK) /* no discrepancy computed on last iteration */
+            {
+                if(s[u + 1] != -1)
                 {
-                    if(s[u + 1] != -1)
-                    {
-                        d[u + 1] = alpha_to[s[u + 1]];
-                    }
-                    else
+                    d[u + 1] = alpha_to[s[u + 1]];
+                }
+                else
+                {
+                    d[u + 1] = 0;
+                }
+                for(int i = 1; i <= l[u + 1]; i++)
+                {
+                    if((s[u + 1 - i] != -1) && (elp[u + 1][i] != 0))
                     {
-                        d[u + 1] = 0;
+                        /* both terms are in index form (< NN) so the sum is within the double length table */
+                        d[u + 1] ^= alpha_to[s[u + 1 - i] + index_of[elp[u + 1][i]]];
                     }
-                    for(int i = 1; i <= l[u + 1]; i++)
+                }
+
+                d[u + 1] = index_of[d[u + 1]]; /* put d[u+1] into index form */
+            }
+        }
+        while((u < NN - KK) && (l[u + 1] <= TT));
+
+        u++;
+
+        if(l[u] > TT)
+        {
+            /* elp has degree >tt hence cannot solve */
+            return true;
+        }
+
+        /* can correct error - put elp into index form */
+        for(int i = 0; i <= l[u]; i++)
+        {
+            elp[u][i] = index_of[elp[u][i]];
+        }
+
+        /* find roots of the error location polynomial */
+        if(l[u] >= 0)
+        {
+            System.arraycopy(elp[u], 1, reg, 1, l[u]);
+        }
+
+        count = 0;
+
+        for(int i = 1; i <= NN; i++)
+        {
+            q = 1;
+
+            for(int j = 1; j <= l[u]; j++)
+            {
+                if(reg[j] != -1)
+                {
+                    reg[j] += j;
+
+                    if(reg[j] >= NN)
                     {
-                        if((s[u + 1 - i] != -1) && (elp[u + 1][i] != 0))
-                        {
-                            d[u + 1] ^= alpha_to[(s[u + 1 - i]
-                                + index_of[elp[u + 1][i]]) % NN];
-                        }
+                        reg[j] -= NN;
                     }
 
-                    d[u + 1] = index_of[d[u + 1]]; /* put d[u+1] into index form */
+                    q ^= alpha_to[reg[j]];
                 }
             }
-            while((u < NN - KK) && (l[u + 1] <= TT));
-
-            u++;
 
-            if(l[u] <= TT) /* can correct error */
+            if(q == 0) /* store root and error location number indices */
             {
-                /* put elp into index form */
-                for(int i = 0; i <= l[u]; i++)
+                if(count == l[u])
                 {
-                    elp[u][i] = index_of[elp[u][i]];
+                    /* more roots than the degree of elp => >tt errors and cannot solve */
+                    return true;
                 }
 
-                /* find roots of the error location polynomial */
-                if(l[u] >= 0)
+                root[count] = i;
+                loc[count] = NN - i;
+                count++;
+            }
+        }
+
+        if(count != l[u])
+        {
+            /* no. roots != degree of elp => >tt errors and cannot solve */
+            return true;
+        }
+
+        /* no. roots = degree of elp hence <= tt errors - form polynomial z(x) */
+        for(int i = 1; i <= l[u]; i++) /* Z[0] = 1 always - do not need */
+        {
+            if((s[i] != -1) && (elp[u][i] != -1))
+            {
+                z[i] = alpha_to[s[i]] ^ alpha_to[elp[u][i]];
+            }
+            else if((s[i] != -1) && (elp[u][i] == -1))
+            {
+                z[i] = alpha_to[s[i]];
+            }
+            else if((s[i] == -1) && (elp[u][i] != -1))
+            {
+                z[i] = alpha_to[elp[u][i]];
+            }
+            else
+            {
+                z[i] = 0;
+            }
+
+            for(int j = 1; j < i; j++)
+            {
+                if((s[j] != -1) && (elp[u][i - j] != -1))
                 {
-                    System.arraycopy(elp[u], 1, reg, 1, l[u]);
+                    z[i] ^= alpha_to[elp[u][i - j] + s[j]];
                 }
+            }
 
-                count = 0;
+            z[i] = index_of[z[i]]; /* put into index form */
+        }
 
-                for(int i = 1; i <= NN; i++)
+        /* evaluate errors at locations given by error location numbers loc[i] */
+        for(int i = 0; i < l[u]; i++) /* compute numerator of error term first */
+        {
+            int err = 1; /* accounts for z[0] */
+
+            for(int j = 1; j <= l[u]; j++)
+            {
+                if(z[j] != -1)
                 {
-                    q = 1;
+                    err ^= alpha_to[(z[j] + j * root[i]) % NN];
+                }
+            }
 
-                    for(int j = 1; j <= l[u]; j++)
-                    {
-                        if(reg[j] != -1)
-                        {
-                            reg[j] = (reg[j] + j) % NN;
-                            q ^= alpha_to[reg[j]];
-                        }
-                        ;
-                    }
+            if(err != 0)
+            {
+                err = index_of[err];
+
+                q = 0; /* form denominator of error term */
 
-                    if(q == 0) /* store root and error location number indices */
+                for(int j = 0; j < l[u]; j++)
+                {
+                    if(j != i)
                     {
-                        root[count] = i;
-                        loc[count] = NN - i;
-                        count++;
+                        q += index_of[1 ^ alpha_to[loc[j] + root[i]]];
                     }
-                    ;
                 }
-                ;
 
-                if(count == l[u]) /* no. roots = degree of elp hence <= tt errors */
-                {
-                    /* form polynomial z(x) */
-                    for(int i = 1; i <= l[u]; i++) /* Z[0] = 1 always - do not need */
-                    {
-                        if((s[i] != -1) && (elp[u][i] != -1))
-                        {
-                            z[i] = alpha_to[s[i]] ^ alpha_to[elp[u][i]];
-                        }
-                        else if((s[i] != -1) && (elp[u][i] == -1))
-                        {
-                            z[i] = alpha_to[s[i]];
-                        }
-                        else if((s[i] == -1) && (elp[u][i] != -1))
-                        {
-                            z[i] = alpha_to[elp[u][i]];
-                        }
-                        else
-                        {
-                            z[i] = 0;
-                        }
+                q = q % NN;
+                output[loc[i]] ^= alpha_to[(err - q + NN) % NN]; /*recd[i] must be in polynomial form */
+            }
+        }
 
-                        for(int j = 1; j < i; j++)
-                        {
-                            if((s[j] != -1) && (elp[u][i - j] != -1))
-                            {
-                                z[i] ^= alpha_to[(elp[u][i - j] + s[j]) % NN];
-                            }
-                        }
+        return false;
+    }
 
-                        z[i] = index_of[z[i]]; /* put into index form */
-                    }
-                    ;
+    /**
+     * Decodes with errors and erasures.  An erasure is a symbol position that is known (or suspected) to be
+     * unreliable, for example a symbol that was protected by an inner code that could not be corrected, or a symbol
+     * with low soft decision reliability.  Each erasure only costs one parity symbol to correct while each (unknown
+     * position) error costs two, so the code can correct any combination of errors and erasures where
+     * (2 x errors) + erasures <= (NN - KK).
+     *
+     * The erasure locator polynomial is used to initialize the Berlekamp iteration and the error values for both the
+     * erasure and error locations are calculated with the Forney algorithm.
+     *
+     * @param input symbols in polynomial form, in the same order as decode(int[],int[])
+     * @param output to receive the corrected symbols in polynomial form, or the input symbols when the errors are
+     * irrecoverable
+     * @param erasures symbol positions (indexes into input) to erase
+     * @param erasureCount number of erasure positions to use from the erasures array
+     * @return true if the errors are irrecoverable
+     */
+    public boolean decode(final int[] input, int[] output, int[] erasures, int erasureCount)
+    {
+        return decode(input, output, erasures, erasureCount, getWorkspace());
+    }
 
-                    /* evaluate errors at locations given by error location numbers loc[i] */
-                    for(int i = 0; i < NN; i++)
-                    {
-                        err[i] = 0;
+    /**
+     * Decodes with errors and erasures using the workspace.  See decode(int[],int[],int[],int).
+     *
+     * @param input symbols in polynomial form, in the same order as decode(int[],int[])
+     * @param output to receive the corrected symbols in polynomial form, or the input symbols when the errors are
+     * irrecoverable
+     * @param erasures symbol positions (indexes into input) to erase
+     * @param erasureCount number of erasure positions to use from the erasures array
+     * @param workspace created by this decoder
+     * @return true if the errors are irrecoverable
+     */
+    public boolean decode(final int[] input, int[] output, int[] erasures, int erasureCount, Workspace workspace)
+    {
+        if(erasureCount <= 0)
+        {
+            return decode(input, output, workspace);
+        }
 
-                        if(output[i] != -1) /* convert recd[] to polynomial form */
-                        {
-                            output[i] = alpha_to[output[i]];
-                        }
-                        else
-                        {
-                            output[i] = 0;
-                        }
-                    }
+        int roots = NN - KK;
 
-                    for(int i = 0; i < l[u]; i++) /* compute numerator of error term first */
-                    {
-                        err[loc[i]] = 1; /* accounts for z[0] */
+        System.arraycopy(input, 0, output, 0, NN);
 
-                        for(int j = 1; j <= l[u]; j++)
-                        {
-                            if(z[j] != -1)
-                            {
-                                err[loc[i]] ^= alpha_to[(z[j] + j * root[i]) % NN];
-                            }
-                        }
+        if(erasureCount > roots)
+        {
+            return true;
+        }
 
-                        if(err[loc[i]] != 0)
-                        {
-                            err[loc[i]] = index_of[err[loc[i]]];
+        /* form the syndromes in polynomial form: s[i] = recd(alpha**i), i=1..(NN - KK) */
+        int[] s = workspace.mSyndromes;
+
+        if(!calculateSyndromes(input, s))
+        {
+            return false;
+        }
 
-                            q = 0; /* form denominator of error term */
+        /* initialize the error locator polynomial with the erasure locator: product of (1 + alpha**position X) */
+        int[] lambda = workspace.mLambda;
+        Arrays.fill(lambda, 0);
+        lambda[0] = 1;
 
-                            for(int j = 0; j < l[u]; j++)
-                            {
-                                if(j != i)
-                                {
-                                    q += index_of[1 ^ alpha_to[(loc[j] + root[i]) % NN]];
-                                }
-                            }
+        for(int e = 0; e < erasureCount; e++)
+        {
+            int location = alpha_to[erasures[e] % NN];
 
-                            q = q % NN;
-                            err[loc[i]] = alpha_to[(err[loc[i]] - q + NN) % NN];
-                            output[loc[i]] ^= err[loc[i]]; /*recd[i] must be in polynomial form */
-                        }
+            for(int i = e + 1; i > 0; i--)
+            {
+                lambda[i] ^= multiply(location, lambda[i - 1]);
+            }
+        }
+
+        /* Berlekamp iteration over the remaining syndromes */
+        int[] b = workspace.mB;
+        System.arraycopy(lambda, 0, b, 0, lambda.length);
+        int[] t = workspace.mT;
+        int l = erasureCount;
+
+        for(int r = erasureCount + 1; r <= roots; r++)
+        {
+            int discrepancy = 0;
+
+            for(int i = 0; i < r; i++)
+            {
+                discrepancy ^= multiply(lambda[i], s[r - i]);
+            }
+
+            if(discrepancy == 0)
+            {
+                shift(b);
+            }
+            else
+            {
+                /* t(x) = lambda(x) - discrepancy * x * b(x) */
+                t[0] = lambda[0];
+
+                for(int i = 0; i < roots; i++)
+                {
+                    t[i + 1] = lambda[i + 1] ^ multiply(discrepancy, b[i]);
+                }
+
+                if(2 * l <= r + erasureCount - 1)
+                {
+                    l = r + erasureCount - l;
+
+                    /* b(x) = lambda(x) / discrepancy */
+                    int inverse = alpha_to[NN - index_of[discrepancy]];
+
+                    for(int i = 0; i <= roots; i++)
+                    {
+                        b[i] = multiply(lambda[i], inverse);
                     }
                 }
                 else
                 {
-                    /* no. roots != degree of elp => >tt errors and cannot solve */
-                    irrecoverable_error = true;
+                    shift(b);
                 }
 
+                int[] swap = lambda;
+                lambda = t;
+                t = swap;
             }
-            else
+        }
+
+        int degree = 0;
+
+        for(int i = 0; i <= roots; i++)
+        {
+            if(lambda[i] != 0)
             {
-                /* elp has degree >tt hence cannot solve */
-                irrecoverable_error = true;
+                degree = i;
             }
         }
-        else
+
+        /* omega(x) = s(x) * lambda(x) mod x**(NN - KK), where s(x) = s[1] + s[2]x + ... */
+        int[] omega = workspace.mOmega;
+        Arrays.fill(omega, 0);
+
+        for(int i = 0; i < roots; i++)
         {
-            /* no non-zero syndromes => no errors: output received codeword */
-            for(int i = 0; i < NN; i++)
+            for(int j = 0; j <= i; j++)
             {
-                if(output[i] != -1) /* convert recd[] to polynomial form */
-                {
-                    output[i] = alpha_to[output[i]];
-                }
-                else
-                {
-                    output[i] = 0;
-                }
+                omega[i] ^= multiply(s[i - j + 1], lambda[j]);
             }
         }
 
-        if(irrecoverable_error)
+        /* Chien search for the roots of lambda(x) and Forney algorithm for the error values */
+        int[] locations = workspace.mLoc;
+        int[] values = workspace.mValues;
+        int count = 0;
+
+        for(int position = 0; position < NN; position++)
         {
-            for(int i = 0; i < NN; i++) /* could return error flag if desired */
+            /* inverse of the location number for this position, in index form */
+            int inverse = (NN - position) % NN;
+
+            int q = 0;
+
+            for(int i = 0; i <= degree; i++)
             {
-                if(output[i] != -1) /* convert recd[] to polynomial form */
+                if(lambda[i] != 0)
                 {
-                    output[i] = alpha_to[output[i]];
+                    q ^= alpha_to[(index_of[lambda[i]] + i * inverse) % NN];
                 }
-                else
+            }
+
+            if(q == 0)
+            {
+                if(count == degree)
+                {
+                    /* more roots than the degree of lambda => cannot solve */
+                    return true;
+                }
+
+                int numerator = 0;
+
+                for(int i = 0; i < roots; i++)
                 {
-                    output[i] = 0; /* just output received codeword as is */
+                    if(omega[i] != 0)
+                    {
+                        numerator ^= alpha_to[(index_of[omega[i]] + i * inverse) % NN];
+                    }
                 }
+
+                /* formal derivative of lambda(x) only has the odd power terms */
+                int denominator = 0;
+
+                for(int i = 1; i <= degree; i += 2)
+                {
+                    if(lambda[i] != 0)
+                    {
+                        denominator ^= alpha_to[(index_of[lambda[i]] + (i - 1) * inverse) % NN];
+                    }
+                }
+
+                if(denominator == 0)
+                {
+                    return true;
+                }
+
+                locations[count] = position;
+                values[count] = numerator == 0 ? 0 :
+                    alpha_to[(index_of[numerator] - index_of[denominator] + NN) % NN];
+                count++;
             }
         }
 
-        return irrecoverable_error;
+        if(count != degree)
+        {
+            /* no. roots != degree of lambda => too many errors and erasures and cannot solve */
+            return true;
+        }
+
+        for(int i = 0; i < count; i++)
+        {
+            output[locations[i]] ^= values[i];
+        }
+
+        return false;
+    }
+
+    /**
+     * Multiplies two field elements in polynomial form
+     */
+    private int multiply(int a, int b)
+    {
+        if(a == 0 || b == 0)
+        {
+            return 0;
+        }
+
+        return alpha_to[index_of[a] + index_of[b]];
+    }
+
+    /**
+     * Multiplies the polynomial by x, in place
+     */
+    private static void shift(int[] polynomial)
+    {
+        System.arraycopy(polynomial, 0, polynomial, 1, polynomial.length - 1);
+        polynomial[0] = 0;
+    }
+
+    /**
+     * Decoder scratch arrays.  A workspace is sized for the decoder that created it and can be reused for any number
+     * of decode calls, but must not be used by more than one thread at a time.
+     */
+    public static class Workspace
+    {
+        private final int[][] mElp;
+        private final int[] mD;
+        private final int[] mL;
+        private final int[] mULu;
+        private final int[] mSyndromes;
+        private final int[] mRoot;
+        private final int[] mLoc;
+        private final int[] mZ;
+        private final int[] mReg;
+        private final int[] mLambda;
+        private final int[] mB;
+        private final int[] mT;
+        private final int[] mOmega;
+        private final int[] mValues;
+        private final int[] mInput;
+        private final int[] mOutput;
+
+        private Workspace(int nn, int kk, int tt)
+        {
+            int roots = nn - kk;
+
+            mElp = new int[roots + 2][roots];
+            mD = new int[roots + 2];
+            mL = new int[roots + 2];
+            mULu = new int[roots + 2];
+            mSyndromes = new int[roots + 1];
+            mRoot = new int[tt];
+            mLoc = new int[Math.max(tt, roots)];
+            mZ = new int[tt + 1];
+            mReg = new int[tt + 1];
+            mLambda = new int[roots + 1];
+            mB = new int[roots + 1];
+            mT = new int[roots + 1];
+            mOmega = new int[roots];
+            mValues = new int[roots];
+            mInput = new int[nn];
+            mOutput = new int[nn];
+        }
+
+        /**
+         * Codeword length input symbols array that callers can use to load received symbols for decoding.  The
+         * decoder doesn't use this array, so it can be passed as the input argument to decode.
+         */
+        public int[] getInput()
+        {
+            return mInput;
+        }
+
+        /**
+         * Codeword length output symbols array that callers can use to receive decoded symbols.  The decoder doesn't
+         * use this array, so it can be passed as the output argument to decode.
+         */
+        public int[] getOutput()
+        {
+            return mOutput;
+        }
     }
 }
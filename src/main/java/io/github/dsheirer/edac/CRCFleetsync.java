@@ -17,7 +17,7 @@
  ******************************************************************************/
 package io.github.dsheirer.edac;
 
-import java.util.BitSet;
+import io.github.dsheirer.bits.BinaryMessage;
 
 /**
  * Fleetsync CRC checksum utility
@@ -107,7 +107,7 @@ public class CRCFleetsync
 	 * contained in bits 48 - 63, using a lookup table of CRC checksum values
 	 * derived from the CRC-15 value, and verifies the message has even parity
 	 */
-	public static CRC check( BitSet msg )
+	public static CRC check( BinaryMessage msg )
 	{
 		CRC crc = CRC.UNKNOWN;
 		
@@ -142,7 +142,7 @@ public class CRCFleetsync
 	/**
 	 * Returns the integer value of the 15 bit crc checksum
 	 */
-    public static int getChecksum( BitSet msg )
+    public static int getChecksum( BinaryMessage msg )
     {
     	int retVal = 0;
     	
@@ -166,7 +166,7 @@ public class CRCFleetsync
      * @param msg to be checked for errors
      * @return - array of integer positions of bits that need flipped
      */
-    public static int[] findBitErrors( BitSet msg )
+    public static int[] findBitErrors( BinaryMessage msg )
     {
     	int[] retVal = null;
     	
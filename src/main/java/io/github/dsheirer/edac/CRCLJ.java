@@ -21,8 +21,6 @@ import io.github.dsheirer.bits.BinaryMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.BitSet;
-
 /**
  * LJ CRC checksum utility
  * 
@@ -146,7 +144,7 @@ public class CRCLJ
 	/**
 	 * Returns the integer value of the 16 bit crc checksum
 	 */
-    public static int getChecksum( BitSet msg )
+    public static int getChecksum( BinaryMessage msg )
     {
     	int retVal = 0;
     	
@@ -17,10 +17,9 @@
  ******************************************************************************/
 package io.github.dsheirer.edac;
 
+import io.github.dsheirer.bits.BinaryMessage;
 import io.github.dsheirer.message.MessageDirection;
 
-import java.util.BitSet;
-
 /**
  * LTR CRC checksum utility
  * 
@@ -68,7 +67,7 @@ public class CRCLTR
 	 * contained in bits 35 - 41, using a lookup table of CRC checksum values
 	 * derived from the CRC-7 value.
 	 */
-	public static CRC check( BitSet msg, MessageDirection direction )
+	public static CRC check( BinaryMessage msg, MessageDirection direction )
 	{
 		CRC crc = CRC.UNKNOWN;
 		
@@ -104,7 +103,7 @@ public class CRCLTR
 		return sCHECKSUMS;
 	}
 
-	public static int getCalculatedChecksum( BitSet msg  )
+	public static int getCalculatedChecksum( BinaryMessage msg  )
 	{
 		int calculated = 0;
 		
@@ -120,7 +119,7 @@ public class CRCLTR
 	/**
 	 * Returns the integer value of the 7 bit crc checksum
 	 */
-    public static int getTransmittedChecksum( BitSet msg )
+    public static int getTransmittedChecksum( BinaryMessage msg )
     {
     	int retVal = 0;
     	
@@ -144,7 +143,7 @@ public class CRCLTR
      * @param msg to be checked for errors
      * @return - array of integer positions of bits that need flipped
      */
-    public static int[] findBitErrors( BitSet msg )
+    public static int[] findBitErrors( BinaryMessage msg )
     {
     	int[] retVal = null;
     	
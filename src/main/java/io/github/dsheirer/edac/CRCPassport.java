@@ -22,8 +22,6 @@ package io.github.dsheirer.edac;
 import io.github.dsheirer.bits.BinaryMessage;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
 
-import java.util.BitSet;
-
 /**
  * Passport CRC checksum utility
  *
@@ -100,7 +98,7 @@ public class CRCPassport
      * contained in bits 60 - 68, using a lookup table of CRC checksum values
      * derived from the CRC-7 value and the final parity bit
      */
-    public static CRC check(BitSet msg)
+    public static CRC check(BinaryMessage msg)
     {
         CRC crc = CRC.UNKNOWN;
 
@@ -127,7 +125,7 @@ public class CRCPassport
         return crc;
     }
 
-    public static byte getResidual(BitSet msg)
+    public static byte getResidual(BinaryMessage msg)
     {
         byte calculated = 0x0; //Initial fill of zero
 
@@ -150,7 +148,7 @@ public class CRCPassport
     /**
      * Returns the integer value of the 7 bit crc checksum
      */
-    public static byte getChecksum(BitSet msg)
+    public static byte getChecksum(BinaryMessage msg)
     {
         byte retVal = 0x0;
 
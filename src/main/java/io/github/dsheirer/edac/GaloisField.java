@@ -0,0 +1,192 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.edac;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Galois Field GF(2^m) with precomputed log (index) and antilog (alpha) lookup tables.
+ *
+ * Tables are generated once for each field size and generator polynomial and are shared by all decoders that use
+ * the field.  The antilog table is double length so that the sum of two logs can be used as an index without a
+ * modulo operation.
+ */
+public class GaloisField
+{
+    private static final Map<String,GaloisField> FIELDS = new ConcurrentHashMap<>();
+
+    private final int mBitSize;
+    private final int mSize;
+    private final int[] mAlphaTo;
+    private final int[] mIndexOf;
+
+    /**
+     * Constructs an instance.  Use the static get() method to access the shared field instance.
+     *
+     * @param bitSize as a power of 2, e.g. for a GF(2^6) the parameter would be 6
+     * @param generatorPolynomial in big-endian format
+     */
+    private GaloisField(int bitSize, int[] generatorPolynomial)
+    {
+        Validate.isTrue(bitSize == generatorPolynomial.length - 1,
+            "Generator polynomial length must be: bitSize + 1");
+
+        mBitSize = bitSize;
+        mSize = (1 << bitSize) - 1;
+        mAlphaTo = new int[2 * mSize];
+        mIndexOf = new int[mSize + 1];
+
+        generate(generatorPolynomial);
+    }
+
+    /**
+     * Shared Galois Field instance for the field size and generator polynomial.
+     *
+     * @param bitSize as a power of 2, e.g. for a GF(2^6) the parameter would be 6
+     * @param generatorPolynomial for the Galois Field represented in binary as 0/1 integers where the array is in
+     * big-endian format.  For example: polynomial a6 + a1 + 1 is 1000011, as big endian: 1100001, and in array
+     * form as {1,1,0,0,0,0,1}
+     * @return field
+     */
+    public static GaloisField get(int bitSize, int[] generatorPolynomial)
+    {
+        String key = bitSize + Arrays.toString(generatorPolynomial);
+        return FIELDS.computeIfAbsent(key, k -> new GaloisField(bitSize, generatorPolynomial));
+    }
+
+    /**
+     * Generates the Galois Field lookup tables.
+     *
+     * Generates a GF( 2**mm ) from the irreducible polynomial p(X) in pp[0]..pp[mm]
+     *
+     * Lookup tables:
+     * index_of[] = polynomial form
+     * alpha_to[] = contains j=alpha**i;
+     *
+     * Polynomial form -> Index form  index_of[j=alpha**i] = i
+     *
+     * alpha_to = 2 is the primitive element of GF( 2**mm )
+     */
+    private void generate(int[] generatorPolynomial)
+    {
+        int mask = 1;
+
+        mAlphaTo[mBitSize] = 0;
+
+        for(int i = 0; i < mBitSize; i++)
+        {
+            mAlphaTo[i] = mask;
+            mIndexOf[mAlphaTo[i]] = i;
+
+            if(generatorPolynomial[i] != 0)
+            {
+                mAlphaTo[mBitSize] ^= mask;
+            }
+
+            mask <<= 1;
+        }
+
+        mIndexOf[mAlphaTo[mBitSize]] = mBitSize;
+
+        mask >>= 1;
+
+        for(int i = mBitSize + 1; i < mSize; i++)
+        {
+            if(mAlphaTo[i - 1] >= mask)
+            {
+                mAlphaTo[i] = mAlphaTo[mBitSize] ^ ((mAlphaTo[i - 1] ^ mask) << 1);
+            }
+            else
+            {
+                mAlphaTo[i] = mAlphaTo[i - 1] << 1;
+            }
+
+            mIndexOf[mAlphaTo[i]] = i;
+        }
+
+        mIndexOf[0] = -1;
+
+        System.arraycopy(mAlphaTo, 0, mAlphaTo, mSize, mSize);
+    }
+
+    /**
+     * Field size as a power of 2
+     */
+    public int getBitSize()
+    {
+        return mBitSize;
+    }
+
+    /**
+     * Number of non-zero field elements: 2^m - 1
+     */
+    public int getSize()
+    {
+        return mSize;
+    }
+
+    /**
+     * Antilog table: alpha_to[i] = alpha**i in polynomial form for 0 <= i < (2 x size).
+     *
+     * Note: the returned array is shared and must not be modified.
+     */
+    int[] getAlphaTo()
+    {
+        return mAlphaTo;
+    }
+
+    /**
+     * Log table: index_of[alpha**i] = i, with index_of[0] = -1.
+     *
+     * Note: the returned array is shared and must not be modified.
+     */
+    int[] getIndexOf()
+    {
+        return mIndexOf;
+    }
+
+    /**
+     * Multiplies two field elements in polynomial form
+     */
+    public int multiply(int a, int b)
+    {
+        if(a == 0 || b == 0)
+        {
+            return 0;
+        }
+
+        return mAlphaTo[mIndexOf[a] + mIndexOf[b]];
+    }
+
+    /**
+     * Multiplicative inverse of a non-zero field element in polynomial form
+     */
+    public int inverse(int a)
+    {
+        return mAlphaTo[mSize - mIndexOf[a]];
+    }
+}
@@ -20,9 +20,6 @@ import org.slf4j.LoggerFactory;
  *
  *     You should have received a copy of the GNU General Public License
  *     along with this program.  If not, see <http://www.gnu.org/licenses/>
- *     -----------------------------------------------------------------------
- *     Galois24 decoder based on Hank Wallace's tutorial/algorithm located at:
- *     http://www.aqdi.com/golay.htm
  ******************************************************************************/
 
 /**
@@ -35,22 +32,41 @@ public class Golay18
     private final static Logger mLog = LoggerFactory.getLogger(Golay18.class);
 
     /**
-     * Performs error detection and correction.
+     * Error pattern bits for the left-most 6 (shortened) bits of the Golay 24 codeword that are not transmitted.
      */
-    public static void checkAndCorrect(CorrectedBinaryMessage message, int startIndex)
-    {
-        int value = message.getInt(startIndex, startIndex + 17);
+    private static final int SHORTENED_MASK = 0xFC0000;
 
-        CorrectedBinaryMessage temp = new CorrectedBinaryMessage(24);
-        temp.load(6, 18, value);
+    /**
+     * Corrects up to 3 bit errors in the 18-bit codeword.
+     *
+     * @param codeword (18 bits)
+     * @return corrected codeword or Golay24.UNCORRECTABLE if the codeword has 4 or more bit errors
+     */
+    public static int correct(int codeword)
+    {
+        int errorPattern = Golay24.getErrorPattern(codeword & 0x3FFFF);
 
-        int errorsCorrected = Golay24.checkAndCorrect(temp, 0);
+        //An error in the shortened bits (always zero) indicates an uncorrectable codeword
+        if(errorPattern == Golay24.UNCORRECTABLE || (errorPattern & SHORTENED_MASK) != 0)
+        {
+            return Golay24.UNCORRECTABLE;
+        }
 
-        int correctedValue = temp.getInt(6, 23);
+        return (codeword & 0x3FFFF) ^ errorPattern;
+    }
 
-        message.load(startIndex, 18, correctedValue);
+    /**
+     * Performs error detection and correction.  Uncorrectable codewords are not modified.
+     */
+    public static void checkAndCorrect(CorrectedBinaryMessage message, int startIndex)
+    {
+        int value = message.getInt(startIndex, startIndex + 17);
+        int correctedValue = correct(value);
 
-        int correctedBitCount = Integer.bitCount(value ^ correctedValue);
-        message.incrementCorrectedBitCount(correctedBitCount);
+        if(correctedValue != Golay24.UNCORRECTABLE && correctedValue != value)
+        {
+            message.load(startIndex, 18, correctedValue);
+            message.incrementCorrectedBitCount(Integer.bitCount(value ^ correctedValue));
+        }
     }
 }
@@ -2,6 +2,15 @@ package io.github.dsheirer.edac;
 
 import io.github.dsheirer.bits.BinaryMessage;
 
+/**
+ * Golay 23/12/7 decoder.
+ *
+ * Decoding is table driven.  The Golay(23,12) code is perfect: each of the 2048 11-bit syndromes of a 23-bit codeword
+ * maps to exactly one error pattern of weight 3 or less, so a codeword is corrected with a table lookup and an XOR.
+ *
+ * Codewords are represented as integer values with the first transmitted bit in the most significant position
+ * (bit 22): 12 data bits followed by 11 checksum bits.
+ */
 public class Golay23
 {
 	public static final int MAX_CORRECTABLE_ERRORS = 3;
@@ -14,115 +23,97 @@ public class Golay23
 	};
 
 	/**
-	 * Implements Golay(23,12,7) error detection and correction.  Returns the
-	 * number of detected errors.  If the error count is less than or equal to
-	 * the max correctable errors (3), then the error bits are corrected.
-	 * Otherwise the message is left intact and an error count greater than 3
-	 * is returned.
-	 * 
-	 * @param frame - message frame bitset
-	 * @param startIndex - first bit index of the golay protected bit sequence
-	 * 
-	 * @return - number of detected errors
+	 * Error pattern for each 11-bit syndrome
 	 */
-	public static int checkAndCorrect( BinaryMessage frame, int startIndex )
+	private static final int[] ERROR_PATTERNS = new int[2048];
+
+	static
 	{
-		int syndrome = getSyndrome( frame, startIndex );
-		
-		/* No errors */
-		if( syndrome == 0 )
+		for( int a = 0; a < 23; a++ )
 		{
-			return 0;
-		}
-		
-		BinaryMessage copy = frame.getSubMessage( startIndex, startIndex + 23 );
+			int single = 1 << a;
+			ERROR_PATTERNS[ getSyndrome( single ) ] = single;
 
-		int index = -1;
-		int syndromeWeight = MAX_CORRECTABLE_ERRORS;
-		int errors = 0;
-		
-		while( index < 23 )
-		{
-			if( index != -1 )
+			for( int b = a + 1; b < 23; b++ )
 			{
-				/* restore the previous flipped bit */
-				if( index > 0 )
-				{
-					copy.flip( index - 1 );
-				}
-				
-				copy.flip( index );
-				
-				syndromeWeight = MAX_CORRECTABLE_ERRORS - 1;
-			}
-			
-			syndrome = getSyndrome( copy, 0 );
-			
-			if( syndrome > 0 )
-			{
-				for( int i = 0; i < 23; i++ )
-				{
-					errors = Integer.bitCount( syndrome );
-					
-					if( errors <= syndromeWeight )
-					{
-						copy.xor( 12, 11, syndrome );
-						
-						copy.rotateRight( i, 0, 22 );
+				int twice = single | ( 1 << b );
+				ERROR_PATTERNS[ getSyndrome( twice ) ] = twice;
 
-						if( index >= 0 )
-						{
-							errors ++;
-						}
-
-						int corrected = copy.getInt( 0, 22 );
-						int original = frame.getInt( startIndex, startIndex + 22 );
-						
-						int errorCount = Integer.bitCount( original ^ corrected );
-						
-						if( errorCount <= 3 )
-						{
-							frame.load( startIndex, 23, corrected );
-						}
-
-						return errorCount;
-					}
-					else
-					{
-						copy.rotateLeft( 0, 22 );
-						syndrome = getSyndrome( copy, 0 );
-					}
+				for( int c = b + 1; c < 23; c++ )
+				{
+					int thrice = twice | ( 1 << c );
+					ERROR_PATTERNS[ getSyndrome( thrice ) ] = thrice;
 				}
-				
-				index++;
 			}
 		}
+	}
 
-		/* Return an error count greater than 3 to indicate failed correction attempt */
-		return 4;
+	/**
+	 * Encodes the 12-bit data value as a 23-bit codeword.
+	 *
+	 * @param data value (12 bits)
+	 * @return codeword (23 bits)
+	 */
+	public static int encode( int data )
+	{
+		return ( ( data & 0xFFF ) << 11 ) | Golay24.getChecksum( data );
 	}
 
-	private static int getSyndrome( BinaryMessage frame, int startIndex )
+	/**
+	 * Calculates the 11-bit syndrome for the 23-bit codeword.  A valid codeword has a syndrome of zero.
+	 *
+	 * @param codeword (23 bits)
+	 * @return syndrome (11 bits)
+	 */
+	public static int getSyndrome( int codeword )
 	{
-		int calculated = calculateChecksum( frame, startIndex );
-		
-		int checksum = frame.getInt( startIndex + 12, startIndex + 22 );
+		return ( Golay24.getChecksum( codeword >> 11 ) ^ codeword ) & 0x7FF;
+	}
 
-		return ( checksum ^ calculated );
+	/**
+	 * Error pattern for the 23-bit codeword.
+	 *
+	 * @param codeword (23 bits)
+	 * @return error pattern to XOR with the codeword, or zero when there are no errors
+	 */
+	public static int getErrorPattern( int codeword )
+	{
+		return ERROR_PATTERNS[ getSyndrome( codeword ) ];
 	}
-	
-	private static int calculateChecksum( BinaryMessage frame, int startIndex )
+
+	/**
+	 * Corrects the 23-bit codeword.  Codewords with more than 3 bit errors are mis-corrected to the nearest
+	 * codeword.
+	 *
+	 * @param codeword (23 bits)
+	 * @return corrected codeword
+	 */
+	public static int correct( int codeword )
+	{
+		return ( codeword & 0x7FFFFF ) ^ ERROR_PATTERNS[ getSyndrome( codeword ) ];
+	}
+
+	/**
+	 * Implements Golay(23,12,7) error detection and correction.  Returns the
+	 * number of detected errors and corrects the error bits.  Since the code
+	 * is perfect, every codeword is corrected to the nearest valid codeword
+	 * and the error count is never more than the max correctable errors (3).
+	 * 
+	 * @param frame - message frame bitset
+	 * @param startIndex - first bit index of the golay protected bit sequence
+	 * 
+	 * @return - number of detected errors
+	 */
+	public static int checkAndCorrect( BinaryMessage frame, int startIndex )
 	{
-		int calculated = 0; //Starting value
+		int codeword = frame.getInt( startIndex, startIndex + 22 );
+		int errorPattern = getErrorPattern( codeword );
 
-		/* Iterate the set bits and XOR running checksum with lookup value */
-		for (int i = frame.nextSetBit( startIndex ); 
-				 i >= startIndex && i < startIndex + 12; 
-				 i = frame.nextSetBit( i+1 ) ) 
+		if( errorPattern != 0 )
 		{
-			calculated ^= CHECKSUMS[ i - startIndex ];
+			frame.load( startIndex, 23, codeword ^ errorPattern );
 		}
-		
-		return calculated;
+
+		return Integer.bitCount( errorPattern );
 	}
 }
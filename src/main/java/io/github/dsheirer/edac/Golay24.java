@@ -1,10 +1,11 @@
 package io.github.dsheirer.edac;
 
-import io.github.dsheirer.bits.BinaryMessage;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 /*******************************************************************************
  *     SDR Trunk 
  *     Copyright (C) 2014 Dennis Sheirer
@@ -21,18 +22,28 @@ import org.slf4j.LoggerFactory;
  *
  *     You should have received a copy of the GNU General Public License
  *     along with this program.  If not, see <http://www.gnu.org/licenses/>
- *     -----------------------------------------------------------------------
- *     Galois24 decoder based on Hank Wallace's tutorial/algorithm located at:
- *     http://www.aqdi.com/golay.htm
  ******************************************************************************/
 
 /**
  * Galois 24/12/7 decoder
+ *
+ * Decoding is table driven.  The 12-bit syndrome (11-bit Golay(23,12) syndrome plus the overall parity bit) of a
+ * 24-bit codeword indexes a 4096-entry table of correctable (weight 3 or less) error patterns, so a codeword is
+ * corrected with a table lookup and an XOR.  Syndromes that don't have a correctable error pattern indicate 4 or
+ * more bit errors and the codeword is uncorrectable.
+ *
+ * Codewords are represented as integer values with the first transmitted bit in the most significant position
+ * (bit 23): 12 data bits, 11 checksum bits and the overall (even) parity bit.
  */
 public class Golay24
 {
     private final static Logger mLog = LoggerFactory.getLogger(Golay24.class);
 
+    /**
+     * Error pattern value for syndromes that don't have a correctable error pattern
+     */
+    public static final int UNCORRECTABLE = -1;
+
     /**
      * Galois 24/12 checksums generated by:
      *
@@ -45,119 +56,140 @@ public class Golay24
                     0x040, 0x020, 0x010, 0x008, 0x004, 0x002, 0x001
             };
 
-    private static int calculateChecksum(BinaryMessage message, int startIndex)
-    {
-        int calculated = 0; //Starting value
-
-        /* Iterate the set bits and XOR running checksum with lookup value */
-        for(int i = message.nextSetBit(startIndex);
-            i >= startIndex && i < startIndex + 12;
-            i = message.nextSetBit(i + 1))
-        {
-            calculated ^= CHECKSUMS[i - startIndex];
-        }
-
-        return calculated;
-    }
-
     /**
-     * Performs error detection and returns a corrected copy of the 24-bit
-     * message that starts at the start index.
-     *
-     * @param message - source message containing startIndex + 24 bits length
-     * @param startIndex - start of the 24-bit galois 24 protected bit set
-     * @return - corrected 24-bit galois value
+     * 11-bit checksum for each 12-bit data value
      */
-    public static int checkAndCorrect(CorrectedBinaryMessage message, int startIndex)
-    {
-        boolean parityError = message.cardinality() % 2 != 0;
+    private static final int[] CHECKSUM_TABLE = new int[4096];
 
-        int syndrome = getSyndrome(message, startIndex);
+    /**
+     * Error pattern for each 12-bit syndrome, or UNCORRECTABLE
+     */
+    private static final int[] ERROR_PATTERNS = new int[4096];
 
-        /* No errors */
-        if(syndrome == 0)
+    static
+    {
+        for(int data = 0; data < CHECKSUM_TABLE.length; data++)
         {
-            if(parityError)
+            int checksum = 0;
+
+            for(int bit = 0; bit < 12; bit++)
             {
-                message.flip(startIndex + 23);
-                message.incrementCorrectedBitCount(1);
-                return 1;
+                if((data & (0x800 >> bit)) != 0)
+                {
+                    checksum ^= CHECKSUMS[bit];
+                }
             }
 
-            return 0;
+            CHECKSUM_TABLE[data] = checksum;
         }
 
-        /* Get original message value */
-        int original = message.getInt(0, 22);
+        Arrays.fill(ERROR_PATTERNS, UNCORRECTABLE);
+        ERROR_PATTERNS[0] = 0;
 
-        int index = -1;
-        int syndromeWeight = 3;
-        int errors = 0;
-
-        while(index < 23)
+        for(int a = 0; a < 24; a++)
         {
-            if(index != -1)
+            int single = 1 << a;
+            ERROR_PATTERNS[getSyndrome(single)] = single;
+
+            for(int b = a + 1; b < 24; b++)
             {
-                /* restore the previous flipped bit */
-                if(index > 0)
+                int twice = single | (1 << b);
+                ERROR_PATTERNS[getSyndrome(twice)] = twice;
+
+                for(int c = b + 1; c < 24; c++)
                 {
-                    message.flip(index - 1);
+                    int thrice = twice | (1 << c);
+                    ERROR_PATTERNS[getSyndrome(thrice)] = thrice;
                 }
-
-                message.flip(index);
-
-                syndromeWeight = 2;
             }
+        }
+    }
 
-            syndrome = getSyndrome(message, startIndex);
-
-            if(syndrome > 0)
-            {
-                for(int i = 0; i < 23; i++)
-                {
-
-                    errors = Integer.bitCount(syndrome);
-
-                    if(errors <= syndromeWeight)
-                    {
-                        message.xor(12, 11, syndrome);
-
-                        message.rotateRight(i, startIndex, startIndex + 22);
-
-                        if(index >= 0)
-                        {
-                            errors++;
-                        }
-
-                        int corrected = message.getInt(0, 22);
+    /**
+     * Calculates the 11-bit Golay(23,12) checksum for the 12-bit data value.
+     *
+     * @param data value (12 bits)
+     * @return checksum (11 bits)
+     */
+    public static int getChecksum(int data)
+    {
+        return CHECKSUM_TABLE[data & 0xFFF];
+    }
 
-                        if(Integer.bitCount(original ^ corrected) > 3)
-                        {
-                            return 2;
-                        }
+    /**
+     * Encodes the 12-bit data value as a 24-bit codeword.
+     *
+     * @param data value (12 bits)
+     * @return codeword (24 bits)
+     */
+    public static int encode(int data)
+    {
+        int codeword = ((data & 0xFFF) << 12) | (getChecksum(data) << 1);
+        return codeword | (Integer.bitCount(codeword) & 1);
+    }
 
-                        return 1;
-                    }
-                    else
-                    {
-                        message.rotateLeft(startIndex, startIndex + 22);
-                        syndrome = getSyndrome(message, startIndex);
-                    }
-                }
+    /**
+     * Calculates the 12-bit syndrome for the 24-bit codeword: the 11-bit checksum syndrome in the upper bits and the
+     * overall parity in the least significant bit.  A valid codeword has a syndrome of zero.
+     *
+     * @param codeword (24 bits)
+     * @return syndrome (12 bits)
+     */
+    public static int getSyndrome(int codeword)
+    {
+        int syndrome = (CHECKSUM_TABLE[(codeword >> 12) & 0xFFF] ^ (codeword >> 1)) & 0x7FF;
+        return (syndrome << 1) | (Integer.bitCount(codeword & 0xFFFFFF) & 1);
+    }
 
-                index++;
-            }
-        }
+    /**
+     * Error pattern for the 24-bit codeword.
+     *
+     * @param codeword (24 bits)
+     * @return error pattern to XOR with the codeword, zero when there are no errors, or UNCORRECTABLE
+     */
+    public static int getErrorPattern(int codeword)
+    {
+        return ERROR_PATTERNS[getSyndrome(codeword)];
+    }
 
-        return 2;
+    /**
+     * Corrects up to 3 bit errors in the 24-bit codeword.
+     *
+     * @param codeword (24 bits)
+     * @return corrected codeword or UNCORRECTABLE if the codeword has 4 or more bit errors
+     */
+    public static int correct(int codeword)
+    {
+        int errorPattern = ERROR_PATTERNS[getSyndrome(codeword)];
+        return errorPattern == UNCORRECTABLE ? UNCORRECTABLE : (codeword & 0xFFFFFF) ^ errorPattern;
     }
 
-    private static int getSyndrome(BinaryMessage message, int startIndex)
+    /**
+     * Performs error detection and correction of the 24-bit codeword that starts at the start index and updates
+     * the message corrected bit count.  Uncorrectable codewords are not modified.  The syndrome and the overall parity
+     * check cover only the 24 codeword bits, so bits outside of the codeword do not affect the result.
+     *
+     * @param message - source message containing startIndex + 24 bits length
+     * @param startIndex - start of the 24-bit galois 24 protected bit set
+     * @return - 0 (no errors), 1 (errors corrected) or 2 (uncorrectable)
+     */
+    public static int checkAndCorrect(CorrectedBinaryMessage message, int startIndex)
     {
-        int calculated = calculateChecksum(message, startIndex);
+        int codeword = message.getInt(startIndex, startIndex + 23);
+        int errorPattern = getErrorPattern(codeword);
 
-        int checksum = message.getInt(startIndex + 12, startIndex + 22);
+        if(errorPattern == 0)
+        {
+            return 0;
+        }
+
+        if(errorPattern == UNCORRECTABLE)
+        {
+            return 2;
+        }
 
-        return (checksum ^ calculated);
+        message.load(startIndex, 24, codeword ^ errorPattern);
+        message.incrementCorrectedBitCount(Integer.bitCount(errorPattern));
+        return 1;
     }
 }
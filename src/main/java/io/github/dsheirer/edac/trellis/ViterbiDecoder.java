@@ -18,6 +18,8 @@
  ******************************************************************************/
 package io.github.dsheirer.edac.trellis;
 
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import org.apache.commons.math3.util.FastMath;
 
 import java.util.ArrayList;
@@ -25,12 +27,22 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Viterbi decoder for trellis coded modulation (TCM) encoded binary sequences.
+ *
+ * Messages are decoded with the array-based ViterbiTrellis (see decodeMessage()).  The node/path based decode(int[])
+ * implementation is retained as the reference implementation.
+ *
+ * When the encoded message carries soft decision bit reliabilities (see CorrectedBinaryMessage.getReliabilities()),
+ * the message is decoded with soft decision metrics.
+ */
 public abstract class ViterbiDecoder
 {
     private int mInputBitLength;
     private int mInputValueCount;
     private int mOutputBitLength;
     private int mOutputValueCount;
+    private ViterbiTrellis mTrellis;
 
     /**
      * Viterbi decoder for trellis coded modulation (TCM) encoded binary sequences.
@@ -47,6 +59,20 @@ public abstract class ViterbiDecoder
         mOutputValueCount = (int)FastMath.pow(2.0, mOutputBitLength);
     }
 
+    /**
+     * Viterbi decoder for trellis coded modulation (TCM) encoded binary sequences with an array-based trellis for
+     * decoding messages.
+     *
+     * @param inputBitLength for coding (e.g. 3/4 rate input bit length is 3)
+     * @param outputBitLength for coding (e.g. 3/4 rate output bit length is 4)
+     * @param transitionMatrix of output values indexed by [previous input value][input value]
+     */
+    public ViterbiDecoder(int inputBitLength, int outputBitLength, int[][] transitionMatrix)
+    {
+        this(inputBitLength, outputBitLength);
+        mTrellis = new ViterbiTrellis(transitionMatrix, inputBitLength);
+    }
+
     /**
      * Creates a node that represents an input value and the actual/transmitted output value.
      *
@@ -120,10 +146,75 @@ public abstract class ViterbiDecoder
         return mOutputValueCount;
     }
 
+    /**
+     * Decodes the TCM encoded transmitted output values with the array-based trellis and returns the decoded input
+     * values, excluding the starting and flushing values, as a message with the corrected bit count set to the error
+     * count of the most likely path.
+     *
+     * @param transmittedOutputValues from the encoded message, including the final flushing value
+     * @return decoded message
+     */
+    protected CorrectedBinaryMessage decodeMessage(int[] transmittedOutputValues)
+    {
+        return decodeMessage(transmittedOutputValues, null);
+    }
+
+    /**
+     * Decodes the TCM encoded transmitted output values with the array-based trellis, using soft decision metrics when
+     * bit reliabilities are provided, and returns the decoded input values, excluding the starting and flushing
+     * values, as a message with the corrected bit count set to the number of transmitted bits that differ from the
+     * most likely path.
+     *
+     * @param transmittedOutputValues from the encoded message, including the final flushing value
+     * @param reliabilities for each transmitted bit, or null for hard decision decoding
+     * @return decoded message
+     */
+    protected CorrectedBinaryMessage decodeMessage(int[] transmittedOutputValues, byte[] reliabilities)
+    {
+        if(mTrellis == null)
+        {
+            throw new IllegalStateException("Decoder was constructed without a transition matrix");
+        }
+
+        int[] inputValues = new int[transmittedOutputValues.length - 1];
+        int error = reliabilities != null ?
+            mTrellis.decode(transmittedOutputValues, reliabilities, mOutputBitLength, inputValues) :
+            mTrellis.decode(transmittedOutputValues, inputValues);
+
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(inputValues.length * mInputBitLength);
+
+        for(int x = 0; x < inputValues.length; x++)
+        {
+            message.load(x * mInputBitLength, mInputBitLength, inputValues[x]);
+        }
+
+        message.setCorrectedBitCount(error);
+
+        return message;
+    }
+
+    /**
+     * Soft decision bit reliabilities from the encoded message
+     *
+     * @param encodedMessage that may carry reliabilities
+     * @return reliabilities or null if the message only contains hard decision bits
+     */
+    protected static byte[] getReliabilities(BinaryMessage encodedMessage)
+    {
+        if(encodedMessage instanceof CorrectedBinaryMessage)
+        {
+            return ((CorrectedBinaryMessage)encodedMessage).getReliabilities();
+        }
+
+        return null;
+    }
+
     /**
      * Decodes the TCM encoded transmitted output values and returns a path the represents the most likely transmitted
      * sequence of nodes.
      *
+     * Note: this is the node/path based reference implementation.  Use decodeMessage() to decode messages.
+     *
      * @param transmittedOutputValues from the encoded message
      * @return most likely path representing the transmitted values
      */
@@ -21,8 +21,6 @@ package io.github.dsheirer.edac.trellis;
 import io.github.dsheirer.bits.BinaryMessage;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
 
-import java.util.List;
-
 /**
  * Viterbi decoder for APCO-25 1/2 rate Trellis Coded Modulation (TCM) encoded messages.
  */
@@ -30,7 +28,7 @@ public class ViterbiDecoder_1_2_P25 extends ViterbiDecoder
 {
     public ViterbiDecoder_1_2_P25()
     {
-        super(2,4);
+        super(2, 4, P25_1_2_Node.TRANSITION_MATRIX);
     }
 
     /**
@@ -44,48 +42,7 @@ public class ViterbiDecoder_1_2_P25 extends ViterbiDecoder
     {
         int[] symbols = getSymbols(encodedMessage);
 
-        Path mostLikelyPath = decode(symbols);
-
-        return getMessage(mostLikelyPath);
-    }
-
-    /**
-     * Extracts the decoded/corrected message from the surviving path argument.
-     *
-     * @param path to extract a message from
-     * @return corrected binary message.
-     */
-    private CorrectedBinaryMessage getMessage(Path path)
-    {
-        List<Node> mNodes = path.getNodes();
-
-        //Each node contains an input value excluding the starting(0) and final flushing(0) nodes.
-        CorrectedBinaryMessage message = new CorrectedBinaryMessage((mNodes.size() - 2) * getInputBitLength());
-
-        if(mNodes.size() > 2)
-        {
-            for(int x = 1; x < mNodes.size() - 1; x++)
-            {
-                int inputValue = mNodes.get(x).getInputValue();
-
-                int messageOffset = getInputBitLength() * (x - 1);
-
-                if((inputValue & 2) == 2)
-                {
-                    message.set(messageOffset);
-                }
-
-                if((inputValue & 1) == 1)
-                {
-                    message.set(messageOffset + 1);
-                }
-            }
-        }
-
-        //Transfer the corrected error count to the message
-        message.setCorrectedBitCount(path.getError());
-
-        return message;
+        return decodeMessage(symbols, getReliabilities(encodedMessage));
     }
 
     /**
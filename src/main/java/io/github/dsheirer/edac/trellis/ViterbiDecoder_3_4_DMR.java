@@ -50,7 +50,7 @@ public class ViterbiDecoder_3_4_DMR extends ViterbiDecoder
      */
     public ViterbiDecoder_3_4_DMR()
     {
-        super(3, 4);
+        super(3, 4, DMR_3_4_Node.DMR_TRANSITION_MATRIX);
     }
 
     public static void main(String[] args)
@@ -85,6 +85,19 @@ public class ViterbiDecoder_3_4_DMR extends ViterbiDecoder
             }
         }
 
+        if(interleaved.hasReliabilities())
+        {
+            byte[] reliabilities = interleaved.getReliabilities();
+            byte[] deinterleavedReliabilities = new byte[196];
+
+            for(int x = 0; x < 196; x++)
+            {
+                deinterleavedReliabilities[DEINTERLEAVE_INDEXES[x]] = reliabilities[x];
+            }
+
+            deinterleaved.setReliabilities(deinterleavedReliabilities);
+        }
+
         return deinterleaved;
     }
 
@@ -100,52 +113,7 @@ public class ViterbiDecoder_3_4_DMR extends ViterbiDecoder
     {
         CorrectedBinaryMessage deinterleaved = deinterleave(encodedMessage);
         int[] symbols = getSymbols(deinterleaved);
-        Path mostLikelyPath = decode(symbols);
-        return getMessage(mostLikelyPath);
-    }
-
-    /**
-     * Extracts the decoded/corrected message from the surviving path argument.
-     *
-     * @param path to extract a message from
-     * @return corrected binary message.
-     */
-    private static CorrectedBinaryMessage getMessage(Path path)
-    {
-        List<Node> mNodes = path.getNodes();
-
-        //Each node contains an input value excluding the starting(0) and final flushing(0) nodes.
-        CorrectedBinaryMessage message = new CorrectedBinaryMessage((mNodes.size() - 2) * 3);
-
-        if(mNodes.size() > 2)
-        {
-            for(int x = 1; x < mNodes.size() - 1; x++)
-            {
-                int inputValue = mNodes.get(x).getInputValue();
-
-                int messageOffset = 3 * (x - 1);
-
-                if((inputValue & 4) == 4)
-                {
-                    message.set(messageOffset);
-                }
-
-                if((inputValue & 2) == 2)
-                {
-                    message.set(messageOffset + 1);
-                }
-
-                if((inputValue & 1) == 1)
-                {
-                    message.set(messageOffset + 2);
-                }
-            }
-        }
-
-        //Transfer the corrected error count to the message
-        message.setCorrectedBitCount(path.getError());
-
-        return message;
+        return decodeMessage(symbols, deinterleaved.getReliabilities());
     }
 
     /**
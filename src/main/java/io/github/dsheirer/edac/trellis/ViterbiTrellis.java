@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.edac.trellis;
+
+import java.util.Arrays;
+
+/**
+ * Array-based Viterbi (add-compare-select) decoder for trellis coded modulation (TCM) where the encoder state is the
+ * previous input value.
+ *
+ * Each time instant is processed by adding the Hamming distance between the expected and the transmitted output
+ * values to the path metric of every previous state, comparing the candidates for each next state, and selecting the
+ * survivor with the lowest metric.  Path metrics are kept in two fixed size arrays and the surviving previous state
+ * for each next state is packed into a single traceback word per time instant, so decoding doesn't allocate per time
+ * instant.  The decoded input values are recovered by tracing back from the best final state.
+ *
+ * Ties are resolved in favor of the lowest previous state, which produces the same decoded values and error count as
+ * the node/path based ViterbiDecoder.decode(int[]) implementation.
+ *
+ * Soft decision decoding weights each differing output bit by its reliability (see SymbolReliability) instead of
+ * counting it as a whole bit error, so unreliable (near-boundary) bits contribute little to the path metric and
+ * erased bits (reliability zero) contribute nothing.
+ *
+ * Scratch arrays are allocated per decode, so a single instance can be shared across threads.
+ */
+public class ViterbiTrellis
+{
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+
+    private int mInputBitLength;
+    private int mStateCount;
+    private int[] mOutputValues;
+
+    /**
+     * Constructs an instance
+     *
+     * @param transitionMatrix of expected output values indexed by [previous input value][input value]
+     * @param inputBitLength for coding (e.g. 3/4 rate input bit length is 3)
+     */
+    public ViterbiTrellis(int[][] transitionMatrix, int inputBitLength)
+    {
+        mInputBitLength = inputBitLength;
+        mStateCount = 1 << inputBitLength;
+
+        if(mInputBitLength * mStateCount > Long.SIZE)
+        {
+            throw new IllegalArgumentException("Input bit length [" + inputBitLength + "] is too large");
+        }
+
+        if(transitionMatrix.length != mStateCount)
+        {
+            throw new IllegalArgumentException("Transition matrix must have [" + mStateCount + "] rows");
+        }
+
+        mOutputValues = new int[mStateCount * mStateCount];
+
+        for(int state = 0; state < mStateCount; state++)
+        {
+            if(transitionMatrix[state].length != mStateCount)
+            {
+                throw new IllegalArgumentException("Transition matrix must have [" + mStateCount + "] columns");
+            }
+
+            System.arraycopy(transitionMatrix[state], 0, mOutputValues, state * mStateCount, mStateCount);
+        }
+    }
+
+    /**
+     * Size in bits of the input and state values
+     */
+    public int getInputBitLength()
+    {
+        return mInputBitLength;
+    }
+
+    /**
+     * Decodes the transmitted output values, starting from state zero.  The final transmitted output value is the
+     * flushing value produced by an input value of zero and is not included in the decoded input values.
+     *
+     * @param transmittedOutputValues from the encoded message, including the final flushing value
+     * @param inputValues to receive the (transmittedOutputValues.length - 1) decoded input values
+     * @return error count: cumulative Hamming distance of the most likely path
+     */
+    public int decode(int[] transmittedOutputValues, int[] inputValues)
+    {
+        int stateCount = mStateCount;
+        int inputBitLength = mInputBitLength;
+        int[] outputValues = mOutputValues;
+        int steps = transmittedOutputValues.length - 1;
+
+        int[] metrics = new int[stateCount];
+        int[] nextMetrics = new int[stateCount];
+        long[] traceback = new long[Math.max(steps, 0)];
+
+        //Decoding always starts from state zero
+        Arrays.fill(metrics, 1, stateCount, UNREACHABLE);
+
+        for(int step = 0; step < steps; step++)
+        {
+            int transmitted = transmittedOutputValues[step];
+            long survivors = 0;
+
+            for(int input = 0; input < stateCount; input++)
+            {
+                int bestMetric = Integer.MAX_VALUE;
+                int bestState = 0;
+
+                for(int state = 0, index = input; state < stateCount; state++, index += stateCount)
+                {
+                    int metric = metrics[state] + Integer.bitCount(outputValues[index] ^ transmitted);
+
+                    if(metric < bestMetric)
+                    {
+                        bestMetric = metric;
+                        bestState = state;
+                    }
+                }
+
+                nextMetrics[input] = bestMetric;
+                survivors |= (long)bestState << (input * inputBitLength);
+            }
+
+            traceback[step] = survivors;
+
+            int[] swap = metrics;
+            metrics = nextMetrics;
+            nextMetrics = swap;
+        }
+
+        //Flush with an input value of zero
+        int flushing = transmittedOutputValues[steps];
+        int bestMetric = Integer.MAX_VALUE;
+        int bestState = 0;
+
+        for(int state = 0; state < stateCount; state++)
+        {
+            int metric = metrics[state] + Integer.bitCount(outputValues[state * stateCount] ^ flushing);
+
+            if(metric < bestMetric)
+            {
+                bestMetric = metric;
+                bestState = state;
+            }
+        }
+
+        traceback(traceback, bestState, inputValues);
+
+        return bestMetric;
+    }
+
+    /**
+     * Decodes the transmitted output values using soft decision bit reliabilities, starting from state zero.  The
+     * final transmitted output value is the flushing value produced by an input value of zero and is not included in
+     * the decoded input values.
+     *
+     * @param transmittedOutputValues from the encoded message, including the final flushing value
+     * @param reliabilities for each bit of the transmitted output values, in transmitted (MSB first) order
+     * @param outputBitLength number of bits in each transmitted output value
+     * @param inputValues to receive the (transmittedOutputValues.length - 1) decoded input values
+     * @return error count: number of transmitted bits that differ from the most likely path
+     */
+    public int decode(int[] transmittedOutputValues, byte[] reliabilities, int outputBitLength, int[] inputValues)
+    {
+        int stateCount = mStateCount;
+        int inputBitLength = mInputBitLength;
+        int[] outputValues = mOutputValues;
+        int steps = transmittedOutputValues.length - 1;
+
+        if(reliabilities.length < transmittedOutputValues.length * outputBitLength)
+        {
+            throw new IllegalArgumentException("Reliabilities length [" + reliabilities.length +
+                "] is less than the transmitted bit count [" + (transmittedOutputValues.length * outputBitLength) + "]");
+        }
+
+        int[] metrics = new int[stateCount];
+        int[] nextMetrics = new int[stateCount];
+        long[] traceback = new long[Math.max(steps, 0)];
+
+        //Branch cost for each possible difference between an expected and the transmitted output value
+        int[] costs = new int[1 << outputBitLength];
+
+        //Decoding always starts from state zero
+        Arrays.fill(metrics, 1, stateCount, UNREACHABLE);
+
+        for(int step = 0; step < steps; step++)
+        {
+            int transmitted = transmittedOutputValues[step];
+            updateCosts(costs, reliabilities, step * outputBitLength, outputBitLength);
+            long survivors = 0;
+
+            for(int input = 0; input < stateCount; input++)
+            {
+                int bestMetric = Integer.MAX_VALUE;
+                int bestState = 0;
+
+                for(int state = 0, index = input; state < stateCount; state++, index += stateCount)
+                {
+                    int metric = metrics[state] + costs[outputValues[index] ^ transmitted];
+
+                    if(metric < bestMetric)
+                    {
+                        bestMetric = metric;
+                        bestState = state;
+                    }
+                }
+
+                nextMetrics[input] = bestMetric;
+                survivors |= (long)bestState << (input * inputBitLength);
+            }
+
+            traceback[step] = survivors;
+
+            int[] swap = metrics;
+            metrics = nextMetrics;
+            nextMetrics = swap;
+        }
+
+        //Flush with an input value of zero
+        int flushing = transmittedOutputValues[steps];
+        updateCosts(costs, reliabilities, steps * outputBitLength, outputBitLength);
+        int bestMetric = Integer.MAX_VALUE;
+        int bestState = 0;
+
+        for(int state = 0; state < stateCount; state++)
+        {
+            int metric = metrics[state] + costs[outputValues[state * stateCount] ^ flushing];
+
+            if(metric < bestMetric)
+            {
+                bestMetric = metric;
+                bestState = state;
+            }
+        }
+
+        traceback(traceback, bestState, inputValues);
+
+        //Count the transmitted bits that differ from the expected output values along the decoded path
+        int errors = Integer.bitCount(outputValues[bestState * stateCount] ^ flushing);
+        int previous = 0;
+
+        for(int step = 0; step < steps; step++)
+        {
+            errors += Integer.bitCount(outputValues[previous * stateCount + inputValues[step]] ^
+                transmittedOutputValues[step]);
+            previous = inputValues[step];
+        }
+
+        return errors;
+    }
+
+    /**
+     * Calculates the branch cost for each possible (expected XOR transmitted) output value difference as the sum of
+     * the reliabilities of the differing bits.
+     *
+     * @param costs to update, indexed by output value difference
+     * @param reliabilities of the transmitted bits
+     * @param offset to the reliability of the MSB of the transmitted output value
+     * @param outputBitLength number of bits in each output value
+     */
+    private static void updateCosts(int[] costs, byte[] reliabilities, int offset, int outputBitLength)
+    {
+        costs[0] = 0;
+
+        for(int difference = 1; difference < costs.length; difference++)
+        {
+            //Cost of the difference without its lowest set bit, plus the cost of the lowest set bit (LSB is last)
+            int bit = Integer.numberOfTrailingZeros(difference);
+            costs[difference] = costs[difference & (difference - 1)] +
+                reliabilities[offset + outputBitLength - 1 - bit];
+        }
+    }
+
+    /**
+     * Traces back through the survivor states from the best final state to recover the decoded input values.  The
+     * state after each time instant is the input value for that time instant.
+     */
+    private void traceback(long[] traceback, int bestState, int[] inputValues)
+    {
+        int state = bestState;
+        int mask = mStateCount - 1;
+
+        for(int step = traceback.length - 1; step >= 0; step--)
+        {
+            inputValues[step] = state;
+            state = (int)(traceback[step] >>> (state * mInputBitLength)) & mask;
+        }
+    }
+}
@@ -42,6 +42,7 @@ import io.github.dsheirer.playlist.PlaylistManager;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.properties.SystemProperties;
 import io.github.dsheirer.record.AudioRecordingManager;
+import io.github.dsheirer.record.io.RecordingIOService;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.settings.SettingsManager;
 import io.github.dsheirer.source.SourceManager;
@@ -92,6 +93,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 public class SDRTrunk implements Listener<TunerEvent>
 {
@@ -435,6 +437,11 @@ public class SDRTrunk implements Listener<TunerEvent>
         mLog.info("Stopping spectral display ...");
         mSpectralPanel.clearTuner();
         mSourceManager.shutdown();
+
+        mLog.info("Writing recordings ...");
+        RecordingIOService.getInstance().drain(5, TimeUnit.SECONDS);
+        RecordingIOService.getInstance().logMetrics();
+        ThreadPool.logMetrics();
         mLog.info("Shutdown complete.");
         mApplicationLog.stop();
     }
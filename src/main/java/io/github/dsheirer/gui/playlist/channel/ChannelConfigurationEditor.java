@@ -365,7 +365,7 @@ public abstract class ChannelConfigurationEditor extends Editor<Channel>
 
                     if(!getItem().processingProperty().get())
                     {
-                        ThreadPool.SCHEDULED.execute(() -> {
+                        ThreadPool.HOUSEKEEPING.execute(() -> {
                             try
                             {
                                 mPlaylistManager.getChannelProcessingManager().start(getItem());
@@ -386,7 +386,7 @@ public abstract class ChannelConfigurationEditor extends Editor<Channel>
                     }
                     else
                     {
-                        ThreadPool.SCHEDULED.execute(() -> {
+                        ThreadPool.HOUSEKEEPING.execute(() -> {
                             try
                             {
                                 mPlaylistManager.getChannelProcessingManager().stop(getItem());
@@ -230,7 +230,7 @@ public class FrequencyEditor extends VBox
     {
         if(modeId != null)
         {
-            ThreadPool.SCHEDULED.execute(() -> {
+            ThreadPool.HOUSEKEEPING.execute(() -> {
                 Integer parsed = null;
 
                 try
@@ -119,7 +119,7 @@ public class RadioReferenceEditor extends BorderPane implements Consumer<Authori
 
             if(credentials != null)
             {
-                ThreadPool.SCHEDULED.execute(() -> accept(credentials));
+                ThreadPool.HOUSEKEEPING.execute(() -> accept(credentials));
             }
         }
     }
@@ -134,7 +134,7 @@ public class RadioReferenceEditor extends BorderPane implements Consumer<Authori
 
         final int preferredCountryId = mUserPreferences.getRadioReferencePreference().getPreferredCountryId();
 
-        ThreadPool.SCHEDULED.execute(() -> {
+        ThreadPool.HOUSEKEEPING.execute(() -> {
             try
             {
                 List<Country> countries = mRadioReference.getService().getCountries();
@@ -565,7 +565,7 @@ public class RadioReferenceEditor extends BorderPane implements Consumer<Authori
         {
             int preferredStateId = mUserPreferences.getRadioReferencePreference().getPreferredStateId();
 
-            ThreadPool.SCHEDULED.execute(() -> {
+            ThreadPool.HOUSEKEEPING.execute(() -> {
                 try
                 {
                     final CountryInfo countryInfo = mRadioReference.getService().getCountryInfo(country.getCountryId());
@@ -623,7 +623,7 @@ public class RadioReferenceEditor extends BorderPane implements Consumer<Authori
 
         if(state != null)
         {
-            ThreadPool.SCHEDULED.execute(() -> {
+            ThreadPool.HOUSEKEEPING.execute(() -> {
                 try
                 {
                     final StateInfo stateInfo = mRadioReference.getService().getStateInfo(state.getStateId());
@@ -679,7 +679,7 @@ public class RadioReferenceEditor extends BorderPane implements Consumer<Authori
 
         if(county != null)
         {
-            ThreadPool.SCHEDULED.execute(() -> {
+            ThreadPool.HOUSEKEEPING.execute(() -> {
                 try
                 {
                     final CountyInfo countyInfo = mRadioReference.getService().getCountyInfo(county.getCountyId());
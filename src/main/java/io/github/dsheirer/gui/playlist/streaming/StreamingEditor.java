@@ -234,7 +234,7 @@ public class StreamingEditor extends SplitPane
     {
         if(mPlaylistManager.getRadioReference().availableProperty().get())
         {
-            ThreadPool.SCHEDULED.submit(new Runnable()
+            ThreadPool.HOUSEKEEPING.submit(new Runnable()
             {
                 @Override
                 public void run()
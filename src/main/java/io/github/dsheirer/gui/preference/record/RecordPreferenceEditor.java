@@ -21,6 +21,7 @@ package io.github.dsheirer.gui.preference.record;
 
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.preference.record.RecordPreference;
+import io.github.dsheirer.record.BasebandRecordFormat;
 import io.github.dsheirer.record.RecordFormat;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -43,6 +44,7 @@ public class RecordPreferenceEditor extends HBox
     private RecordPreference mRecordPreference;
     private GridPane mEditorPane;
     private ComboBox<RecordFormat> mRecordFormatComboBox;
+    private ComboBox<BasebandRecordFormat> mBasebandRecordFormatComboBox;
 
     public RecordPreferenceEditor(UserPreferences userPreferences)
     {
@@ -64,6 +66,11 @@ public class RecordPreferenceEditor extends HBox
             mEditorPane.add(label, 0, 0);
 
             mEditorPane.add(getRecordFormatComboBox(), 1, 0);
+
+            Label basebandLabel = new Label("Baseband Recording Format:");
+            mEditorPane.add(basebandLabel, 0, 1);
+
+            mEditorPane.add(getBasebandRecordFormatComboBox(), 1, 1);
         }
 
         return mEditorPane;
@@ -88,4 +95,26 @@ public class RecordPreferenceEditor extends HBox
 
         return mRecordFormatComboBox;
     }
+
+    private ComboBox<BasebandRecordFormat> getBasebandRecordFormatComboBox()
+    {
+        if(mBasebandRecordFormatComboBox == null)
+        {
+            mBasebandRecordFormatComboBox = new ComboBox<>();
+            mBasebandRecordFormatComboBox.getItems().addAll(BasebandRecordFormat.values());
+            mBasebandRecordFormatComboBox.getSelectionModel().select(mRecordPreference.getBasebandRecordFormat());
+            mBasebandRecordFormatComboBox.getSelectionModel().selectedItemProperty()
+                .addListener(new ChangeListener<BasebandRecordFormat>()
+            {
+                @Override
+                public void changed(ObservableValue<? extends BasebandRecordFormat> observable,
+                                    BasebandRecordFormat oldValue, BasebandRecordFormat newValue)
+                {
+                    mRecordPreference.setBasebandRecordFormat(newValue);
+                }
+            });
+        }
+
+        return mBasebandRecordFormatComboBox;
+    }
 }
@@ -25,6 +25,7 @@ package io.github.dsheirer.gui.preference.tuner;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.preference.source.ChannelizerType;
 import io.github.dsheirer.preference.source.TunerPreference;
+import io.github.dsheirer.preference.source.USBTransferMode;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
@@ -33,6 +34,8 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Separator;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.SpinnerValueFactory;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 
@@ -46,6 +49,13 @@ public class TunerPreferenceEditor extends HBox
         "channelizer is more efficient when decoding 3 or more channels.";
     private static final String HELP_TEXT_HETERODYNE = "Processes each channel on-demand.  This " +
         "channelizer may work better for computers with constrained resources when processing a small number of channels.";
+    private static final String HELP_TEXT_THREADS = "Number of threads used by each of the polyphase channelizer " +
+        "filter and IFFT processing stages.  Increase this value for high sample rate tuners on multi-core computers.";
+    private static final String HELP_TEXT_USB_TRANSFER = "Fixed uses each USB tuner's default transfer buffer size " +
+        "and count.  Adaptive sizes the transfer buffers so that each buffer holds no more than the latency value " +
+        "worth of samples at the tuner sample rate, and sizes the transfer count to buffer 250 milliseconds of " +
+        "samples.  Use a low latency for analog audio monitoring and a higher latency for high sample rate tuners.  " +
+        "Changes take effect when the application is restarted.";
 
     private TunerPreference mTunerPreference;
     private GridPane mEditorPane;
@@ -55,6 +65,14 @@ public class TunerPreferenceEditor extends HBox
     private Label mHelpTextPolyphaseLabel;
     private Label mHeterodyneLabel;
     private Label mHelpTextHeterodyneLabel;
+    private Label mChannelizerThreadsLabel;
+    private Spinner<Integer> mChannelizerThreadsSpinner;
+    private Label mHelpTextThreadsLabel;
+    private Label mUSBTransferModeLabel;
+    private ChoiceBox<USBTransferMode> mUSBTransferModeChoiceBox;
+    private Label mUSBTransferLatencyLabel;
+    private Spinner<Integer> mUSBTransferLatencySpinner;
+    private Label mHelpTextUSBTransferLabel;
 
     public TunerPreferenceEditor(UserPreferences userPreferences)
     {
@@ -79,6 +97,19 @@ public class TunerPreferenceEditor extends HBox
             mEditorPane.add(new Label(" "), 0, 6);
             mEditorPane.add(getHeterodyneLabel(), 0, 7, 2, 1);
             mEditorPane.add(getHelpTextHeterodyneLabel(), 0, 8, 2, 3);
+            mEditorPane.add(new Separator(Orientation.HORIZONTAL), 0, 11, 2, 1);
+            GridPane.setHalignment(getChannelizerThreadsLabel(), HPos.LEFT);
+            mEditorPane.add(getChannelizerThreadsLabel(), 0, 12);
+            mEditorPane.add(getChannelizerThreadsSpinner(), 1, 12);
+            mEditorPane.add(getHelpTextThreadsLabel(), 0, 13, 2, 3);
+            mEditorPane.add(new Separator(Orientation.HORIZONTAL), 0, 16, 2, 1);
+            GridPane.setHalignment(getUSBTransferModeLabel(), HPos.LEFT);
+            mEditorPane.add(getUSBTransferModeLabel(), 0, 17);
+            mEditorPane.add(getUSBTransferModeChoiceBox(), 1, 17);
+            GridPane.setHalignment(getUSBTransferLatencyLabel(), HPos.LEFT);
+            mEditorPane.add(getUSBTransferLatencyLabel(), 0, 18);
+            mEditorPane.add(getUSBTransferLatencySpinner(), 1, 18);
+            mEditorPane.add(getHelpTextUSBTransferLabel(), 0, 19, 2, 3);
         }
 
         return mEditorPane;
@@ -161,4 +192,109 @@ public class TunerPreferenceEditor extends HBox
 
         return mHelpTextHeterodyneLabel;
     }
+
+    private Label getChannelizerThreadsLabel()
+    {
+        if(mChannelizerThreadsLabel == null)
+        {
+            mChannelizerThreadsLabel = new Label("Polyphase Channelizer Threads");
+        }
+
+        return mChannelizerThreadsLabel;
+    }
+
+    private Spinner<Integer> getChannelizerThreadsSpinner()
+    {
+        if(mChannelizerThreadsSpinner == null)
+        {
+            int maximum = Math.max(Runtime.getRuntime().availableProcessors(), 1);
+            int current = Math.min(mTunerPreference.getChannelizerThreadCount(), maximum);
+
+            mChannelizerThreadsSpinner = new Spinner<>();
+            mChannelizerThreadsSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, maximum,
+                current));
+            mChannelizerThreadsSpinner.valueProperty().addListener((observable, oldValue, newValue) -> {
+                mTunerPreference.setChannelizerThreadCount(newValue);
+            });
+        }
+
+        return mChannelizerThreadsSpinner;
+    }
+
+    private Label getHelpTextThreadsLabel()
+    {
+        if(mHelpTextThreadsLabel == null)
+        {
+            mHelpTextThreadsLabel = new Label(HELP_TEXT_THREADS + "  Changes take effect when the tuner's channelizer " +
+                "is next created (ie application restart or tuner sample rate change).");
+            mHelpTextThreadsLabel.setWrapText(true);
+        }
+
+        return mHelpTextThreadsLabel;
+    }
+
+    private Label getUSBTransferModeLabel()
+    {
+        if(mUSBTransferModeLabel == null)
+        {
+            mUSBTransferModeLabel = new Label("USB Transfer Mode");
+        }
+
+        return mUSBTransferModeLabel;
+    }
+
+    private ChoiceBox<USBTransferMode> getUSBTransferModeChoiceBox()
+    {
+        if(mUSBTransferModeChoiceBox == null)
+        {
+            mUSBTransferModeChoiceBox = new ChoiceBox<>();
+            mUSBTransferModeChoiceBox.getItems().addAll(USBTransferMode.values());
+            mUSBTransferModeChoiceBox.getSelectionModel().select(mTunerPreference.getUSBTransferMode());
+            mUSBTransferModeChoiceBox.setOnAction(event -> {
+                USBTransferMode selected = mUSBTransferModeChoiceBox.getSelectionModel().getSelectedItem();
+                mTunerPreference.setUSBTransferMode(selected);
+                getUSBTransferLatencySpinner().setDisable(selected != USBTransferMode.ADAPTIVE);
+            });
+        }
+
+        return mUSBTransferModeChoiceBox;
+    }
+
+    private Label getUSBTransferLatencyLabel()
+    {
+        if(mUSBTransferLatencyLabel == null)
+        {
+            mUSBTransferLatencyLabel = new Label("USB Transfer Latency (ms)");
+        }
+
+        return mUSBTransferLatencyLabel;
+    }
+
+    private Spinner<Integer> getUSBTransferLatencySpinner()
+    {
+        if(mUSBTransferLatencySpinner == null)
+        {
+            mUSBTransferLatencySpinner = new Spinner<>();
+            mUSBTransferLatencySpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(
+                TunerPreference.USB_TRANSFER_LATENCY_MINIMUM, TunerPreference.USB_TRANSFER_LATENCY_MAXIMUM,
+                mTunerPreference.getUSBTransferLatency()));
+            mUSBTransferLatencySpinner.setDisable(mTunerPreference.getUSBTransferMode() != USBTransferMode.ADAPTIVE);
+            mUSBTransferLatencySpinner.valueProperty().addListener((observable, oldValue, newValue) -> {
+                mTunerPreference.setUSBTransferLatency(newValue);
+            });
+        }
+
+        return mUSBTransferLatencySpinner;
+    }
+
+    private Label getHelpTextUSBTransferLabel()
+    {
+        if(mHelpTextUSBTransferLabel == null)
+        {
+            mHelpTextUSBTransferLabel = new Label(HELP_TEXT_USB_TRANSFER);
+            mHelpTextUSBTransferLabel.setWrapText(true);
+        }
+
+        return mHelpTextUSBTransferLabel;
+    }
 }
@@ -463,7 +463,7 @@ public class IconModel
     {
         if(mSavingIcons.compareAndSet(false, true))
         {
-            ThreadPool.SCHEDULED.schedule(new IconSaveTask(), 2, TimeUnit.SECONDS);
+            ThreadPool.HOUSEKEEPING.schedule(new IconSaveTask(), 2, TimeUnit.SECONDS);
         }
     }
 
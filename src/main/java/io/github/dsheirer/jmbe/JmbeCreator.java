@@ -125,7 +125,7 @@ public class JmbeCreator
 
         if(asset != null)
         {
-            ThreadPool.SCHEDULED.execute(() -> {
+            ThreadPool.HOUSEKEEPING.execute(() -> {
                 Path tempDirectory = null;
                 try
                 {
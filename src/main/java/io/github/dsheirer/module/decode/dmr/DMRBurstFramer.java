@@ -23,7 +23,9 @@ import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import io.github.dsheirer.dsp.psk.pll.IPhaseLockedLoop;
 import io.github.dsheirer.dsp.symbol.Dibit;
 import io.github.dsheirer.dsp.symbol.DibitDelayBuffer;
+import io.github.dsheirer.dsp.symbol.ISoftDibitListener;
 import io.github.dsheirer.dsp.symbol.QPSKCarrierLock;
+import io.github.dsheirer.dsp.symbol.SoftDibitDelayBuffer;
 import io.github.dsheirer.module.decode.dmr.message.CACH;
 import io.github.dsheirer.sample.Listener;
 import org.slf4j.Logger;
@@ -33,12 +35,14 @@ import org.slf4j.LoggerFactory;
  * Processes a stream of Dibit symbols and performs burst detection and timeslot framing.  This framer
  * also detects abnormal PLL phase locks and issues PLL phase lock corrections.
  *
+ * When soft dibits are received, the framed bursts carry the bit reliabilities for soft decision decoding.
+ *
  * Timeslot Map:
  *  0: Common Association Channel (CACH) and Slow Link Control (SLC)
  *  1. Timeslot 1
  *  2. Timeslot 2
  */
-public class DMRBurstFramer implements Listener<Dibit>
+public class DMRBurstFramer implements Listener<Dibit>, ISoftDibitListener
 {
     private final static Logger mLog = LoggerFactory.getLogger(DMRBurstFramer.class);
 
@@ -66,7 +70,7 @@ public class DMRBurstFramer implements Listener<Dibit>
     /**
      * The message buffer is sized to hold two DMR bursts of 144 dibits (288 bits) each.
      */
-    private DibitDelayBuffer mMessageBuffer = new DibitDelayBuffer(BURST_DIBIT_LENGTH * 2);
+    private SoftDibitDelayBuffer mMessageBuffer = new SoftDibitDelayBuffer(BURST_DIBIT_LENGTH * 2);
 
     /**
      * The sync delay buffer is sized to align sync detection with two bursts being fully loaded into the message and
@@ -132,10 +136,33 @@ public class DMRBurstFramer implements Listener<Dibit>
     @Override
     public void receive(Dibit dibit)
     {
-        mDibitCounter++;
-
         //Feed the message buffer first to ensure buffer contains two full bursts when a sync is detected
         mMessageBuffer.put(dibit);
+        process(dibit);
+    }
+
+    /**
+     * Soft dibit symbol input method
+     * @param dibit to process
+     * @param bit1Reliability reliability of bit 1 of the dibit
+     * @param bit2Reliability reliability of bit 2 of the dibit
+     */
+    @Override
+    public void receive(Dibit dibit, byte bit1Reliability, byte bit2Reliability)
+    {
+        //Feed the message buffer first to ensure buffer contains two full bursts when a sync is detected
+        mMessageBuffer.setSoft(true);
+        mMessageBuffer.put(dibit, bit1Reliability, bit2Reliability);
+        process(dibit);
+    }
+
+    /**
+     * Performs sync detection and burst dispatch for a dibit that has been added to the message buffer
+     * @param dibit to process
+     */
+    private void process(Dibit dibit)
+    {
+        mDibitCounter++;
 
         //Feed the sync delay buffer and reassign the delayed dibit to feed the sync detector if we're not synchronized
         dibit = mSyncDelayBuffer.getAndPut(dibit);
@@ -332,10 +359,18 @@ public class DMRBurstFramer implements Listener<Dibit>
     {
         int end = offset + BURST_DIBIT_LENGTH;
 
+        //A 90 degree misalignment swaps the inphase and quadrature decision boundaries of each dibit
+        boolean swapReliabilities = carrierLock == QPSKCarrierLock.PLUS_90 || carrierLock == QPSKCarrierLock.MINUS_90;
+
         for(int x = offset; x < end; x++)
         {
             Dibit misalignedDibit = mMessageBuffer.get(x);
             mMessageBuffer.set(x, carrierLock.correct(misalignedDibit));
+
+            if(swapReliabilities)
+            {
+                mMessageBuffer.swapReliabilities(x);
+            }
         }
 
         if(mPhaseLockedLoop != null)
@@ -11,6 +11,7 @@ import io.github.dsheirer.dsp.psk.pll.FrequencyCorrectionSyncMonitor;
 import io.github.dsheirer.dsp.psk.pll.PLLBandwidth;
 import io.github.dsheirer.dsp.symbol.Dibit;
 import io.github.dsheirer.dsp.symbol.DibitToByteBufferAssembler;
+import io.github.dsheirer.dsp.symbol.SymbolReliability;
 import io.github.dsheirer.module.decode.DecoderType;
 import io.github.dsheirer.module.decode.FeedbackDecoder;
 import io.github.dsheirer.sample.Broadcaster;
@@ -111,8 +112,26 @@ public class DMRDecoder extends FeedbackDecoder implements ISourceEventListener,
         mMessageFramer.setSyncDetectListener(mFrequencyCorrectionSyncMonitor);
         mMessageFramer.setListener(getMessageProcessor());
 
+        connectMessageFramer();
+    }
+
+    /**
+     * Connects the demodulator symbol output to the dibit broadcaster and to the message framer.  When soft symbols
+     * are enabled (see SymbolReliability), the message framer receives the symbols with their bit reliabilities
+     * directly from the demodulator.
+     */
+    protected void connectMessageFramer()
+    {
         mQPSKDemodulator.setSymbolListener(getDibitBroadcaster());
-        getDibitBroadcaster().addListener(mMessageFramer);
+
+        if(SymbolReliability.isEnabled())
+        {
+            mQPSKDemodulator.setSoftSymbolListener(mMessageFramer);
+        }
+        else
+        {
+            getDibitBroadcaster().addListener(mMessageFramer);
+        }
     }
 
     /**
@@ -82,8 +82,7 @@ public class DMRDecoderInstrumented extends DMRDecoder
         instrumented.setPLLFrequencyListener(mPLLFrequencyListener);
         instrumented.setSymbolDecisionDataListener(mSymbolDecisionDataListener);
         instrumented.setSamplesPerSymbolListener(mSamplesPerSymbolListener);
-        instrumented.setSymbolListener(getDibitBroadcaster());
-        getDibitBroadcaster().addListener(mMessageFramer);
+        connectMessageFramer();
     }
 
     public void setComplexSymbolListener(Listener<Complex> listener)
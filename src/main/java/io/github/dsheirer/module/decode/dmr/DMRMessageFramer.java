@@ -21,6 +21,7 @@ package io.github.dsheirer.module.decode.dmr;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import io.github.dsheirer.dsp.psk.pll.IPhaseLockedLoop;
 import io.github.dsheirer.dsp.symbol.Dibit;
+import io.github.dsheirer.dsp.symbol.ISoftDibitListener;
 import io.github.dsheirer.dsp.symbol.ISyncDetectListener;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.SyncLossMessage;
@@ -46,7 +47,7 @@ import java.util.function.Consumer;
  * DMR Sync Detector and Message Framer.  Includes capability to detect PLL out-of-phase lock errors
  * and issue phase corrections.
  */
-public class DMRMessageFramer implements Listener<Dibit>, IDMRBurstDetectListener
+public class DMRMessageFramer implements Listener<Dibit>, ISoftDibitListener, IDMRBurstDetectListener
 {
     private final static Logger mLog = LoggerFactory.getLogger(DMRMessageFramer.class);
 
@@ -156,6 +157,19 @@ public class DMRMessageFramer implements Listener<Dibit>, IDMRBurstDetectListene
         mBurstFramer.receive(dibit);
     }
 
+    /**
+     * Primary method for streaming soft decision symbol dibits for message framing.
+     *
+     * @param dibit to process
+     * @param bit1Reliability reliability of bit 1 of the dibit
+     * @param bit2Reliability reliability of bit 2 of the dibit
+     */
+    @Override
+    public void receive(Dibit dibit, byte bit1Reliability, byte bit2Reliability)
+    {
+        mBurstFramer.receive(dibit, bit1Reliability, bit2Reliability);
+    }
+
     /**
      * Primary method for streaming decoded symbol byte arrays.
      *
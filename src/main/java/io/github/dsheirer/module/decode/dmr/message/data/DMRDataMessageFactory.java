@@ -257,6 +257,14 @@ public class DMRDataMessageFactory
             mLog.error("Error extracting DMR burst payload bits");
         }
 
+        if(message.hasReliabilities())
+        {
+            byte[] reliabilities = new byte[196];
+            System.arraycopy(message.getReliabilities(), 24, reliabilities, 0, 98);
+            System.arraycopy(message.getReliabilities(), 190, reliabilities, 98, 98);
+            extracted.setReliabilities(reliabilities);
+        }
+
         return extracted;
     }
 }
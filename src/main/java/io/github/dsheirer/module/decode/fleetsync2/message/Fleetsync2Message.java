@@ -28,8 +28,6 @@ import io.github.dsheirer.module.decode.fleetsync2.FleetsyncMessageType;
 import io.github.dsheirer.module.decode.fleetsync2.identifier.FleetsyncIdentifier;
 import io.github.dsheirer.protocol.Protocol;
 
-import java.util.BitSet;
-
 public abstract class Fleetsync2Message extends Message
 {
     //Message Header
@@ -175,7 +173,7 @@ public abstract class Fleetsync2Message extends Message
 
     public static CRC detectAndCorrect(CorrectedBinaryMessage message, int start, int end)
     {
-        BitSet original = message.get(start, end);
+        BinaryMessage original = message.get(start, end);
 
         CRC retVal = CRCFleetsync.check(original);
 
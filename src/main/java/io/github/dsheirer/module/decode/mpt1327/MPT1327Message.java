@@ -31,7 +31,6 @@ import io.github.dsheirer.protocol.Protocol;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.List;
 
 public class MPT1327Message extends Message
@@ -225,7 +224,7 @@ public class MPT1327Message extends Message
     //TODO: move this to the CRC class
     private CRC detectAndCorrect(int start, int end)
     {
-        BitSet original = mMessage.get(start, end);
+        BinaryMessage original = mMessage.get(start, end);
 
         CRC retVal = CRCFleetsync.check(original);
 
@@ -21,6 +21,8 @@
 package io.github.dsheirer.module.decode.p25.phase1;
 
 import io.github.dsheirer.dsp.symbol.Dibit;
+import io.github.dsheirer.dsp.symbol.ISoftDibitListener;
+import io.github.dsheirer.dsp.symbol.SymbolReliability;
 import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.real.RealSampleListener;
@@ -30,13 +32,19 @@ import io.github.dsheirer.sample.real.RealSampleListener;
  * stream of C4FM symbols.  
  * 
  * Supports registering listener(s) to receive normal and/or inverted symbol
- * output streams.
+ * output streams and an optional soft symbol listener to receive each symbol
+ * with the reliability of each bit.
  */
 public class C4FMSlicer implements RealSampleListener
 {
 	private static final float THRESHOLD = 2.0f;
 
+	/* Distance of the ideal symbols (+/-1 and +/-3) from the nearest decision
+	 * boundary (0 and +/-THRESHOLD) */
+	private static final float NOMINAL_BOUNDARY_DISTANCE = 1.0f;
+
 	private Broadcaster<Dibit> mBroadcaster = new Broadcaster<Dibit>();
+	private ISoftDibitListener mSoftSymbolListener;
 	
 	public void dispose()
 	{
@@ -51,29 +59,41 @@ public class C4FMSlicer implements RealSampleListener
 	@Override
     public void receive( float sample )
     {
+		Dibit symbol;
+
 		if( sample > 0.0 )
 		{
 			if( sample >= THRESHOLD )
 			{
-				dispatch( Dibit.D01_PLUS_3 );
+				symbol = Dibit.D01_PLUS_3;
 			}
 			else
 			{
-				dispatch( Dibit.D00_PLUS_1 );
-				
+				symbol = Dibit.D00_PLUS_1;
 			}
 		}
 		else
 		{
 			if( sample > -THRESHOLD )
 			{
-				dispatch( Dibit.D10_MINUS_1 );
+				symbol = Dibit.D10_MINUS_1;
 			}
 			else
 			{
-				dispatch( Dibit.D11_MINUS_3 );
+				symbol = Dibit.D11_MINUS_3;
 			}
 		}
+
+		dispatch( symbol );
+
+		if( mSoftSymbolListener != null )
+		{
+			/* Bit 1 (sign) is decided by the zero boundary and bit 2
+			 * (magnitude) is decided by the +/-THRESHOLD boundaries */
+			mSoftSymbolListener.receive( symbol,
+				SymbolReliability.quantize( sample, NOMINAL_BOUNDARY_DISTANCE ),
+				SymbolReliability.quantize( Math.abs( sample ) - THRESHOLD, NOMINAL_BOUNDARY_DISTANCE ) );
+		}
     }
 
 	/**
@@ -93,6 +113,15 @@ public class C4FMSlicer implements RealSampleListener
 		mBroadcaster.addListener( listener );
     }
 
+	/**
+	 * Registers the listener to receive each symbol decision with the
+	 * reliability of each bit.
+	 */
+	public void setSoftSymbolListener( ISoftDibitListener listener )
+	{
+		mSoftSymbolListener = listener;
+	}
+
 	/**
 	 * Removes the listener
 	 */
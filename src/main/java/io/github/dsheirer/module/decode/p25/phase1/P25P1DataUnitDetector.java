@@ -25,11 +25,14 @@ import io.github.dsheirer.dsp.psk.pll.IPhaseLockedLoop;
 import io.github.dsheirer.dsp.symbol.Dibit;
 import io.github.dsheirer.dsp.symbol.ISyncDetectListener;
 import io.github.dsheirer.edac.BCH_63_16_11;
+import io.github.dsheirer.edac.BerlekempMassey;
 import io.github.dsheirer.sample.Listener;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 public class P25P1DataUnitDetector implements Listener<Dibit>, ISyncDetectListener
 {
     private final static Logger mLog = LoggerFactory.getLogger(P25P1DataUnitDetector.class);
@@ -43,6 +46,10 @@ public class P25P1DataUnitDetector implements Listener<Dibit>, ISyncDetectListen
     private boolean mInitialSyncTestProcessed = false;
     private int mDibitsProcessed = 0;
     private BCH_63_16_11 mNIDDecoder = new BCH_63_16_11();
+    private BerlekempMassey.Workspace mNIDDecoderWorkspace = mNIDDecoder.createWorkspace();
+    private int[] mNID = new int[63];
+    private int[] mCorrectedNID = new int[63];
+    private int[] mUncorrectedNID = new int[63];
     private P25P1DataUnitID mPreviousDataUnitId = P25P1DataUnitID.TERMINATOR_DATA_UNIT;
     private int mNIDDetectionCount;
 
@@ -129,11 +136,11 @@ public class P25P1DataUnitDetector implements Listener<Dibit>, ISyncDetectListen
     {
         if(bitErrorCount <= MAXIMUM_SYNC_MATCH_BIT_ERRORS)
         {
-            int[] nid = mSyncDelayBuffer.getNID();
-            int[] correctedNid = new int[63];
+            int[] nid = mSyncDelayBuffer.getNID(mNID);
+            int[] correctedNid = mCorrectedNID;
 
             //If decoder indicates there are no unrecoverable errors ....
-            if(!mNIDDecoder.decode(nid, correctedNid))
+            if(!mNIDDecoder.decode(nid, correctedNid, mNIDDecoderWorkspace))
             {
                 mNIDDetectionCount++;
 
@@ -153,7 +160,7 @@ public class P25P1DataUnitDetector implements Listener<Dibit>, ISyncDetectListen
                 //of voice call, so treat this message as voice message, but set the previous duid to
                 //terminator so we can end if there isn't a subsequent voice message
                 mDataUnitDetectListener.dataUnitDetected(P25P1DataUnitID.LOGICAL_LINK_DATA_UNIT_2, -1,
-                    (bitErrorCount + 64), (mDibitsProcessed - DATA_UNIT_DIBIT_LENGTH), new int[63]);
+                    (bitErrorCount + 64), (mDibitsProcessed - DATA_UNIT_DIBIT_LENGTH), mUncorrectedNID);
 
                 mPreviousDataUnitId = P25P1DataUnitID.TERMINATOR_DATA_UNIT;
             }
@@ -163,7 +170,7 @@ public class P25P1DataUnitDetector implements Listener<Dibit>, ISyncDetectListen
                 //of voice call, so treat this message as voice message, but set the previous duid to
                 //terminator so we can end if there isn't a subsequent voice message
                 mDataUnitDetectListener.dataUnitDetected(P25P1DataUnitID.LOGICAL_LINK_DATA_UNIT_1, -1,
-                    (bitErrorCount + 64), (mDibitsProcessed - DATA_UNIT_DIBIT_LENGTH), new int[63]);
+                    (bitErrorCount + 64), (mDibitsProcessed - DATA_UNIT_DIBIT_LENGTH), mUncorrectedNID);
 
                 mPreviousDataUnitId = P25P1DataUnitID.TERMINATOR_DATA_UNIT;
             }
@@ -352,10 +359,13 @@ public class P25P1DataUnitDetector implements Listener<Dibit>, ISyncDetectListen
 
         /**
          * Fetches the NID in reverse order format required for the ECC code
+         *
+         * @param nid array of length 63 to receive the NID bits
+         * @return nid array
          */
-        public int[] getNID()
+        public int[] getNID(int[] nid)
         {
-            int[] nid = new int[63];
+            Arrays.fill(nid, 0);
 
             int nidPointer = 0;
             int bufferPointer = mPointer - 1;
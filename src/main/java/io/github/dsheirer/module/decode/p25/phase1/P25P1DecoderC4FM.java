@@ -31,6 +31,7 @@ import io.github.dsheirer.dsp.psk.InterpolatingSampleBuffer;
 import io.github.dsheirer.dsp.psk.pll.CostasLoop;
 import io.github.dsheirer.dsp.psk.pll.FrequencyCorrectionSyncMonitor;
 import io.github.dsheirer.dsp.psk.pll.PLLBandwidth;
+import io.github.dsheirer.dsp.symbol.SymbolReliability;
 import io.github.dsheirer.module.decode.DecoderType;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.SourceEvent;
@@ -89,8 +90,26 @@ public class P25P1DecoderC4FM extends P25P1Decoder
         mMessageFramer.setListener(getMessageProcessor());
         mMessageFramer.setSampleRate(sampleRate);
 
+        connectMessageFramer();
+    }
+
+    /**
+     * Connects the demodulator symbol output to the dibit broadcaster and to the message framer.  When soft symbols
+     * are enabled (see SymbolReliability), the message framer receives the symbols with their bit reliabilities
+     * directly from the demodulator.
+     */
+    protected void connectMessageFramer()
+    {
         mQPSKDemodulator.setSymbolListener(getDibitBroadcaster());
-        getDibitBroadcaster().addListener(mMessageFramer);
+
+        if(SymbolReliability.isEnabled())
+        {
+            mQPSKDemodulator.setSoftSymbolListener(mMessageFramer);
+        }
+        else
+        {
+            getDibitBroadcaster().addListener(mMessageFramer);
+        }
     }
 
     /**
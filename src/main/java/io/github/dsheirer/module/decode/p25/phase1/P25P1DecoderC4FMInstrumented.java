@@ -78,8 +78,7 @@ public class P25P1DecoderC4FMInstrumented extends P25P1DecoderC4FM
         instrumented.setPLLFrequencyListener(mPLLFrequencyListener);
         instrumented.setSymbolDecisionDataListener(mSymbolDecisionDataListener);
         instrumented.setSamplesPerSymbolListener(mSamplesPerSymbolListener);
-        instrumented.setSymbolListener(getDibitBroadcaster());
-        getDibitBroadcaster().addListener(mMessageFramer);
+        connectMessageFramer();
     }
 
     public void setComplexSymbolListener(Listener<Complex> listener)
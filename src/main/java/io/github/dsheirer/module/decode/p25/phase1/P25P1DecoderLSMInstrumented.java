@@ -79,8 +79,7 @@ public class P25P1DecoderLSMInstrumented extends P25P1DecoderLSM
         instrumented.setPLLFrequencyListener(mPLLFrequencyListener);
         instrumented.setSymbolDecisionDataListener(mSymbolDecisionDataListener);
         instrumented.setSamplesPerSymbolListener(mSamplesPerSymbolListener);
-        instrumented.setSymbolListener(getDibitBroadcaster());
-        getDibitBroadcaster().addListener(mMessageFramer);
+        connectMessageFramer();
     }
 
     public void setComplexSymbolListener(Listener<Complex> listener)
@@ -25,8 +25,6 @@ import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.BitSet;
-
 /**
  * Utility class to process interleave of P25 Voice and Data messages.
  */
@@ -101,7 +99,7 @@ public class P25P1Interleave
     public static BinaryMessage deinterleave(int[] pattern, BinaryMessage message,
                                              int start, int end)
     {
-        BitSet original = message.get(start, end);
+        BinaryMessage original = message.get(start, end);
 
         /* Clear block bits in source message */
         message.clear(start, end);
@@ -121,10 +119,10 @@ public class P25P1Interleave
     /**
      * Deinterleaves the message bits between start and end and returns them in a new message
      * @param pattern to use for deinterleaving
-     * @param interleaved bitset from the original message
+     * @param interleaved bits from the original message
      * @return binary message with length equal to the pattern size
      */
-    public static CorrectedBinaryMessage deinterleaveChunk(int[] pattern, BitSet interleaved)
+    public static CorrectedBinaryMessage deinterleaveChunk(int[] pattern, BinaryMessage interleaved)
     {
         CorrectedBinaryMessage deinterleaved = new CorrectedBinaryMessage(pattern.length);
 
@@ -140,6 +138,33 @@ public class P25P1Interleave
         return deinterleaved;
     }
 
+    /**
+     * Deinterleaves the message bits and returns them in a new message.  When the message has soft decision bit
+     * reliabilities, the reliabilities are deinterleaved with the bits.
+     * @param pattern to use for deinterleaving
+     * @param interleaved message
+     * @return binary message with length equal to the pattern size
+     */
+    public static CorrectedBinaryMessage deinterleaveChunk(int[] pattern, CorrectedBinaryMessage interleaved)
+    {
+        CorrectedBinaryMessage deinterleaved = deinterleaveChunk(pattern, (BinaryMessage)interleaved);
+
+        if(interleaved.hasReliabilities())
+        {
+            byte[] reliabilities = interleaved.getReliabilities();
+            byte[] deinterleavedReliabilities = new byte[pattern.length];
+
+            for(int x = 0; x < pattern.length; x++)
+            {
+                deinterleavedReliabilities[pattern[x]] = reliabilities[x];
+            }
+
+            deinterleaved.setReliabilities(deinterleavedReliabilities);
+        }
+
+        return deinterleaved;
+    }
+
     /**
      * Interleaves the 196-bit block in message, identified by start and end
      * bit positions.  Note: end index (exclusive) should be one more than the
@@ -164,7 +189,7 @@ public class P25P1Interleave
     public static BinaryMessage interleave(int[] pattern, BinaryMessage message,
                                            int start, int end)
     {
-        BitSet original = message.get(start, end);
+        BinaryMessage original = message.get(start, end);
 
         /* Clear block bits in source message */
         message.clear(start, end);
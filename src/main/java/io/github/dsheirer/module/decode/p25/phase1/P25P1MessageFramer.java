@@ -31,7 +31,9 @@ import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import io.github.dsheirer.controller.channel.Channel;
 import io.github.dsheirer.dsp.psk.pll.IPhaseLockedLoop;
 import io.github.dsheirer.dsp.symbol.Dibit;
+import io.github.dsheirer.dsp.symbol.ISoftDibitListener;
 import io.github.dsheirer.dsp.symbol.ISyncDetectListener;
+import io.github.dsheirer.dsp.symbol.SymbolReliability;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.Message;
 import io.github.dsheirer.message.MessageProviderModule;
@@ -61,13 +63,17 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 /**
  * P25 Sync Detector and Message Framer.  Includes capability to detect PLL out-of-phase lock errors
  * and issue phase corrections.
+ *
+ * Symbols can be received as hard dibits or as soft dibits with bit reliabilities.  Soft dibit bit reliabilities are
+ * attached to the framed messages so that the message decoders can use soft decision decoding.
  */
-public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetectListener
+public class P25P1MessageFramer implements Listener<Dibit>, ISoftDibitListener, IP25P1DataUnitDetectListener
 {
     private final static Logger mLog = LoggerFactory.getLogger(P25P1MessageFramer.class);
 
@@ -226,6 +232,41 @@ public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetect
         }
     }
 
+    /**
+     * Primary method for streaming soft decision symbol dibits for message framing.  The bit reliabilities are
+     * captured with the message bits.
+     *
+     * @param dibit to process
+     * @param bit1Reliability reliability of bit 1 of the dibit
+     * @param bit2Reliability reliability of bit 2 of the dibit
+     */
+    @Override
+    public void receive(Dibit dibit, byte bit1Reliability, byte bit2Reliability)
+    {
+        //Status symbol dibits are not captured in the message
+        if(mAssemblingMessage && mStatusSymbolDibitCounter != 35 && mBinaryMessage != null)
+        {
+            byte[] reliabilities = mBinaryMessage.getReliabilities();
+
+            if(reliabilities == null)
+            {
+                reliabilities = new byte[mBinaryMessage.size()];
+                Arrays.fill(reliabilities, SymbolReliability.MAXIMUM);
+                mBinaryMessage.setReliabilities(reliabilities);
+            }
+
+            int pointer = mBinaryMessage.pointer();
+
+            if(pointer + 1 < reliabilities.length)
+            {
+                reliabilities[pointer] = bit1Reliability;
+                reliabilities[pointer + 1] = bit2Reliability;
+            }
+        }
+
+        receive(dibit);
+    }
+
     private void dispatchMessage()
     {
         if(mMessageListener != null)
@@ -77,8 +77,6 @@ import io.github.dsheirer.module.decode.p25.reference.PDUFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.BitSet;
-
 public class PDUMessageFactory
 {
     private final static Logger mLog = LoggerFactory.getLogger(PDUMessageFactory.class);
@@ -92,7 +90,7 @@ public class PDUMessageFactory
     public static PDUSequence createPacketSequence(int nac, long timestamp, CorrectedBinaryMessage correctedBinaryMessage)
     {
         //Get deinterleaved header chunk
-        BitSet interleaved = correctedBinaryMessage.get(PDU0_BEGIN, PDU0_END);
+        CorrectedBinaryMessage interleaved = correctedBinaryMessage.getSubMessage(PDU0_BEGIN, PDU0_END);
         CorrectedBinaryMessage deinterleaved = P25P1Interleave.deinterleaveChunk(P25P1Interleave.DATA_DEINTERLEAVE, interleaved);
 
         //Decode 1/2 rate trellis encoded PDU header
@@ -31,7 +31,9 @@ import io.github.dsheirer.module.decode.p25.phase1.message.P25Message;
 import io.github.dsheirer.module.decode.p25.phase1.message.lc.LinkControlWord;
 import io.github.dsheirer.module.decode.p25.phase1.message.lc.LinkControlWordFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 public class TDULinkControlMessage extends P25Message implements IFrequencyBandReceiver
@@ -64,6 +66,12 @@ public class TDULinkControlMessage extends P25Message implements IFrequencyBandR
     //Reed-Solomon(24,12,13) code protects the link control word.  Maximum correctable errors are:  6
     private static final ReedSolomon_24_12_13_P25 REED_SOLOMON_24_12_13_P25 = new ReedSolomon_24_12_13_P25();
 
+    //The 24 hex codewords are carried in 12 Golay(24,12,8) codewords
+    private static final int GOLAY_CODEWORD_COUNT = 12;
+
+    //Erasing 4 Golay codewords (8 hex codewords) leaves 4 parity hex codewords to correct up to 2 additional errors
+    private static final int MAX_ERASED_GOLAY_CODEWORDS = 4;
+
     private LinkControlWord mLinkControlWord;
 
     public TDULinkControlMessage(CorrectedBinaryMessage message, int nac, long timestamp)
@@ -105,12 +113,19 @@ public class TDULinkControlMessage extends P25Message implements IFrequencyBandR
      */
     private void createLinkControlWord()
     {
-        //Check the Golay codewords
+        //Check the Golay codewords and track the codewords that can't be corrected
         int codewordPointer = 0;
+        boolean[] uncorrectable = new boolean[GOLAY_CODEWORD_COUNT];
 
         while(codewordPointer < getMessage().size())
         {
             int corrected = Golay24.checkAndCorrect(getMessage(), codewordPointer);
+
+            if(corrected == 2 && codewordPointer / 24 < GOLAY_CODEWORD_COUNT)
+            {
+                uncorrectable[codewordPointer / 24] = true;
+            }
+
             codewordPointer += 24;
         }
 
@@ -148,6 +163,12 @@ public class TDULinkControlMessage extends P25Message implements IFrequencyBandR
 
         boolean irrecoverableErrors = REED_SOLOMON_24_12_13_P25.decode(input, output);
 
+        //Erasure decoding is only attempted on the soft symbol path, so hard decision decoding is unchanged
+        if(irrecoverableErrors && getMessage().hasReliabilities())
+        {
+            irrecoverableErrors = decodeWithErasures(input, output, uncorrectable);
+        }
+
         //Transfer error corrected output to a new binary message
         BinaryMessage binaryMessage = new BinaryMessage(72);
 
@@ -180,6 +201,88 @@ public class TDULinkControlMessage extends P25Message implements IFrequencyBandR
         }
     }
 
+    /**
+     * Attempts to recover a link control word that has too many errors for errors-only decoding by erasing the hex
+     * codewords of the least reliable Golay codewords.  Golay codewords that could not be corrected are erased first,
+     * followed by the codewords with the lowest soft decision bit reliabilities.  Requires message reliabilities.
+     * Up to MAX_ERASED_GOLAY_CODEWORDS Golay codewords (2 hex codewords each) are erased so that parity remains to
+     * detect a mis-correction.
+     *
+     * @param input hex codewords for the RS decoder
+     * @param output to receive the corrected hex codewords
+     * @param uncorrectable flags for each Golay codeword that could not be corrected
+     * @return true if the errors are irrecoverable
+     */
+    private boolean decodeWithErasures(int[] input, int[] output, boolean[] uncorrectable)
+    {
+        List<Integer> candidates = new ArrayList<>();
+
+        for(int codeword = 0; codeword < GOLAY_CODEWORD_COUNT; codeword++)
+        {
+            if(uncorrectable[codeword])
+            {
+                candidates.add(codeword);
+            }
+        }
+
+        byte[] reliabilities = getMessage().getReliabilities();
+        int[] codewordReliability = new int[GOLAY_CODEWORD_COUNT];
+        List<Integer> remaining = new ArrayList<>();
+
+        for(int codeword = 0; codeword < GOLAY_CODEWORD_COUNT; codeword++)
+        {
+            for(int x = codeword * 24; x < (codeword + 1) * 24; x++)
+            {
+                codewordReliability[codeword] += reliabilities[x];
+            }
+
+            if(!uncorrectable[codeword])
+            {
+                remaining.add(codeword);
+            }
+        }
+
+        remaining.sort(Comparator.comparingInt(codeword -> codewordReliability[codeword]));
+        candidates.addAll(remaining);
+
+        int[] erasures = new int[MAX_ERASED_GOLAY_CODEWORDS * 2];
+        int erasureCount = 0;
+
+        for(int x = 0; x < candidates.size() && x < MAX_ERASED_GOLAY_CODEWORDS; x++)
+        {
+            //Each Golay codeword carries 2 hex codewords and the RS input is in reverse transmitted hex order
+            int codeword = candidates.get(x);
+            erasures[erasureCount++] = 23 - (codeword * 2);
+            erasures[erasureCount++] = 22 - (codeword * 2);
+
+            if(!REED_SOLOMON_24_12_13_P25.decode(input, output, erasures, erasureCount) && isShortenedCodeword(output))
+            {
+                return false;
+            }
+        }
+
+        //Restore the received hex codewords
+        REED_SOLOMON_24_12_13_P25.decode(input, output);
+        return true;
+    }
+
+    /**
+     * Indicates if the corrected codeword is a valid RS(24,12,13) codeword where the shortened (unused) hex codewords
+     * are all zero.  A non-zero value indicates that the decoder mis-corrected the codeword.
+     */
+    private static boolean isShortenedCodeword(int[] output)
+    {
+        for(int x = 24; x < output.length; x++)
+        {
+            if(output[x] != 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     @Override
     public List<IChannelDescriptor> getChannels()
     {
@@ -37,6 +37,8 @@ import java.util.List;
  */
 public class SacchTimeslot extends AbstractSignalingTimeslot
 {
+    private static final ReedSolomon_63_35_29_P25 REED_SOLOMON_63_35_29_P25 = new ReedSolomon_63_35_29_P25();
+
     private static final int[] INFO_1 = {2, 3, 4, 5, 6, 7};
     private static final int[] INFO_2 = {8, 9, 10, 11, 12, 13};
     private static final int[] INFO_3 = {14, 15, 16, 17, 18, 19};
@@ -214,13 +216,11 @@ public class SacchTimeslot extends AbstractSignalingTimeslot
 //            input[61] = 0; //Shortened
 //            input[62] = 0; //Shortened
 
-            ReedSolomon_63_35_29_P25 reedSolomon_63_35_29 = new ReedSolomon_63_35_29_P25();
-
             boolean irrecoverableErrors;
 
             try
             {
-                irrecoverableErrors = reedSolomon_63_35_29.decode(input, output);
+                irrecoverableErrors = REED_SOLOMON_63_35_29_P25.decode(input, output);
             }
             catch(Exception e)
             {
@@ -20,8 +20,9 @@ import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.Window;
 import io.github.dsheirer.dsp.filter.Window.WindowType;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.dsp.filter.fir.DecimationStage;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
-import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.complex.ComplexDecimatingFIRFilter;
 import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
 import io.github.dsheirer.dsp.filter.resample.RealResampler;
 import io.github.dsheirer.dsp.gain.AutomaticGainControl;
@@ -36,19 +37,27 @@ import io.github.dsheirer.source.SourceEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * AM Demodulator Module for demodulating complex baseband channel sample buffers and producing demodulated audio
  * at a specified output sample rate, normally 8 kHz.
  *
  * This module requires a sample rate SourceEvent prior to processing baseband sample buffers in order to configure
  * internal filters and the resampler.
+ *
+ * The baseband I/Q samples are filtered to the channel bandwidth and decimated to the lowest integer decimated sample
+ * rate that doesn't alias into the channel bandwidth, using a multi-stage decimation plan from the FilterFactory, so
+ * that the demodulator and resampler operate at the lowest practical sample rate.
  */
 public class AMDemodulatorModule extends Module implements ISourceEventListener, IReusableComplexBufferListener,
     IReusableBufferProvider, Listener<ReusableComplexBuffer>
 {
     private final static Logger mLog = LoggerFactory.getLogger(AMDemodulatorModule.class);
+    private static final int IQ_TRANSITION_BANDWIDTH = 1000;
     private static float[] mLowPassFilterTaps;
-    private ComplexFIRFilter2 mIQFilter;
+    private List<ComplexDecimatingFIRFilter> mIQFilters = new ArrayList<>();
     private AMDemodulator mDemodulator;
     private RealFIRFilter2 mLowPassFilter;
     private AutomaticGainControl mAGC = new AutomaticGainControl();
@@ -108,7 +117,13 @@ public class AMDemodulatorModule extends Module implements ISourceEventListener,
     @Override
     public void receive(ReusableComplexBuffer basebandBuffer)
     {
-        ReusableComplexBuffer filteredBuffer = mIQFilter.filter(basebandBuffer);
+        ReusableComplexBuffer filteredBuffer = basebandBuffer;
+
+        for(ComplexDecimatingFIRFilter iqFilter: mIQFilters)
+        {
+            filteredBuffer = iqFilter.filter(filteredBuffer);
+        }
+
         ReusableFloatBuffer demodulated = mDemodulator.demodulate(filteredBuffer);
         mResampler.resample(demodulated);
     }
@@ -180,12 +195,13 @@ public class AMDemodulatorModule extends Module implements ISourceEventListener,
         {
             if(sourceEvent.getEvent() == SourceEvent.Event.NOTIFICATION_SAMPLE_RATE_CHANGE)
             {
-                if(mIQFilter != null)
+                for(ComplexDecimatingFIRFilter iqFilter: mIQFilters)
                 {
-                    mIQFilter.dispose();
-                    mIQFilter = null;
+                    iqFilter.dispose();
                 }
 
+                mIQFilters.clear();
+
                 double sampleRate = sourceEvent.getValue().doubleValue();
 
                 if((sampleRate < (2.0 * mChannelBandwidth)))
@@ -195,44 +211,71 @@ public class AMDemodulatorModule extends Module implements ISourceEventListener,
                         sampleRate + "] is not supported"));
                 }
 
-                double cutoff = sampleRate / 4.0;
-                int passBandStop = (int)cutoff - 500;
-                int stopBandStart = (int)cutoff + 500;
-
-                float[] filterTaps = null;
-
-                FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
-                    .sampleRate(sampleRate)
-                    .gridDensity(16)
-                    .oddLength(true)
-                    .passBandCutoff(passBandStop)
-                    .passBandAmplitude(1.0)
-                    .passBandRipple(0.01)
-                    .stopBandStart(stopBandStart)
-                    .stopBandAmplitude(0.0)
-                    .stopBandRipple(0.028) //Approximately 60 dB attenuation
-                    .build();
-
-                try
-                {
-                    filterTaps = FilterFactory.getTaps(specification);
-                }
-                catch(FilterDesignException fde)
+                int passFrequency = (int)mChannelBandwidth;
+                int stopFrequency = passFrequency + IQ_TRANSITION_BANDWIDTH;
+                int decimation = (int)(sampleRate / (passFrequency + stopFrequency));
+
+                if(decimation >= 2)
                 {
-                    mLog.error("Couldn't design FM demodulator remez filter for sample rate [" + sampleRate +
-                        "] pass frequency [" + passBandStop + "] and stop frequency [" + stopBandStart +
-                        "] - using sinc filter");
+                    try
+                    {
+                        for(DecimationStage stage: FilterFactory.getDecimationStages(sampleRate, decimation,
+                            passFrequency, stopFrequency, 60.0))
+                        {
+                            mIQFilters.add(new ComplexDecimatingFIRFilter(stage));
+                        }
+                    }
+                    catch(FilterDesignException fde)
+                    {
+                        mLog.error("Couldn't design AM demodulator decimation filters for sample rate [" +
+                            sampleRate + "] and decimation [" + decimation + "] - using full rate filter");
+                        mIQFilters.clear();
+                    }
                 }
 
-                if(filterTaps == null)
+                if(mIQFilters.isEmpty())
                 {
-                    filterTaps = FilterFactory.getLowPass(sampleRate, passBandStop, stopBandStart, 60,
-                        Window.WindowType.HAMMING, true);
-                }
+                    decimation = 1;
+
+                    double cutoff = sampleRate / 4.0;
+                    int passBandStop = (int)cutoff - 500;
+                    int stopBandStart = (int)cutoff + 500;
+
+                    float[] filterTaps = null;
+
+                    FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
+                        .sampleRate(sampleRate)
+                        .gridDensity(16)
+                        .oddLength(true)
+                        .passBandCutoff(passBandStop)
+                        .passBandAmplitude(1.0)
+                        .passBandRipple(0.01)
+                        .stopBandStart(stopBandStart)
+                        .stopBandAmplitude(0.0)
+                        .stopBandRipple(0.028) //Approximately 60 dB attenuation
+                        .build();
 
-                mIQFilter = new ComplexFIRFilter2(filterTaps);
+                    try
+                    {
+                        filterTaps = FilterFactory.getTaps(specification);
+                    }
+                    catch(FilterDesignException fde)
+                    {
+                        mLog.error("Couldn't design AM demodulator full rate IQ filter for sample rate [" + sampleRate +
+                            "] pass frequency [" + passBandStop + "] and stop frequency [" + stopBandStart +
+                            "] - using sinc filter");
+                    }
+
+                    if(filterTaps == null)
+                    {
+                        filterTaps = FilterFactory.getLowPass(sampleRate, passBandStop, stopBandStart, 60,
+                            Window.WindowType.HAMMING, true);
+                    }
+
+                    mIQFilters.add(new ComplexDecimatingFIRFilter(filterTaps, 1));
+                }
 
-                mResampler = new RealResampler(sampleRate, mOutputSampleRate, 2000, 1000);
+                mResampler = new RealResampler(sampleRate / decimation, mOutputSampleRate, 2000, 1000);
 
                 mResampler.setListener(new Listener<ReusableFloatBuffer>()
                 {
@@ -19,7 +19,7 @@ import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.Window;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
-import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.complex.ComplexDecimatingFIRFilter;
 import io.github.dsheirer.dsp.filter.resample.RealResampler;
 import io.github.dsheirer.dsp.fm.FMDemodulator;
 import io.github.dsheirer.module.Module;
@@ -36,6 +36,9 @@ import org.slf4j.LoggerFactory;
 /**
  * FM Demodulator with integrated fractional resampler.
  *
+ * The baseband I/Q filter pass band ends at one quarter of the channel sample rate, so the filter also decimates the
+ * I/Q samples by two and the demodulator and resampler operate at half of the channel sample rate.
+ *
  * Note: no filtering is applied to the demodulated audio.
  */
 public class FMDemodulatorModule extends Module implements ISourceEventListener, IReusableComplexBufferListener,
@@ -43,8 +46,11 @@ public class FMDemodulatorModule extends Module implements ISourceEventListener,
 {
     private final static Logger mLog = LoggerFactory.getLogger(FMDemodulatorModule.class);
 
-    private ComplexFIRFilter2 mIQFilter;
-    private FMDemodulator mDemodulator = new FMDemodulator();
+    private static final int IQ_DECIMATION = 2;
+
+    private ComplexDecimatingFIRFilter mIQFilter;
+    //Demodulated amplitude is proportional to phase change per sample, so compensate for the decimated sample rate
+    private FMDemodulator mDemodulator = new FMDemodulator(1.0f / IQ_DECIMATION);
     private RealResampler mResampler;
     private SourceEventProcessor mSourceEventProcessor = new SourceEventProcessor();
     private Listener<ReusableFloatBuffer> mResampledReusableBufferListener;
@@ -187,9 +193,9 @@ public class FMDemodulatorModule extends Module implements ISourceEventListener,
                         Window.WindowType.HAMMING, true);
                 }
 
-                mIQFilter = new ComplexFIRFilter2(filterTaps);
+                mIQFilter = new ComplexDecimatingFIRFilter(filterTaps, IQ_DECIMATION);
 
-                mResampler = new RealResampler(sampleRate, mOutputSampleRate, 2000, 1000);
+                mResampler = new RealResampler(sampleRate / IQ_DECIMATION, mOutputSampleRate, 2000, 1000);
 
                 mResampler.setListener(new Listener<ReusableFloatBuffer>()
                 {
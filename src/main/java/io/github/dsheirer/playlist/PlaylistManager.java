@@ -551,7 +551,7 @@ public class PlaylistManager implements Listener<ChannelEvent>
         {
             if(mPlaylistSavePending.compareAndSet(false, true))
             {
-                mPlaylistSaveFuture = ThreadPool.SCHEDULED.schedule(new PlaylistSaveTask(), 2, TimeUnit.SECONDS);
+                mPlaylistSaveFuture = ThreadPool.HOUSEKEEPING.schedule(new PlaylistSaveTask(), 2, TimeUnit.SECONDS);
             }
         }
     }
@@ -36,8 +36,18 @@ public class TunerPreference extends Preference
     private final static Logger mLog = LoggerFactory.getLogger(TunerPreference.class);
     private Preferences mPreferences = Preferences.userNodeForPackage(TunerPreference.class);
     private static final String PREFERENCE_KEY_CHANNELIZER_TYPE = "channelizer.type";
+    private static final String PREFERENCE_KEY_CHANNELIZER_THREAD_COUNT = "channelizer.thread.count";
+    private static final String PREFERENCE_KEY_USB_TRANSFER_MODE = "usb.transfer.mode";
+    private static final String PREFERENCE_KEY_USB_TRANSFER_LATENCY = "usb.transfer.latency";
+    public static final int CHANNELIZER_THREAD_COUNT_DEFAULT = 1;
+    public static final int USB_TRANSFER_LATENCY_DEFAULT = 20;
+    public static final int USB_TRANSFER_LATENCY_MINIMUM = 1;
+    public static final int USB_TRANSFER_LATENCY_MAXIMUM = 100;
 
     private ChannelizerType mChannelizerType;
+    private Integer mChannelizerThreadCount;
+    private USBTransferMode mUSBTransferMode;
+    private Integer mUSBTransferLatency;
 
     /**
      * Constructs a tuner preference with the update listener
@@ -95,4 +105,85 @@ public class TunerPreference extends Preference
         mPreferences.put(PREFERENCE_KEY_CHANNELIZER_TYPE, mChannelizerType.name());
         notifyPreferenceUpdated();
     }
+
+    /**
+     * Number of threads used by each of the polyphase channelizer filter and IFFT processing stages
+     */
+    public int getChannelizerThreadCount()
+    {
+        if(mChannelizerThreadCount == null)
+        {
+            mChannelizerThreadCount = mPreferences.getInt(PREFERENCE_KEY_CHANNELIZER_THREAD_COUNT,
+                CHANNELIZER_THREAD_COUNT_DEFAULT);
+        }
+
+        return mChannelizerThreadCount;
+    }
+
+    /**
+     * Sets the number of threads used by each of the polyphase channelizer filter and IFFT processing stages
+     */
+    public void setChannelizerThreadCount(int threadCount)
+    {
+        mChannelizerThreadCount = Math.max(threadCount, 1);
+        mPreferences.putInt(PREFERENCE_KEY_CHANNELIZER_THREAD_COUNT, mChannelizerThreadCount);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Transfer buffer sizing mode used by USB tuners
+     */
+    public USBTransferMode getUSBTransferMode()
+    {
+        if(mUSBTransferMode == null)
+        {
+            String mode = mPreferences.get(PREFERENCE_KEY_USB_TRANSFER_MODE, USBTransferMode.FIXED.name());
+
+            try
+            {
+                mUSBTransferMode = USBTransferMode.valueOf(mode);
+            }
+            catch(IllegalArgumentException iae)
+            {
+                mUSBTransferMode = USBTransferMode.FIXED;
+            }
+        }
+
+        return mUSBTransferMode;
+    }
+
+    /**
+     * Sets the transfer buffer sizing mode used by USB tuners
+     */
+    public void setUSBTransferMode(USBTransferMode mode)
+    {
+        mUSBTransferMode = mode;
+        mPreferences.put(PREFERENCE_KEY_USB_TRANSFER_MODE, mUSBTransferMode.name());
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Latency budget in milliseconds for the duration of samples in each USB transfer buffer when using the adaptive
+     * USB transfer mode
+     */
+    public int getUSBTransferLatency()
+    {
+        if(mUSBTransferLatency == null)
+        {
+            mUSBTransferLatency = mPreferences.getInt(PREFERENCE_KEY_USB_TRANSFER_LATENCY,
+                USB_TRANSFER_LATENCY_DEFAULT);
+        }
+
+        return mUSBTransferLatency;
+    }
+
+    /**
+     * Sets the latency budget in milliseconds for the adaptive USB transfer mode
+     */
+    public void setUSBTransferLatency(int latency)
+    {
+        mUSBTransferLatency = Math.min(Math.max(latency, USB_TRANSFER_LATENCY_MINIMUM), USB_TRANSFER_LATENCY_MAXIMUM);
+        mPreferences.putInt(PREFERENCE_KEY_USB_TRANSFER_LATENCY, mUSBTransferLatency);
+        notifyPreferenceUpdated();
+    }
 }
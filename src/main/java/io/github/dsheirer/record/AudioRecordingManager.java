@@ -59,6 +59,7 @@ public class AudioRecordingManager implements Listener<AudioSegment>
     private int mUnknownAudioRecordingIndex = 1;
     private int mDuplicateAudioRecordingSuffix = 1;
     private String mPreviousRecordingPath = null;
+    private Path mRecordingBasePath;
 
     /**
      * Constructs an instance
@@ -69,6 +70,18 @@ public class AudioRecordingManager implements Listener<AudioSegment>
         mUserPreferences = userPreferences;
     }
 
+    /**
+     * Constructs an instance that writes audio recordings to the specified folder instead of the recordings folder
+     * from the user preferences.
+     * @param userPreferences to determine audio recording format
+     * @param recordingBasePath folder for audio recordings
+     */
+    public AudioRecordingManager(UserPreferences userPreferences, Path recordingBasePath)
+    {
+        this(userPreferences);
+        mRecordingBasePath = recordingBasePath;
+    }
+
     /**
      * Starts the manager and begins audio segment recording.
      */
@@ -76,7 +89,7 @@ public class AudioRecordingManager implements Listener<AudioSegment>
     {
         if(mQueueProcessorHandle == null)
         {
-            mQueueProcessorHandle = ThreadPool.SCHEDULED.scheduleAtFixedRate(new QueueProcessor(),
+            mQueueProcessorHandle = ThreadPool.AUDIO_IO.scheduleAtFixedRate(new QueueProcessor(),
                 0, 1, TimeUnit.SECONDS);
         }
     }
@@ -173,6 +186,11 @@ public class AudioRecordingManager implements Listener<AudioSegment>
      */
     public Path getRecordingBasePath()
     {
+        if(mRecordingBasePath != null)
+        {
+            return mRecordingBasePath;
+        }
+
         return mUserPreferences.getDirectoryPreference().getDirectoryRecording();
     }
 
@@ -0,0 +1,75 @@
+/*
+ * *****************************************************************************
+ *  Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * ****************************************************************************
+ */
+
+package io.github.dsheirer.record;
+
+import io.github.dsheirer.record.compressed.CompressedComplexFormat;
+
+/**
+ * Baseband (complex I/Q) recording formats
+ */
+public enum BasebandRecordFormat
+{
+    WAVE("Wave - 16-bit (.wav)", ".wav", 16),
+    COMPRESSED_LOSSLESS("Compressed - Lossless (" + CompressedComplexFormat.FILE_EXTENSION + ")",
+        CompressedComplexFormat.FILE_EXTENSION, CompressedComplexFormat.LOSSLESS_MANTISSA_BITS),
+    COMPRESSED("Compressed - 8-bit Block Floating Point (" + CompressedComplexFormat.FILE_EXTENSION + ")",
+        CompressedComplexFormat.FILE_EXTENSION, 8);
+
+    private String mDisplayString;
+    private String mExtension;
+    private int mMantissaBits;
+
+    BasebandRecordFormat(String displayString, String extension, int mantissaBits)
+    {
+        mDisplayString = displayString;
+        mExtension = extension;
+        mMantissaBits = mantissaBits;
+    }
+
+    /**
+     * File extension
+     */
+    public String getExtension()
+    {
+        return mExtension;
+    }
+
+    /**
+     * Number of bits per sample value retained by the format
+     */
+    public int getMantissaBits()
+    {
+        return mMantissaBits;
+    }
+
+    /**
+     * Indicates if this is a compressed complex recording format
+     */
+    public boolean isCompressed()
+    {
+        return this != WAVE;
+    }
+
+    @Override
+    public String toString()
+    {
+        return mDisplayString;
+    }
+}
@@ -157,6 +157,7 @@ public class RecorderFactory
         sb.append(getRecordingBasePath(userPreferences));
         sb.append(File.separator).append(StringUtils.replaceIllegalCharacters(channelName)).append("_baseband");
 
-        return new ComplexBufferWaveRecorder(BASEBAND_SAMPLE_RATE, sb.toString());
+        return new ComplexBufferWaveRecorder(BASEBAND_SAMPLE_RATE, sb.toString(),
+            userPreferences.getRecordPreference().getBasebandRecordFormat());
     }
 }
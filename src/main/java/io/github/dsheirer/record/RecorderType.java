@@ -35,9 +35,10 @@ public enum RecorderType
 	AUDIO( "Audio (.wav)"),
 
     /**
-     * Baseband, 16-bit complex inphase/quadrature samples at the channel sample rate.
+     * Baseband, complex inphase/quadrature samples at the channel sample rate, in the baseband record format from the
+     * user preferences.
      */
-    BASEBAND( "Baseband I/Q (.wav)"),
+    BASEBAND( "Baseband I/Q (.wav/.iqz)"),
 
     /**
      * Demodulated bit stream at the baud rate of the decoder
@@ -45,9 +46,10 @@ public enum RecorderType
     DEMODULATED_BIT_STREAM("Demodulated Bitstream (.bits)"),
 
     /**
-     * Traffic channel baseband, 16-bit complex inphase/quadrature samples at the channel sample rate.
+     * Traffic channel baseband, complex inphase/quadrature samples at the channel sample rate, in the baseband record
+     * format from the user preferences.
      */
-	TRAFFIC_BASEBAND( "Traffic Channel Baseband I/Q (.wav)" ),
+	TRAFFIC_BASEBAND( "Traffic Channel Baseband I/Q (.wav/.iqz)" ),
 
     /**
      * Traffic channel demodulated bit stream at the baud rate of the decoder
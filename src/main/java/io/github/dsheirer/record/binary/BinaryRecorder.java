@@ -22,6 +22,8 @@ package io.github.dsheirer.record.binary;
 import io.github.dsheirer.dsp.filter.channelizer.ContinuousReusableBufferProcessor;
 import io.github.dsheirer.module.Module;
 import io.github.dsheirer.protocol.Protocol;
+import io.github.dsheirer.record.io.RecordingFile;
+import io.github.dsheirer.record.io.RecordingIOService;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.IReusableByteBufferListener;
 import io.github.dsheirer.sample.buffer.ReusableByteBuffer;
@@ -32,11 +34,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.WritableByteChannel;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.util.EnumSet;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -47,6 +46,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *
  * The contents of the file are the raw bytes as demodulated by the decoder with
  * no header or timestamps, other than the timestamp included in the filename.
+ *
+ * The small demodulated byte buffers are coalesced and written in the background by the
+ * shared recording I/O service.
  */
 public class BinaryRecorder extends Module implements IReusableByteBufferListener
 {
@@ -151,29 +153,32 @@ public class BinaryRecorder extends Module implements IReusableByteBufferListene
     public class BinaryWriter implements Listener<List<ReusableByteBuffer>>
     {
         private Path mCurrentPath;
-        private WritableByteChannel mWritableByteChannel;
+        private RecordingFile mRecordingFile;
 
         public void start(Path path) throws IOException
         {
             synchronized(this)
             {
                 mCurrentPath = path;
-                mWritableByteChannel = Files.newByteChannel(path,
-                    EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE));
+                mRecordingFile = RecordingIOService.getInstance().open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
 //                mLog.info("Binary (bitstream) recording started: " + mCurrentPath.toString());
             }
         }
 
+        /**
+         * Stops the recording.  The file is closed in the background once the queued bytes are written.
+         */
         public void stop() throws IOException
         {
             synchronized(this)
             {
-                if(mWritableByteChannel != null)
+                if(mRecordingFile != null)
                 {
-                    mWritableByteChannel.close();
+                    mRecordingFile.closeAsync(false);
                 }
 
-                mWritableByteChannel = null;
+                mRecordingFile = null;
                 mCurrentPath = null;
             }
         }
@@ -188,14 +193,14 @@ public class BinaryRecorder extends Module implements IReusableByteBufferListene
             {
                 try
                 {
-                    if(mWritableByteChannel != null)
+                    if(mRecordingFile != null)
                     {
-                        mWritableByteChannel.close();
+                        mRecordingFile.closeAsync(false);
                     }
 
                     mCurrentPath = getRecordingPath();
-                    mWritableByteChannel = Files.newByteChannel(mCurrentPath,
-                        EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE));
+                    mRecordingFile = RecordingIOService.getInstance().open(mCurrentPath, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE);
                     mLog.info("Binary (bitstream) recording started: " + mCurrentPath.toString());
                 }
                 catch(IOException ioe)
@@ -216,12 +221,14 @@ public class BinaryRecorder extends Module implements IReusableByteBufferListene
         {
             for(ReusableByteBuffer buffer: reusableComplexBuffers)
             {
-                if(mWritableByteChannel != null)
+                if(mRecordingFile != null)
                 {
                     try
                     {
-                        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer.getSamplesCopy());
-                        mBytesRecordedCounter += mWritableByteChannel.write(byteBuffer);
+                        //The recording file copies the bytes, so the reusable buffer's array can be wrapped directly
+                        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer.getBytes());
+                        mBytesRecordedCounter += byteBuffer.remaining();
+                        mRecordingFile.write(byteBuffer);
 
                         if(mBytesRecordedCounter > MAX_RECORDING_BYTE_SIZE)
                         {
@@ -0,0 +1,254 @@
+/*
+ * *********************************************************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ * *********************************************************************************************************************
+ */
+package io.github.dsheirer.record.compressed;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Encodes and decodes blocks of 16-bit I/Q values in the compressed complex recording format (see
+ * CompressedComplexFormat).  Scratch arrays are sized for the block size at construction so that encoding and
+ * decoding don't allocate.
+ *
+ * This class is not thread safe.
+ */
+public class CompressedBlockCodec
+{
+    private static final float SCALE = 1.0f / Short.MAX_VALUE;
+
+    private int mBlockSize;
+    private int mMantissaBits;
+    private int[] mValues;
+
+    /**
+     * Constructs an instance
+     *
+     * @param blockSize maximum number of complex samples per block
+     * @param mantissaBits for encoding (ignored for decoding)
+     */
+    public CompressedBlockCodec(int blockSize, int mantissaBits)
+    {
+        mBlockSize = blockSize;
+        mMantissaBits = mantissaBits;
+        mValues = new int[blockSize];
+    }
+
+    /**
+     * Converts a float sample to a 16-bit value the same way as a wave recording, with clipping.
+     */
+    public static short toShort(float sample)
+    {
+        float value = sample * Short.MAX_VALUE;
+
+        if(value >= Short.MAX_VALUE)
+        {
+            return Short.MAX_VALUE;
+        }
+        else if(value <= Short.MIN_VALUE)
+        {
+            return Short.MIN_VALUE;
+        }
+
+        return (short)value;
+    }
+
+    /**
+     * Encodes a block of I/Q values, including the block header.
+     *
+     * @param i values
+     * @param q values
+     * @param count of complex samples, 1 to the block size
+     * @param out buffer with at least CompressedComplexFormat.getMaximumBlockLength() bytes remaining
+     */
+    public void encode(short[] i, short[] q, int count, ByteBuffer out)
+    {
+        int shift = 0;
+
+        if(mMantissaBits < CompressedComplexFormat.LOSSLESS_MANTISSA_BITS)
+        {
+            int maximum = 0;
+
+            for(int x = 0; x < count; x++)
+            {
+                maximum = Math.max(maximum, Math.max(Math.abs(i[x]), Math.abs(q[x])));
+            }
+
+            int magnitudeBits = 32 - Integer.numberOfLeadingZeros(maximum);
+            shift = Math.max(0, magnitudeBits + 1 - mMantissaBits);
+        }
+
+        int start = out.position();
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(0); //Payload length placeholder
+        out.putShort((short)count);
+        out.put((byte)shift);
+        out.put((byte)0);
+
+        encodeChannel(i, count, shift, out);
+        encodeChannel(q, count, shift, out);
+
+        out.putInt(start, out.position() - start - CompressedComplexFormat.BLOCK_HEADER_LENGTH);
+    }
+
+    /**
+     * Scales, then packs one channel of the block as deltas or raw values, whichever is narrower.
+     */
+    private void encodeChannel(short[] samples, int count, int shift, ByteBuffer out)
+    {
+        int[] values = mValues;
+
+        if(shift == 0)
+        {
+            for(int x = 0; x < count; x++)
+            {
+                values[x] = samples[x];
+            }
+        }
+        else
+        {
+            int round = 1 << (shift - 1);
+            int maximum = (1 << (mMantissaBits - 1)) - 1;
+
+            for(int x = 0; x < count; x++)
+            {
+                values[x] = Math.min((samples[x] + round) >> shift, maximum);
+            }
+        }
+
+        int rawBits = 0;
+        int deltaBits = 0;
+
+        for(int x = 1; x < count; x++)
+        {
+            int value = values[x];
+            int delta = value - values[x - 1];
+            rawBits |= (value << 1) ^ (value >> 31);
+            deltaBits |= (delta << 1) ^ (delta >> 31);
+        }
+
+        int rawWidth = 32 - Integer.numberOfLeadingZeros(rawBits);
+        int deltaWidth = 32 - Integer.numberOfLeadingZeros(deltaBits);
+        boolean delta = deltaWidth < rawWidth;
+        int width = delta ? deltaWidth : rawWidth;
+
+        out.put((byte)((delta ? CompressedComplexFormat.MODE_DELTA : 0) | width));
+        out.putShort((short)values[0]);
+
+        if(width > 0)
+        {
+            long accumulator = 0;
+            int bits = 0;
+
+            for(int x = 1; x < count; x++)
+            {
+                int value = delta ? values[x] - values[x - 1] : values[x];
+                accumulator |= (long)((value << 1) ^ (value >> 31)) << bits;
+                bits += width;
+
+                while(bits >= 8)
+                {
+                    out.put((byte)accumulator);
+                    accumulator >>>= 8;
+                    bits -= 8;
+                }
+            }
+
+            if(bits > 0)
+            {
+                out.put((byte)accumulator);
+            }
+        }
+    }
+
+    /**
+     * Decodes a block, including the block header, into interleaved I/Q float samples.
+     *
+     * @param in buffer positioned at the start of the block header
+     * @param samples destination with room for twice the block size values
+     * @return number of complex samples decoded
+     * @throws IOException if the block is malformed
+     */
+    public int decode(ByteBuffer in, float[] samples) throws IOException
+    {
+        try
+        {
+            in.order(ByteOrder.LITTLE_ENDIAN);
+            in.getInt(); //Payload length
+            int count = in.getShort() & 0xFFFF;
+            int shift = in.get();
+            in.get();
+
+            if(count < 1 || count > mBlockSize || shift < 0 || shift > 15)
+            {
+                throw new IOException("Malformed compressed block - count [" + count + "] shift [" + shift + "]");
+            }
+
+            decodeChannel(in, count, shift, samples, 0);
+            decodeChannel(in, count, shift, samples, 1);
+
+            return count;
+        }
+        catch(BufferUnderflowException bue)
+        {
+            throw new IOException("Malformed compressed block - truncated", bue);
+        }
+    }
+
+    /**
+     * Unpacks one channel into every other sample value, starting at the offset.
+     */
+    private static void decodeChannel(ByteBuffer in, int count, int shift, float[] samples, int offset)
+        throws IOException
+    {
+        int mode = in.get() & 0xFF;
+        boolean delta = (mode & CompressedComplexFormat.MODE_DELTA) != 0;
+        int width = mode & CompressedComplexFormat.MODE_WIDTH_MASK;
+
+        if(width > 17)
+        {
+            throw new IOException("Malformed compressed block - width [" + width + "]");
+        }
+
+        int value = in.getShort();
+        samples[offset] = (value << shift) * SCALE;
+
+        long mask = (1l << width) - 1;
+        long accumulator = 0;
+        int bits = 0;
+        int index = offset + 2;
+
+        for(int x = 1; x < count; x++)
+        {
+            while(bits < width)
+            {
+                accumulator |= (long)(in.get() & 0xFF) << bits;
+                bits += 8;
+            }
+
+            int zigzag = (int)(accumulator & mask);
+            accumulator >>>= width;
+            bits -= width;
+
+            int decoded = (zigzag >>> 1) ^ -(zigzag & 1);
+            value = delta ? value + decoded : decoded;
+            samples[index] = (value << shift) * SCALE;
+            index += 2;
+        }
+    }
+}
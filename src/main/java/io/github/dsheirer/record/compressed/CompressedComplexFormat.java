@@ -0,0 +1,205 @@
+/*
+ * *********************************************************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ * *********************************************************************************************************************
+ */
+package io.github.dsheirer.record.compressed;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compressed complex (I/Q) sample recording format.
+ *
+ * Samples are quantized to 16-bit values, the same as a wave recording, and grouped into blocks of complex samples.
+ * Each block is scaled by a shared block exponent (block floating point) so that the largest I or Q value fits in the
+ * configured number of mantissa bits.  With 16 mantissa bits the shift is always zero and the format is lossless
+ * relative to a 16-bit wave recording.  Each channel (I and Q) of the block is then stored either as first-order
+ * deltas or as raw values, whichever needs fewer bits, zig-zag encoded and bit-packed at the smallest width that holds
+ * every value in the block.
+ *
+ * All values are little-endian.
+ *
+ * File header (HEADER_LENGTH bytes):
+ *   4 bytes  magic "SIQZ"
+ *   2 bytes  version
+ *   2 bytes  header length
+ *   4 bytes  sample rate (float)
+ *   4 bytes  block size (complex samples per full block)
+ *   1 byte   mantissa bits
+ *   3 bytes  reserved
+ *   8 bytes  timestamp of the first sample in milliseconds
+ *   4 bytes  reserved
+ *
+ * Block:
+ *   4 bytes  payload length (bytes following the 8 byte block header)
+ *   2 bytes  complex sample count (only the final block can be shorter than the block size)
+ *   1 byte   shift (block exponent)
+ *   1 byte   reserved
+ *   I channel, then Q channel:
+ *     1 byte   mode: bit 7 set for deltas, bits 0-4 packed value width
+ *     2 bytes  first value
+ *     packed zig-zag values (or deltas) for the remaining samples, least significant bit first, padded to a byte
+ */
+public class CompressedComplexFormat
+{
+    public static final String FILE_EXTENSION = ".iqz";
+    public static final byte[] MAGIC = "SIQZ".getBytes(StandardCharsets.US_ASCII);
+    public static final short VERSION = 1;
+    public static final int HEADER_LENGTH = 32;
+    public static final int BLOCK_HEADER_LENGTH = 8;
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+    public static final int LOSSLESS_MANTISSA_BITS = 16;
+    public static final int MINIMUM_MANTISSA_BITS = 4;
+    public static final int MODE_DELTA = 0x80;
+    public static final int MODE_WIDTH_MASK = 0x1F;
+
+    private float mSampleRate;
+    private int mBlockSize;
+    private int mMantissaBits;
+    private long mTimestamp;
+
+    /**
+     * Constructs an instance
+     *
+     * @param sampleRate of the recording
+     * @param blockSize complex samples per block
+     * @param mantissaBits per value (16 for lossless)
+     * @param timestamp of the first sample in milliseconds
+     */
+    public CompressedComplexFormat(float sampleRate, int blockSize, int mantissaBits, long timestamp)
+    {
+        if(mantissaBits < MINIMUM_MANTISSA_BITS || mantissaBits > LOSSLESS_MANTISSA_BITS)
+        {
+            throw new IllegalArgumentException("Mantissa bits must be between " + MINIMUM_MANTISSA_BITS + " and " +
+                LOSSLESS_MANTISSA_BITS);
+        }
+
+        if(blockSize < 2 || blockSize > Short.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Block size must be between 2 and " + Short.MAX_VALUE);
+        }
+
+        mSampleRate = sampleRate;
+        mBlockSize = blockSize;
+        mMantissaBits = mantissaBits;
+        mTimestamp = timestamp;
+    }
+
+    public float getSampleRate()
+    {
+        return mSampleRate;
+    }
+
+    public int getBlockSize()
+    {
+        return mBlockSize;
+    }
+
+    public int getMantissaBits()
+    {
+        return mMantissaBits;
+    }
+
+    public long getTimestamp()
+    {
+        return mTimestamp;
+    }
+
+    /**
+     * Largest number of bytes that a block (including the block header) can occupy
+     */
+    public int getMaximumBlockLength()
+    {
+        return getMaximumBlockLength(mBlockSize);
+    }
+
+    /**
+     * Largest number of bytes that a block (including the block header) with the block size can occupy.  Raw values
+     * never need more than 16 bits, so the encoder never chooses a wider packing.
+     */
+    public static int getMaximumBlockLength(int blockSize)
+    {
+        return BLOCK_HEADER_LENGTH + 2 * (3 + ((blockSize - 1) * 16 + 7) / 8);
+    }
+
+    /**
+     * Creates the file header
+     */
+    public ByteBuffer getHeader()
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short)HEADER_LENGTH);
+        header.putFloat(mSampleRate);
+        header.putInt(mBlockSize);
+        header.put((byte)mMantissaBits);
+        header.position(header.position() + 3);
+        header.putLong(mTimestamp);
+        header.position(0);
+        return header;
+    }
+
+    /**
+     * Parses the file header
+     *
+     * @param header buffer containing at least HEADER_LENGTH bytes, positioned at the start of the header
+     * @return format
+     * @throws IOException if the header is not a supported compressed complex recording header
+     */
+    public static CompressedComplexFormat parse(ByteBuffer header) throws IOException
+    {
+        header.order(ByteOrder.LITTLE_ENDIAN);
+
+        for(byte b: MAGIC)
+        {
+            if(header.get() != b)
+            {
+                throw new IOException("Unsupported file format - not a compressed complex recording");
+            }
+        }
+
+        short version = header.getShort();
+
+        if(version != VERSION)
+        {
+            throw new IOException("Unsupported compressed complex recording version [" + version + "]");
+        }
+
+        short headerLength = header.getShort();
+
+        if(headerLength < HEADER_LENGTH)
+        {
+            throw new IOException("Invalid compressed complex recording header length [" + headerLength + "]");
+        }
+
+        float sampleRate = header.getFloat();
+        int blockSize = header.getInt();
+        int mantissaBits = header.get();
+        header.position(header.position() + 3);
+        long timestamp = header.getLong();
+
+        try
+        {
+            return new CompressedComplexFormat(sampleRate, blockSize, mantissaBits, timestamp);
+        }
+        catch(IllegalArgumentException iae)
+        {
+            throw new IOException("Invalid compressed complex recording header - " + iae.getMessage());
+        }
+    }
+}
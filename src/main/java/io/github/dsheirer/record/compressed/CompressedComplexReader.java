@@ -0,0 +1,285 @@
+/*
+ * *********************************************************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ * *********************************************************************************************************************
+ */
+package io.github.dsheirer.record.compressed;
+
+import io.github.dsheirer.source.wave.IComplexSampleReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads complex (I/Q) samples from a compressed complex recording (see CompressedComplexFormat).
+ *
+ * The block headers are indexed when the recording is opened, so the read position can be moved to any sample
+ * (frame) or time offset by decoding only the block that contains it.  A truncated final block (ie a recording that
+ * wasn't closed cleanly) is ignored.
+ *
+ * This reader is not thread safe.
+ */
+public class CompressedComplexReader implements IComplexSampleReader
+{
+    private File mFile;
+    private FileChannel mFileChannel;
+    private CompressedComplexFormat mFormat;
+    private CompressedBlockCodec mCodec;
+    private long[] mBlockOffsets = new long[1024];
+    private long[] mBlockFrames = new long[1024];
+    private int mBlockCount;
+    private long mFrameCount;
+    private long mPosition;
+    private ByteBuffer mBlockBuffer;
+    private float[] mBlockSamples;
+    private int mDecodedBlock = -1;
+    private int mDecodedBlockSampleCount;
+
+    /**
+     * Opens the recording, parses the header and indexes the blocks.
+     *
+     * @param file to read
+     * @throws IOException if the file can't be read or isn't a compressed complex recording
+     */
+    public CompressedComplexReader(File file) throws IOException
+    {
+        mFile = file;
+        mFileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+        try
+        {
+            ByteBuffer header = read(0, CompressedComplexFormat.HEADER_LENGTH);
+            mFormat = CompressedComplexFormat.parse(header);
+            index(header.getShort(6));
+        }
+        catch(IOException ioe)
+        {
+            mFileChannel.close();
+            throw ioe;
+        }
+
+        mCodec = new CompressedBlockCodec(mFormat.getBlockSize(), mFormat.getMantissaBits());
+        mBlockBuffer = ByteBuffer.allocate(mFormat.getMaximumBlockLength()).order(ByteOrder.LITTLE_ENDIAN);
+        mBlockSamples = new float[mFormat.getBlockSize() * 2];
+    }
+
+    /**
+     * Indexes the file offset and first frame of each complete block.
+     */
+    private void index(long position) throws IOException
+    {
+        long fileSize = mFileChannel.size();
+        ByteBuffer blockHeader = ByteBuffer.allocate(CompressedComplexFormat.BLOCK_HEADER_LENGTH)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        int maximumPayload = mFormat.getMaximumBlockLength() - CompressedComplexFormat.BLOCK_HEADER_LENGTH;
+
+        while(position + CompressedComplexFormat.BLOCK_HEADER_LENGTH <= fileSize)
+        {
+            blockHeader.clear();
+
+            while(blockHeader.hasRemaining())
+            {
+                mFileChannel.read(blockHeader, position + blockHeader.position());
+            }
+
+            int payloadLength = blockHeader.getInt(0);
+            int count = blockHeader.getShort(4) & 0xFFFF;
+            long next = position + CompressedComplexFormat.BLOCK_HEADER_LENGTH + payloadLength;
+
+            if(payloadLength < 0 || payloadLength > maximumPayload || count < 1 || count > mFormat.getBlockSize() ||
+                next > fileSize)
+            {
+                break;
+            }
+
+            if(mBlockCount == mBlockOffsets.length)
+            {
+                mBlockOffsets = Arrays.copyOf(mBlockOffsets, mBlockCount * 2);
+                mBlockFrames = Arrays.copyOf(mBlockFrames, mBlockCount * 2);
+            }
+
+            mBlockOffsets[mBlockCount] = position;
+            mBlockFrames[mBlockCount] = mFrameCount;
+            mBlockCount++;
+            mFrameCount += count;
+            position = next;
+        }
+    }
+
+    /**
+     * Reads the specified number of bytes from the file into a little-endian buffer.
+     */
+    private ByteBuffer read(long position, int length) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        while(buffer.hasRemaining())
+        {
+            if(mFileChannel.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new IOException("Unexpected end of file while reading compressed complex recording");
+            }
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Recording file
+     */
+    public File getFile()
+    {
+        return mFile;
+    }
+
+    /**
+     * Recording format details from the file header
+     */
+    public CompressedComplexFormat getFormat()
+    {
+        return mFormat;
+    }
+
+    @Override
+    public float getSampleRate()
+    {
+        return mFormat.getSampleRate();
+    }
+
+    @Override
+    public long getFrameCount()
+    {
+        return mFrameCount;
+    }
+
+    @Override
+    public long getDuration()
+    {
+        return (long)(mFrameCount * 1000.0 / mFormat.getSampleRate());
+    }
+
+    @Override
+    public long getStartTimestamp()
+    {
+        return mFormat.getTimestamp();
+    }
+
+    @Override
+    public long getPosition()
+    {
+        return mPosition;
+    }
+
+    @Override
+    public long getRemaining()
+    {
+        return mFrameCount - mPosition;
+    }
+
+    @Override
+    public void seek(long frame)
+    {
+        mPosition = Math.max(0, Math.min(frame, mFrameCount));
+    }
+
+    @Override
+    public void seekTime(long milliseconds)
+    {
+        seek((long)(milliseconds * mFormat.getSampleRate() / 1000.0));
+    }
+
+    @Override
+    public int read(float[] samples, int offset, int frames) throws IOException
+    {
+        if(mPosition >= mFrameCount)
+        {
+            return -1;
+        }
+
+        int toRead = (int)Math.min(frames, mFrameCount - mPosition);
+        int remaining = toRead;
+        int index = offset;
+
+        while(remaining > 0)
+        {
+            int block = getBlock(mPosition);
+
+            if(block != mDecodedBlock)
+            {
+                decodeBlock(block);
+            }
+
+            int blockOffset = (int)(mPosition - mBlockFrames[block]);
+            int count = Math.min(remaining, mDecodedBlockSampleCount - blockOffset);
+            System.arraycopy(mBlockSamples, blockOffset * 2, samples, index, count * 2);
+            index += count * 2;
+            mPosition += count;
+            remaining -= count;
+        }
+
+        return toRead;
+    }
+
+    /**
+     * Index of the block that contains the frame
+     */
+    private int getBlock(long frame)
+    {
+        //Every block except the last is full, so the block can be calculated, with a search as a fallback
+        int block = (int)Math.min(frame / mFormat.getBlockSize(), mBlockCount - 1);
+
+        if(mBlockFrames[block] <= frame && (block + 1 == mBlockCount || mBlockFrames[block + 1] > frame))
+        {
+            return block;
+        }
+
+        int search = Arrays.binarySearch(mBlockFrames, 0, mBlockCount, frame);
+        return search >= 0 ? search : -search - 2;
+    }
+
+    private void decodeBlock(int block) throws IOException
+    {
+        long position = mBlockOffsets[block];
+        long end = block + 1 < mBlockCount ? mBlockOffsets[block + 1] :
+            position + mBlockBuffer.capacity();
+        int length = (int)Math.min(end - position, mBlockBuffer.capacity());
+
+        mBlockBuffer.clear();
+        mBlockBuffer.limit(length);
+
+        while(mBlockBuffer.hasRemaining())
+        {
+            if(mFileChannel.read(mBlockBuffer, position + mBlockBuffer.position()) < 0)
+            {
+                break;
+            }
+        }
+
+        mBlockBuffer.flip();
+        mDecodedBlockSampleCount = mCodec.decode(mBlockBuffer, mBlockSamples);
+        mDecodedBlock = block;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        mFileChannel.close();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * *********************************************************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ * *********************************************************************************************************************
+ */
+package io.github.dsheirer.record.compressed;
+
+import io.github.dsheirer.record.io.RecordingFile;
+import io.github.dsheirer.record.io.RecordingIOService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes complex (I/Q) samples to a compressed complex recording (see CompressedComplexFormat).
+ *
+ * Samples are encoded on the calling thread and each encoded block is appended through the shared recording I/O
+ * service (see RecordingIOService), which coalesces the blocks into large sequential writes in the background, so the
+ * calling thread never waits on the disk.
+ *
+ * A background write error is reported by the next write() or close() invocation.
+ */
+public class CompressedComplexWriter implements AutoCloseable
+{
+    private Path mFile;
+    private RecordingFile mRecordingFile;
+    private float mSampleRate;
+    private int mMantissaBits;
+    private int mBlockSize;
+    private CompressedBlockCodec mCodec;
+    private short[] mI;
+    private short[] mQ;
+    private int mBlockSampleCount;
+    private ByteBuffer mBlockBuffer;
+    private boolean mHeaderWritten;
+    private boolean mClosed;
+    private long mBytesEncoded;
+    private long mSampleCount;
+
+    /**
+     * Creates the recording file, replacing an existing file.
+     *
+     * @param file to create
+     * @param sampleRate of the samples
+     * @param mantissaBits per value: 16 for lossless, fewer for smaller near-lossless recordings
+     * @throws IOException if the file can't be created
+     */
+    public CompressedComplexWriter(Path file, float sampleRate, int mantissaBits) throws IOException
+    {
+        this(file, sampleRate, mantissaBits, CompressedComplexFormat.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates the recording file, replacing an existing file.
+     *
+     * @param file to create
+     * @param sampleRate of the samples
+     * @param mantissaBits per value: 16 for lossless, fewer for smaller near-lossless recordings
+     * @param blockSize complex samples per block
+     * @throws IOException if the file can't be created
+     */
+    public CompressedComplexWriter(Path file, float sampleRate, int mantissaBits, int blockSize) throws IOException
+    {
+        //Validates the arguments
+        new CompressedComplexFormat(sampleRate, blockSize, mantissaBits, 0);
+
+        mFile = file;
+        mSampleRate = sampleRate;
+        mMantissaBits = mantissaBits;
+        mBlockSize = blockSize;
+        mCodec = new CompressedBlockCodec(blockSize, mantissaBits);
+        mI = new short[blockSize];
+        mQ = new short[blockSize];
+        mBlockBuffer = ByteBuffer.allocate(CompressedComplexFormat.getMaximumBlockLength(blockSize));
+        mRecordingFile = RecordingIOService.getInstance().open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Recording file
+     */
+    public Path getFile()
+    {
+        return mFile;
+    }
+
+    /**
+     * Number of complex samples written to the recording
+     */
+    public long getSampleCount()
+    {
+        return mSampleCount;
+    }
+
+    /**
+     * Number of bytes encoded so far, including the file header
+     */
+    public long getBytesEncoded()
+    {
+        return mBytesEncoded;
+    }
+
+    /**
+     * Encodes the interleaved complex samples.  The recording timestamp is taken from the first invocation.
+     *
+     * @param samples interleaved I/Q values
+     * @param offset of the first I value
+     * @param length of the interleaved values (ie twice the complex sample count)
+     * @param timestamp of the first sample in milliseconds
+     * @throws IOException if a previous background write failed or the recording I/O backlog limit was reached
+     */
+    public void write(float[] samples, int offset, int length, long timestamp) throws IOException
+    {
+        if(!mHeaderWritten)
+        {
+            put(new CompressedComplexFormat(mSampleRate, mBlockSize, mMantissaBits, timestamp).getHeader());
+            mHeaderWritten = true;
+        }
+
+        int end = offset + length - 1;
+
+        for(int x = offset; x < end; x += 2)
+        {
+            mI[mBlockSampleCount] = CompressedBlockCodec.toShort(samples[x]);
+            mQ[mBlockSampleCount] = CompressedBlockCodec.toShort(samples[x + 1]);
+
+            if(++mBlockSampleCount == mBlockSize)
+            {
+                encodeBlock();
+            }
+        }
+
+        mSampleCount += length / 2;
+    }
+
+    /**
+     * Encodes the queued samples as a block and appends the block to the file
+     */
+    private void encodeBlock() throws IOException
+    {
+        mBlockBuffer.clear();
+        mCodec.encode(mI, mQ, mBlockSampleCount, mBlockBuffer);
+        mBlockBuffer.flip();
+        put(mBlockBuffer);
+        mBlockSampleCount = 0;
+    }
+
+    /**
+     * Appends the contents of the buffer to the file
+     */
+    private void put(ByteBuffer buffer) throws IOException
+    {
+        mBytesEncoded += buffer.remaining();
+        mRecordingFile.write(buffer);
+    }
+
+    /**
+     * Encodes any remaining samples, waits for the queued writes to complete and closes the file.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if(mClosed)
+        {
+            return;
+        }
+
+        mClosed = true;
+
+        try
+        {
+            if(!mHeaderWritten)
+            {
+                put(new CompressedComplexFormat(mSampleRate, mBlockSize, mMantissaBits, System.currentTimeMillis())
+                    .getHeader());
+                mHeaderWritten = true;
+            }
+
+            if(mBlockSampleCount > 0)
+            {
+                encodeBlock();
+            }
+        }
+        finally
+        {
+            mRecordingFile.close(false);
+        }
+    }
+}
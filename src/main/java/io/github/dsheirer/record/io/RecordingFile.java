@@ -0,0 +1,342 @@
+/*
+ * *********************************************************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ * *********************************************************************************************************************
+ */
+package io.github.dsheirer.record.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Recording file opened through the RecordingIOService.
+ *
+ * Appended data is copied into a coalescing buffer and written in the background (see RecordingIOService).  Since the
+ * writes are deferred, header fields that depend on the final file size should be written once, at close, with a
+ * positioned write, instead of being rewritten with every append.  Positioned writes and the close are performed in
+ * the order that they are submitted, after all previously appended data.
+ *
+ * A background write error is reported by the next write or by the close.  After an error, the remaining writes for
+ * the file are discarded.
+ *
+ * Writes are thread safe, but a recording file is normally written by a single recorder thread.
+ */
+public class RecordingFile implements AutoCloseable
+{
+    private final static Logger mLog = LoggerFactory.getLogger(RecordingFile.class);
+
+    private RecordingIOService mService;
+    private Path mPath;
+    private FileChannel mFileChannel;
+    private ByteBuffer mBuffer;
+    private long mBufferPosition;
+    private long mPosition;
+    private boolean mClosed;
+    private boolean mSyncRequired;
+    private volatile IOException mError;
+
+    /**
+     * Constructs an instance.  Use RecordingIOService.open() to create a recording file.
+     */
+    RecordingFile(RecordingIOService service, Path path, FileChannel fileChannel)
+    {
+        mService = service;
+        mPath = path;
+        mFileChannel = fileChannel;
+    }
+
+    /**
+     * Path of the file
+     */
+    public Path getPath()
+    {
+        return mPath;
+    }
+
+    /**
+     * Logical size of the file: the number of bytes appended, including the bytes that are not yet written.
+     */
+    public synchronized long getPosition()
+    {
+        return mPosition;
+    }
+
+    /**
+     * Appends the remaining contents of the buffer to the file.  The contents are copied, so the buffer can be
+     * reused as soon as this method returns.
+     *
+     * @param buffer to append
+     * @throws IOException if the file is closed, a previous background write failed, or the write backlog limit
+     * has been reached.  The recording should be stopped.
+     */
+    public synchronized void write(ByteBuffer buffer) throws IOException
+    {
+        checkWritable(buffer.remaining());
+
+        while(buffer.hasRemaining())
+        {
+            if(mBuffer == null)
+            {
+                mBuffer = mService.getEmptyBuffer();
+                mBufferPosition = mPosition;
+            }
+
+            int length = Math.min(buffer.remaining(), mBuffer.remaining());
+            int limit = buffer.limit();
+            buffer.limit(buffer.position() + length);
+            mBuffer.put(buffer);
+            buffer.limit(limit);
+            mPosition += length;
+
+            if(!mBuffer.hasRemaining())
+            {
+                submitBuffer();
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining contents of the buffer at the position in the file, after all previously appended data.
+     * This is normally used to update a file header at close.  The contents are copied and the logical size of the
+     * file is not changed.
+     *
+     * @param position in the file
+     * @param buffer to write
+     * @throws IOException if the file is closed or a previous background write failed
+     */
+    public synchronized void write(long position, ByteBuffer buffer) throws IOException
+    {
+        checkWritable(buffer.remaining());
+        flush();
+
+        ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+        copy.put(buffer);
+        copy.flip();
+        mService.submit(this, copy, position, false);
+    }
+
+    /**
+     * Hands off the partially filled coalescing buffer for writing
+     */
+    public synchronized void flush()
+    {
+        if(mBuffer != null && mBuffer.position() > 0)
+        {
+            submitBuffer();
+        }
+    }
+
+    /**
+     * Closes the file asynchronously, after all previously submitted data has been written.
+     *
+     * @param force true to force the file contents to the storage device before closing
+     * @return future that completes when the file is closed, or completes exceptionally if any write for the file
+     * failed.  Errors are also logged, so the future can be ignored.
+     */
+    public synchronized Future<Void> closeAsync(boolean force)
+    {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        if(mClosed)
+        {
+            future.complete(null);
+            return future;
+        }
+
+        flush();
+        mClosed = true;
+
+        mService.submit(() -> {
+            try
+            {
+                if(force && mError == null)
+                {
+                    mFileChannel.force(true);
+                }
+            }
+            catch(IOException ioe)
+            {
+                setError(ioe);
+            }
+
+            try
+            {
+                mFileChannel.close();
+            }
+            catch(IOException ioe)
+            {
+                setError(ioe);
+            }
+
+            mService.closed(this);
+
+            if(mError != null)
+            {
+                future.completeExceptionally(mError);
+            }
+            else
+            {
+                future.complete(null);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Closes the file and waits until all submitted data has been written and the file is closed.
+     *
+     * @param force true to force the file contents to the storage device before closing
+     * @throws IOException if any write for the file failed
+     */
+    public void close(boolean force) throws IOException
+    {
+        try
+        {
+            closeAsync(force).get();
+        }
+        catch(ExecutionException ee)
+        {
+            throw new IOException("Error writing recording file [" + mPath + "]", ee.getCause());
+        }
+        catch(InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing recording file [" + mPath + "]", ie);
+        }
+    }
+
+    /**
+     * Implements the auto-closeable interface.  Closes the file without forcing the contents to the storage device
+     * and waits for the close to complete.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        close(false);
+    }
+
+    /**
+     * Checks that the file can accept the write
+     */
+    private void checkWritable(int length) throws IOException
+    {
+        if(mClosed)
+        {
+            throw new IOException("Recording file [" + mPath + "] is closed");
+        }
+
+        if(mError != null)
+        {
+            throw new IOException("Error writing recording file [" + mPath + "]", mError);
+        }
+
+        try
+        {
+            mService.checkBacklog(this, length);
+        }
+        catch(IOException ioe)
+        {
+            //Fail the recording so that it doesn't continue with a gap in the data
+            setError(ioe);
+            throw ioe;
+        }
+    }
+
+    /**
+     * Submits the coalescing buffer for writing
+     */
+    private void submitBuffer()
+    {
+        ByteBuffer buffer = mBuffer;
+        mBuffer = null;
+        buffer.flip();
+        mService.submit(this, buffer, mBufferPosition, true);
+    }
+
+    /**
+     * Records the first error for the file
+     */
+    private void setError(IOException ioe)
+    {
+        if(mError == null)
+        {
+            mError = ioe;
+            mLog.error("Error writing recording file [" + mPath + "] - discarding remaining writes", ioe);
+        }
+    }
+
+    /**
+     * Writes the buffer to the file at the position.  Invoked on the I/O thread.
+     *
+     * @return true if the buffer was written
+     */
+    boolean write(ByteBuffer buffer, long position)
+    {
+        if(mError != null)
+        {
+            return false;
+        }
+
+        try
+        {
+            while(buffer.hasRemaining())
+            {
+                position += mFileChannel.write(buffer, position);
+            }
+
+            mSyncRequired = true;
+            return true;
+        }
+        catch(IOException ioe)
+        {
+            setError(ioe);
+            return false;
+        }
+    }
+
+    /**
+     * Forces the written contents to the storage device if there were writes since the last sync.  Invoked on the
+     * I/O thread.
+     *
+     * @return true if the contents were forced to the storage device
+     */
+    boolean sync()
+    {
+        if(mSyncRequired && mError == null && mFileChannel.isOpen())
+        {
+            mSyncRequired = false;
+
+            try
+            {
+                mFileChannel.force(false);
+                return true;
+            }
+            catch(IOException ioe)
+            {
+                setError(ioe);
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * *********************************************************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ * *********************************************************************************************************************
+ */
+package io.github.dsheirer.record.io;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time snapshot of recording I/O service metrics
+ */
+public class RecordingIOMetrics
+{
+    private int mOpenFileCount;
+    private long mPendingBytes;
+    private long mPeakPendingBytes;
+    private long mBacklogLimit;
+    private long mBytesWritten;
+    private long mWriteCount;
+    private long mAverageWriteLatency;
+    private long mMaximumWriteLatency;
+    private long mRejectedWriteCount;
+    private long mSyncCount;
+
+    /**
+     * Constructs an instance
+     *
+     * @param openFileCount number of open recording files
+     * @param pendingBytes number of bytes queued for writing
+     * @param peakPendingBytes largest number of bytes queued for writing
+     * @param backlogLimit maximum number of bytes that can be queued for writing
+     * @param bytesWritten number of bytes written
+     * @param writeCount number of file writes
+     * @param averageWriteLatency average file write duration in nanoseconds
+     * @param maximumWriteLatency maximum file write duration in nanoseconds
+     * @param rejectedWriteCount number of writes rejected because the backlog limit was reached
+     * @param syncCount number of times file contents were forced to the storage device by the sync schedule
+     */
+    public RecordingIOMetrics(int openFileCount, long pendingBytes, long peakPendingBytes, long backlogLimit,
+                              long bytesWritten, long writeCount, long averageWriteLatency, long maximumWriteLatency,
+                              long rejectedWriteCount, long syncCount)
+    {
+        mOpenFileCount = openFileCount;
+        mPendingBytes = pendingBytes;
+        mPeakPendingBytes = peakPendingBytes;
+        mBacklogLimit = backlogLimit;
+        mBytesWritten = bytesWritten;
+        mWriteCount = writeCount;
+        mAverageWriteLatency = averageWriteLatency;
+        mMaximumWriteLatency = maximumWriteLatency;
+        mRejectedWriteCount = rejectedWriteCount;
+        mSyncCount = syncCount;
+    }
+
+    public int getOpenFileCount()
+    {
+        return mOpenFileCount;
+    }
+
+    public long getPendingBytes()
+    {
+        return mPendingBytes;
+    }
+
+    public long getPeakPendingBytes()
+    {
+        return mPeakPendingBytes;
+    }
+
+    public long getBacklogLimit()
+    {
+        return mBacklogLimit;
+    }
+
+    public long getBytesWritten()
+    {
+        return mBytesWritten;
+    }
+
+    public long getWriteCount()
+    {
+        return mWriteCount;
+    }
+
+    /**
+     * Average file write duration in nanoseconds
+     */
+    public long getAverageWriteLatency()
+    {
+        return mAverageWriteLatency;
+    }
+
+    /**
+     * Maximum file write duration in nanoseconds
+     */
+    public long getMaximumWriteLatency()
+    {
+        return mMaximumWriteLatency;
+    }
+
+    public long getRejectedWriteCount()
+    {
+        return mRejectedWriteCount;
+    }
+
+    public long getSyncCount()
+    {
+        return mSyncCount;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Recording I/O Open Files [" + mOpenFileCount + "] Pending [" + mPendingBytes + " bytes] Peak [" +
+            mPeakPendingBytes + " bytes] Limit [" + mBacklogLimit + " bytes] Written [" + mBytesWritten +
+            " bytes] Writes [" + mWriteCount + "] Latency Average [" +
+            TimeUnit.NANOSECONDS.toMicros(mAverageWriteLatency) + " us] Maximum [" +
+            TimeUnit.NANOSECONDS.toMicros(mMaximumWriteLatency) + " us] Rejected [" + mRejectedWriteCount +
+            "] Syncs [" + mSyncCount + "]";
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * *********************************************************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ * *********************************************************************************************************************
+ */
+package io.github.dsheirer.record.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared, application-wide recording file I/O service.
+ *
+ * Recorders open a RecordingFile through this service and write to it from their own (processing) threads.  Each
+ * write is copied into a per-file coalescing buffer and the full buffers are written to disk, in order, as large
+ * sequential writes by a single dedicated I/O thread, so a slow disk never stalls the threads that produce the
+ * samples.  Partially filled buffers are handed off once a second so that recordings don't lag too far behind.
+ *
+ * Back-pressure: the bytes queued for writing across all files are tracked.  When the backlog exceeds the limit, the
+ * write that would exceed it fails with an IOException and that recording is failed, rather than blocking the
+ * producing thread or silently dropping bytes from the middle of a file.
+ *
+ * The service can be configured with JVM system properties:
+ *
+ *   -Dsdrtrunk.recording.io.buffer.kb=256    coalescing buffer size per file
+ *   -Dsdrtrunk.recording.io.backlog.mb=64    maximum queued (unwritten) bytes across all files
+ *   -Dsdrtrunk.recording.io.sync.seconds=0   interval for forcing written data to the storage device (0 = disabled)
+ */
+public class RecordingIOService
+{
+    private final static Logger mLog = LoggerFactory.getLogger(RecordingIOService.class);
+
+    private static final String PROPERTY_PREFIX = "sdrtrunk.recording.io.";
+    private static final long FLUSH_INTERVAL_MS = 1000;
+    private static final int BUFFER_POOL_SIZE = 32;
+
+    private static RecordingIOService INSTANCE;
+
+    private int mBufferSize;
+    private long mBacklogLimit;
+    private long mSyncInterval;
+    private LinkedBlockingQueue<Runnable> mOperations = new LinkedBlockingQueue<>();
+    private ArrayBlockingQueue<ByteBuffer> mEmptyBuffers = new ArrayBlockingQueue<>(BUFFER_POOL_SIZE);
+    private Set<RecordingFile> mOpenFiles = ConcurrentHashMap.newKeySet();
+    private AtomicLong mPendingBytes = new AtomicLong();
+    private AtomicLong mPeakPendingBytes = new AtomicLong();
+    private AtomicLong mBytesWritten = new AtomicLong();
+    private AtomicLong mWriteCount = new AtomicLong();
+    private AtomicLong mWriteNanoseconds = new AtomicLong();
+    private AtomicLong mMaximumWriteNanoseconds = new AtomicLong();
+    private AtomicLong mRejectedWriteCount = new AtomicLong();
+    private AtomicLong mSyncCount = new AtomicLong();
+    private long mNextFlush;
+    private long mNextSync;
+
+    /**
+     * Constructs an instance and starts the I/O thread.
+     *
+     * @param bufferSize of the per-file coalescing buffers in bytes
+     * @param backlogLimit maximum number of queued bytes across all files
+     * @param syncInterval in milliseconds for forcing written data to the storage device, or 0 to disable
+     */
+    RecordingIOService(int bufferSize, long backlogLimit, long syncInterval)
+    {
+        mBufferSize = bufferSize;
+        mBacklogLimit = backlogLimit;
+        mSyncInterval = syncInterval;
+
+        Thread thread = new Thread(this::process, "sdrtrunk recording io");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the SINGLETON instance of the recording I/O service, configured from the system properties.
+     */
+    public static synchronized RecordingIOService getInstance()
+    {
+        if(INSTANCE == null)
+        {
+            int bufferSize = Math.max(Integer.getInteger(PROPERTY_PREFIX + "buffer.kb", 256), 4) * 1024;
+            long backlogLimit = Math.max(Long.getLong(PROPERTY_PREFIX + "backlog.mb", 64l), 1) * 1024 * 1024;
+            long syncInterval = Math.max(Long.getLong(PROPERTY_PREFIX + "sync.seconds", 0l), 0) * 1000;
+            INSTANCE = new RecordingIOService(bufferSize, backlogLimit, syncInterval);
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * Opens (or creates) a recording file.  The file is opened on the calling thread so that open errors (ie the file
+     * already exists when opened with CREATE_NEW) are reported immediately.
+     *
+     * @param path of the file
+     * @param options for opening the file.  Writes are always positioned, so APPEND is not supported.
+     * @return recording file
+     * @throws IOException if the file can't be opened
+     */
+    public RecordingFile open(Path path, OpenOption... options) throws IOException
+    {
+        RecordingFile file = new RecordingFile(this, path, FileChannel.open(path, options));
+        mOpenFiles.add(file);
+        return file;
+    }
+
+    /**
+     * Size of the per-file coalescing buffers in bytes
+     */
+    public int getBufferSize()
+    {
+        return mBufferSize;
+    }
+
+    /**
+     * Snapshot of the service metrics
+     */
+    public RecordingIOMetrics getMetrics()
+    {
+        long writeCount = mWriteCount.get();
+
+        return new RecordingIOMetrics(mOpenFiles.size(), mPendingBytes.get(), mPeakPendingBytes.get(),
+            mBacklogLimit, mBytesWritten.get(), writeCount,
+            writeCount > 0 ? mWriteNanoseconds.get() / writeCount : 0, mMaximumWriteNanoseconds.get(),
+            mRejectedWriteCount.get(), mSyncCount.get());
+    }
+
+    /**
+     * Logs the current service metrics
+     */
+    public void logMetrics()
+    {
+        mLog.info(getMetrics().toString());
+    }
+
+    /**
+     * Hands off the partially filled buffers of all open files and waits for all queued operations to complete.
+     *
+     * @param timeout to wait
+     * @param unit for the timeout
+     * @return true if the queued operations completed before the timeout
+     */
+    public boolean drain(long timeout, TimeUnit unit)
+    {
+        flushAll();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        mOperations.add(latch::countDown);
+
+        try
+        {
+            return latch.await(timeout, unit);
+        }
+        catch(InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Checks that queueing the number of bytes won't exceed the backlog limit
+     *
+     * @throws IOException if the backlog limit would be exceeded
+     */
+    void checkBacklog(RecordingFile file, int length) throws IOException
+    {
+        long pending = mPendingBytes.get();
+
+        if(pending + length > mBacklogLimit)
+        {
+            mRejectedWriteCount.incrementAndGet();
+            throw new IOException("Recording I/O backlog [" + pending + " bytes] exceeds the limit [" + mBacklogLimit +
+                " bytes] - the storage device is not keeping up - write rejected for [" + file.getPath() + "]");
+        }
+    }
+
+    /**
+     * Queues the buffer to be written to the file at the position.
+     *
+     * @param file to write
+     * @param buffer to write, flipped and ready for reading
+     * @param position in the file for the first byte of the buffer
+     * @param pooled true if the buffer should be returned to the buffer pool after it is written
+     */
+    void submit(RecordingFile file, ByteBuffer buffer, long position, boolean pooled)
+    {
+        int length = buffer.remaining();
+        long pending = mPendingBytes.addAndGet(length);
+        mPeakPendingBytes.accumulateAndGet(pending, Math::max);
+
+        mOperations.add(() -> {
+            long start = System.nanoTime();
+
+            if(file.write(buffer, position))
+            {
+                long elapsed = System.nanoTime() - start;
+                mBytesWritten.addAndGet(length);
+                mWriteCount.incrementAndGet();
+                mWriteNanoseconds.addAndGet(elapsed);
+                mMaximumWriteNanoseconds.accumulateAndGet(elapsed, Math::max);
+            }
+
+            mPendingBytes.addAndGet(-length);
+
+            if(pooled)
+            {
+                buffer.clear();
+                mEmptyBuffers.offer(buffer);
+            }
+        });
+    }
+
+    /**
+     * Queues an operation to run on the I/O thread after all previously queued operations.
+     */
+    void submit(Runnable operation)
+    {
+        mOperations.add(operation);
+    }
+
+    /**
+     * Removes the closed file from the set of open files
+     */
+    void closed(RecordingFile file)
+    {
+        mOpenFiles.remove(file);
+    }
+
+    /**
+     * Reuses a written coalescing buffer, or allocates a new one when the pool is empty
+     */
+    ByteBuffer getEmptyBuffer()
+    {
+        ByteBuffer buffer = mEmptyBuffers.poll();
+
+        if(buffer == null)
+        {
+            buffer = ByteBuffer.allocateDirect(mBufferSize);
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Hands off the partially filled buffer of each open file
+     */
+    private void flushAll()
+    {
+        for(RecordingFile file: mOpenFiles)
+        {
+            file.flush();
+        }
+    }
+
+    /**
+     * Forces the written data of each open file to the storage device
+     */
+    private void syncAll()
+    {
+        for(RecordingFile file: mOpenFiles)
+        {
+            if(file.sync())
+            {
+                mSyncCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * I/O thread processing loop
+     */
+    private void process()
+    {
+        mNextFlush = System.currentTimeMillis() + FLUSH_INTERVAL_MS;
+        mNextSync = System.currentTimeMillis() + mSyncInterval;
+
+        while(true)
+        {
+            try
+            {
+                Runnable operation = mOperations.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+                if(operation != null)
+                {
+                    operation.run();
+                }
+
+                long now = System.currentTimeMillis();
+
+                if(now >= mNextFlush)
+                {
+                    flushAll();
+                    mNextFlush = now + FLUSH_INTERVAL_MS;
+                }
+
+                if(mSyncInterval > 0 && now >= mNextSync)
+                {
+                    syncAll();
+                    mNextSync = now + mSyncInterval;
+                }
+            }
+            catch(InterruptedException ie)
+            {
+                //Ignore - this is a daemon thread that runs for the life of the application
+            }
+            catch(Throwable t)
+            {
+                mLog.error("Error while processing recording I/O operation", t);
+            }
+        }
+    }
+}
@@ -17,6 +17,8 @@ package io.github.dsheirer.record.wave;
 
 import io.github.dsheirer.dsp.filter.channelizer.ContinuousReusableBufferProcessor;
 import io.github.dsheirer.module.Module;
+import io.github.dsheirer.record.BasebandRecordFormat;
+import io.github.dsheirer.record.compressed.CompressedComplexWriter;
 import io.github.dsheirer.sample.ConversionUtils;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.IReusableComplexBufferListener;
@@ -37,7 +39,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * WAVE audio recorder module for recording complex (I&Q) samples to a wave file
+ * Baseband recorder module for recording complex (I&Q) samples to a wave file or to a compressed complex recording,
+ * according to the baseband record format.
  */
 public class ComplexBufferWaveRecorder extends Module implements IReusableComplexBufferListener,
     Listener<ReusableComplexBuffer>, ISourceEventListener
@@ -48,14 +51,27 @@ public class ComplexBufferWaveRecorder extends Module implements IReusableComple
         new ContinuousReusableBufferProcessor<>(500, 50);
 
     private AtomicBoolean mRunning = new AtomicBoolean();
-    private ReusableBufferWaveWriter mWriter;
+    private Listener<List<ReusableComplexBuffer>> mWriter;
+    private BasebandRecordFormat mBasebandRecordFormat;
     private String mFilePrefix;
     private Path mFile;
     private AudioFormat mAudioFormat;
 
     public ComplexBufferWaveRecorder(float sampleRate, String filePrefix)
+    {
+        this(sampleRate, filePrefix, BasebandRecordFormat.WAVE);
+    }
+
+    /**
+     * Constructs an instance
+     * @param sampleRate of the complex samples
+     * @param filePrefix for the recording file, including the recording folder
+     * @param basebandRecordFormat for the recording
+     */
+    public ComplexBufferWaveRecorder(float sampleRate, String filePrefix, BasebandRecordFormat basebandRecordFormat)
     {
         mFilePrefix = filePrefix;
+        mBasebandRecordFormat = basebandRecordFormat;
         setSampleRate(sampleRate);
     }
 
@@ -88,10 +104,18 @@ public class ComplexBufferWaveRecorder extends Module implements IReusableComple
                 sb.append(mFilePrefix);
                 sb.append("_");
                 sb.append(TimeStamp.getTimeStamp("_"));
-                sb.append(".wav");
+                sb.append(mBasebandRecordFormat.getExtension());
                 mFile = Paths.get(sb.toString());
 
-                mWriter = new ReusableBufferWaveWriter(mAudioFormat, mFile);
+                if(mBasebandRecordFormat.isCompressed())
+                {
+                    mWriter = new ReusableBufferCompressedWriter(mFile, mAudioFormat.getSampleRate(),
+                        mBasebandRecordFormat.getMantissaBits());
+                }
+                else
+                {
+                    mWriter = new ReusableBufferWaveWriter(mAudioFormat, mFile);
+                }
 
                 mBufferProcessor.setListener(mWriter);
                 mBufferProcessor.start();
@@ -115,20 +139,22 @@ public class ComplexBufferWaveRecorder extends Module implements IReusableComple
 
             if(mWriter != null)
             {
+                AutoCloseable writer = (AutoCloseable)mWriter;
+
                 //Thread this operation so that it doesn't tie up the calling thread.  The wave writer
                 //close method will also rename the file and this can sometimes take a few seconds.
-                ThreadPool.SCHEDULED.schedule(new Runnable()
+                ThreadPool.AUDIO_IO.schedule(new Runnable()
                 {
                     @Override
                     public void run()
                     {
                         try
                         {
-                            mWriter.close();
+                            writer.close();
                         }
-                        catch(IOException ioe)
+                        catch(Exception e)
                         {
-                            mLog.error("Error closing baseband I/Q recorder", ioe);
+                            mLog.error("Error closing baseband I/Q recorder", e);
                         }
                     }
                 }, 0, TimeUnit.MILLISECONDS);
@@ -193,7 +219,7 @@ public class ComplexBufferWaveRecorder extends Module implements IReusableComple
                 {
                     try
                     {
-                        mWriter.writeData(ConversionUtils.convertToSigned16BitSamples(reusableComplexBuffer));
+                        writeData(ConversionUtils.convertToSigned16BitSamples(reusableComplexBuffer));
                     }
                     catch(IOException ioe)
                     {
@@ -207,4 +233,43 @@ public class ComplexBufferWaveRecorder extends Module implements IReusableComple
             }
         }
     }
+
+    /**
+     * Compressed complex writer implementation for reusable complex buffers delivered from buffer processor
+     */
+    public class ReusableBufferCompressedWriter extends CompressedComplexWriter
+        implements Listener<List<ReusableComplexBuffer>>
+    {
+        public ReusableBufferCompressedWriter(Path file, float sampleRate, int mantissaBits) throws IOException
+        {
+            super(file, sampleRate, mantissaBits);
+        }
+
+        @Override
+        public void receive(List<ReusableComplexBuffer> reusableComplexBuffers)
+        {
+            boolean error = false;
+
+            for(ReusableComplexBuffer reusableComplexBuffer: reusableComplexBuffers)
+            {
+                if(!error)
+                {
+                    try
+                    {
+                        float[] samples = reusableComplexBuffer.getSamples();
+                        write(samples, 0, samples.length, reusableComplexBuffer.getTimestamp());
+                    }
+                    catch(IOException ioe)
+                    {
+                        mLog.error("IOException while writing I/Q buffers to compressed recorder - stopping recorder",
+                            ioe);
+                        error = true;
+                        stop();
+                    }
+                }
+
+                reusableComplexBuffer.decrementUserCount();
+            }
+        }
+    }
 }
@@ -19,6 +19,8 @@
  */
 package io.github.dsheirer.record.wave;
 
+import io.github.dsheirer.record.io.RecordingFile;
+import io.github.dsheirer.record.io.RecordingIOService;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,7 +29,6 @@ import javax.sound.sampled.AudioFormat;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -36,6 +37,14 @@ import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Writes PCM samples to a wave file through the shared recording I/O service (see RecordingIOService), so that data
+ * writes are coalesced and performed in the background.
+ *
+ * The RIFF and data chunk sizes are not updated as the data is written.  Each data chunk size is written when the
+ * chunk is closed and the RIFF size is written when the file is closed.  A file that isn't closed cleanly has zero
+ * sizes in the header.
+ */
 public class WaveWriter implements AutoCloseable
 {
     private final static Logger mLog = LoggerFactory.getLogger(WaveWriter.class);
@@ -57,10 +66,11 @@ public class WaveWriter implements AutoCloseable
     private int mFileRolloverCounter = 1;
     private long mMaxSize;
     private Path mFile;
-    private FileChannel mFileChannel;
+    private RecordingFile mRecordingFile;
+    private long mPosition;
     private boolean mDataChunkOpen = false;
     private long mDataChunkSizeOffset = 0;
-    private int mDataChunkSize = 0;
+    private long mDataChunkSize = 0;
 
     /**
      * Constructs a new wave writer that is open with a complete header, ready
@@ -121,14 +131,20 @@ public class WaveWriter implements AutoCloseable
             version++;
         }
 
-        mFileChannel = (FileChannel.open(mFile, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW));
+        mRecordingFile = RecordingIOService.getInstance().open(mFile, StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE_NEW);
+        mPosition = 0;
 
-        ByteBuffer header = getWaveHeader(mAudioFormat);
+        write(getWaveHeader(mAudioFormat));
+    }
 
-        while(header.hasRemaining())
-        {
-            mFileChannel.write(header);
-        }
+    /**
+     * Appends the buffer contents to the file
+     */
+    private void write(ByteBuffer buffer) throws IOException
+    {
+        mPosition += buffer.remaining();
+        mRecordingFile.write(buffer);
     }
 
     /**
@@ -141,12 +157,20 @@ public class WaveWriter implements AutoCloseable
     }
 
     /**
-     * Closes the file and renames/moves the contents to the specified path
+     * Writes the final chunk sizes, waits for all data to be written to the file, closes the file and renames/moves
+     * the contents to the specified path
      */
     public void close(Path path) throws IOException
     {
-        mFileChannel.force(true);
-        mFileChannel.close();
+        try
+        {
+            closeDataChunk();
+            updateTotalSize();
+        }
+        finally
+        {
+            mRecordingFile.close(true);
+        }
 
         rename(path);
     }
@@ -183,21 +207,16 @@ public class WaveWriter implements AutoCloseable
         openDataChunk();
 
         /* Write the full buffer if there is room, respecting the max file size */
-        if(mFileChannel.size() + buffer.capacity() < mMaxSize)
+        if(mPosition + buffer.capacity() < mMaxSize)
         {
-            while(buffer.hasRemaining())
-            {
-                mDataChunkSize += mFileChannel.write(buffer);
-            }
-
-            updateTotalSize();
-            updateDataChunkSize();
+            mDataChunkSize += buffer.remaining();
+            write(buffer);
         }
         else
         {
             /* Split the buffer to finish filling the current file and then put
              * the leftover into a new file */
-            int remaining = (int)(mMaxSize - mFileChannel.size());
+            int remaining = (int)(mMaxSize - mPosition);
 
             /* Ensure we write full frames to fill up the remaining size */
             remaining -= (int)(remaining % mAudioFormat.getFrameSize());
@@ -209,34 +228,28 @@ public class WaveWriter implements AutoCloseable
             ByteBuffer next = ByteBuffer.wrap(Arrays.copyOfRange(bytes,
                 remaining, bytes.length));
 
-            while(current.hasRemaining())
-            {
-                mDataChunkSize += mFileChannel.write(current);
-            }
-
-            updateTotalSize();
-            updateDataChunkSize();
+            mDataChunkSize += current.remaining();
+            write(current);
 
             rollover();
 
             openDataChunk();
 
-            while(next.hasRemaining())
-            {
-                mDataChunkSize += mFileChannel.write(next);
-            }
-
-            updateTotalSize();
-            updateDataChunkSize();
+            mDataChunkSize += next.remaining();
+            write(next);
         }
     }
 
     /**
-     * Closes the current data chunk
+     * Closes the current data chunk and writes the data chunk size
      */
-    private void closeDataChunk()
+    private void closeDataChunk() throws IOException
     {
-        mDataChunkOpen = false;
+        if(mDataChunkOpen)
+        {
+            updateDataChunkSize();
+            mDataChunkOpen = false;
+        }
     }
 
     /**
@@ -249,32 +262,22 @@ public class WaveWriter implements AutoCloseable
     {
         if(!mDataChunkOpen)
         {
-            if(mFileChannel.size() + 32 >= mMaxSize)
+            if(mPosition + 32 >= mMaxSize)
             {
                 rollover();
             }
 
             ByteBuffer formatChunk = getFormatChunk(mAudioFormat);
             formatChunk.position(0);
-
-            while(formatChunk.hasRemaining())
-            {
-                mFileChannel.write(formatChunk);
-            }
+            write(formatChunk);
 
             ByteBuffer dataHeader = getDataHeader();
             dataHeader.position(0);
+            write(dataHeader);
 
-            while(dataHeader.hasRemaining())
-            {
-                mFileChannel.write(dataHeader);
-            }
-
-            mDataChunkSizeOffset = mFileChannel.size() - 4;
+            mDataChunkSizeOffset = mPosition - 4;
             mDataChunkSize = 0;
             mDataChunkOpen = true;
-
-            updateTotalSize();
         }
     }
 
@@ -284,7 +287,7 @@ public class WaveWriter implements AutoCloseable
      */
     public void writeMetadata(ByteBuffer listChunk, ByteBuffer id3Chunk) throws IOException
     {
-        if(mFileChannel.size() + listChunk.capacity() >= mMaxSize)
+        if(mPosition + listChunk.capacity() >= mMaxSize)
         {
             throw new IOException("Cannot write LIST metadata chunk - insufficient file space remaining");
         }
@@ -292,27 +295,15 @@ public class WaveWriter implements AutoCloseable
         closeDataChunk();
 
         listChunk.position(0);
+        write(listChunk);
 
-        while(listChunk.hasRemaining())
-        {
-            mFileChannel.write(listChunk);
-        }
-
-        updateTotalSize();
-
-        if(mFileChannel.size() + id3Chunk.capacity() >= mMaxSize)
+        if(mPosition + id3Chunk.capacity() >= mMaxSize)
         {
             throw new IOException("Cannot write ID3 metadata chunk - insufficient file space remaining");
         }
 
         id3Chunk.position(0);
-
-        while(id3Chunk.hasRemaining())
-        {
-            mFileChannel.write(id3Chunk);
-        }
-
-        updateTotalSize();
+        write(id3Chunk);
     }
 
     /**
@@ -321,7 +312,6 @@ public class WaveWriter implements AutoCloseable
      */
     private void rollover() throws IOException
     {
-        closeDataChunk();
         close();
 
         mFileRolloverCounter++;
@@ -332,13 +322,13 @@ public class WaveWriter implements AutoCloseable
     }
 
     /**
-     * Updates the overall and the chunk2 sizes
+     * Writes the overall wave size
      */
     private void updateTotalSize() throws IOException
     {
         /* Update overall wave size (total size - 8 bytes) */
-        ByteBuffer buffer = getUnsignedIntegerBuffer(mFileChannel.size() - 8);
-        mFileChannel.write(buffer, 4);
+        ByteBuffer buffer = getUnsignedIntegerBuffer(mPosition - 8);
+        mRecordingFile.write(4, buffer);
     }
 
     /**
@@ -351,9 +341,8 @@ public class WaveWriter implements AutoCloseable
             throw new IOException("Can't update data chunk size - data chunk is not currently open");
         }
 
-        /* Update overall wave size (total size - 8 bytes) */
         ByteBuffer size = getUnsignedIntegerBuffer(mDataChunkSize);
-        mFileChannel.write(size, mDataChunkSizeOffset);
+        mRecordingFile.write(mDataChunkSizeOffset, size);
     }
 
     /**
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free ring buffer base class for transferring elements from producer thread(s) to a single consumer
+ * thread without allocating per element.
+ *
+ * Producer and consumer positions are monotonically increasing sequence numbers that are masked against the
+ * power-of-two capacity to obtain the slot index.  The queue size is the difference between the producer and the
+ * consumer sequences, so no separate size counter is maintained.
+ *
+ * Consumer methods (poll, drainTo) must only be invoked by a single thread at a time.
+ */
+public abstract class AbstractRingBuffer<E>
+{
+    protected final AtomicReferenceArray<E> mElements;
+    protected final int mMask;
+    protected final AtomicLong mProducerSequence = new AtomicLong();
+    protected final AtomicLong mConsumerSequence = new AtomicLong();
+
+    /**
+     * Constructs an instance
+     *
+     * @param minimumCapacity of the ring buffer.  Actual capacity is rounded up to the next power of two.
+     */
+    public AbstractRingBuffer(int minimumCapacity)
+    {
+        if(minimumCapacity < 1 || minimumCapacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("Ring buffer capacity must be in range 1 to 2^30");
+        }
+
+        int capacity = Integer.highestOneBit(minimumCapacity);
+
+        if(capacity < minimumCapacity)
+        {
+            capacity <<= 1;
+        }
+
+        mElements = new AtomicReferenceArray<>(capacity);
+        mMask = capacity - 1;
+    }
+
+    /**
+     * Adds the element to the tail of the ring buffer.
+     *
+     * @param e element to add
+     * @return true if the element was added or false if the ring buffer is full
+     */
+    public abstract boolean offer(E e);
+
+    /**
+     * Removes and returns the element at the head of the ring buffer.
+     *
+     * @return element or null if the ring buffer is empty
+     */
+    public abstract E poll();
+
+    /**
+     * Capacity of the ring buffer
+     */
+    public int capacity()
+    {
+        return mMask + 1;
+    }
+
+    /**
+     * Current number of elements in the ring buffer.  This value is a snapshot and can change concurrently.
+     */
+    public int size()
+    {
+        //Read the consumer first so that a concurrent poll can't produce a size larger than the actual size
+        long consumer = mConsumerSequence.get();
+        long producer = mProducerSequence.get();
+        return (int)Math.max(0, Math.min(producer - consumer, capacity()));
+    }
+
+    /**
+     * Indicates if the ring buffer is currently empty
+     */
+    public boolean isEmpty()
+    {
+        return mConsumerSequence.get() >= mProducerSequence.get();
+    }
+
+    /**
+     * Transfers elements from the ring buffer into the collection up to the maximum number of elements specified
+     *
+     * @return number of elements transferred
+     */
+    public int drainTo(Collection<? super E> collection, int maxElements)
+    {
+        int count = 0;
+
+        while(count < maxElements)
+        {
+            E element = poll();
+
+            if(element == null)
+            {
+                break;
+            }
+
+            collection.add(element);
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Transfers elements from the ring buffer into the array starting at the offset, up to the maximum number of
+     * elements specified or the remaining length of the array, whichever is smaller.
+     *
+     * @return number of elements transferred
+     */
+    public int drainTo(E[] array, int offset, int maxElements)
+    {
+        int max = Math.min(maxElements, array.length - offset);
+        int count = 0;
+
+        while(count < max)
+        {
+            E element = poll();
+
+            if(element == null)
+            {
+                break;
+            }
+
+            array[offset + count] = element;
+            count++;
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample;
+
+/**
+ * Multiple-producer, single-consumer (MPSC) bounded ring buffer.
+ *
+ * Producers claim a slot by compare-and-set on the producer sequence and then publish the element into the claimed
+ * slot.  The consumer treats a null slot below the producer sequence as claimed-but-not-yet-published and waits
+ * briefly for the producer to complete the publication.
+ *
+ * The offer() method can be invoked concurrently from any number of threads.  The poll() and drainTo() methods must
+ * only be invoked by a single consumer thread at a time.
+ */
+public class MultiProducerRingBuffer<E> extends AbstractRingBuffer<E>
+{
+    /**
+     * Constructs an instance
+     *
+     * @param minimumCapacity of the ring buffer.  Actual capacity is rounded up to the next power of two.
+     */
+    public MultiProducerRingBuffer(int minimumCapacity)
+    {
+        super(minimumCapacity);
+    }
+
+    @Override
+    public boolean offer(E e)
+    {
+        long producer;
+
+        do
+        {
+            producer = mProducerSequence.get();
+
+            if(producer - mConsumerSequence.get() >= capacity())
+            {
+                return false;
+            }
+        }
+        while(!mProducerSequence.compareAndSet(producer, producer + 1));
+
+        mElements.lazySet((int)producer & mMask, e);
+        return true;
+    }
+
+    @Override
+    public E poll()
+    {
+        long consumer = mConsumerSequence.get();
+        int index = (int)consumer & mMask;
+        E element = mElements.get(index);
+
+        if(element == null)
+        {
+            if(consumer >= mProducerSequence.get())
+            {
+                return null;
+            }
+
+            //Slot is claimed by a producer that has not yet published the element
+            do
+            {
+                Thread.onSpinWait();
+                element = mElements.get(index);
+            }
+            while(element == null);
+        }
+
+        mElements.lazySet(index, null);
+        mConsumerSequence.lazySet(consumer + 1);
+        return element;
+    }
+}
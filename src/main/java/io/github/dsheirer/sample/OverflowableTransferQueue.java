@@ -23,9 +23,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
-import java.util.concurrent.LinkedTransferQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class OverflowableTransferQueue<E>
 {
@@ -35,24 +34,46 @@ public class OverflowableTransferQueue<E>
     private IOverflowListener mOverflowListener;
     private Source mSourceOverflowListener;
 
-    protected LinkedTransferQueue<E> mQueue = new LinkedTransferQueue<E>();
-    protected AtomicInteger mCounter = new AtomicInteger();
+    private AbstractRingBuffer<E> mRingBuffer;
+    private final Object mConsumerLock = new Object();
     protected AtomicBoolean mOverflow = new AtomicBoolean();
+    private AtomicLong mOverflowEventCount = new AtomicLong();
+    private AtomicLong mDroppedElementCount = new AtomicLong();
+    private volatile int mPeakSize;
     private int mMaximumSize;
     private int mResetThreshold;
 
     /**
-     * Concurrent transfer queue that couples a higher-throughput linked transfer queue with an atomic integer for
-     * monitoring queue size.  When the queue size exceeds maximum size (overflow), all inbound elements are ignored
-     * until the queue size is reduced to or below the reset threshold.
+     * Concurrent transfer queue backed by a bounded, lock-free ring buffer that is safe for multiple producer threads
+     * and a single consumer thread.  When the queue size exceeds maximum size (overflow), all inbound elements are
+     * ignored until the queue size is reduced to or below the reset threshold.
      *
      * @param maximumSize of the queue.  Overflow state will occur once queue size exceeds this value.
      * @param resetThreshold for resetting overflow state to normal, once queue size is at or below this value.
      */
     public OverflowableTransferQueue(int maximumSize, int resetThreshold)
+    {
+        this(maximumSize, resetThreshold, false);
+    }
+
+    /**
+     * Concurrent transfer queue backed by a bounded, lock-free ring buffer.  When the queue size exceeds maximum size
+     * (overflow), all inbound elements are ignored until the queue size is reduced to or below the reset threshold.
+     *
+     * The ring buffer is allocated once with a capacity of at least maximum size + 1 so that enqueueing an element
+     * does not allocate.
+     *
+     * @param maximumSize of the queue.  Overflow state will occur once queue size exceeds this value.
+     * @param resetThreshold for resetting overflow state to normal, once queue size is at or below this value.
+     * @param singleProducer true to use the single-producer ring buffer when the offer() method is only ever invoked
+     * by one thread at a time, or false to use the multiple-producer ring buffer.
+     */
+    public OverflowableTransferQueue(int maximumSize, int resetThreshold, boolean singleProducer)
     {
         mMaximumSize = maximumSize;
         mResetThreshold = resetThreshold;
+        mRingBuffer = singleProducer ? new SingleProducerRingBuffer<>(maximumSize + 1) :
+            new MultiProducerRingBuffer<>(maximumSize + 1);
     }
 
     public void dispose()
@@ -70,19 +91,29 @@ public class OverflowableTransferQueue<E>
     {
         if(!mOverflow.get())
         {
-            mQueue.offer(e);
+            if(mRingBuffer.offer(e))
+            {
+                int size = mRingBuffer.size();
 
-            int size = mCounter.incrementAndGet();
+                if(size > mPeakSize)
+                {
+                    mPeakSize = size;
+                }
 
-            if(size > mMaximumSize)
-            {
-                setOverflow(true);
+                if(size > mMaximumSize)
+                {
+                    setOverflow(true);
+                }
+
+                return;
             }
+
+            //Concurrent producers can fill the ring before the overflow state is observed
+            setOverflow(true);
         }
-        else
-        {
-            overflow(e);
-        }
+
+        mDroppedElementCount.incrementAndGet();
+        overflow(e);
     }
 
     /**
@@ -96,18 +127,31 @@ public class OverflowableTransferQueue<E>
         //No-op.  Override in subclass to perform any cleanup actions during overflow
     }
 
+    /**
+     * Invoked for each element that is removed from the queue by the clear() method.  Override this method in
+     * subclasses to perform any necessary cleanup action(s).
+     *
+     * @param e element that is being thrown away due to the queue being cleared
+     */
+    protected void discard(E e)
+    {
+        //No-op.  Override in subclass to perform any cleanup actions when cleared
+    }
+
     /**
      * Removes and returns a single element from the head of the queue or null if the queue is empty
      */
     public E poll()
     {
-        E element = mQueue.poll();
+        E element;
 
-        if(element != null)
+        synchronized(mConsumerLock)
         {
-            mCounter.decrementAndGet();
+            element = mRingBuffer.poll();
         }
 
+        checkReset();
+
         return element;
     }
 
@@ -116,35 +160,126 @@ public class OverflowableTransferQueue<E>
      */
     public int drainTo(Collection<? super E> collection, int maxElements)
     {
-        int drainCount = mQueue.drainTo(collection, maxElements);
+        int drainCount;
 
-        int size = mCounter.addAndGet(-drainCount);
-
-        if(mOverflow.get() && size <= mResetThreshold)
+        synchronized(mConsumerLock)
         {
-            setOverflow(false);
+            drainCount = mRingBuffer.drainTo(collection, maxElements);
         }
 
+        checkReset();
+
         return drainCount;
     }
 
     /**
-     * Retrieves elements from the queue into the collection up to the maximum number of elements specified
+     * Retrieves all elements from the queue into the collection
      */
     public int drainTo(Collection<? super E> collection)
     {
-        int drainCount = mQueue.drainTo(collection);
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
 
-        int size = mCounter.addAndGet(-drainCount);
+    /**
+     * Retrieves elements from the queue into the array, starting at the offset, up to the maximum number of elements
+     * specified or the remaining length of the array.  This method does not allocate and is intended for consumers
+     * that reuse a fixed-size array across processing intervals.
+     *
+     * @return number of elements transferred into the array
+     */
+    public int drainTo(E[] array, int offset, int maxElements)
+    {
+        int drainCount;
 
-        if(mOverflow.get() && size <= mResetThreshold)
+        synchronized(mConsumerLock)
         {
-            setOverflow(false);
+            drainCount = mRingBuffer.drainTo(array, offset, maxElements);
         }
 
+        checkReset();
+
         return drainCount;
     }
 
+    /**
+     * Resets the overflow state once the queue size is at or below the reset threshold
+     */
+    private void checkReset()
+    {
+        if(mOverflow.get() && mRingBuffer.size() <= mResetThreshold)
+        {
+            setOverflow(false);
+        }
+    }
+
+    /**
+     * Current number of elements in the queue
+     */
+    public int getSize()
+    {
+        return mRingBuffer.size();
+    }
+
+    /**
+     * Maximum queue size before overflow occurs
+     */
+    public int getMaximumSize()
+    {
+        return mMaximumSize;
+    }
+
+    /**
+     * Largest queue size observed since construction or since the last resetPeakSize().  This value is approximate
+     * when multiple producer threads are enqueueing concurrently.
+     */
+    public int getPeakSize()
+    {
+        return mPeakSize;
+    }
+
+    /**
+     * Resets the peak queue size to the current queue size
+     */
+    public void resetPeakSize()
+    {
+        mPeakSize = mRingBuffer.size();
+    }
+
+    /**
+     * Number of times that the queue has transitioned from normal into an overflow state
+     */
+    public long getOverflowEventCount()
+    {
+        return mOverflowEventCount.get();
+    }
+
+    /**
+     * Number of elements that were thrown away because the queue was in an overflow state
+     */
+    public long getDroppedElementCount()
+    {
+        return mDroppedElementCount.get();
+    }
+
+    /**
+     * Snapshot of the metrics for this queue
+     *
+     * @param name to identify the queue
+     */
+    public QueueMetrics getMetrics(String name)
+    {
+        return new QueueMetrics(name, getSize(), getPeakSize(), getMaximumSize(), getOverflowEventCount(),
+            getDroppedElementCount());
+    }
+
+    /**
+     * Indicates if the queue is currently in an overflow state
+     */
+    public State getState()
+    {
+        return mOverflow.get() ? State.OVERFLOW : State.NORMAL;
+    }
+
     /**
      * Sets a listener to receive overflow state change events.
      */
@@ -169,6 +304,11 @@ public class OverflowableTransferQueue<E>
     {
         if(mOverflow.compareAndSet(!overflow, overflow))
         {
+            if(overflow)
+            {
+                mOverflowEventCount.incrementAndGet();
+            }
+
             if(mOverflowListener != null)
             {
                 mOverflowListener.sourceOverflow(overflow);
@@ -182,15 +322,21 @@ public class OverflowableTransferQueue<E>
     }
 
     /**
-     * Clears all elements from the queue and resets the internal counter to 0
+     * Clears all elements from the queue, invoking discard() for each element, and resets the overflow state
      */
     public void clear()
     {
-        synchronized(mQueue)
+        synchronized(mConsumerLock)
         {
-            mQueue.clear();
-            mCounter.set(0);
+            E element = mRingBuffer.poll();
+
+            while(element != null)
+            {
+                discard(element);
+                element = mRingBuffer.poll();
+            }
+
             mOverflow.set(false);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample;
+
+/**
+ * Point-in-time snapshot of overflowable transfer queue metrics
+ */
+public class QueueMetrics
+{
+    private String mName;
+    private int mSize;
+    private int mPeakSize;
+    private int mMaximumSize;
+    private long mOverflowEventCount;
+    private long mDroppedElementCount;
+
+    /**
+     * Constructs an instance
+     *
+     * @param name of the queue
+     * @param size current number of queued elements
+     * @param peakSize largest number of queued elements
+     * @param maximumSize number of queued elements that causes an overflow
+     * @param overflowEventCount number of transitions into the overflow state
+     * @param droppedElementCount number of elements thrown away while in the overflow state
+     */
+    public QueueMetrics(String name, int size, int peakSize, int maximumSize, long overflowEventCount,
+                        long droppedElementCount)
+    {
+        mName = name;
+        mSize = size;
+        mPeakSize = peakSize;
+        mMaximumSize = maximumSize;
+        mOverflowEventCount = overflowEventCount;
+        mDroppedElementCount = droppedElementCount;
+    }
+
+    public String getName()
+    {
+        return mName;
+    }
+
+    public int getSize()
+    {
+        return mSize;
+    }
+
+    public int getPeakSize()
+    {
+        return mPeakSize;
+    }
+
+    public int getMaximumSize()
+    {
+        return mMaximumSize;
+    }
+
+    public long getOverflowEventCount()
+    {
+        return mOverflowEventCount;
+    }
+
+    public long getDroppedElementCount()
+    {
+        return mDroppedElementCount;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Queue [" + mName + "] Size [" + mSize + "] Peak [" + mPeakSize + "] Maximum [" + mMaximumSize +
+            "] Overflows [" + mOverflowEventCount + "] Dropped [" + mDroppedElementCount + "]";
+    }
+}
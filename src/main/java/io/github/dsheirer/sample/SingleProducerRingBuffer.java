@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample;
+
+/**
+ * Single-producer, single-consumer (SPSC) bounded ring buffer.
+ *
+ * The producer publishes each element with an ordered (release) write of the producer sequence and the consumer
+ * releases each slot with an ordered write of the consumer sequence, so neither side uses compare-and-set.  Each side
+ * caches its last observed value of the opposite sequence and only re-reads it when the ring appears full or empty.
+ *
+ * The offer() method must only be invoked by a single producer thread at a time and the poll() and drainTo() methods
+ * must only be invoked by a single consumer thread at a time.
+ */
+public class SingleProducerRingBuffer<E> extends AbstractRingBuffer<E>
+{
+    //Owned by the producer thread
+    private long mCachedConsumerSequence;
+    //Owned by the consumer thread
+    private long mCachedProducerSequence;
+
+    /**
+     * Constructs an instance
+     *
+     * @param minimumCapacity of the ring buffer.  Actual capacity is rounded up to the next power of two.
+     */
+    public SingleProducerRingBuffer(int minimumCapacity)
+    {
+        super(minimumCapacity);
+    }
+
+    @Override
+    public boolean offer(E e)
+    {
+        long producer = mProducerSequence.get();
+
+        if(producer - mCachedConsumerSequence >= capacity())
+        {
+            mCachedConsumerSequence = mConsumerSequence.get();
+
+            if(producer - mCachedConsumerSequence >= capacity())
+            {
+                return false;
+            }
+        }
+
+        mElements.lazySet((int)producer & mMask, e);
+        mProducerSequence.lazySet(producer + 1);
+        return true;
+    }
+
+    @Override
+    public E poll()
+    {
+        long consumer = mConsumerSequence.get();
+
+        if(consumer >= mCachedProducerSequence)
+        {
+            mCachedProducerSequence = mProducerSequence.get();
+
+            if(consumer >= mCachedProducerSequence)
+            {
+                return null;
+            }
+        }
+
+        int index = (int)consumer & mMask;
+        E element = mElements.get(index);
+        mElements.lazySet(index, null);
+        mConsumerSequence.lazySet(consumer + 1);
+        return element;
+    }
+}
@@ -20,9 +20,9 @@ import io.github.dsheirer.sample.OverflowableTransferQueue;
 public class OverflowableReusableBufferTransferQueue<T extends AbstractReusableBuffer> extends OverflowableTransferQueue<T>
 {
     /**
-     * Concurrent transfer queue that couples a higher-throughput linked transfer queue with an atomic integer for
-     * monitoring queue size.  When the queue size exceeds maximum size (overflow), all inbound elements are ignored
-     * until the queue size is reduced to or below the reset threshold.
+     * Concurrent transfer queue backed by a bounded, lock-free ring buffer that is safe for multiple producer threads
+     * and a single consumer thread.  When the queue size exceeds maximum size (overflow), all inbound elements are
+     * ignored until the queue size is reduced to or below the reset threshold.
      *
      * This implementation includes special handling for reusable complex buffers.
      *
@@ -34,6 +34,21 @@ public class OverflowableReusableBufferTransferQueue<T extends AbstractReusableB
         super(maximumSize, resetThreshold);
     }
 
+    /**
+     * Concurrent transfer queue backed by a bounded, lock-free ring buffer.  When the queue size exceeds maximum size
+     * (overflow), all inbound elements are ignored until the queue size is reduced to or below the reset threshold.
+     *
+     * This implementation includes special handling for reusable complex buffers.
+     *
+     * @param maximumSize of the queue.  Overflow state will occur once queue size exceeds this value.
+     * @param resetThreshold for resetting overflow state to normal, once queue size is at or below this value.
+     * @param singleProducer true if buffers are only ever enqueued by one thread at a time
+     */
+    public OverflowableReusableBufferTransferQueue(int maximumSize, int resetThreshold, boolean singleProducer)
+    {
+        super(maximumSize, resetThreshold, singleProducer);
+    }
+
     /**
      * Overrides the overflow method to decrement the user count on any buffers that are being discarded when the queue
      * is in an overflow state.
@@ -47,23 +62,11 @@ public class OverflowableReusableBufferTransferQueue<T extends AbstractReusableB
     }
 
     /**
-     * Overrides the buffer clear method to decrement the user count on each buffer that is being cleared from the queue.
+     * Overrides the discard method to decrement the user count on each buffer that is being cleared from the queue.
      */
     @Override
-    public void clear()
+    protected void discard(T t)
     {
-        synchronized(mQueue)
-        {
-            T buffer = mQueue.poll();
-
-            while(buffer != null)
-            {
-                buffer.decrementUserCount();
-                buffer = mQueue.poll();
-            }
-
-            mCounter.set(0);
-            mOverflow.set(false);
-        }
+        t.decrementUserCount();
     }
 }
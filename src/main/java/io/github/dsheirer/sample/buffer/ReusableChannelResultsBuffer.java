@@ -18,7 +18,8 @@ package io.github.dsheirer.sample.buffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ReusableChannelResultsBuffer extends AbstractReusableBuffer
@@ -26,15 +27,18 @@ public class ReusableChannelResultsBuffer extends AbstractReusableBuffer
     private final static Logger mLog = LoggerFactory.getLogger(ReusableChannelResultsBuffer.class);
     private ReusableComplexBufferQueue mReusableComplexBufferQueue =
         new ReusableComplexBufferQueue("ReusableChannelResultsBuffer");
-    private LinkedList<float[]> mEmptyBuffers = new LinkedList<>();
-    private LinkedList<float[]> mFilledBuffers = new LinkedList<>();
-    private Integer mLength;
+    private ArrayDeque<float[]> mEmptyBuffers = new ArrayDeque<>();
+    private ArrayList<float[]> mFilledBuffers = new ArrayList<>();
+    private int mLength;
 
     /**
      * Reusable buffer for storing polyphase channelizer results arrays.  This buffer is NOT thread safe and is
      * designed to be used by only one consumer.  The consumer must invoke the prepareForRecycle() method to indicate that this
      * buffer can be reused.
      *
+     * Empty and filled results arrays are held in array-backed collections so that, once the collections have grown to
+     * the steady-state results count, cycling arrays between the empty and filled states does not allocate.
+     *
      * @param disposedListener to receive notification when this buffer is ready for prepareForRecycle
      */
     ReusableChannelResultsBuffer(IReusableBufferDisposedListener disposedListener)
@@ -49,7 +53,7 @@ public class ReusableChannelResultsBuffer extends AbstractReusableBuffer
     {
         mEmptyBuffers.addAll(mFilledBuffers);
         mFilledBuffers.clear();
-        mLength = null;
+        mLength = 0;
     }
 
     /**
@@ -81,7 +85,7 @@ public class ReusableChannelResultsBuffer extends AbstractReusableBuffer
      */
     public void addChannelResults(float[] channelResults)
     {
-        if(mLength == null)
+        if(mLength == 0)
         {
             mLength = channelResults.length;
         }
@@ -90,7 +94,7 @@ public class ReusableChannelResultsBuffer extends AbstractReusableBuffer
             throw new IllegalArgumentException("Channel results length must be the same for all added results");
         }
 
-        mFilledBuffers.offer(channelResults);
+        mFilledBuffers.add(channelResults);
     }
 
     /**
@@ -159,6 +163,6 @@ public class ReusableChannelResultsBuffer extends AbstractReusableBuffer
      */
     private boolean isValidChannelIndex(int channelIndex)
     {
-        return (mLength != null) && (channelIndex <= mLength);
+        return (mLength != 0) && (channelIndex <= mLength);
     }
 }
@@ -27,6 +27,8 @@ import io.github.dsheirer.source.heartbeat.Heartbeat;
 import io.github.dsheirer.source.heartbeat.HeartbeatManager;
 import io.github.dsheirer.source.heartbeat.IHeartbeatProvider;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Abstract class to define the minimum functionality of a sample data provider.
  */
@@ -48,6 +50,11 @@ public abstract class Source extends Module implements ISourceEventListener, ISo
      */
     protected IOverflowListener mOverflowListener;
 
+    /**
+     * Number of transitions into overflow state
+     */
+    private AtomicLong mOverflowCount = new AtomicLong();
+
     /**
      * Adds the listener to receive heartbeats from this source
      */
@@ -100,9 +107,23 @@ public abstract class Source extends Module implements ISourceEventListener, ISo
      */
     public void broadcastOverflowState(boolean overflow)
     {
+        if(overflow)
+        {
+            mOverflowCount.incrementAndGet();
+        }
+
         if(mOverflowListener != null)
         {
             mOverflowListener.sourceOverflow(overflow);
         }
     }
+
+    /**
+     * Number of times that this source has entered an overflow state, where samples were discarded because the
+     * consumer was not keeping up with the sample stream.
+     */
+    public long getOverflowCount()
+    {
+        return mOverflowCount.get();
+    }
 }
@@ -31,6 +31,7 @@ import io.github.dsheirer.source.tuner.TunerEvent.Event;
 import io.github.dsheirer.source.tuner.manager.ChannelSourceManager;
 import io.github.dsheirer.source.tuner.manager.HeterodyneChannelSourceManager;
 import io.github.dsheirer.source.tuner.manager.PolyphaseChannelSourceManager;
+import io.github.dsheirer.source.tuner.usb.USBTunerController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,16 +65,25 @@ public abstract class Tuner implements ISourceEventProcessor, ITunerErrorListene
      * Abstract tuner class.
      * @param name of the tuner
      * @param tunerController for the tuner
-     * @param userPreferences to discover preferred channelizer type
+     * @param userPreferences to discover preferred channelizer type and USB transfer settings
      */
     public Tuner(String name, TunerController tunerController, UserPreferences userPreferences)
     {
         this(name, tunerController);
 
+        //Apply the USB transfer sizing before the channel source manager queries the buffer duration
+        if(mTunerController instanceof USBTunerController)
+        {
+            ((USBTunerController)mTunerController).setUSBTransferMode(
+                userPreferences.getTunerPreference().getUSBTransferMode(),
+                userPreferences.getTunerPreference().getUSBTransferLatency());
+        }
+
         ChannelizerType channelizerType = userPreferences.getTunerPreference().getChannelizerType();
         if(channelizerType == ChannelizerType.POLYPHASE)
         {
-            setChannelSourceManager(new PolyphaseChannelSourceManager(mTunerController));
+            setChannelSourceManager(new PolyphaseChannelSourceManager(mTunerController,
+                userPreferences.getTunerPreference().getChannelizerThreadCount()));
         }
         else if(channelizerType == ChannelizerType.HETERODYNE)
         {
@@ -102,11 +102,12 @@ public abstract class TunerController implements Tunable, ISourceEventProcessor,
     public abstract int getBufferSampleCount();
 
     /**
-     * Duration in milliseconds for each sample buffer provided by this tuner
+     * Duration in milliseconds for each sample buffer provided by this tuner, truncated to whole milliseconds with a
+     * minimum of 1 millisecond.
      */
     public long getBufferDuration()
     {
-        return (long)(1000.0 / (getSampleRate() / (double)getBufferSampleCount()));
+        return Math.max(1, (long)(1000.0 / (getSampleRate() / (double)getBufferSampleCount())));
     }
 
     /**
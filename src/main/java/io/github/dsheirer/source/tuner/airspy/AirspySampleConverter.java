@@ -15,23 +15,49 @@
  ******************************************************************************/
 package io.github.dsheirer.source.tuner.airspy;
 
+import io.github.dsheirer.dsp.filter.Filters;
 import io.github.dsheirer.dsp.filter.dc.DCRemovalFilter;
 import io.github.dsheirer.dsp.filter.hilbert.HilbertTransform;
 import io.github.dsheirer.source.tuner.usb.converter.NativeBufferConverter;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
 
+/**
+ * Converts Airspy real 12-bit sample transfer buffers into complex samples at half of the real sample rate, using
+ * either of two conversion modes:
+ *
+ * HILBERT: unpacks the samples and then applies DC removal and a hilbert transform in separate passes.
+ *
+ * FS4_HALF_BAND: fuses unpacking, DC removal, FS/4 down-conversion and a half-band decimating filter into a single
+ * pass over the transfer buffer.  Mixing a real sample stream by FS/4 (see FS4DownConverter) multiplies consecutive
+ * samples by 1, j, -1, -j, so the inphase rail is only non-zero for even samples and the quadrature rail is only
+ * non-zero for odd samples.  After decimation by two, the inphase output only aligns with the half-band center tap
+ * and the quadrature output only aligns with the remaining non-zero (symmetric) taps, so each complex output costs a
+ * single delay line read for inphase and a folded dot product over one quarter of the half-band taps for quadrature.
+ */
 public class AirspySampleConverter extends NativeBufferConverter
 {
     private static final float SCALE_SIGNED_12_BIT_TO_FLOAT = 1.0f / 2048.0f;
+    private static final float DC_REMOVAL_RATIO = 0.01f;
 
-    private DCRemovalFilter mDCFilter = new DCRemovalFilter(0.01f);
+    private DCRemovalFilter mDCFilter = new DCRemovalFilter(DC_REMOVAL_RATIO);
     private HilbertTransform mHilbertTransform = new HilbertTransform();
-    private boolean mSamplePacking = false;
-    private FloatBuffer mFloatBuffer;
-    private float[] mConvertedSamples;
+    private volatile boolean mSamplePacking = false;
+    private volatile AirspyConversionMode mConversionMode = AirspyConversionMode.HILBERT;
+    private boolean mConversionPacking = false;
+    private short[] mShortScratch = new short[0];
+
+    //Fused FS/4 half-band conversion state
+    private float mDCAverage;
+    private boolean mInvertPair;
+    private float[] mInphaseRail;
+    private float[] mQuadratureRail;
+    private float[] mQuadratureCoefficients;
+    private float mCenterCoefficient;
+    private int mRailLength;
+    private int mInphaseDelay;
+    private int mRailPointer;
 
     /**
      * Adapter to translate byte buffers received from the airspy tuner into
@@ -39,22 +65,78 @@ public class AirspySampleConverter extends NativeBufferConverter
      */
     public AirspySampleConverter()
     {
+        float[] halfBand = Filters.HALF_BAND_FILTER_47T.getCoefficients();
+        int center = halfBand.length / 2;
+
+        //Non-zero taps are the even index taps plus the odd index center tap.  Apply a gain of 2 to compensate for
+        //discarding the negative frequency half of the real spectrum, matching the hilbert transform.
+        mRailLength = (halfBand.length + 1) / 2;
+        mInphaseDelay = (center - 1) / 2;
+        mCenterCoefficient = 2.0f * halfBand[center];
+        mQuadratureCoefficients = new float[mRailLength / 2];
+
+        for(int x = 0; x < mQuadratureCoefficients.length; x++)
+        {
+            mQuadratureCoefficients[x] = 2.0f * halfBand[2 * x];
+        }
+
+        mInphaseRail = new float[mRailLength * 2];
+        mQuadratureRail = new float[mRailLength * 2];
+    }
+
+    /**
+     * Sets the real to complex conversion mode
+     */
+    public void setConversionMode(AirspyConversionMode mode)
+    {
+        mConversionMode = mode;
+    }
+
+    /**
+     * Current real to complex conversion mode
+     */
+    public AirspyConversionMode getConversionMode()
+    {
+        return mConversionMode;
     }
 
+    /**
+     * Each pair of 12-bit real samples (4 bytes unpacked or 3 bytes packed) is converted by the hilbert transform into
+     * one complex sample (2 float values).
+     */
     @Override
-    protected FloatBuffer convertSamples(ByteBuffer buffer, int length)
+    protected int getSampleCount(int length)
     {
-        float[] samples = convert(buffer);
+        //Capture the packing setting for the conversion that follows
+        mConversionPacking = mSamplePacking;
 
-        if(mFloatBuffer == null || mFloatBuffer.capacity() != samples.length)
+        return mConversionPacking ? (length / 3) * 2 : (length / 4) * 2;
+    }
+
+    /**
+     * Converts the 12-bit real samples directly into the samples array and then removes DC and applies the hilbert
+     * transform in place to produce complex samples.
+     */
+    @Override
+    protected void convertSamples(ByteBuffer buffer, int length, float[] samples)
+    {
+        if(mConversionMode == AirspyConversionMode.FS4_HALF_BAND)
         {
-            mFloatBuffer = FloatBuffer.allocate(samples.length);
+            convertFused(buffer, samples);
+            return;
         }
 
-        mFloatBuffer.rewind();
-        mFloatBuffer.put(samples);
+        if(mConversionPacking)
+        {
+            convertPacked(buffer, samples);
+        }
+        else
+        {
+            convertUnpacked(buffer, samples);
+        }
 
-        return mFloatBuffer;
+        mDCFilter.filter(samples);
+        mHilbertTransform.filter(samples);
     }
 
     /**
@@ -68,85 +150,146 @@ public class AirspySampleConverter extends NativeBufferConverter
         mSamplePacking = enabled;
     }
 
-    private float[] convert(ByteBuffer samples)
+    /**
+     * Indicates if sample packing is enabled
+     */
+    public boolean isSamplePacking()
+    {
+        return mSamplePacking;
+    }
+
+    /**
+     * Converts the native buffer containing unsigned 12-bit values in little-endian 16-bit words into signed float
+     * values in the range -1 to 1, using a bulk transfer through a 16-bit view of the native buffer.
+     *
+     * @param buffer - native byte buffer containing unsigned 16-bit values
+     * @param samples - array to receive one converted sample per 16-bit value
+     */
+    private void convertUnpacked(ByteBuffer buffer, float[] samples)
     {
-        if(mSamplePacking)
+        if(mShortScratch.length < samples.length)
         {
-            convertPacked(samples.order(ByteOrder.LITTLE_ENDIAN));
-        }
-        else
-        {
-            convertUnpacked(samples);
+            mShortScratch = new short[samples.length];
         }
 
-        mDCFilter.filter(mConvertedSamples);
+        buffer.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(mShortScratch, 0, samples.length);
 
-        return mHilbertTransform.filter(mConvertedSamples);
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = scale(mShortScratch[x]);
+        }
     }
 
     /**
-     * Converts the byte array containing unsigned 12-bit short values into
-     * signed float values in the range -1 to 1;
+     * Converts every 3 bytes containing a pair of 12-bit unsigned values into a pair of float values in the range
+     * -1 to 1, using a bulk transfer of the native bytes.
      *
-     * @param buffer - native byte buffer containing unsigned 16-bit values
+     * @param buffer - native byte buffer containing packed 12-bit unsigned samples
+     * @param samples - array to receive two converted samples per 3 bytes
      */
-    private void convertUnpacked(ByteBuffer buffer)
+    private void convertPacked(ByteBuffer buffer, float[] samples)
     {
-        buffer.rewind();
+        byte[] bytes = getBytes(buffer, samples.length / 2 * 3);
 
-        if(mConvertedSamples == null || mConvertedSamples.length != buffer.capacity() / 2)
+        int offset = 0;
+
+        for(int x = 0; x < samples.length; x += 2)
         {
-            mConvertedSamples = new float[buffer.capacity() / 2];
+            byte b1 = bytes[offset++];
+            byte b2 = bytes[offset++];
+            byte b3 = bytes[offset++];
+
+            samples[x] = scale(((b1 << 4) & 0xFF0) | ((b2 >> 4) & 0xF));
+            samples[x + 1] = scale(((b2 << 8) & 0xF00) | (b3 & 0xFF));
         }
+    }
+
+    /**
+     * Converts the native buffer to complex samples in a single pass, unpacking each pair of real samples and applying
+     * DC removal, FS/4 down-conversion and half-band decimation to produce one complex sample per pair.
+     *
+     * @param buffer - native byte buffer containing packed or unpacked 12-bit unsigned samples
+     * @param samples - array to receive one complex sample per pair of real samples
+     */
+    private void convertFused(ByteBuffer buffer, float[] samples)
+    {
+        if(mConversionPacking)
+        {
+            byte[] bytes = getBytes(buffer, samples.length / 2 * 3);
 
-        int pointer = 0;
+            int offset = 0;
 
+            for(int x = 0; x < samples.length; x += 2)
+            {
+                byte b1 = bytes[offset++];
+                byte b2 = bytes[offset++];
+                byte b3 = bytes[offset++];
 
-        while(buffer.remaining() >= 2)
+                mix(scale(((b1 << 4) & 0xFF0) | ((b2 >> 4) & 0xF)), scale(((b2 << 8) & 0xF00) | (b3 & 0xFF)),
+                    samples, x);
+            }
+        }
+        else
         {
-            byte lsb = buffer.get();
-            byte msb = buffer.get();
-            mConvertedSamples[pointer++] = scale((lsb & 0xFF) | (msb << 8));
+            if(mShortScratch.length < samples.length)
+            {
+                mShortScratch = new short[samples.length];
+            }
+
+            buffer.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(mShortScratch, 0, samples.length);
+
+            for(int x = 0; x < samples.length; x += 2)
+            {
+                mix(scale(mShortScratch[x]), scale(mShortScratch[x + 1]), samples, x);
+            }
         }
     }
 
     /**
-     * Converts every 3 bytes containing a pair of 12-bit unsigned values into
-     * a pair of float values in the range -1 to 1;
+     * Removes DC from the pair of real samples, down-converts the pair by FS/4 into the inphase and quadrature rails
+     * and calculates the half-band filtered and decimated complex sample.
      *
-     * @param buffer - native byte buffer containing packet 12-bit unsigned samples
+     * @param even real sample
+     * @param odd real sample
+     * @param samples array to receive the complex sample
+     * @param offset in the samples array for the complex sample
      */
-    private void convertPacked(ByteBuffer buffer)
+    private void mix(float even, float odd, float[] samples, int offset)
     {
-        buffer.rewind();
-
-        int sampleCount = buffer.capacity() / 3 * 2;
+        float filteredEven = even - mDCAverage;
+        mDCAverage += DC_REMOVAL_RATIO * filteredEven;
+        float filteredOdd = odd - mDCAverage;
+        mDCAverage += DC_REMOVAL_RATIO * filteredOdd;
 
-        if(mConvertedSamples == null || mConvertedSamples.length != sampleCount)
+        //FS/4 mixing sequence 1, j, -1, -j where every other pair of samples inverts the sign of both rails.  This
+        //produces the same (inverted) spectral orientation as the hilbert transform output.
+        if(mInvertPair)
         {
-            mConvertedSamples = new float[sampleCount];
+            filteredEven = -filteredEven;
+            filteredOdd = -filteredOdd;
         }
 
-        int pointer = 0;
+        mInvertPair = !mInvertPair;
 
-        byte b1;
-        byte b2;
-        byte b3;
-        int first;
-        int second;
+        int pointer = (mRailPointer == 0 ? mRailLength : mRailPointer) - 1;
+        mRailPointer = pointer;
+        mInphaseRail[pointer] = filteredEven;
+        mInphaseRail[pointer + mRailLength] = filteredEven;
+        mQuadratureRail[pointer] = filteredOdd;
+        mQuadratureRail[pointer + mRailLength] = filteredOdd;
 
-        while(buffer.remaining() >= 3)
-        {
-            b1 = buffer.get();
-            b2 = buffer.get();
-            b3 = buffer.get();
-
-            first = ((b1 << 4) & 0xFF0) | ((b2 >> 4) & 0xF);
-            mConvertedSamples[pointer++] = scale(first);
+        float[] rail = mQuadratureRail;
+        float[] coefficients = mQuadratureCoefficients;
+        int last = pointer + mRailLength - 1;
+        float accumulator = 0.0f;
 
-            second = ((b2 << 8) & 0xF00) | (b3 & 0xFF);
-            mConvertedSamples[pointer++] = scale(second);
+        for(int x = 0; x < coefficients.length; x++)
+        {
+            accumulator = Math.fma(rail[pointer + x] + rail[last - x], coefficients[x], accumulator);
         }
+
+        samples[offset] = mInphaseRail[pointer + mInphaseDelay] * mCenterCoefficient;
+        samples[offset + 1] = accumulator;
     }
 
     /**
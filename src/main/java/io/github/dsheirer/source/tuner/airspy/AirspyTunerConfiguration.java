@@ -32,6 +32,7 @@ public class AirspyTunerConfiguration extends TunerConfiguration
 	
 	private boolean mMixerAGC = false;
 	private boolean mLNAAGC = false;
+	private AirspyConversionMode mConversionMode = AirspyConversionMode.HILBERT;
 
 	/**
 	 * Default constructor for JAXB
@@ -139,4 +140,15 @@ public class AirspyTunerConfiguration extends TunerConfiguration
 	{
 		mFrequencyCorrection = value;
 	}
+
+	@JacksonXmlProperty(isAttribute = true, localName = "conversion_mode")
+	public AirspyConversionMode getConversionMode()
+	{
+		return mConversionMode;
+	}
+
+	public void setConversionMode( AirspyConversionMode mode )
+	{
+		mConversionMode = (mode != null ? mode : AirspyConversionMode.HILBERT);
+	}
 }
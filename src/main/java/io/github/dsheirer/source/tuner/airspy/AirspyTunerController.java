@@ -91,10 +91,16 @@ public class AirspyTunerController extends USBTunerController
     }
 
     @Override
-    public int getBufferSampleCount()
+    protected double getUSBTransferBytesPerSample()
     {
-        //Each airspy complex sample is 4 bytes, so sample count is buffer size / 4
-        return USB_TRANSFER_BUFFER_SIZE / 4;
+        //Each airspy complex sample is two 12-bit real samples packed into 3 bytes or unpacked into 4 bytes
+        return mSampleAdapter.isSamplePacking() ? 3.0 : 4.0;
+    }
+
+    @Override
+    protected int getFixedUSBTransferBufferSize()
+    {
+        return USB_TRANSFER_BUFFER_SIZE;
     }
 
     public void init() throws SourceException
@@ -323,6 +329,8 @@ public class AirspyTunerController extends USBTunerController
                 throw new SourceException("Couldn't apply gain settings from airspy config", e);
             }
 
+            setConversionMode(airspy.getConversionMode());
+
             try
             {
                 setFrequency(airspy.getFrequency());
@@ -430,6 +438,8 @@ public class AirspyTunerController extends USBTunerController
                         super.setUsableBandwidthPercentage(0.60);
                         break;
                 }
+
+                updateUSBTransferSizing();
             }
         }
     }
@@ -490,6 +500,27 @@ public class AirspyTunerController extends USBTunerController
         /* If we didn't throw an exception above, then update the sample adapter
          * to process samples accordingly */
         mSampleAdapter.setSamplePacking(enabled);
+
+        updateUSBTransferSizing();
+    }
+
+    /**
+     * Sets the real to complex sample conversion mode used by the sample adapter.  The change takes effect on the
+     * next sample buffer.
+     *
+     * @param mode for converting the real tuner samples to complex samples
+     */
+    public void setConversionMode(AirspyConversionMode mode)
+    {
+        mSampleAdapter.setConversionMode(mode);
+    }
+
+    /**
+     * Current real to complex sample conversion mode
+     */
+    public AirspyConversionMode getConversionMode()
+    {
+        return mSampleAdapter.getConversionMode();
     }
 
     /**
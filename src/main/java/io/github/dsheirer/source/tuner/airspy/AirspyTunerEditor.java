@@ -79,6 +79,8 @@ public class AirspyTunerEditor extends TunerConfigurationEditor
     private JCheckBox mLNAAGC;
     private JCheckBox mMixerAGC;
 
+    private JComboBox<AirspyConversionMode> mConversionModeCombo;
+
     private FrequencyCorrectionChangeListener mFrequencyCorrectionChangeListener = new FrequencyCorrectionChangeListener();
     private AirspyTunerController mController;
     private boolean mLoading;
@@ -445,6 +447,34 @@ public class AirspyTunerEditor extends TunerConfigurationEditor
         });
 
         add(mLNAAGC, "span 2,center");
+
+        add(new JSeparator(), "span,growx,push");
+
+        /**
+         * Real to complex sample conversion mode
+         */
+        add(new JLabel("Conversion:"));
+        mConversionModeCombo = new JComboBox<AirspyConversionMode>(AirspyConversionMode.values());
+        mConversionModeCombo.setEnabled(false);
+        mConversionModeCombo.setToolTipText("Hilbert Transform (default) or FS/4 Half-Band conversion which uses " +
+            "less CPU at high sample rates");
+        mConversionModeCombo.addActionListener(new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                AirspyConversionMode mode = (AirspyConversionMode)mConversionModeCombo.getSelectedItem();
+
+                if(!mLoading)
+                {
+                    mController.setConversionMode(mode);
+                }
+
+                save();
+            }
+        });
+
+        add(mConversionModeCombo, "span 3");
     }
 
     /**
@@ -554,6 +584,7 @@ public class AirspyTunerEditor extends TunerConfigurationEditor
             config.setLNAGain(mLNAGain.getValue());
             config.setMixerAGC(mMixerAGC.isSelected());
             config.setLNAAGC(mLNAAGC.isSelected());
+            config.setConversionMode((AirspyConversionMode)mConversionModeCombo.getSelectedItem());
 
             getTunerConfigurationModel().broadcast(new TunerConfigurationEvent(config, TunerConfigurationEvent.Event.CHANGE));
         }
@@ -665,6 +696,11 @@ public class AirspyTunerEditor extends TunerConfigurationEditor
         {
             mLNAAGC.setEnabled(enabled);
         }
+
+        if(mConversionModeCombo.isEnabled() != enabled)
+        {
+            mConversionModeCombo.setEnabled(enabled);
+        }
     }
 
     /**
@@ -742,6 +778,8 @@ public class AirspyTunerEditor extends TunerConfigurationEditor
                 mMixerGain.setValue(gain.getMixer());
                 mLNAGain.setValue(gain.getLNA());
             }
+
+            mConversionModeCombo.setSelectedItem(airspy.getConversionMode());
         }
         else
         {
@@ -283,7 +283,7 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
         {
             if(mScheduledFuture == null)
             {
-                mScheduledFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(this, 0,
+                mScheduledFuture = ThreadPool.DECODE.scheduleAtFixedRate(this, 0,
                     BUFFER_PROCESSOR_RUN_INTERVAL_MILLISECONDS, TimeUnit.MILLISECONDS);
             }
         }
@@ -81,9 +81,15 @@ public class HackRFTunerController extends USBTunerController
     }
 
     @Override
-    public int getBufferSampleCount()
+    protected double getUSBTransferBytesPerSample()
     {
-        return USB_TRANSFER_BUFFER_SIZE / 2;
+        return 2.0; //signed 8-bit I and Q
+    }
+
+    @Override
+    protected int getFixedUSBTransferBufferSize()
+    {
+        return USB_TRANSFER_BUFFER_SIZE;
     }
 
     public void init() throws SourceException
@@ -558,6 +564,8 @@ public class HackRFTunerController extends USBTunerController
         setBasebandFilter(rate.getFilter());
 
         mSampleRate = rate;
+
+        updateUSBTransferSizing();
     }
 
     public void setSampleRateManual(int frequency, int divider)
@@ -22,6 +22,7 @@
 package io.github.dsheirer.source.tuner.manager;
 
 import io.github.dsheirer.dsp.filter.channelizer.PolyphaseChannelManager;
+import io.github.dsheirer.sample.QueueMetrics;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.SourceException;
 import io.github.dsheirer.source.tuner.TunerController;
@@ -32,6 +33,7 @@ import org.apache.commons.math3.util.FastMath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.SortedSet;
 
 public class PolyphaseChannelSourceManager extends ChannelSourceManager
@@ -48,10 +50,22 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
      * @param tunerController with a center tuned frequency that will be managed by this instance
      */
     public PolyphaseChannelSourceManager(TunerController tunerController)
+    {
+        this(tunerController, 1);
+    }
+
+    /**
+     * PolyphaseChannelSourceManager with a multi-threaded polyphase channelizer.
+     *
+     * @param tunerController with a center tuned frequency that will be managed by this instance
+     * @param channelizerThreadCount number of threads for each of the channelizer filter and IFFT processing stages
+     */
+    public PolyphaseChannelSourceManager(TunerController tunerController, int channelizerThreadCount)
     {
         mTunerController = tunerController;
 
         mPolyphaseChannelManager = new PolyphaseChannelManager(tunerController);
+        mPolyphaseChannelManager.setChannelizerThreadCount(channelizerThreadCount);
         //Register to receive channel count change notifications for rebroadcasting
         mPolyphaseChannelManager.addSourceEventListener(this::process);
         mTunerController.addListener(mPolyphaseChannelManager);
@@ -401,6 +415,14 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
         return mPolyphaseChannelManager.getTunerChannelCount();
     }
 
+    /**
+     * Snapshot of the metrics for the channelizer queues
+     */
+    public List<QueueMetrics> getQueueMetrics()
+    {
+        return mPolyphaseChannelManager.getQueueMetrics();
+    }
+
     /**
      * Allocates a tuner channel source for the tuner channel.
      *
@@ -59,7 +59,8 @@ public class RecordingTuner extends Tuner
 
             if(channelizerType == ChannelizerType.POLYPHASE)
             {
-                setChannelSourceManager(new PolyphaseChannelSourceManager(getTunerController()));
+                setChannelSourceManager(new PolyphaseChannelSourceManager(getTunerController(),
+                    userPreferences.getTunerPreference().getChannelizerThreadCount()));
             }
             else if(channelizerType == ChannelizerType.HETERODYNE)
             {
@@ -123,7 +124,8 @@ public class RecordingTuner extends Tuner
 
                 if(channelizerType == ChannelizerType.POLYPHASE)
                 {
-                    setChannelSourceManager(new PolyphaseChannelSourceManager(getTunerController()));
+                    setChannelSourceManager(new PolyphaseChannelSourceManager(getTunerController(),
+                        mUserPreferences.getTunerPreference().getChannelizerThreadCount()));
                 }
                 else if(channelizerType == ChannelizerType.HETERODYNE)
                 {
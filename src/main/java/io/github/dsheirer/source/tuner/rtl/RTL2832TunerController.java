@@ -99,9 +99,15 @@ public abstract class RTL2832TunerController extends USBTunerController
     }
 
     @Override
-    public int getBufferSampleCount()
+    protected double getUSBTransferBytesPerSample()
     {
-        return getUSBTransferBufferSize(getSampleRate()) / 2; //2 bytes per complex sample
+        return 2.0; //unsigned 8-bit I and Q
+    }
+
+    @Override
+    protected int getFixedUSBTransferBufferSize()
+    {
+        return getUSBTransferBufferSize(getSampleRate());
     }
 
 
@@ -994,10 +1000,7 @@ public abstract class RTL2832TunerController extends USBTunerController
 
         mFrequencyController.setSampleRate(sampleRate.getRate());
 
-        if(mUSBTransferProcessor != null)
-        {
-            mUSBTransferProcessor.setBufferSize(getUSBTransferBufferSize(sampleRate.getRate()));
-        }
+        updateUSBTransferSizing();
     }
 
     /**
@@ -0,0 +1,100 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.test;
+
+import io.github.dsheirer.sample.QueueMetrics;
+import io.github.dsheirer.source.tuner.Tuner;
+import io.github.dsheirer.source.tuner.TunerClass;
+import io.github.dsheirer.source.tuner.TunerType;
+import io.github.dsheirer.source.tuner.manager.PolyphaseChannelSourceManager;
+
+import java.util.List;
+
+/**
+ * Headless benchmarking tuner with an externally driven sample stream and a polyphase channel source manager,
+ * regardless of the channelizer type selected in the user preferences.
+ */
+public class BenchmarkTuner extends Tuner
+{
+    private PolyphaseChannelSourceManager mPolyphaseChannelSourceManager;
+
+    /**
+     * Constructs an instance
+     *
+     * @param sampleRate of the sample stream
+     * @param frequency fixed center frequency in hertz
+     * @param channelizerThreadCount for the polyphase channelizer filter stage
+     */
+    public BenchmarkTuner(int sampleRate, long frequency, int channelizerThreadCount)
+    {
+        super("Benchmark Tuner", new BenchmarkTunerController(sampleRate, frequency));
+        mPolyphaseChannelSourceManager = new PolyphaseChannelSourceManager(getTunerController(),
+            channelizerThreadCount);
+        setChannelSourceManager(mPolyphaseChannelSourceManager);
+    }
+
+    /**
+     * Snapshot of the metrics for the channelizer queues
+     */
+    public List<QueueMetrics> getQueueMetrics()
+    {
+        return mPolyphaseChannelSourceManager.getQueueMetrics();
+    }
+
+    /**
+     * Returns the tuner controller cast as a benchmark tuner controller.
+     */
+    public BenchmarkTunerController getTunerController()
+    {
+        return (BenchmarkTunerController)super.getTunerController();
+    }
+
+    @Override
+    public String getUniqueID()
+    {
+        return getName();
+    }
+
+    @Override
+    public TunerClass getTunerClass()
+    {
+        return TunerClass.TEST_TUNER;
+    }
+
+    @Override
+    public TunerType getTunerType()
+    {
+        return TunerClass.TEST_TUNER.getTunerType();
+    }
+
+    @Override
+    public double getSampleSize()
+    {
+        return 16.0;
+    }
+
+    @Override
+    public int getMaximumUSBBitsPerSecond()
+    {
+        return 0;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.test;
+
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+import io.github.dsheirer.source.SourceException;
+import io.github.dsheirer.source.tuner.TunerController;
+import io.github.dsheirer.source.tuner.configuration.TunerConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tuner controller for headless throughput benchmarking.  Unlike the test tuner controller, this controller does not
+ * generate samples on a schedule.  Sample buffers are pushed into the controller by an external driver (see
+ * TunerBenchmark) at whatever rate the driver chooses, so the tuner can be run faster than real time.
+ *
+ * The center frequency and sample rate are fixed at construction.  Requests to retune the center frequency are
+ * ignored, the same as the recording tuner controller, so channels must be allocated within the usable bandwidth
+ * around the fixed center frequency.
+ *
+ * The controller tracks the number of delivered sample buffers that are still held by the channelizer, which the
+ * driver can use to apply back pressure instead of overflowing the channelizer input queue.
+ */
+public class BenchmarkTunerController extends TunerController
+{
+    private final static Logger mLog = LoggerFactory.getLogger(BenchmarkTunerController.class);
+
+    public static final long MINIMUM_FREQUENCY = 1l;
+    public static final long MAXIMUM_FREQUENCY = 6000000000l;
+    public static final int DC_NOISE_BANDWIDTH = 0;
+    public static final double USABLE_BANDWIDTH_PERCENTAGE = 0.90;
+    public static final int BUFFERS_PER_SECOND = 20;
+
+    private InFlightBufferQueue mBufferQueue = new InFlightBufferQueue();
+    private AtomicInteger mBuffersInFlight = new AtomicInteger();
+    private volatile int mPeakBuffersInFlight;
+    private AtomicLong mSampleCount = new AtomicLong();
+    private int mSampleRate;
+    private long mFrequency;
+
+    /**
+     * Constructs an instance
+     *
+     * @param sampleRate of the complex samples that will be delivered to this controller
+     * @param frequency fixed center frequency in hertz
+     */
+    public BenchmarkTunerController(int sampleRate, long frequency)
+    {
+        super(MINIMUM_FREQUENCY, MAXIMUM_FREQUENCY, DC_NOISE_BANDWIDTH, USABLE_BANDWIDTH_PERCENTAGE);
+
+        mSampleRate = sampleRate;
+        mFrequency = frequency;
+
+        try
+        {
+            mFrequencyController.setFrequency(frequency);
+            mFrequencyController.setSampleRate(sampleRate);
+        }
+        catch(SourceException se)
+        {
+            mLog.error("Error setting benchmark tuner frequency [" + frequency + "] and sample rate [" +
+                sampleRate + "]", se);
+        }
+    }
+
+    /**
+     * Copies the complex samples into a reusable buffer and broadcasts the buffer to the registered listeners (ie the
+     * channelizer).  This method should only be invoked from a single driver thread.
+     *
+     * @param samples interleaved complex samples
+     * @param offset into the samples array of the first value to deliver
+     * @param length of the interleaved sample values to deliver (ie twice the complex sample count)
+     * @param timestamp for the buffer
+     */
+    public void deliver(float[] samples, int offset, int length, long timestamp)
+    {
+        ReusableComplexBuffer buffer = mBufferQueue.getBuffer(length);
+        System.arraycopy(samples, offset, buffer.getSamples(), 0, length);
+        buffer.setTimestamp(timestamp);
+        mSampleCount.addAndGet(length / 2);
+        broadcast(buffer);
+    }
+
+    /**
+     * Number of delivered sample buffers that are still in use by the channelizer
+     */
+    public int getBuffersInFlight()
+    {
+        return mBuffersInFlight.get();
+    }
+
+    /**
+     * Largest number of delivered sample buffers that were in use at the same time
+     */
+    public int getPeakBuffersInFlight()
+    {
+        return mPeakBuffersInFlight;
+    }
+
+    /**
+     * Total number of complex samples delivered to this controller
+     */
+    public long getSampleCount()
+    {
+        return mSampleCount.get();
+    }
+
+    @Override
+    public int getBufferSampleCount()
+    {
+        return mSampleRate / BUFFERS_PER_SECOND;
+    }
+
+    @Override
+    public void dispose()
+    {
+        mBufferQueue.dispose();
+    }
+
+    @Override
+    public void apply(TunerConfiguration config) throws SourceException
+    {
+        mLog.error("Request to apply tuner configuration was ignored");
+    }
+
+    @Override
+    public void setFrequency(long frequency) throws SourceException
+    {
+        //Ignored - center frequency is fixed
+    }
+
+    @Override
+    public long getTunedFrequency() throws SourceException
+    {
+        return mFrequency;
+    }
+
+    @Override
+    public void setTunedFrequency(long frequency) throws SourceException
+    {
+        mFrequency = frequency;
+    }
+
+    @Override
+    public double getCurrentSampleRate()
+    {
+        return mSampleRate;
+    }
+
+    /**
+     * Reusable buffer queue that counts the buffers that are handed out and not yet returned for reuse
+     */
+    private class InFlightBufferQueue extends ReusableComplexBufferQueue
+    {
+        public InFlightBufferQueue()
+        {
+            super("BenchmarkTunerController");
+        }
+
+        @Override
+        public ReusableComplexBuffer getBuffer(int size)
+        {
+            int inFlight = mBuffersInFlight.incrementAndGet();
+
+            if(inFlight > mPeakBuffersInFlight)
+            {
+                mPeakBuffersInFlight = inFlight;
+            }
+
+            return super.getBuffer(size);
+        }
+
+        @Override
+        public void disposed(ReusableComplexBuffer reusableBuffer)
+        {
+            mBuffersInFlight.decrementAndGet();
+            super.disposed(reusableBuffer);
+        }
+    }
+}
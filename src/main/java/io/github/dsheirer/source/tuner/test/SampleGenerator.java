@@ -95,7 +95,7 @@ public class SampleGenerator
     {
         if(mScheduledFuture == null)
         {
-            mScheduledFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(new Generator(), 0, mInterval,
+            mScheduledFuture = ThreadPool.DSP.scheduleAtFixedRate(new Generator(), 0, mInterval,
                 TimeUnit.MILLISECONDS);
         }
         else
@@ -0,0 +1,943 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.test;
+
+import io.github.dsheirer.alias.AliasModel;
+import io.github.dsheirer.controller.channel.Channel;
+import io.github.dsheirer.controller.channel.map.ChannelMapModel;
+import io.github.dsheirer.message.IMessage;
+import io.github.dsheirer.message.IMessageListener;
+import io.github.dsheirer.module.Module;
+import io.github.dsheirer.module.ProcessingChain;
+import io.github.dsheirer.module.decode.DecoderFactory;
+import io.github.dsheirer.module.decode.DecoderType;
+import io.github.dsheirer.module.decode.config.DecodeConfiguration;
+import io.github.dsheirer.module.decode.event.IDecodeEvent;
+import io.github.dsheirer.module.decode.event.IDecodeEventListener;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.QueueMetrics;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.source.config.SourceConfigTuner;
+import io.github.dsheirer.source.tuner.channel.ChannelSpecification;
+import io.github.dsheirer.source.tuner.channel.TunerChannel;
+import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
+import io.github.dsheirer.source.wave.ComplexWaveSource;
+import io.github.dsheirer.util.ThreadPool;
+import io.github.dsheirer.util.ThreadPoolMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless end-to-end throughput benchmark for the tuner -> polyphase channelizer -> processing chain -> decoder
+ * pipeline.  Samples from a synthetic signal generator or from a recorded baseband I/Q wave file are pushed into a
+ * benchmark tuner as fast as the pipeline will accept them (or at a multiple of real time) and the harness reports
+ * sample throughput, CPU time per processing stage (thread group), queue depths, channel overflow events and decoded
+ * message/event counts after a warmup period.
+ *
+ * Synthetic samples contain an FM modulated 1 kHz tone on each channel plus low level noise.  Synthetic signals
+ * exercise the channelizer and demodulators but won't produce decoded messages.  Use a baseband recording of the
+ * target protocol to benchmark decoding.
+ *
+ * Options (all optional):
+ *
+ *   -decoder NBFM         primary decoder type for each channel (see DecoderType)
+ *   -channels 8           number of channels, evenly spaced across the usable tuner bandwidth
+ *   -frequencies f1,f2    explicit channel frequencies in hertz (overrides -channels)
+ *   -rate 2400000         synthetic source sample rate in hertz
+ *   -frequency 100000000  tuner center frequency in hertz (ie the recording center frequency)
+ *   -recording file.wav   baseband I/Q recording to play in a continuous loop instead of the synthetic source
+ *   -speed 0              multiple of real time to deliver samples, or 0 to deliver samples as fast as possible
+ *   -warmup 5             seconds to run before measurement starts
+ *   -duration 30          seconds to measure
+ *   -threads 1            channelizer filter stage thread count (default: user preference)
+ *   -inflight 4           maximum tuner sample buffers held by the channelizer before the driver waits
+ *
+ * Example: benchmark 20 P25 phase 1 channels from a synthetic 10 MHz source at twice real time
+ *
+ *   TunerBenchmark -decoder P25_PHASE1 -channels 20 -rate 10000000 -speed 2
+ */
+public class TunerBenchmark
+{
+    private final static Logger mLog = LoggerFactory.getLogger(TunerBenchmark.class);
+    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.00");
+
+    public static final int DEFAULT_SAMPLE_RATE = 2400000;
+    public static final long DEFAULT_FREQUENCY = 100000000l;
+    public static final int DEFAULT_CHANNEL_COUNT = 8;
+    public static final int DEFAULT_WARMUP = 5;
+    public static final int DEFAULT_DURATION = 30;
+    public static final int DEFAULT_MAXIMUM_BUFFERS_IN_FLIGHT = 4;
+
+    private static final long METRICS_SAMPLE_INTERVAL_MS = 250;
+    private static final long PROGRESS_INTERVAL_MS = 5000;
+
+    private BenchmarkTuner mTuner;
+    private SampleDriver mSampleDriver;
+    private Thread mSampleDriverThread;
+    private List<ChannelMonitor> mChannelMonitors = new ArrayList<>();
+    private UserPreferences mUserPreferences;
+    private AliasModel mAliasModel = new AliasModel();
+    private ChannelMapModel mChannelMapModel = new ChannelMapModel();
+
+    /**
+     * Constructs an instance
+     *
+     * @param tuner to benchmark
+     * @param sampleDriver to push samples into the tuner
+     * @param userPreferences for constructing decoders
+     */
+    public TunerBenchmark(BenchmarkTuner tuner, SampleDriver sampleDriver, UserPreferences userPreferences)
+    {
+        mTuner = tuner;
+        mSampleDriver = sampleDriver;
+        mUserPreferences = userPreferences;
+    }
+
+    /**
+     * Allocates a tuner channel and starts a processing chain with the primary decoder for each channel frequency.
+     *
+     * @param decoderType for each channel
+     * @param frequencies for the channels
+     * @throws IllegalArgumentException if a channel can't be allocated from the tuner
+     */
+    public void addChannels(DecoderType decoderType, List<Long> frequencies)
+    {
+        for(long frequency: frequencies)
+        {
+            DecodeConfiguration decodeConfiguration = DecoderFactory.getDecodeConfiguration(decoderType);
+            ChannelSpecification specification = decodeConfiguration.getChannelSpecification();
+            TunerChannel tunerChannel = new TunerChannel(frequency, specification.getBandwidth());
+
+            Channel channel = new Channel("Benchmark " + (mChannelMonitors.size() + 1));
+            channel.setDecodeConfiguration(decodeConfiguration);
+            channel.setSourceConfiguration(new SourceConfigTuner(tunerChannel));
+
+            TunerChannelSource source = mTuner.getChannelSourceManager().getSource(tunerChannel, specification);
+
+            if(source == null)
+            {
+                throw new IllegalArgumentException("Unable to allocate a tuner channel for frequency [" + frequency +
+                    "] - tuner center frequency [" + mTuner.getTunerController().getFrequency() +
+                    "] usable bandwidth [" + mTuner.getTunerController().getUsableBandwidth() + "]");
+            }
+
+            ChannelMonitor channelMonitor = new ChannelMonitor(channel.getName(), frequency, source);
+
+            ProcessingChain processingChain = new ProcessingChain(channel, mAliasModel);
+            processingChain.addModules(DecoderFactory.getModules(mChannelMapModel, channel, mAliasModel,
+                mUserPreferences, null));
+            processingChain.addModule(channelMonitor);
+            processingChain.setSource(source);
+            channelMonitor.setProcessingChain(processingChain);
+            mChannelMonitors.add(channelMonitor);
+        }
+    }
+
+    /**
+     * Runs the benchmark and logs the results.
+     *
+     * @param warmup duration in seconds before measurement starts
+     * @param duration in seconds of the measurement
+     * @param description of the benchmark configuration for the results report
+     */
+    public void run(int warmup, int duration, String description) throws InterruptedException
+    {
+        for(ChannelMonitor channelMonitor: mChannelMonitors)
+        {
+            channelMonitor.getProcessingChain().start();
+        }
+
+        mSampleDriverThread = new Thread(mSampleDriver, "sdrtrunk benchmark sample driver");
+        mSampleDriverThread.setPriority(Thread.MAX_PRIORITY);
+        mSampleDriverThread.start();
+
+        mLog.info("Benchmark warmup for [" + warmup + "] seconds - " + description);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+
+        for(ChannelMonitor channelMonitor: mChannelMonitors)
+        {
+            channelMonitor.startMeasurement();
+        }
+
+        BenchmarkTunerController controller = mTuner.getTunerController();
+        Map<String,Long> startCpu = getStageCpuTimes();
+        Map<String,Integer> peakQueueDepths = new TreeMap<>();
+        long startSamples = controller.getSampleCount();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(duration);
+        long nextProgress = start + TimeUnit.MILLISECONDS.toNanos(PROGRESS_INTERVAL_MS);
+
+        mLog.info("Benchmark measuring for [" + duration + "] seconds");
+
+        long now = System.nanoTime();
+
+        while(now < end)
+        {
+            Thread.sleep(METRICS_SAMPLE_INTERVAL_MS);
+
+            for(ThreadPoolMetrics metrics: ThreadPool.getMetrics())
+            {
+                peakQueueDepths.merge(metrics.getName(), metrics.getQueueDepth(), Math::max);
+            }
+
+            now = System.nanoTime();
+
+            if(now >= nextProgress)
+            {
+                nextProgress += TimeUnit.MILLISECONDS.toNanos(PROGRESS_INTERVAL_MS);
+                double elapsed = (now - start) / 1E9;
+                double sampleRate = (controller.getSampleCount() - startSamples) / elapsed;
+                mLog.info("Benchmark [" + DECIMAL_FORMAT.format(elapsed) + " s] Samples/Second [" +
+                    DECIMAL_FORMAT.format(sampleRate) + "] Real Time Multiple [" +
+                    DECIMAL_FORMAT.format(sampleRate / controller.getSampleRate()) + "] Overflows [" +
+                    getOverflowCount() + "] Messages [" + getMessageCount() + "]");
+            }
+        }
+
+        double elapsed = (System.nanoTime() - start) / 1E9;
+        long samples = controller.getSampleCount() - startSamples;
+        Map<String,Long> endCpu = getStageCpuTimes();
+
+        mSampleDriver.stop();
+        mSampleDriverThread.join();
+
+        double sampleRate = samples / elapsed;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n\nBenchmark Results - ").append(description);
+        sb.append("\n  Measured [").append(DECIMAL_FORMAT.format(elapsed)).append(" s] Samples [").append(samples)
+            .append("] Samples/Second [").append(DECIMAL_FORMAT.format(sampleRate)).append("] Real Time Multiple [")
+            .append(DECIMAL_FORMAT.format(sampleRate / controller.getSampleRate())).append("]");
+
+        sb.append("\n  Stage CPU (percent of one core):");
+
+        for(Map.Entry<String,Long> entry: endCpu.entrySet())
+        {
+            long cpu = entry.getValue() - startCpu.getOrDefault(entry.getKey(), 0l);
+
+            if(cpu > 0)
+            {
+                sb.append("\n    [").append(entry.getKey()).append("] ")
+                    .append(DECIMAL_FORMAT.format(cpu / 1E9 / elapsed * 100.0)).append("%");
+            }
+        }
+
+        sb.append("\n  Queue Depth:");
+        sb.append("\n    [tuner buffers in flight] peak [").append(controller.getPeakBuffersInFlight())
+            .append("] limit [").append(mSampleDriver.getMaximumBuffersInFlight()).append("]");
+
+        for(QueueMetrics metrics: mTuner.getQueueMetrics())
+        {
+            sb.append("\n    ").append(metrics);
+        }
+
+        for(Map.Entry<String,Integer> entry: peakQueueDepths.entrySet())
+        {
+            sb.append("\n    [thread pool ").append(entry.getKey()).append("] peak [").append(entry.getValue())
+                .append("]");
+        }
+
+        for(ThreadPoolMetrics metrics: ThreadPool.getMetrics())
+        {
+            sb.append("\n    ").append(metrics);
+        }
+
+        sb.append("\n  Channels:");
+
+        for(ChannelMonitor channelMonitor: mChannelMonitors)
+        {
+            sb.append("\n    ").append(channelMonitor);
+        }
+
+        sb.append("\n  Totals - Overflows [").append(getOverflowCount()).append("] Messages [")
+            .append(getMessageCount()).append("] Decode Events [").append(getDecodeEventCount()).append("]\n");
+
+        mLog.info(sb.toString());
+
+        for(ChannelMonitor channelMonitor: mChannelMonitors)
+        {
+            channelMonitor.getProcessingChain().dispose();
+        }
+
+        mTuner.dispose();
+    }
+
+    /**
+     * Total channel overflow events since measurement started
+     */
+    private long getOverflowCount()
+    {
+        long count = 0;
+
+        for(ChannelMonitor channelMonitor: mChannelMonitors)
+        {
+            count += channelMonitor.getOverflowCount();
+        }
+
+        return count;
+    }
+
+    /**
+     * Total decoded messages since measurement started
+     */
+    private long getMessageCount()
+    {
+        long count = 0;
+
+        for(ChannelMonitor channelMonitor: mChannelMonitors)
+        {
+            count += channelMonitor.getMessageCount();
+        }
+
+        return count;
+    }
+
+    /**
+     * Total decode events since measurement started
+     */
+    private long getDecodeEventCount()
+    {
+        long count = 0;
+
+        for(ChannelMonitor channelMonitor: mChannelMonitors)
+        {
+            count += channelMonitor.getDecodeEventCount();
+        }
+
+        return count;
+    }
+
+    /**
+     * Cumulative CPU time in nanoseconds for each processing stage, where a stage is the group of threads that share
+     * a thread name prefix (ie a thread pool or a channelizer worker pool).
+     */
+    public static Map<String,Long> getStageCpuTimes()
+    {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Map<String,Long> cpuTimes = new TreeMap<>();
+
+        for(ThreadInfo threadInfo: threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds()))
+        {
+            if(threadInfo != null)
+            {
+                long cpuTime = threadMXBean.getThreadCpuTime(threadInfo.getThreadId());
+
+                if(cpuTime > 0)
+                {
+                    cpuTimes.merge(getStageName(threadInfo.getThreadName()), cpuTime, Long::sum);
+                }
+            }
+        }
+
+        return cpuTimes;
+    }
+
+    /**
+     * Processing stage name for a thread, with any thread pool or thread number suffix removed
+     */
+    private static String getStageName(String threadName)
+    {
+        int index = threadName.indexOf(" pool-");
+
+        if(index > 0)
+        {
+            return threadName.substring(0, index);
+        }
+
+        return threadName.replaceAll("[-\\s]*\\d+$", "");
+    }
+
+    /**
+     * Evenly spaced channel frequencies across the usable bandwidth of the tuner
+     *
+     * @param controller for the tuner
+     * @param channelCount number of channels
+     * @param bandwidth of each channel
+     * @return channel frequencies
+     * @throws IllegalArgumentException if the channels don't fit within the usable bandwidth
+     */
+    public static List<Long> getChannelFrequencies(BenchmarkTunerController controller, int channelCount,
+                                                   int bandwidth)
+    {
+        long spacing = controller.getUsableBandwidth() / channelCount;
+
+        if(spacing < bandwidth)
+        {
+            throw new IllegalArgumentException("[" + channelCount + "] channels with bandwidth [" + bandwidth +
+                "] don't fit within the usable tuner bandwidth [" + controller.getUsableBandwidth() + "]");
+        }
+
+        long first = controller.getFrequency() - controller.getUsableBandwidth() / 2 + spacing / 2;
+        List<Long> frequencies = new ArrayList<>();
+
+        for(int x = 0; x < channelCount; x++)
+        {
+            frequencies.add(first + x * spacing);
+        }
+
+        return frequencies;
+    }
+
+    /**
+     * Runs the benchmark.  See the class comment for the supported options.
+     */
+    public static void main(String[] args)
+    {
+        Map<String,String> options = new HashMap<>();
+
+        for(int x = 0; x < args.length; x++)
+        {
+            if(args[x].startsWith("-") && x + 1 < args.length)
+            {
+                options.put(args[x].substring(1).toLowerCase(), args[++x]);
+            }
+            else
+            {
+                mLog.error("Unrecognized argument [" + args[x] + "] - usage: TunerBenchmark [-decoder NBFM] " +
+                    "[-channels 8] [-frequencies f1,f2] [-rate 2400000] [-frequency 100000000] " +
+                    "[-recording file.wav] [-speed 0] [-warmup 5] [-duration 30] [-threads 1] [-inflight 4]");
+                System.exit(1);
+            }
+        }
+
+        UserPreferences userPreferences = new UserPreferences();
+
+        try
+        {
+            DecoderType decoderType = DecoderType.valueOf(options.getOrDefault("decoder", "NBFM").toUpperCase());
+
+            if(!DecoderType.PRIMARY_DECODERS.contains(decoderType))
+            {
+                throw new IllegalArgumentException("Decoder [" + decoderType + "] is not a primary decoder");
+            }
+
+            long frequency = Long.parseLong(options.getOrDefault("frequency", String.valueOf(DEFAULT_FREQUENCY)));
+            double speed = Double.parseDouble(options.getOrDefault("speed", "0"));
+            int maximumBuffersInFlight = Integer.parseInt(options.getOrDefault("inflight",
+                String.valueOf(DEFAULT_MAXIMUM_BUFFERS_IN_FLIGHT)));
+            int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(userPreferences.getTunerPreference().getChannelizerThreadCount())));
+            int warmup = Integer.parseInt(options.getOrDefault("warmup", String.valueOf(DEFAULT_WARMUP)));
+            int duration = Integer.parseInt(options.getOrDefault("duration", String.valueOf(DEFAULT_DURATION)));
+
+            ComplexWaveSource recording = null;
+            int sampleRate;
+
+            if(options.containsKey("recording"))
+            {
+                recording = new ComplexWaveSource(new File(options.get("recording")));
+                recording.open();
+                sampleRate = (int)recording.getSampleRate();
+            }
+            else
+            {
+                sampleRate = Integer.parseInt(options.getOrDefault("rate", String.valueOf(DEFAULT_SAMPLE_RATE)));
+            }
+
+            BenchmarkTuner tuner = new BenchmarkTuner(sampleRate, frequency, threads);
+            BenchmarkTunerController controller = tuner.getTunerController();
+
+            List<Long> frequencies = new ArrayList<>();
+
+            if(options.containsKey("frequencies"))
+            {
+                for(String channelFrequency: options.get("frequencies").split(","))
+                {
+                    frequencies.add(Long.parseLong(channelFrequency.trim()));
+                }
+            }
+            else
+            {
+                int channelCount = Integer.parseInt(options.getOrDefault("channels",
+                    String.valueOf(DEFAULT_CHANNEL_COUNT)));
+                int bandwidth = DecoderFactory.getDecodeConfiguration(decoderType).getChannelSpecification()
+                    .getBandwidth();
+                frequencies = getChannelFrequencies(controller, channelCount, bandwidth);
+            }
+
+            SampleDriver sampleDriver;
+            String source;
+
+            if(recording != null)
+            {
+                sampleDriver = new RecordingSampleDriver(tuner, recording, speed, maximumBuffersInFlight);
+                source = "Recording [" + recording.getFile().getName() + "]";
+            }
+            else
+            {
+                sampleDriver = new SyntheticSampleDriver(tuner, frequencies, speed, maximumBuffersInFlight);
+                source = "Synthetic";
+            }
+
+            String description = source + " Sample Rate [" + sampleRate + "] Channels [" + frequencies.size() +
+                "] Decoder [" + decoderType + "] Channelizer Threads [" + threads + "] Speed [" +
+                (speed > 0 ? DECIMAL_FORMAT.format(speed) + "x real time" : "unthrottled") + "]";
+
+            TunerBenchmark benchmark = new TunerBenchmark(tuner, sampleDriver, userPreferences);
+            benchmark.addChannels(decoderType, frequencies);
+            benchmark.run(warmup, duration, description);
+        }
+        catch(IOException | UnsupportedAudioFileException e)
+        {
+            mLog.error("Error opening baseband recording", e);
+            System.exit(1);
+        }
+        catch(IllegalArgumentException iae)
+        {
+            mLog.error("Invalid benchmark configuration - " + iae.getMessage());
+            System.exit(1);
+        }
+        catch(InterruptedException ie)
+        {
+            mLog.error("Benchmark interrupted");
+        }
+
+        System.exit(0);
+    }
+
+    /**
+     * Pushes sample buffers into the benchmark tuner controller, either as fast as possible or paced at a multiple of
+     * real time.  The driver waits while the maximum number of delivered buffers are still held by the channelizer or
+     * while an internal channelizer queue is more than half full, so that an unthrottled driver measures the
+     * sustainable throughput of the channelizer instead of overflowing the channelizer queues.  Downstream channel
+     * queues are not throttled, so channels that can't keep up with the channelizer produce overflow events.
+     */
+    public abstract static class SampleDriver implements Runnable
+    {
+        private BenchmarkTuner mTuner;
+        protected BenchmarkTunerController mController;
+        private AtomicBoolean mRunning = new AtomicBoolean(true);
+        private double mSpeed;
+        private int mMaximumBuffersInFlight;
+
+        /**
+         * Constructs an instance
+         *
+         * @param tuner to receive samples
+         * @param speed multiple of real time, or 0 for unthrottled
+         * @param maximumBuffersInFlight before waiting for the channelizer
+         */
+        public SampleDriver(BenchmarkTuner tuner, double speed, int maximumBuffersInFlight)
+        {
+            mTuner = tuner;
+            mController = tuner.getTunerController();
+            mSpeed = speed;
+            mMaximumBuffersInFlight = Math.max(maximumBuffersInFlight, 1);
+        }
+
+        /**
+         * Delivers the next buffer of samples to the controller.
+         *
+         * @param timestamp for the samples
+         * @return number of complex samples delivered
+         */
+        protected abstract int deliverNext(long timestamp);
+
+        /**
+         * Maximum number of tuner buffers held by the channelizer before the driver waits
+         */
+        public int getMaximumBuffersInFlight()
+        {
+            return mMaximumBuffersInFlight;
+        }
+
+        /**
+         * Indicates if the channelizer is holding the maximum number of sample buffers or if any of the channelizer
+         * queues are more than half full.
+         */
+        private boolean isBacklogged()
+        {
+            if(mController.getBuffersInFlight() >= mMaximumBuffersInFlight)
+            {
+                return true;
+            }
+
+            for(QueueMetrics metrics: mTuner.getQueueMetrics())
+            {
+                if(metrics.getSize() > metrics.getMaximumSize() / 2)
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Signals the driver to stop
+         */
+        public void stop()
+        {
+            mRunning.set(false);
+        }
+
+        @Override
+        public void run()
+        {
+            double sampleRate = mController.getSampleRate();
+            long startTimestamp = System.currentTimeMillis();
+            long start = System.nanoTime();
+            long delivered = 0;
+
+            while(mRunning.get())
+            {
+                while(mRunning.get() && isBacklogged())
+                {
+                    LockSupport.parkNanos(50000);
+                }
+
+                if(mSpeed > 0)
+                {
+                    long wait = start + (long)(delivered * 1E9 / (sampleRate * mSpeed)) - System.nanoTime();
+
+                    if(wait > 0)
+                    {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+
+                //Timestamps follow the sample stream so that decoders see real time spacing between buffers
+                delivered += deliverNext(startTimestamp + (long)(delivered * 1000.0 / sampleRate));
+            }
+        }
+    }
+
+    /**
+     * Synthetic sample driver.  Generates a loop of samples containing an FM modulated tone at each channel
+     * frequency plus low level gaussian noise and delivers buffers from the loop.  Carrier and modulation frequencies
+     * are adjusted slightly so that each signal has a whole number of cycles in the loop and there is no phase
+     * discontinuity when the loop repeats.
+     */
+    public static class SyntheticSampleDriver extends SampleDriver
+    {
+        private static final int LOOP_BUFFER_COUNT = 8;
+        private static final double MODULATION_FREQUENCY = 1000.0;
+        private static final double DEVIATION = 2500.0;
+        private static final double SIGNAL_AMPLITUDE = 0.1;
+        private static final double NOISE_AMPLITUDE = 0.01;
+
+        private float[] mSamples;
+        private int mBufferLength;
+        private int mOffset;
+
+        /**
+         * Constructs an instance
+         *
+         * @param tuner to receive samples
+         * @param frequencies of the channels that will receive a signal
+         * @param speed multiple of real time, or 0 for unthrottled
+         * @param maximumBuffersInFlight before waiting for the channelizer
+         */
+        public SyntheticSampleDriver(BenchmarkTuner tuner, List<Long> frequencies, double speed,
+                                     int maximumBuffersInFlight)
+        {
+            super(tuner, speed, maximumBuffersInFlight);
+
+            BenchmarkTunerController controller = tuner.getTunerController();
+
+            double sampleRate = controller.getSampleRate();
+            int modulationPeriod = (int)Math.round(sampleRate / MODULATION_FREQUENCY);
+            int bufferSampleCount = controller.getBufferSampleCount();
+            int loopLength = (int)Math.ceil((double)bufferSampleCount * LOOP_BUFFER_COUNT / modulationPeriod) *
+                modulationPeriod;
+            double modulationIndex = DEVIATION / (sampleRate / modulationPeriod);
+
+            //FM modulated baseband tone for one modulation period
+            double[] basebandInphase = new double[modulationPeriod];
+            double[] basebandQuadrature = new double[modulationPeriod];
+
+            for(int x = 0; x < modulationPeriod; x++)
+            {
+                double phase = modulationIndex * Math.sin(2.0 * Math.PI * x / modulationPeriod);
+                basebandInphase[x] = Math.cos(phase) * SIGNAL_AMPLITUDE;
+                basebandQuadrature[x] = Math.sin(phase) * SIGNAL_AMPLITUDE;
+            }
+
+            mSamples = new float[loopLength * 2];
+            Random random = new Random(0);
+
+            for(int x = 0; x < mSamples.length; x++)
+            {
+                mSamples[x] = (float)(random.nextGaussian() * NOISE_AMPLITUDE);
+            }
+
+            for(long frequency: frequencies)
+            {
+                //Whole number of carrier cycles in the loop
+                long cycles = Math.round((frequency - controller.getFrequency()) * (double)loopLength / sampleRate);
+                double angle = 2.0 * Math.PI * cycles / loopLength;
+                double carrierInphase = 1.0;
+                double carrierQuadrature = 0.0;
+                double rotationInphase = Math.cos(angle);
+                double rotationQuadrature = Math.sin(angle);
+
+                for(int x = 0; x < loopLength; x++)
+                {
+                    int modulationIndexOffset = x % modulationPeriod;
+                    double inphase = basebandInphase[modulationIndexOffset];
+                    double quadrature = basebandQuadrature[modulationIndexOffset];
+
+                    mSamples[2 * x] += (float)(inphase * carrierInphase - quadrature * carrierQuadrature);
+                    mSamples[2 * x + 1] += (float)(inphase * carrierQuadrature + quadrature * carrierInphase);
+
+                    double rotatedInphase = carrierInphase * rotationInphase - carrierQuadrature * rotationQuadrature;
+                    carrierQuadrature = carrierInphase * rotationQuadrature + carrierQuadrature * rotationInphase;
+                    carrierInphase = rotatedInphase;
+
+                    //Correct the carrier magnitude drift from accumulated rounding errors
+                    if(x % modulationPeriod == 0)
+                    {
+                        double gain = 1.0 / Math.sqrt(carrierInphase * carrierInphase +
+                            carrierQuadrature * carrierQuadrature);
+                        carrierInphase *= gain;
+                        carrierQuadrature *= gain;
+                    }
+                }
+            }
+
+            mBufferLength = bufferSampleCount * 2;
+        }
+
+        @Override
+        protected int deliverNext(long timestamp)
+        {
+            int length = Math.min(mBufferLength, mSamples.length - mOffset);
+            mController.deliver(mSamples, mOffset, length, timestamp);
+            mOffset += length;
+
+            if(mOffset >= mSamples.length)
+            {
+                mOffset = 0;
+            }
+
+            return length / 2;
+        }
+    }
+
+    /**
+     * Recorded baseband sample driver.  Reads buffers from a complex wave file and restarts from the beginning of
+     * the file when the end of the recording is reached.
+     */
+    public static class RecordingSampleDriver extends SampleDriver implements Listener<ReusableComplexBuffer>
+    {
+        private ComplexWaveSource mComplexWaveSource;
+        private long mTimestamp;
+        private int mDelivered;
+
+        /**
+         * Constructs an instance
+         *
+         * @param tuner to receive samples
+         * @param complexWaveSource that is opened
+         * @param speed multiple of real time, or 0 for unthrottled
+         * @param maximumBuffersInFlight before waiting for the channelizer
+         */
+        public RecordingSampleDriver(BenchmarkTuner tuner, ComplexWaveSource complexWaveSource, double speed,
+                                     int maximumBuffersInFlight)
+        {
+            super(tuner, speed, maximumBuffersInFlight);
+            mComplexWaveSource = complexWaveSource;
+            mComplexWaveSource.setListener(this);
+        }
+
+        @Override
+        public void receive(ReusableComplexBuffer reusableComplexBuffer)
+        {
+            float[] samples = reusableComplexBuffer.getSamples();
+            mController.deliver(samples, 0, samples.length, mTimestamp);
+            mDelivered = samples.length / 2;
+            reusableComplexBuffer.decrementUserCount();
+        }
+
+        @Override
+        protected int deliverNext(long timestamp)
+        {
+            mTimestamp = timestamp;
+            mDelivered = 0;
+
+            try
+            {
+                mComplexWaveSource.next(mController.getBufferSampleCount());
+            }
+            catch(IOException ioe)
+            {
+                //End of recording - restart from the beginning
+                try
+                {
+                    mComplexWaveSource.close();
+                    mComplexWaveSource.open();
+                }
+                catch(IOException | UnsupportedAudioFileException e)
+                {
+                    mLog.error("Error reopening baseband recording - stopping sample driver", e);
+                    stop();
+                }
+            }
+
+            return mDelivered;
+        }
+    }
+
+    /**
+     * Processing chain module that counts decoded messages and decode events and monitors the channel source for
+     * overflow events.  Counts are cleared when measurement starts.
+     */
+    public static class ChannelMonitor extends Module implements IMessageListener, IDecodeEventListener
+    {
+        private String mName;
+        private long mFrequency;
+        private TunerChannelSource mSource;
+        private ProcessingChain mProcessingChain;
+        private AtomicLong mMessageCount = new AtomicLong();
+        private AtomicLong mValidMessageCount = new AtomicLong();
+        private AtomicLong mDecodeEventCount = new AtomicLong();
+        private long mStartOverflowCount;
+        private Listener<IMessage> mMessageListener = message -> {
+            mMessageCount.incrementAndGet();
+
+            if(message.isValid())
+            {
+                mValidMessageCount.incrementAndGet();
+            }
+        };
+        private Listener<IDecodeEvent> mDecodeEventListener = decodeEvent -> mDecodeEventCount.incrementAndGet();
+
+        /**
+         * Constructs an instance
+         *
+         * @param name of the channel
+         * @param frequency of the channel
+         * @param source for the channel
+         */
+        public ChannelMonitor(String name, long frequency, TunerChannelSource source)
+        {
+            mName = name;
+            mFrequency = frequency;
+            mSource = source;
+        }
+
+        /**
+         * Processing chain for the channel
+         */
+        public ProcessingChain getProcessingChain()
+        {
+            return mProcessingChain;
+        }
+
+        /**
+         * Sets the processing chain for the channel
+         */
+        public void setProcessingChain(ProcessingChain processingChain)
+        {
+            mProcessingChain = processingChain;
+        }
+
+        /**
+         * Clears the counts at the start of measurement
+         */
+        public void startMeasurement()
+        {
+            mMessageCount.set(0);
+            mValidMessageCount.set(0);
+            mDecodeEventCount.set(0);
+            mStartOverflowCount = mSource.getOverflowCount();
+        }
+
+        /**
+         * Number of channel source overflow events since measurement started
+         */
+        public long getOverflowCount()
+        {
+            return mSource.getOverflowCount() - mStartOverflowCount;
+        }
+
+        /**
+         * Number of decoded messages since measurement started
+         */
+        public long getMessageCount()
+        {
+            return mMessageCount.get();
+        }
+
+        /**
+         * Number of decode events since measurement started
+         */
+        public long getDecodeEventCount()
+        {
+            return mDecodeEventCount.get();
+        }
+
+        @Override
+        public Listener<IMessage> getMessageListener()
+        {
+            return mMessageListener;
+        }
+
+        @Override
+        public Listener<IDecodeEvent> getDecodeEventListener()
+        {
+            return mDecodeEventListener;
+        }
+
+        @Override
+        public void reset()
+        {
+        }
+
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+
+        @Override
+        public String toString()
+        {
+            return "[" + mName + "] Frequency [" + mFrequency + "] Messages [" + mMessageCount.get() + "] Valid [" +
+                mValidMessageCount.get() + "] Decode Events [" + mDecodeEventCount.get() + "] Overflows [" +
+                getOverflowCount() + "]";
+        }
+    }
+}
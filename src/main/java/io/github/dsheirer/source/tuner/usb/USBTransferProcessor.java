@@ -39,10 +39,23 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.LinkedTransferQueue;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Manages the lifecycle of a pool of USB bulk transfer buffers for a tuner.
+ *
+ * Each transfer is assigned a transfer ID that is its index in the transfer pool and that is attached to the libusb
+ * transfer as the user data, so that the in-flight/completed state of a transfer can be updated in constant time
+ * from the libusb event thread.  Completed transfers are handed to a dedicated dispatcher thread that parks while
+ * the completed transfer queue is empty and is signalled as each transfer is enqueued, so the transfer to converter
+ * latency doesn't depend on a scheduling period.  The dispatcher converts the transfer buffer to complex samples,
+ * delivers the samples to the listener and resubmits the transfer.
+ */
 public class USBTransferProcessor implements TransferCallback
 {
     private final static Logger mLog = LoggerFactory.getLogger(USBTransferProcessor.class);
@@ -50,20 +63,27 @@ public class USBTransferProcessor implements TransferCallback
     private static final byte USB_BULK_TRANSFER_ENDPOINT = (byte) 0x81;
     private static final long USB_TIMEOUT_MS = 2000l; //milliseconds
 
-    //Number of native byte buffers to allocate for transferring data from the USB device
-    private static final int TRANSFER_BUFFER_POOL_SIZE = 40;
+    //Default number of native byte buffers to allocate for transferring data from the USB device
+    public static final int DEFAULT_TRANSFER_COUNT = 40;
+
+    //Transfer states, indexed by transfer ID
+    private static final int TRANSFER_AVAILABLE = 0;
+    private static final int TRANSFER_IN_FLIGHT = 1;
+    private static final int TRANSFER_COMPLETED = 2;
 
+    private Transfer[] mTransfers = new Transfer[0];
+    private AtomicIntegerArray mTransferStates = new AtomicIntegerArray(0);
+    private long[] mCompletionTimestamps = new long[0];
     private LinkedTransferQueue<Transfer> mAvailableTransfers = new LinkedTransferQueue<>();
-    private LinkedTransferQueue<Transfer> mInProgressTransfers = new LinkedTransferQueue<>();
     private LinkedTransferQueue<Transfer> mCompletedTransfers = new LinkedTransferQueue<>();
     private List<Transfer> mTransfersToDispose = new ArrayList<>();
-    private List<Transfer> mTransfersToSubmit = new ArrayList<>();
 
     //Tuner format-specific byte buffer to IQ float sample converter
     private NativeBufferConverter mNativeBufferConverter;
 
-    //Byte array transfer buffers size in bytes
+    //Byte array transfer buffers size in bytes and number of transfer buffers
     private int mBufferSize;
+    private int mTransferCount = DEFAULT_TRANSFER_COUNT;
 
     private Listener<ReusableComplexBuffer> mComplexBufferListener;
 
@@ -72,12 +92,27 @@ public class USBTransferProcessor implements TransferCallback
     private AtomicBoolean mRunning = new AtomicBoolean();
     private AtomicBoolean mRestarting = new AtomicBoolean();
     private CompletedTransferProcessor mCompletedTransferProcessor = new CompletedTransferProcessor();
-    private ScheduledFuture mBufferDispatcherFuture;
+    private volatile Thread mDispatcherThread;
+    private AtomicBoolean mDispatcherIdle = new AtomicBoolean();
     private String mDeviceName;
     private int mTransferErrorLoggingCount = 0;
     private int mRestartCount = 0;
     private ITunerErrorListener mITunerErrorListener;
 
+    //Transfer statistics
+    private AtomicInteger mInFlightCount = new AtomicInteger();
+    private AtomicLong mCompletedCount = new AtomicLong();
+    private AtomicLong mDroppedCount = new AtomicLong();
+    private AtomicLong mErroredCount = new AtomicLong();
+    private AtomicLong mResubmitCount = new AtomicLong();
+    private AtomicLong mResubmitLatencyTotal = new AtomicLong();
+    private AtomicLong mResubmitLatencyMaximum = new AtomicLong();
+    private AtomicLong mUnderrunCount = new AtomicLong();
+    private AtomicLong mOverflowCount = new AtomicLong();
+    private AtomicInteger mBacklog = new AtomicInteger();
+    private AtomicInteger mBacklogMaximum = new AtomicInteger();
+    private AtomicBoolean mOverflow = new AtomicBoolean();
+
     /**
      * Manages stream of USB transfer buffers and converts buffers to complex buffer samples for distribution to
      * any registered listeners.
@@ -110,20 +145,84 @@ public class USBTransferProcessor implements TransferCallback
      * @param bufferSize to use for native usb buffer transfers
      */
     public void setBufferSize(int bufferSize)
+    {
+        setTransferSizing(bufferSize, mTransferCount);
+    }
+
+    /**
+     * Modifies the usb transfer buffer size and the number of transfer buffers.  Note: changing the sizing while the
+     * transfer processor is running causes the transfer to stop momentarily while the existing buffers are destroyed
+     * and new buffers are created.
+     *
+     * Note: this method is not thread safe.  Ensure that no other threads invoke stop() or start()
+     * while a sizing change is in progress.
+     *
+     * @param bufferSize to use for native usb buffer transfers
+     * @param transferCount number of transfer buffers
+     */
+    public void setTransferSizing(int bufferSize, int transferCount)
     {
         if(bufferSize % 2 == 1)
         {
             throw new IllegalArgumentException("Buffer size must be a multiple of 2 for complex samples");
         }
 
-        if(mBufferSize != bufferSize)
+        if(transferCount < 1)
         {
-            stop();
+            throw new IllegalArgumentException("Transfer count must be 1 or greater");
+        }
+
+        if(mBufferSize != bufferSize || mTransferCount != transferCount)
+        {
+            boolean running = mRunning.get();
+
+            if(running)
+            {
+                stop();
+            }
+
             mBufferSize = bufferSize;
-            start();
+            mTransferCount = transferCount;
+
+            mLog.info("[" + mDeviceName + "] - USB transfer buffer size [" + bufferSize + "] transfers [" +
+                transferCount + "]");
+
+            if(running && !start())
+            {
+                restart();
+            }
         }
     }
 
+    /**
+     * Current transfer buffer size in bytes
+     */
+    public int getBufferSize()
+    {
+        return mBufferSize;
+    }
+
+    /**
+     * Current number of transfer buffers
+     */
+    public int getTransferCount()
+    {
+        return mTransferCount;
+    }
+
+    /**
+     * Snapshot of the transfer statistics for this tuner.
+     */
+    public USBTransferStatistics getStatistics()
+    {
+        long resubmitCount = mResubmitCount.get();
+        long averageLatency = resubmitCount > 0 ? mResubmitLatencyTotal.get() / resubmitCount : 0;
+
+        return new USBTransferStatistics(mDeviceName, mBufferSize, mTransferCount, mInFlightCount.get(),
+            mCompletedCount.get(), mDroppedCount.get(), mErroredCount.get(), averageLatency,
+            mResubmitLatencyMaximum.get(), mUnderrunCount.get(), mOverflowCount.get(), mBacklogMaximum.get());
+    }
+
     /**
      * Start USB transfer buffer processing.  Subsequent calls to this method after started will be ignored.
      *
@@ -141,9 +240,22 @@ public class USBTransferProcessor implements TransferCallback
             if(submitTransfers())
             {
                 success = true;
+
                 //Start transferred buffer dispatcher
-                mBufferDispatcherFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(mCompletedTransferProcessor,
-                    0, 6, TimeUnit.MILLISECONDS);
+                mDispatcherThread = new Thread(mCompletedTransferProcessor);
+                mDispatcherThread.setName("USB Transfer Dispatcher [" + mDeviceName + "]");
+                mDispatcherThread.setDaemon(true);
+
+                try
+                {
+                    mDispatcherThread.setPriority(Thread.MAX_PRIORITY);
+                }
+                catch(IllegalArgumentException iae)
+                {
+                    //Do nothing ... couldn't set the priority
+                }
+
+                mDispatcherThread.start();
 
                 //Register with LibUSB processor so that it auto-starts LibUSB processing
                 TunerManager.LIBUSB_TRANSFER_PROCESSOR.registerTransferProcessor(this);
@@ -160,21 +272,38 @@ public class USBTransferProcessor implements TransferCallback
     {
         if(mRunning.compareAndSet(true, false))
         {
-            if(mBufferDispatcherFuture != null)
+            Thread dispatcherThread = mDispatcherThread;
+            mDispatcherThread = null;
+
+            if(dispatcherThread != null)
             {
-                mBufferDispatcherFuture.cancel(false);
-                mBufferDispatcherFuture = null;
+                LockSupport.unpark(dispatcherThread);
+
+                if(dispatcherThread != Thread.currentThread())
+                {
+                    try
+                    {
+                        dispatcherThread.join(1000);
+                    }
+                    catch(InterruptedException ie)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
             }
 
             //Cancel all buffers that are currently in progress
-            for(Transfer transfer : mInProgressTransfers)
+            for(int id = 0; id < mTransfers.length; id++)
             {
-                LibUsb.cancelTransfer(transfer);
+                if(mTransferStates.get(id) == TRANSFER_IN_FLIGHT)
+                {
+                    LibUsb.cancelTransfer(mTransfers[id]);
+                }
             }
 
             //Await completion of all in-progress transfers
             int waitCycleCount = 0;
-            while(!mInProgressTransfers.isEmpty() && waitCycleCount < 30)
+            while(mInFlightCount.get() > 0 && waitCycleCount < 30)
             {
                 waitCycleCount++;
 
@@ -193,7 +322,9 @@ public class USBTransferProcessor implements TransferCallback
 
             while(completedTransfer != null)
             {
-                mAvailableTransfers.add(completedTransfer);
+                mBacklog.decrementAndGet();
+                mDroppedCount.incrementAndGet();
+                makeAvailable(completedTransfer);
                 completedTransfer = mCompletedTransfers.poll();
             }
 
@@ -202,6 +333,8 @@ public class USBTransferProcessor implements TransferCallback
 
             executeDeviceStop();
 
+            mLog.info(getStatistics().toString());
+
             disposeTransfers();
         }
     }
@@ -249,15 +382,15 @@ public class USBTransferProcessor implements TransferCallback
                 }
             };
 
-            ThreadPool.SCHEDULED.schedule(runnable, 20, TimeUnit.MILLISECONDS);
+            ThreadPool.DSP.schedule(runnable, 20, TimeUnit.MILLISECONDS);
         }
     }
 
     /**
-     * (Re)Submits transfer buffers to the USB device.  Since we're offloading byte buffer to complex sample conversion
-     * to another thread, there may be times when sufficient transfer buffers are not available to keep a level number
-     * of transfer buffers in progress.  Therefore, we track the transfer buffers to submit deficit number and attempt
-     * to play catch-up each time this method is invoked.
+     * (Re)Submits available transfer buffers to the USB device.  Since we're offloading byte buffer to complex sample
+     * conversion to another thread, there may be times when sufficient transfer buffers are not available to keep a
+     * level number of transfer buffers in progress.  Therefore, each invocation submits all available transfers to
+     * play catch-up.
      *
      * @return boolean true if there were no errors submitting transfer buffers.  A false value indicates that there
      * were errors and that the device likely needs to be reset.
@@ -266,51 +399,52 @@ public class USBTransferProcessor implements TransferCallback
     {
         if(mRunning.get())
         {
-            mAvailableTransfers.drainTo(mTransfersToSubmit);
+            Transfer transfer = mAvailableTransfers.poll();
 
-            if(!mTransfersToSubmit.isEmpty())
+            while(transfer != null)
             {
-                Transfer transfer = mTransfersToSubmit.remove(0);
+                int id = getTransferId(transfer);
+
+                //Flag the transfer as in-flight before submitting since the callback can occur before submit returns
+                mTransferStates.set(id, TRANSFER_IN_FLIGHT);
+                mInFlightCount.incrementAndGet();
 
-                while(transfer != null)
+                int status = LibUsb.submitTransfer(transfer);
+
+                if(status == LibUsb.SUCCESS)
                 {
-                    int status = LibUsb.submitTransfer(transfer);
+                    long completed = mCompletionTimestamps[id];
 
-                    switch(status)
+                    if(completed > 0)
                     {
-                        case LibUsb.SUCCESS:
-                            mInProgressTransfers.add(transfer);
-
-                            if(!mTransfersToSubmit.isEmpty())
-                            {
-                                transfer = mTransfersToSubmit.remove(0);
-                            }
-                            else
-                            {
-                                transfer = null;
-                            }
-                            break;
-                        case LibUsb.ERROR_PIPE:
-                            mLog.warn("[" + mDeviceName + "] - USB Pipe Error while submitting transfer buffers");
-                            LibUsb.clearHalt(mUsbBulkTransferDeviceHandle, USB_BULK_TRANSFER_ENDPOINT);
-                            mTransfersToDispose.add(transfer);
-                            transfer = null;
-                            break;
-                        default:
-                            mLog.error("[" + mDeviceName + "] - " + getErrorStatus(status) + " while submitting transfer buffers");
-                            mTransfersToDispose.add(transfer);
-                            transfer = null;
-                            break;
+                        long latency = System.nanoTime() - completed;
+                        mResubmitCount.incrementAndGet();
+                        mResubmitLatencyTotal.addAndGet(latency);
+                        mResubmitLatencyMaximum.accumulateAndGet(latency, Math::max);
                     }
+
+                    transfer = mAvailableTransfers.poll();
                 }
-            }
+                else
+                {
+                    mTransferStates.set(id, TRANSFER_AVAILABLE);
+                    mInFlightCount.decrementAndGet();
+                    mErroredCount.incrementAndGet();
 
-            //If we aborted submitting transfers or if we had an error while submitting, move the remaining transfers
-            // back to the available queue and restart the device
-            if(!mTransfersToSubmit.isEmpty())
-            {
-                mAvailableTransfers.addAll(mTransfersToSubmit);
-                mTransfersToSubmit.clear();;
+                    if(status == LibUsb.ERROR_PIPE)
+                    {
+                        mLog.warn("[" + mDeviceName + "] - USB Pipe Error while submitting transfer buffers");
+                        LibUsb.clearHalt(mUsbBulkTransferDeviceHandle, USB_BULK_TRANSFER_ENDPOINT);
+                    }
+                    else
+                    {
+                        mLog.error("[" + mDeviceName + "] - " + getErrorStatus(status) +
+                            " while submitting transfer buffers");
+                    }
+
+                    mTransfersToDispose.add(transfer);
+                    transfer = null;
+                }
             }
         }
 
@@ -318,25 +452,37 @@ public class USBTransferProcessor implements TransferCallback
     }
 
     /**
-     * Frees all allocated transfers in preparation for shutdown
+     * Frees all allocated transfers in preparation for shutdown.  Transfers that are still in-flight are owned by
+     * libusb and can't be freed.
      */
     private void disposeTransfers()
     {
-        mAvailableTransfers.drainTo(mTransfersToDispose);
+        int inFlight = 0;
 
-        if(mTransfersToDispose.size() != TRANSFER_BUFFER_POOL_SIZE)
+        for(int id = 0; id < mTransfers.length; id++)
         {
-            mLog.warn("[" + mDeviceName + "] - potential memory leak [" +
-                mTransfersToDispose.size() + " of " + TRANSFER_BUFFER_POOL_SIZE +
-                "] USB transfer buffers will be disposed during shutdown");
+            if(mTransferStates.get(id) == TRANSFER_IN_FLIGHT)
+            {
+                inFlight++;
+            }
+            else
+            {
+                LibUsb.freeTransfer(mTransfers[id]);
+            }
         }
 
-        for(Transfer transfer: mTransfersToDispose)
+        if(inFlight > 0)
         {
-            LibUsb.freeTransfer(transfer);
+            mLog.warn("[" + mDeviceName + "] - potential memory leak [" + inFlight + " of " + mTransfers.length +
+                "] USB transfer buffers are still in-flight and can't be disposed during shutdown");
         }
 
+        mAvailableTransfers.clear();
         mTransfersToDispose.clear();
+        mTransfers = new Transfer[0];
+        mTransferStates = new AtomicIntegerArray(0);
+        mCompletionTimestamps = new long[0];
+        mInFlightCount.set(0);
     }
 
     /**
@@ -386,13 +532,18 @@ public class USBTransferProcessor implements TransferCallback
     }
 
     /**
-     * Prepares (allocates) a set of transfer buffers for use in transferring data from the USB device via the bulk
-     * interface.  Since we're using direct memory allocation (native), buffers are retained and reused across multiple
-     * start/stop cycles.
+     * Prepares (allocates) the pool of transfer buffers for use in transferring data from the USB device via the bulk
+     * interface.  Each transfer is tagged with its transfer ID (index in the pool) as the libusb user data.
      */
     private void prepareTransfers() throws LibUsbException
     {
-        while(mAvailableTransfers.size() < TRANSFER_BUFFER_POOL_SIZE)
+        mTransfers = new Transfer[mTransferCount];
+        mTransferStates = new AtomicIntegerArray(mTransferCount);
+        mCompletionTimestamps = new long[mTransferCount];
+        mBacklog.set(0);
+        mOverflow.set(false);
+
+        for(int id = 0; id < mTransferCount; id++)
         {
             Transfer transfer = LibUsb.allocTransfer();
 
@@ -404,22 +555,121 @@ public class USBTransferProcessor implements TransferCallback
             final ByteBuffer buffer = ByteBuffer.allocateDirect(mBufferSize);
 
             LibUsb.fillBulkTransfer(transfer, mUsbBulkTransferDeviceHandle, USB_BULK_TRANSFER_ENDPOINT, buffer, this,
-                "Buffer", USB_TIMEOUT_MS);
+                id, USB_TIMEOUT_MS);
 
+            mTransfers[id] = transfer;
             mAvailableTransfers.add(transfer);
         }
     }
 
+    /**
+     * Transfer ID (index in the transfer pool) for the transfer
+     */
+    private static int getTransferId(Transfer transfer)
+    {
+        return (Integer)transfer.userData();
+    }
+
+    /**
+     * Transfer ID (index in the transfer pool) of the pooled transfer that equals the completed transfer.  Transfers
+     * are equal when they wrap the same native libusb transfer, so this also matches a completed transfer that is a
+     * different wrapper instance than the pooled transfer.  The ID is normally found from the transfer user data,
+     * with a scan of the pool as a fallback when the user data doesn't identify a matching pooled transfer.
+     *
+     * @param transfer that completed
+     * @param transfers in the current transfer pool
+     * @return transfer ID or -1 if the transfer is not from the current transfer pool
+     */
+    private static int getPooledTransferId(Transfer transfer, Transfer[] transfers)
+    {
+        Object userData = transfer.userData();
+
+        if(userData instanceof Integer)
+        {
+            int id = (Integer)userData;
+
+            if(id >= 0 && id < transfers.length && transfers[id].equals(transfer))
+            {
+                return id;
+            }
+        }
+
+        for(int id = 0; id < transfers.length; id++)
+        {
+            if(transfers[id].equals(transfer))
+            {
+                return id;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Rewinds the transfer buffer and returns the transfer to the available queue
+     */
+    private void makeAvailable(Transfer transfer)
+    {
+        transfer.buffer().rewind();
+        mTransferStates.set(getTransferId(transfer), TRANSFER_AVAILABLE);
+        mAvailableTransfers.add(transfer);
+    }
+
+    /**
+     * Enqueues the completed transfer and signals the dispatcher thread if it is idle.  Tracks the backlog of
+     * completed transfers awaiting conversion and counts an overflow each time the backlog reaches three quarters of
+     * the transfers, indicating that sample processing is not keeping up with the tuner.  The overflow state resets
+     * once the backlog falls below one quarter of the transfers.
+     */
+    private void dispatch(Transfer transfer)
+    {
+        int backlog = mBacklog.incrementAndGet();
+        mBacklogMaximum.accumulateAndGet(backlog, Math::max);
+
+        if(backlog >= (mTransfers.length * 3 / 4) && mOverflow.compareAndSet(false, true))
+        {
+            mOverflowCount.incrementAndGet();
+        }
+
+        mCompletedTransfers.add(transfer);
+
+        Thread dispatcherThread = mDispatcherThread;
+
+        if(dispatcherThread != null && mDispatcherIdle.get() && mDispatcherIdle.compareAndSet(true, false))
+        {
+            LockSupport.unpark(dispatcherThread);
+        }
+    }
+
     /**
      * Process a filled transfer buffer received back from the USB device.  Note: this method is invoked on the USB
      * bus processing thread, so we try to keep processing to a minimum and place transfers in the completed
-     * transfer queue so that the scheduled processor thread handles any conversion and additional downstream
-     * processing workload.
+     * transfer queue so that the dispatcher thread handles any conversion and additional downstream processing
+     * workload.
      */
     @Override
-    public void processTransfer(Transfer transfer)
+    public void processTransfer(Transfer completedTransfer)
     {
-        mInProgressTransfers.remove(transfer);
+        Transfer[] transfers = mTransfers;
+        int id = getPooledTransferId(completedTransfer, transfers);
+
+        //Ignore stale transfers from a previous transfer pool that were not returned before shutdown
+        if(id < 0)
+        {
+            return;
+        }
+
+        //Continue with the pooled instance, which always carries the transfer ID user data
+        Transfer transfer = transfers[id];
+
+        if(mTransferStates.compareAndSet(id, TRANSFER_IN_FLIGHT, TRANSFER_COMPLETED) &&
+            mInFlightCount.decrementAndGet() == 0 && mRunning.get())
+        {
+            //Underrun - the device has no submitted transfers to fill and will drop samples until resubmission
+            mUnderrunCount.incrementAndGet();
+        }
+
+        mCompletionTimestamps[id] = System.nanoTime();
 
         switch(transfer.status())
         {
@@ -428,23 +678,23 @@ public class USBTransferProcessor implements TransferCallback
             case LibUsb.TRANSFER_TIMED_OUT:
                 if(transfer.actualLength() > 0)
                 {
-                    mCompletedTransfers.add(transfer);
+                    dispatch(transfer);
                 }
                 else
                 {
-                    transfer.buffer().rewind();
-                    mAvailableTransfers.add(transfer);
+                    makeAvailable(transfer);
                 }
                 break;
             case LibUsb.TRANSFER_ERROR:
+                mErroredCount.incrementAndGet();
+
                 if(transfer.actualLength() > 0)
                 {
-                    mCompletedTransfers.add(transfer);
+                    dispatch(transfer);
                 }
                 else
                 {
-                    transfer.buffer().rewind();
-                    mAvailableTransfers.add(transfer);
+                    makeAvailable(transfer);
 
                     mTransferErrorLoggingCount++;
 
@@ -460,16 +710,16 @@ public class USBTransferProcessor implements TransferCallback
 
                 break;
             case LibUsb.TRANSFER_CANCELLED:
-                transfer.buffer().rewind();
-                mAvailableTransfers.add(transfer);
+                makeAvailable(transfer);
                 break;
             default:
-                //Unexpected transfer error - need to reset the bulk transfer interface
+                //Unexpected transfer error - need to reset the bulk transfer interface.  Restart from another thread
+                //since stopping waits for cancelled transfers to be returned on this (libusb event) thread.
+                mErroredCount.incrementAndGet();
                 mLog.error("[" + mDeviceName + "] - transfer error [" + getTransferStatus(transfer.status()) +
                     "] transferred actual: " + transfer.actualLength());
-                transfer.buffer().rewind();
-                mAvailableTransfers.add(transfer);
-                restart();
+                makeAvailable(transfer);
+                ThreadPool.DSP.submit(() -> restart());
                 return;
         }
     }
@@ -539,52 +789,65 @@ public class USBTransferProcessor implements TransferCallback
     }
 
     /**
-     * Processes completed USB buffer transfers, converts the transferred bytes into complex samples and dispatches the
-     * sample buffer to the listener.
+     * Dispatcher that parks while the completed transfer queue is empty and is signalled once a transfer is enqueued.
+     * Converts each completed USB transfer buffer into
+     * complex samples, dispatches the sample buffer to the listener and resubmits the transfer.
      */
     public class CompletedTransferProcessor implements Runnable
     {
         @Override
         public void run()
         {
-            try
+            while(mRunning.get())
             {
                 Transfer transfer = mCompletedTransfers.poll();
 
-                while(transfer != null)
+                if(transfer == null)
                 {
-                    if(mRunning.get())
-                    {
-                        ByteBuffer nativeBuffer = transfer.buffer();
-
-                        ReusableComplexBuffer reusableComplexBuffer =
-                            mNativeBufferConverter.convert(nativeBuffer, transfer.actualLength());
+                    mDispatcherIdle.set(true);
 
-                        if(mComplexBufferListener != null)
-                        {
-                            mComplexBufferListener.receive(reusableComplexBuffer);
-                        }
+                    //Check again after flagging idle so that we don't miss a signal from the libusb event thread
+                    if(mCompletedTransfers.isEmpty() && mRunning.get())
+                    {
+                        LockSupport.park(this);
                     }
 
-                    transfer.buffer().rewind();
-                    mAvailableTransfers.add(transfer);
+                    mDispatcherIdle.set(false);
+                    continue;
+                }
+
+                if(mBacklog.decrementAndGet() < (mTransfers.length / 4))
+                {
+                    mOverflow.set(false);
+                }
 
-                    boolean success = submitTransfers();
+                try
+                {
+                    Listener<ReusableComplexBuffer> listener = mComplexBufferListener;
 
-                    if(success)
+                    if(mRunning.get() && listener != null)
                     {
-                        transfer = mCompletedTransfers.poll();
+                        ReusableComplexBuffer reusableComplexBuffer =
+                            mNativeBufferConverter.convert(transfer.buffer(), transfer.actualLength());
+                        listener.receive(reusableComplexBuffer);
+                        mCompletedCount.incrementAndGet();
                     }
                     else
                     {
-                        ThreadPool.SCHEDULED.submit(() -> restart());
-                        transfer = null;
+                        mDroppedCount.incrementAndGet();
                     }
                 }
-            }
-            catch(Throwable throwable)
-            {
-                mLog.error("[" + mDeviceName + "] - error while processing USB transfer buffers", throwable);
+                catch(Throwable throwable)
+                {
+                    mLog.error("[" + mDeviceName + "] - error while processing USB transfer buffers", throwable);
+                }
+
+                makeAvailable(transfer);
+
+                if(!submitTransfers())
+                {
+                    ThreadPool.DSP.submit(() -> restart());
+                }
             }
         }
     }
@@ -0,0 +1,106 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.usb;
+
+/**
+ * USB transfer buffer size and transfer count for a tuner.
+ *
+ * Adaptive sizing chooses the largest power-of-two buffer size that holds no more than the latency budget worth of
+ * samples, so each buffer is delivered to the converter within the latency budget.  The buffer always holds at least
+ * 1 millisecond of samples, since buffer durations are tracked in whole milliseconds.  It then chooses enough transfers
+ * to hold the buffering duration worth of samples, so that a momentary stall in sample processing doesn't leave the
+ * tuner without submitted transfers.
+ */
+public class USBTransferSizing
+{
+    public static final int MINIMUM_BUFFER_SIZE = 4096;
+    public static final int MAXIMUM_BUFFER_SIZE = 262144;
+    public static final int MINIMUM_TRANSFER_COUNT = 8;
+    public static final int MAXIMUM_TRANSFER_COUNT = 64;
+
+    //Duration of samples held by the pool of transfers when adaptively sized
+    public static final int BUFFERING_DURATION_MS = 250;
+
+    private int mBufferSize;
+    private int mTransferCount;
+
+    /**
+     * Constructs an instance
+     *
+     * @param bufferSize in bytes for each transfer
+     * @param transferCount number of transfers
+     */
+    public USBTransferSizing(int bufferSize, int transferCount)
+    {
+        mBufferSize = bufferSize;
+        mTransferCount = transferCount;
+    }
+
+    /**
+     * Calculates the transfer sizing for the sample rate and latency budget.
+     *
+     * @param sampleRate of the tuner in complex samples per second
+     * @param bytesPerSample number of transferred bytes per complex sample
+     * @param latencyBudget maximum duration of samples per transfer buffer in milliseconds, subject to the 1
+     * millisecond minimum buffer duration
+     * @return sizing
+     */
+    public static USBTransferSizing fromSampleRate(double sampleRate, double bytesPerSample, int latencyBudget)
+    {
+        double bytesPerMillisecond = sampleRate * bytesPerSample / 1000.0;
+
+        int bufferSize = MINIMUM_BUFFER_SIZE;
+
+        while(bufferSize < MAXIMUM_BUFFER_SIZE &&
+            (bufferSize < bytesPerMillisecond || (bufferSize * 2) <= bytesPerMillisecond * latencyBudget))
+        {
+            bufferSize *= 2;
+        }
+
+        int transferCount = (int)Math.ceil(bytesPerMillisecond * BUFFERING_DURATION_MS / bufferSize);
+        transferCount = Math.min(Math.max(transferCount, MINIMUM_TRANSFER_COUNT), MAXIMUM_TRANSFER_COUNT);
+
+        return new USBTransferSizing(bufferSize, transferCount);
+    }
+
+    /**
+     * Transfer buffer size in bytes
+     */
+    public int getBufferSize()
+    {
+        return mBufferSize;
+    }
+
+    /**
+     * Number of transfers
+     */
+    public int getTransferCount()
+    {
+        return mTransferCount;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Buffer Size [" + mBufferSize + "] Transfers [" + mTransferCount + "]";
+    }
+}
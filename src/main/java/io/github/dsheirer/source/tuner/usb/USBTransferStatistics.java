@@ -0,0 +1,167 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.usb;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time snapshot of USB transfer processor statistics for a tuner
+ */
+public class USBTransferStatistics
+{
+    private String mDeviceName;
+    private int mBufferSize;
+    private int mTransferCount;
+    private int mInFlightCount;
+    private long mCompletedCount;
+    private long mDroppedCount;
+    private long mErroredCount;
+    private long mAverageResubmitLatency;
+    private long mMaximumResubmitLatency;
+    private long mUnderrunCount;
+    private long mOverflowCount;
+    private int mMaximumBacklog;
+
+    /**
+     * Constructs an instance
+     *
+     * @param deviceName of the tuner
+     * @param bufferSize of each transfer buffer in bytes
+     * @param transferCount number of allocated transfer buffers
+     * @param inFlightCount number of transfer buffers currently submitted to the USB device
+     * @param completedCount number of transfer buffers converted and delivered to the listener
+     * @param droppedCount number of transfer buffers containing samples that were discarded without being delivered
+     * @param erroredCount number of transfer buffers that completed or failed submission with an error status
+     * @param averageResubmitLatency average time in nanoseconds from transfer completion to resubmission
+     * @param maximumResubmitLatency maximum time in nanoseconds from transfer completion to resubmission
+     * @param underrunCount number of times that no transfers were submitted to the USB device
+     * @param overflowCount number of times that the backlog of transfers awaiting conversion reached the overflow
+     * threshold
+     * @param maximumBacklog maximum number of completed transfers awaiting conversion
+     */
+    public USBTransferStatistics(String deviceName, int bufferSize, int transferCount, int inFlightCount,
+                                 long completedCount, long droppedCount, long erroredCount,
+                                 long averageResubmitLatency, long maximumResubmitLatency, long underrunCount,
+                                 long overflowCount, int maximumBacklog)
+    {
+        mDeviceName = deviceName;
+        mBufferSize = bufferSize;
+        mTransferCount = transferCount;
+        mInFlightCount = inFlightCount;
+        mCompletedCount = completedCount;
+        mDroppedCount = droppedCount;
+        mErroredCount = erroredCount;
+        mAverageResubmitLatency = averageResubmitLatency;
+        mMaximumResubmitLatency = maximumResubmitLatency;
+        mUnderrunCount = underrunCount;
+        mOverflowCount = overflowCount;
+        mMaximumBacklog = maximumBacklog;
+    }
+
+    public String getDeviceName()
+    {
+        return mDeviceName;
+    }
+
+    public int getBufferSize()
+    {
+        return mBufferSize;
+    }
+
+    public int getTransferCount()
+    {
+        return mTransferCount;
+    }
+
+    public int getInFlightCount()
+    {
+        return mInFlightCount;
+    }
+
+    public long getCompletedCount()
+    {
+        return mCompletedCount;
+    }
+
+    public long getDroppedCount()
+    {
+        return mDroppedCount;
+    }
+
+    public long getErroredCount()
+    {
+        return mErroredCount;
+    }
+
+    /**
+     * Average time from transfer completion to resubmission in nanoseconds
+     */
+    public long getAverageResubmitLatency()
+    {
+        return mAverageResubmitLatency;
+    }
+
+    /**
+     * Maximum time from transfer completion to resubmission in nanoseconds
+     */
+    public long getMaximumResubmitLatency()
+    {
+        return mMaximumResubmitLatency;
+    }
+
+    /**
+     * Number of times that all transfers were returned from the USB device without any transfers submitted, where
+     * the device drops samples until a transfer is resubmitted
+     */
+    public long getUnderrunCount()
+    {
+        return mUnderrunCount;
+    }
+
+    /**
+     * Number of times that the backlog of completed transfers awaiting conversion reached the overflow threshold,
+     * indicating that sample processing is not keeping up with the tuner sample rate
+     */
+    public long getOverflowCount()
+    {
+        return mOverflowCount;
+    }
+
+    /**
+     * Maximum number of completed transfers awaiting conversion
+     */
+    public int getMaximumBacklog()
+    {
+        return mMaximumBacklog;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "USB Transfers [" + mDeviceName + "] Buffers [" + mTransferCount + " x " + mBufferSize +
+            " bytes] In Flight [" + mInFlightCount + "] Completed [" + mCompletedCount + "] Dropped [" +
+            mDroppedCount + "] Errored [" + mErroredCount + "] Underruns [" + mUnderrunCount + "] Overflows [" +
+            mOverflowCount + "] Maximum Backlog [" + mMaximumBacklog + "] Resubmit Latency Average [" +
+            TimeUnit.NANOSECONDS.toMicros(mAverageResubmitLatency) + " us] Maximum [" +
+            TimeUnit.NANOSECONDS.toMicros(mMaximumResubmitLatency) + " us]";
+    }
+}
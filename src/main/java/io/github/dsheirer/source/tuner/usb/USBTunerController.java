@@ -18,12 +18,17 @@
  ******************************************************************************/
 package io.github.dsheirer.source.tuner.usb;
 
+import io.github.dsheirer.preference.source.TunerPreference;
+import io.github.dsheirer.preference.source.USBTransferMode;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.tuner.TunerController;
 
 public abstract class USBTunerController extends TunerController
 {
+    private USBTransferMode mUSBTransferMode = USBTransferMode.FIXED;
+    private int mUSBTransferLatency = TunerPreference.USB_TRANSFER_LATENCY_DEFAULT;
+
     /**
      * USB tuner controller class. Provides auto-start and auto-stop function when complex buffer listeners are added
      * or removed from this tuner controller.
@@ -40,6 +45,71 @@ public abstract class USBTunerController extends TunerController
 
     protected abstract USBTransferProcessor getUSBTransferProcessor();
 
+    /**
+     * Number of bytes transferred from the USB device for each complex sample.
+     */
+    protected abstract double getUSBTransferBytesPerSample();
+
+    /**
+     * Transfer buffer size in bytes used by the fixed USB transfer mode for the current sample rate.
+     */
+    protected abstract int getFixedUSBTransferBufferSize();
+
+    /**
+     * Sets the USB transfer mode and applies the transfer sizing to the USB transfer processor.
+     *
+     * @param mode fixed (tuner default buffer size and count) or adaptive (sized from the sample rate and latency)
+     * @param latency budget in milliseconds for the duration of samples in each transfer buffer in adaptive mode
+     */
+    public void setUSBTransferMode(USBTransferMode mode, int latency)
+    {
+        mUSBTransferMode = mode;
+        mUSBTransferLatency = latency;
+        updateUSBTransferSizing();
+    }
+
+    /**
+     * Transfer buffer sizing for the current USB transfer mode and sample rate.
+     */
+    public USBTransferSizing getUSBTransferSizing()
+    {
+        if(mUSBTransferMode == USBTransferMode.ADAPTIVE)
+        {
+            return USBTransferSizing.fromSampleRate(getSampleRate(), getUSBTransferBytesPerSample(),
+                mUSBTransferLatency);
+        }
+
+        return new USBTransferSizing(getFixedUSBTransferBufferSize(), USBTransferProcessor.DEFAULT_TRANSFER_COUNT);
+    }
+
+    /**
+     * Applies the transfer buffer sizing for the current USB transfer mode and sample rate to the USB transfer
+     * processor.  Sub-class implementations should invoke this method each time the sample rate changes.  If the
+     * transfer processor is running and the sizing changes, the transfer processor is momentarily stopped and
+     * restarted with the new sizing.
+     */
+    protected void updateUSBTransferSizing()
+    {
+        USBTransferProcessor processor = getUSBTransferProcessor();
+
+        if(processor != null)
+        {
+            USBTransferSizing sizing = getUSBTransferSizing();
+            processor.setTransferSizing(sizing.getBufferSize(), sizing.getTransferCount());
+        }
+    }
+
+    /**
+     * Number of complex samples in each transfer buffer
+     */
+    @Override
+    public int getBufferSampleCount()
+    {
+        USBTransferProcessor processor = getUSBTransferProcessor();
+        int bufferSize = processor != null ? processor.getBufferSize() : getUSBTransferSizing().getBufferSize();
+        return (int)(bufferSize / getUSBTransferBytesPerSample());
+    }
+
     /**
      * Adds the IQ buffer listener and automatically starts buffer transfer processing, if not already started.
      */
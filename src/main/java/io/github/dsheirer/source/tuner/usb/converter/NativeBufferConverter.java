@@ -19,11 +19,18 @@ import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
 
 import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
 
+/**
+ * Base class for converting native USB transfer byte buffers into complex float samples.
+ *
+ * Sub-class implementations decode the native buffer directly into the sample array of the pooled reusable buffer in
+ * a single pass, without an intermediate float buffer.  Native buffer contents are transferred with bulk operations
+ * (ie into a reusable scratch array or a typed view of the native buffer) rather than one get() at a time.
+ */
 public abstract class NativeBufferConverter
 {
     private ReusableComplexBufferQueue mReusableComplexBufferQueue = new ReusableComplexBufferQueue("NativeBufferConverter");
+    private byte[] mScratch = new byte[0];
 
     /**
      * Converts native byte buffers into complex float samples and produces reusable complex sample buffers.  Tracks
@@ -39,26 +46,57 @@ public abstract class NativeBufferConverter
      * the buffer.
      *
      * @param byteBuffer containing native memory byte samples
+     * @param length of bytes to convert from the native buffer
      * @return native buffer samples converted to complex floats loaded into a reusable buffer
      */
     public ReusableComplexBuffer convert(ByteBuffer byteBuffer, int length)
     {
-        FloatBuffer floatBuffer = convertSamples(byteBuffer, length);
+        length = Math.min(length, byteBuffer.capacity());
 
-        ReusableComplexBuffer reusableComplexBuffer = mReusableComplexBufferQueue.getBuffer(floatBuffer.capacity());
+        ReusableComplexBuffer reusableComplexBuffer = mReusableComplexBufferQueue.getBuffer(getSampleCount(length));
+        reusableComplexBuffer.setTimestamp(System.currentTimeMillis());
 
-        //The reusable buffer will rewind the float buffer to the beginning
-        reusableComplexBuffer.reloadFrom(floatBuffer, System.currentTimeMillis());
+        byteBuffer.rewind();
+        convertSamples(byteBuffer, length, reusableComplexBuffer.getSamples());
 
         return reusableComplexBuffer;
     }
 
+    /**
+     * Number of float sample values (ie twice the complex sample count) that will be produced from the specified
+     * number of native buffer bytes.
+     *
+     * @param length of bytes to convert
+     * @return float sample count
+     */
+    protected abstract int getSampleCount(int length);
+
     /**
      * Converts the native byte buffer bytes into complex float samples.
      *
-     * @param buffer containing native byte buffer samples
-     * @return a buffer with complex float samples.  This float buffer will not be modified, therefore sub-class
-     * implementations can reuse the float buffer.
+     * @param buffer containing native byte buffer samples, positioned at the start of the buffer
+     * @param length of bytes to convert from the native buffer
+     * @param samples destination array with a length equal to the value returned from getSampleCount(length)
      */
-    protected abstract FloatBuffer convertSamples(ByteBuffer buffer, int length);
+    protected abstract void convertSamples(ByteBuffer buffer, int length, float[] samples);
+
+    /**
+     * Transfers the specified number of bytes from the native buffer into a reusable heap scratch array using a single
+     * bulk transfer.
+     *
+     * @param buffer containing native byte samples
+     * @param length of bytes to transfer
+     * @return scratch array containing the bytes, with a length equal to or greater than the length argument
+     */
+    protected byte[] getBytes(ByteBuffer buffer, int length)
+    {
+        if(mScratch.length < length)
+        {
+            mScratch = new byte[length];
+        }
+
+        buffer.get(mScratch, 0, length);
+
+        return mScratch;
+    }
 }
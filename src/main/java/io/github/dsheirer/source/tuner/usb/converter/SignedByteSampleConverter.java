@@ -16,7 +16,6 @@
 package io.github.dsheirer.source.tuner.usb.converter;
 
 import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
 
 public class SignedByteSampleConverter extends NativeBufferConverter
 {
@@ -34,8 +33,6 @@ public class SignedByteSampleConverter extends NativeBufferConverter
         }
     }
 
-    private FloatBuffer mFloatBuffer;
-
     /**
      * Converts native byte buffers containing signed 8-bit complex samples into complex float samples loaded into a tracked,
      * reusable complex sample buffer.  Internally tracks the reusable buffer until all downstream consumers have finished
@@ -46,35 +43,30 @@ public class SignedByteSampleConverter extends NativeBufferConverter
     }
 
     /**
-     * Converts the signed 8-bit complex samples contained in the native buffer into floats that are loaded into a float
-     * buffer and subsequently transferred to a reusable complex buffer by the parent class.
+     * Each byte is converted to one float value, truncated to a whole number of complex samples
+     */
+    @Override
+    protected int getSampleCount(int length)
+    {
+        return length & ~1;
+    }
+
+    /**
+     * Converts the signed 8-bit complex samples contained in the native buffer into floats that are loaded directly
+     * into the samples array, using a bulk transfer of the native bytes and a lookup table.
      *
      * @param nativeBuffer containing signed 8-bit complex samples
      * @param length of bytes to read from the native buffer
-     * @return float buffer loaded with converted samples
+     * @param samples array to receive the converted samples
      */
     @Override
-    protected FloatBuffer convertSamples(ByteBuffer nativeBuffer, int length)
+    protected void convertSamples(ByteBuffer nativeBuffer, int length, float[] samples)
     {
-        nativeBuffer.rewind();
+        byte[] bytes = getBytes(nativeBuffer, length);
 
-        if(mFloatBuffer == null || mFloatBuffer.capacity() != nativeBuffer.capacity())
+        for(int x = 0; x < samples.length; x++)
         {
-            mFloatBuffer = FloatBuffer.allocate(nativeBuffer.capacity());
+            samples[x] = LOOKUP_VALUES[bytes[x] & 0xFF];
         }
-
-        mFloatBuffer.rewind();
-
-        int count = 0;
-
-        while(nativeBuffer.hasRemaining() && count < length)
-        {
-            byte sample = nativeBuffer.get();
-            count++;
-
-            mFloatBuffer.put(LOOKUP_VALUES[(sample & 0xFF)]);
-        }
-
-        return mFloatBuffer;
     }
 }
@@ -21,7 +21,8 @@
  */
 package io.github.dsheirer.source.wave;
 
-import io.github.dsheirer.sample.ConversionUtils;
+import io.github.dsheirer.record.compressed.CompressedComplexFormat;
+import io.github.dsheirer.record.compressed.CompressedComplexReader;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
@@ -34,30 +35,34 @@ import org.apache.commons.math3.util.FastMath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class ComplexWaveSource extends ComplexSource implements IControllableFileSource, AutoCloseable
 {
     private final static Logger mLog = LoggerFactory.getLogger(ComplexWaveSource.class);
+    private static final Pattern RECORDING_TIMESTAMP_PATTERN = Pattern.compile("(\\d{8})_(\\d{6})");
+    private static final DateTimeFormatter RECORDING_TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
     private IFrameLocationListener mFrameLocationListener;
-    private int mBytesPerFrame;
-    private int mFrameCounter = 0;
     private long mFrequency = 0;
     private Listener<ReusableComplexBuffer> mListener;
-    private AudioInputStream mInputStream;
+    private IComplexSampleReader mReader;
     private File mFile;
     private ReusableComplexBufferQueue mReusableComplexBufferQueue = new ReusableComplexBufferQueue("ComplexWaveSource");
     private boolean mAutoReplay;
     private ScheduledFuture<?> mReplayController;
+    private boolean mRecordingTimestamps;
+    private long mRecordingStartTimestamp;
 
     /**
      * Constructs an instance with optional auto-replay at near real time.
@@ -103,7 +108,6 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
     public void reset()
     {
         stop();
-        mFrameCounter = 0;
         start();
     }
 
@@ -118,7 +122,7 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
     @Override
     public void start()
     {
-        if(mInputStream == null)
+        if(mReader == null)
         {
             try
             {
@@ -134,7 +138,7 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
         {
             long intervalMilliseconds = 50; //20 intervals per second
             double framesPerInterval = getSampleRate() / 20.0d;
-            mReplayController = ThreadPool.SCHEDULED.scheduleAtFixedRate(new ReplayController(framesPerInterval),
+            mReplayController = ThreadPool.DSP.scheduleAtFixedRate(new ReplayController(framesPerInterval),
                     0, intervalMilliseconds, TimeUnit.MILLISECONDS);
 
 
@@ -162,16 +166,83 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
     @Override
     public long getFrameCount() throws IOException
     {
-        // TODO Auto-generated method stub
+        if(mReader != null)
+        {
+            return mReader.getFrameCount();
+        }
+
         return 0;
     }
 
+    /**
+     * Enables stamping sample buffers with the time that the samples were recorded, derived from the recording start
+     * time and the number of samples read, instead of the current wall clock time.  This allows the file to be
+     * processed faster than real time while the decoded messages and events retain the original recording times.
+     */
+    public void setRecordingTimestamps(boolean recordingTimestamps)
+    {
+        mRecordingTimestamps = recordingTimestamps;
+    }
+
+    /**
+     * Timestamp in milliseconds of the first sample in the recording.
+     */
+    public long getRecordingStartTimestamp()
+    {
+        return mRecordingStartTimestamp;
+    }
+
+    /**
+     * Timestamp in milliseconds of the next sample to be read from the recording.
+     */
+    public long getCurrentRecordingTimestamp()
+    {
+        double sampleRate = getSampleRate();
+
+        if(mReader != null && sampleRate > 0)
+        {
+            return mRecordingStartTimestamp + (long)(mReader.getPosition() * 1000.0 / sampleRate);
+        }
+
+        return mRecordingStartTimestamp;
+    }
+
+    /**
+     * Determines the recording start time from the yyyyMMdd_HHmmss timestamp that sdrtrunk includes in baseband
+     * recording file names, interpreted as local time.  When the file name doesn't contain a timestamp, the start
+     * time is estimated as the file's last modified time minus the recording duration.
+     *
+     * @param file recording
+     * @param durationMilliseconds of the recording, used for the last modified estimate
+     * @return start timestamp in milliseconds
+     */
+    public static long getRecordingStartTimestamp(File file, long durationMilliseconds)
+    {
+        Matcher matcher = RECORDING_TIMESTAMP_PATTERN.matcher(file.getName());
+
+        if(matcher.find())
+        {
+            try
+            {
+                LocalDateTime start = LocalDateTime.parse(matcher.group(1) + matcher.group(2),
+                    RECORDING_TIMESTAMP_FORMATTER);
+                return start.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            }
+            catch(DateTimeParseException dtpe)
+            {
+                //Fall through to use the file modified time
+            }
+        }
+
+        return file.lastModified() - durationMilliseconds;
+    }
+
     @Override
     public double getSampleRate()
     {
-        if(mInputStream != null)
+        if(mReader != null)
         {
-            return mInputStream.getFormat().getSampleRate();
+            return mReader.getSampleRate();
         }
 
         return 0;
@@ -199,10 +270,10 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
      */
     public void close() throws IOException
     {
-        if(mInputStream != null)
+        if(mReader != null)
         {
-            mInputStream.close();
-            mInputStream = null;
+            mReader.close();
+            mReader = null;
         }
     }
 
@@ -211,21 +282,11 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
      */
     public void open() throws IOException, UnsupportedAudioFileException
     {
-        if(mInputStream == null)
+        if(mReader == null)
         {
-            mInputStream = AudioSystem.getAudioInputStream(mFile);
-
-            AudioFormat format = mInputStream.getFormat();
-
-            mBytesPerFrame = format.getFrameSize();
-
-            if(format.getChannels() != 2 || format.getSampleSizeInBits() != 16)
-            {
-                throw new IOException("Unsupported Wave Format - EXPECTED: 2 " +
-                        "channels 16-bit samples FOUND: " +
-                        mInputStream.getFormat().getChannels() + " channels " +
-                        mInputStream.getFormat().getSampleSizeInBits() + "-bit samples");
-            }
+            mReader = getReader(mFile);
+            mRecordingStartTimestamp = mReader.getStartTimestamp() > 0 ? mReader.getStartTimestamp() :
+                getRecordingStartTimestamp(mFile, mReader.getDuration());
 
             /* Broadcast that we're at frame location 0 */
             broadcast(0);
@@ -242,40 +303,61 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
     }
 
     /**
-     * Reads the number of frames and optionally sends the buffer(s) to the listener
+     * Reads the number of frames and optionally sends the buffer(s) to the listener.  When the buffer is not sent to
+     * the listener, the frames are skipped without being read.
      */
     public void next(int frames, boolean broadcast) throws IOException
     {
-        if(mInputStream != null)
+        if(mReader != null)
         {
-            byte[] buffer = new byte[mBytesPerFrame * frames];
-
-        	/* Fill the buffer with samples from the file */
-            int samplesRead = mInputStream.read(buffer);
-
-            mFrameCounter += samplesRead;
-
-            broadcast(mFrameCounter);
-
             if(broadcast && mListener != null)
             {
-                if(samplesRead < 0)
+                if(mReader.getRemaining() <= 0)
                 {
                     throw new IOException("End of file reached");
                 }
 
-                if(samplesRead < buffer.length)
-                {
-                    buffer = Arrays.copyOf(buffer, samplesRead);
-                }
+                int count = (int)Math.min(frames, mReader.getRemaining());
+                long timestamp = mRecordingTimestamps ? getCurrentRecordingTimestamp() : System.currentTimeMillis();
+
+                ReusableComplexBuffer reusableBuffer = mReusableComplexBufferQueue.getBuffer(count * 2);
+                mReader.read(reusableBuffer.getSamples(), 0, count);
+                reusableBuffer.setTimestamp(timestamp);
 
-                float[] samples = ConversionUtils.convertFromSigned16BitSamples(buffer);
+                broadcast(mReader.getPosition());
 
-                ReusableComplexBuffer reusableBuffer = mReusableComplexBufferQueue.getBuffer(samples.length);
-                System.arraycopy(samples, 0, reusableBuffer.getSamples(), 0, samples.length);
-                reusableBuffer.setTimestamp(System.currentTimeMillis());
                 mListener.receive(reusableBuffer);
             }
+            else
+            {
+                mReader.seek(mReader.getPosition() + frames);
+                broadcast(mReader.getPosition());
+            }
+        }
+    }
+
+    /**
+     * Moves the read position to the specified frame (complex sample) index in the recording.
+     */
+    public void seek(long frame)
+    {
+        if(mReader != null)
+        {
+            mReader.seek(frame);
+            broadcast(mReader.getPosition());
+        }
+    }
+
+    /**
+     * Moves the read position to the specified offset from the start of the recording.
+     * @param milliseconds from the start of the recording
+     */
+    public void seekTime(long milliseconds)
+    {
+        if(mReader != null)
+        {
+            mReader.seekTime(milliseconds);
+            broadcast(mReader.getPosition());
         }
     }
 
@@ -303,13 +385,11 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
         return mFile;
     }
 
-    private void broadcast(int byteLocation)
+    private void broadcast(long frameLocation)
     {
-        int frameLocation = (int)(byteLocation / mBytesPerFrame);
-
         if(mFrameLocationListener != null)
         {
-            mFrameLocationListener.frameLocationUpdated(frameLocation);
+            mFrameLocationListener.frameLocationUpdated((int)frameLocation);
         }
     }
 
@@ -326,18 +406,27 @@ public class ComplexWaveSource extends ComplexSource implements IControllableFil
     }
 
     /**
-     * Indicates if the file is a supported audio file type
+     * Opens a reader for the recording: a compressed complex recording reader for files with the compressed recording
+     * file extension, otherwise a wave reader.
      */
-    public static boolean supports(File file)
+    public static IComplexSampleReader getReader(File file) throws IOException
     {
-        try(AudioInputStream ais = AudioSystem.getAudioInputStream(file))
+        if(file.getName().toLowerCase().endsWith(CompressedComplexFormat.FILE_EXTENSION))
         {
-            AudioFormat format = ais.getFormat();
+            return new CompressedComplexReader(file);
+        }
 
-            if(format.getChannels() == 2 && format.getSampleSizeInBits() == 16)
-            {
-                return true;
-            }
+        return new MappedComplexWaveReader(file);
+    }
+
+    /**
+     * Indicates if the file is a supported complex recording (wave or compressed) file type
+     */
+    public static boolean supports(File file)
+    {
+        try(IComplexSampleReader reader = getReader(file))
+        {
+            return true;
         }
         catch(Exception e)
         {
@@ -0,0 +1,91 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.wave;
+
+import java.io.IOException;
+
+/**
+ * Random access reader for complex (I/Q) sample recordings.
+ */
+public interface IComplexSampleReader extends AutoCloseable
+{
+    /**
+     * Sample rate of the recording
+     */
+    float getSampleRate();
+
+    /**
+     * Number of complex samples (frames) in the recording
+     */
+    long getFrameCount();
+
+    /**
+     * Duration of the recording in milliseconds
+     */
+    long getDuration();
+
+    /**
+     * Time of the first sample in the recording in milliseconds, or 0 if the recording doesn't specify a start time
+     */
+    long getStartTimestamp();
+
+    /**
+     * Index of the next complex sample (frame) to read
+     */
+    long getPosition();
+
+    /**
+     * Number of complex samples (frames) remaining after the current position
+     */
+    long getRemaining();
+
+    /**
+     * Moves the read position to the specified complex sample (frame) index, constrained to the recording.
+     */
+    void seek(long frame);
+
+    /**
+     * Moves the read position to the sample at the specified offset from the start of the recording, constrained to
+     * the recording.
+     *
+     * @param milliseconds from the start of the recording
+     */
+    void seekTime(long milliseconds);
+
+    /**
+     * Reads up to the specified number of complex samples from the current position as interleaved I/Q float values
+     * in the range -1.0 to 1.0 and advances the position.
+     *
+     * @param samples destination for interleaved I/Q sample values
+     * @param offset into the destination array for the first sample value
+     * @param frames maximum number of complex samples to read
+     * @return number of complex samples read, or -1 if the position is at the end of the recording
+     * @throws IOException if there is an error reading the recording
+     */
+    int read(float[] samples, int offset, int frames) throws IOException;
+
+    /**
+     * Closes the recording
+     */
+    @Override
+    void close() throws IOException;
+}
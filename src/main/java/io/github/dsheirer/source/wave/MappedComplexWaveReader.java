@@ -0,0 +1,362 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.wave;
+
+import io.github.dsheirer.record.wave.WaveUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads complex samples from a 2-channel (I/Q) 16-bit PCM wave recording through a memory-mapped view of the wave
+ * data chunk.  Samples are converted from the mapped region directly into the caller's float array, without an
+ * intermediate byte array.
+ *
+ * The read position can be moved to any sample (frame) or time offset in constant time.  The data chunk is mapped in
+ * fixed size segments on demand, so recordings larger than the 2 GB limit of a single mapped buffer can be read.  Only
+ * the segment containing the current read position is mapped at any time.
+ *
+ * This reader is not thread safe.
+ */
+public class MappedComplexWaveReader implements IComplexSampleReader
+{
+    public static final long DEFAULT_SEGMENT_SIZE = 256l * 1024l * 1024l;
+    private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
+    private static final float SCALE = 1.0f / Short.MAX_VALUE;
+
+    private File mFile;
+    private FileChannel mFileChannel;
+    private float mSampleRate;
+    private int mBytesPerFrame;
+    private long mDataOffset;
+    private long mDataLength;
+    private long mFrameCount;
+    private long mSegmentSize;
+    private MappedByteBuffer mSegment;
+    private long mSegmentStart;
+    private long mSegmentEnd;
+    private long mPosition;
+
+    /**
+     * Opens the recording and parses the wave header using the default segment size.
+     *
+     * @param file containing 2-channel 16-bit PCM samples
+     * @throws IOException if the file can't be read or isn't a supported wave format
+     */
+    public MappedComplexWaveReader(File file) throws IOException
+    {
+        this(file, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the recording and parses the wave header.
+     *
+     * @param file containing 2-channel 16-bit PCM samples
+     * @param segmentSize maximum number of bytes to map at once
+     * @throws IOException if the file can't be read or isn't a supported wave format
+     */
+    public MappedComplexWaveReader(File file, long segmentSize) throws IOException
+    {
+        if(segmentSize <= 0 || segmentSize > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Segment size must be between 1 and " + Integer.MAX_VALUE + " bytes");
+        }
+
+        mFile = file;
+        mFileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+        try
+        {
+            parseHeader();
+        }
+        catch(IOException ioe)
+        {
+            mFileChannel.close();
+            throw ioe;
+        }
+
+        //Segments hold whole frames so that a frame never spans two segments
+        mSegmentSize = Math.max(segmentSize - (segmentSize % mBytesPerFrame), mBytesPerFrame);
+        mSegmentStart = -1;
+        mSegmentEnd = -1;
+    }
+
+    /**
+     * Parses the RIFF/WAVE chunks to find the format and the location of the data chunk.  A data chunk size that is
+     * zero or that extends beyond the end of the file (ie a recording that wasn't closed cleanly) is truncated to the
+     * end of the file.
+     */
+    private void parseHeader() throws IOException
+    {
+        long fileSize = mFileChannel.size();
+        ByteBuffer riff = read(0, 12);
+
+        if(!WaveUtils.RIFF_ID.equals(getChunkId(riff, 0)) || !WaveUtils.WAVE_ID.equals(getChunkId(riff, 8)))
+        {
+            throw new IOException("Unsupported file format - expected RIFF/WAVE header");
+        }
+
+        boolean formatFound = false;
+        long position = 12;
+
+        while(position + 8 <= fileSize)
+        {
+            ByteBuffer chunkHeader = read(position, 8);
+            String chunkId = getChunkId(chunkHeader, 0);
+            long chunkSize = chunkHeader.getInt(4) & 0xFFFFFFFFl;
+
+            if(WaveUtils.FORMAT_CHUNK.equals(chunkId))
+            {
+                ByteBuffer format = read(position + 8, 16);
+                int audioFormat = format.getShort(0) & 0xFFFF;
+                int channels = format.getShort(2);
+                mSampleRate = format.getInt(4);
+                mBytesPerFrame = format.getShort(12);
+                int bitsPerSample = format.getShort(14);
+
+                if((audioFormat != WaveUtils.PCM_FORMAT && audioFormat != WAVE_FORMAT_EXTENSIBLE) ||
+                    channels != 2 || bitsPerSample != 16 || mBytesPerFrame != 4)
+                {
+                    throw new IOException("Unsupported Wave Format - EXPECTED: 2 channels 16-bit PCM samples " +
+                        "FOUND: format " + audioFormat + " " + channels + " channels " + bitsPerSample +
+                        "-bit samples");
+                }
+
+                formatFound = true;
+            }
+            else if(WaveUtils.DATA_CHUNK.equals(chunkId))
+            {
+                if(!formatFound)
+                {
+                    throw new IOException("Unsupported file format - data chunk precedes format chunk");
+                }
+
+                mDataOffset = position + 8;
+                mDataLength = chunkSize;
+
+                if(mDataLength == 0 || mDataOffset + mDataLength > fileSize)
+                {
+                    mDataLength = fileSize - mDataOffset;
+                }
+
+                mFrameCount = mDataLength / mBytesPerFrame;
+                return;
+            }
+
+            //Chunks are word aligned
+            position += 8 + chunkSize + (chunkSize & 1);
+        }
+
+        throw new IOException("Unsupported file format - data chunk not found");
+    }
+
+    /**
+     * Reads the specified number of bytes from the file into a little-endian buffer.
+     */
+    private ByteBuffer read(long position, int length) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        while(buffer.hasRemaining())
+        {
+            if(mFileChannel.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new IOException("Unexpected end of file while reading wave header");
+            }
+        }
+
+        return buffer;
+    }
+
+    private static String getChunkId(ByteBuffer buffer, int offset)
+    {
+        byte[] id = new byte[4];
+
+        for(int x = 0; x < 4; x++)
+        {
+            id[x] = buffer.get(offset + x);
+        }
+
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Recording file
+     */
+    public File getFile()
+    {
+        return mFile;
+    }
+
+    /**
+     * Sample rate of the recording
+     */
+    @Override
+    public float getSampleRate()
+    {
+        return mSampleRate;
+    }
+
+    /**
+     * Number of complex samples (frames) in the recording
+     */
+    @Override
+    public long getFrameCount()
+    {
+        return mFrameCount;
+    }
+
+    /**
+     * Duration of the recording in milliseconds
+     */
+    @Override
+    public long getDuration()
+    {
+        return (long)(mFrameCount * 1000.0 / mSampleRate);
+    }
+
+    /**
+     * Wave recordings don't specify a start time
+     */
+    @Override
+    public long getStartTimestamp()
+    {
+        return 0;
+    }
+
+    /**
+     * Index of the next complex sample (frame) to read
+     */
+    @Override
+    public long getPosition()
+    {
+        return mPosition;
+    }
+
+    /**
+     * Number of complex samples (frames) remaining after the current position
+     */
+    @Override
+    public long getRemaining()
+    {
+        return mFrameCount - mPosition;
+    }
+
+    /**
+     * Moves the read position to the specified complex sample (frame) index, constrained to the recording.
+     */
+    @Override
+    public void seek(long frame)
+    {
+        mPosition = Math.max(0, Math.min(frame, mFrameCount));
+    }
+
+    /**
+     * Moves the read position to the sample at the specified offset from the start of the recording, constrained to
+     * the recording.
+     *
+     * @param milliseconds from the start of the recording
+     */
+    @Override
+    public void seekTime(long milliseconds)
+    {
+        seek((long)(milliseconds * mSampleRate / 1000.0));
+    }
+
+    /**
+     * Reads up to the specified number of complex samples from the current position, converting each 16-bit value to
+     * a float in the range -1.0 to 1.0, and advances the position.
+     *
+     * @param samples destination for interleaved I/Q sample values
+     * @param offset into the destination array for the first sample value
+     * @param frames maximum number of complex samples to read
+     * @return number of complex samples read, or -1 if the position is at the end of the recording
+     * @throws IOException if the data can't be mapped
+     */
+    @Override
+    public int read(float[] samples, int offset, int frames) throws IOException
+    {
+        if(mPosition >= mFrameCount)
+        {
+            return -1;
+        }
+
+        int toRead = (int)Math.min(frames, mFrameCount - mPosition);
+        int remaining = toRead;
+        int index = offset;
+
+        while(remaining > 0)
+        {
+            long byteOffset = mPosition * mBytesPerFrame;
+            mapSegment(byteOffset);
+
+            int segmentFrames = (int)Math.min(remaining, (mSegmentEnd - byteOffset) / mBytesPerFrame);
+            int pointer = (int)(byteOffset - mSegmentStart);
+            int end = index + segmentFrames * 2;
+
+            MappedByteBuffer segment = mSegment;
+
+            while(index < end)
+            {
+                samples[index++] = segment.getShort(pointer) * SCALE;
+                pointer += 2;
+            }
+
+            mPosition += segmentFrames;
+            remaining -= segmentFrames;
+        }
+
+        return toRead;
+    }
+
+    /**
+     * Ensures that the segment containing the data chunk byte offset is mapped.
+     */
+    private void mapSegment(long byteOffset) throws IOException
+    {
+        if(mSegment == null || byteOffset < mSegmentStart || byteOffset >= mSegmentEnd)
+        {
+            long start = byteOffset - (byteOffset % mSegmentSize);
+            long length = Math.min(mSegmentSize, mDataLength - start);
+            mSegment = mFileChannel.map(FileChannel.MapMode.READ_ONLY, mDataOffset + start, length);
+            mSegment.order(ByteOrder.LITTLE_ENDIAN);
+            mSegmentStart = start;
+            mSegmentEnd = start + length;
+        }
+    }
+
+    /**
+     * Closes the file.  The currently mapped segment is released when it is garbage collected.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        mSegment = null;
+        mFileChannel.close();
+    }
+}
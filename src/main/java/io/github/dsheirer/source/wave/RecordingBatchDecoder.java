@@ -0,0 +1,595 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.wave;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import io.github.dsheirer.alias.AliasModel;
+import io.github.dsheirer.audio.AudioSegment;
+import io.github.dsheirer.controller.channel.Channel;
+import io.github.dsheirer.controller.channel.map.ChannelMapModel;
+import io.github.dsheirer.message.IMessage;
+import io.github.dsheirer.message.IMessageListener;
+import io.github.dsheirer.module.Module;
+import io.github.dsheirer.module.ProcessingChain;
+import io.github.dsheirer.module.decode.DecoderFactory;
+import io.github.dsheirer.module.decode.DecoderType;
+import io.github.dsheirer.module.decode.event.IDecodeEvent;
+import io.github.dsheirer.module.decode.event.IDecodeEventListener;
+import io.github.dsheirer.module.log.DecodeEventLogger;
+import io.github.dsheirer.module.log.EventLogType;
+import io.github.dsheirer.module.log.MessageEventLogger;
+import io.github.dsheirer.playlist.PlaylistV2;
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.record.AudioRecordingManager;
+import io.github.dsheirer.record.compressed.CompressedComplexFormat;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless batch decoder for baseband I/Q wave or compressed recordings.  Each recording is fed through the configured
+ * decoder processing chain as fast as the decoders can consume the samples, instead of being paced at real time like
+ * the recording tuner and the auto-replay wave source.  Multiple recordings can be decoded in parallel, one recording
+ * per thread.
+ *
+ * Sample buffers are stamped with the time that the samples were recorded (from the compressed recording header, the
+ * yyyyMMdd_HHmmss timestamp in the recording file name, or estimated from the file modified time) so decoded messages
+ * and events carry the original recording times.
+ *
+ * For each recording, the decoded messages and call events are logged to a folder named after the recording under
+ * the output folder, and call audio is recorded to an audio sub-folder.
+ *
+ * Recordings must be channel (ie baseband) recordings at a sample rate that the decoder supports.  Wideband tuner
+ * recordings are not channelized.
+ *
+ * Options:
+ *
+ *   -decoder P25_PHASE1   primary decoder type (see DecoderType) when a playlist channel is not specified
+ *   -playlist file.xml    playlist to load aliases and channel maps from
+ *   -channel name         playlist channel to use for the decoder configuration (requires -playlist)
+ *   -output folder        folder for the logs and audio recordings (default: current folder)
+ *   -threads 1            number of recordings to decode in parallel
+ *   -audio alias          record call audio for aliases with a record action (alias), all calls (all) or none
+ *
+ * Remaining arguments are recording files or folders containing recordings (*.wav or *.iqz)
+ *
+ * Example: decode a folder of P25 phase 1 recordings, four at a time, recording audio for every call
+ *
+ *   RecordingBatchDecoder -decoder P25_PHASE1 -threads 4 -audio all -output /tmp/decoded /recordings/p25
+ */
+public class RecordingBatchDecoder
+{
+    private final static Logger mLog = LoggerFactory.getLogger(RecordingBatchDecoder.class);
+    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.00");
+
+    public static final String AUDIO_ALIAS = "alias";
+    public static final String AUDIO_ALL = "all";
+    public static final String AUDIO_NONE = "none";
+
+    private UserPreferences mUserPreferences;
+    private DecoderType mDecoderType;
+    private Path mPlaylist;
+    private String mChannelName;
+    private Path mOutputDirectory;
+    private String mAudio;
+
+    /**
+     * Constructs an instance
+     *
+     * @param userPreferences for constructing decoders and audio recording format
+     * @param decoderType primary decoder to use when a playlist channel is not specified
+     * @param playlist to load aliases, channel maps and the named channel from, or null
+     * @param channelName of the playlist channel to decode with, or null to use the decoder type
+     * @param outputDirectory for logs and audio recordings
+     * @param audio recording mode: alias, all or none
+     */
+    public RecordingBatchDecoder(UserPreferences userPreferences, DecoderType decoderType, Path playlist,
+                                 String channelName, Path outputDirectory, String audio)
+    {
+        mUserPreferences = userPreferences;
+        mDecoderType = decoderType;
+        mPlaylist = playlist;
+        mChannelName = channelName;
+        mOutputDirectory = outputDirectory;
+        mAudio = audio;
+    }
+
+    /**
+     * Decodes each of the recordings, using up to the specified number of threads, and logs a summary.
+     *
+     * @param recordings to decode
+     * @param threads number of recordings to decode in parallel
+     * @return true if all recordings were decoded without error
+     */
+    public boolean decode(List<File> recordings, int threads) throws InterruptedException
+    {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sdrtrunk batch decoder " + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.currentTimeMillis();
+        List<Future<Result>> futures = new ArrayList<>();
+
+        for(File recording: recordings)
+        {
+            futures.add(executorService.submit(() -> decode(recording)));
+        }
+
+        boolean success = true;
+        double recordingSeconds = 0.0;
+        long messages = 0;
+        long events = 0;
+
+        for(Future<Result> future: futures)
+        {
+            try
+            {
+                Result result = future.get();
+                recordingSeconds += result.getRecordingSeconds();
+                messages += result.getMessageCount();
+                events += result.getDecodeEventCount();
+            }
+            catch(ExecutionException ee)
+            {
+                mLog.error("Error decoding recording", ee.getCause());
+                success = false;
+            }
+        }
+
+        executorService.shutdown();
+
+        double elapsedSeconds = (System.currentTimeMillis() - start) / 1000.0;
+
+        mLog.info("Decoded [" + recordings.size() + "] recordings with [" + threads + "] threads - Recording Time [" +
+            DECIMAL_FORMAT.format(recordingSeconds) + " sec] Elapsed [" + DECIMAL_FORMAT.format(elapsedSeconds) +
+            " sec] Speed [" + DECIMAL_FORMAT.format(recordingSeconds / Math.max(elapsedSeconds, 0.001)) +
+            "x real time] Messages [" + messages + "] Events [" + events + "]");
+
+        return success;
+    }
+
+    /**
+     * Decodes a single recording on the calling thread.
+     *
+     * @param recording to decode
+     * @return result summary
+     * @throws IOException if the recording can't be read or the output folders can't be created
+     */
+    public Result decode(File recording) throws IOException
+    {
+        String name = recording.getName();
+
+        if(name.contains("."))
+        {
+            name = name.substring(0, name.lastIndexOf('.'));
+        }
+
+        Path recordingDirectory = mOutputDirectory.resolve(StringUtils.replaceIllegalCharacters(name));
+        Path audioDirectory = recordingDirectory.resolve("audio");
+        Files.createDirectories(audioDirectory);
+
+        //Each recording gets its own models so that parallel decoders don't share mutable alias state
+        AliasModel aliasModel = new AliasModel();
+        ChannelMapModel channelMapModel = new ChannelMapModel();
+        Channel channel = getChannel(aliasModel, channelMapModel);
+
+        ComplexWaveSource source = new ComplexWaveSource(recording);
+        source.setRecordingTimestamps(true);
+
+        try
+        {
+            source.open();
+        }
+        catch(UnsupportedAudioFileException uafe)
+        {
+            throw new IOException("Unsupported recording format [" + recording + "]", uafe);
+        }
+
+        long frequency = source.getFrequency();
+        String suffix = StringUtils.replaceIllegalCharacters(channel.getName());
+
+        RecordingMonitor monitor = new RecordingMonitor();
+        ProcessingChain processingChain = new ProcessingChain(channel, aliasModel);
+        processingChain.addModules(DecoderFactory.getModules(channelMapModel, channel, aliasModel, mUserPreferences,
+            null));
+        processingChain.addModule(new MessageEventLogger(recordingDirectory, suffix +
+            EventLogType.DECODED_MESSAGE.getFileSuffix() + ".log", MessageEventLogger.Type.DECODED, frequency));
+        processingChain.addModule(new DecodeEventLogger(aliasModel, recordingDirectory, suffix +
+            EventLogType.CALL_EVENT.getFileSuffix() + ".log", frequency));
+        processingChain.addModule(monitor);
+
+        AudioRecordingManager audioRecordingManager = null;
+
+        if(!AUDIO_NONE.equals(mAudio))
+        {
+            audioRecordingManager = new AudioRecordingManager(mUserPreferences, audioDirectory);
+            audioRecordingManager.start();
+            processingChain.addAudioSegmentListener(AUDIO_ALL.equals(mAudio) ?
+                new RecordAllAudioSegmentListener(audioRecordingManager) : audioRecordingManager);
+        }
+
+        long frameCount = source.getFrameCount();
+        double sampleRate = source.getSampleRate();
+        int bufferSampleCount = source.getBufferSampleCount();
+        long framesProcessed = 0;
+
+        mLog.info("Decoding [" + recording + "] Sample Rate [" + (int)sampleRate + "] Duration [" +
+            DECIMAL_FORMAT.format(frameCount / sampleRate) + " sec] Decoder [" +
+            channel.getDecodeConfiguration().getDecoderType() + "]");
+
+        long start = System.currentTimeMillis();
+
+        processingChain.setSource(source);
+        processingChain.start();
+
+        try
+        {
+            while(framesProcessed < frameCount)
+            {
+                int frames = (int)Math.min(bufferSampleCount, frameCount - framesProcessed);
+                source.next(frames);
+                framesProcessed += frames;
+
+                //Heartbeats normally arrive on a wall clock schedule - send one per buffer of sample time instead
+                source.getHeartbeatManager().broadcast();
+            }
+        }
+        finally
+        {
+            processingChain.stop();
+            processingChain.dispose();
+
+            if(audioRecordingManager != null)
+            {
+                audioRecordingManager.stop();
+            }
+        }
+
+        double elapsedSeconds = (System.currentTimeMillis() - start) / 1000.0;
+        double recordingSeconds = framesProcessed / sampleRate;
+
+        Result result = new Result(recording, recordingSeconds, elapsedSeconds, monitor.getMessageCount(),
+            monitor.getDecodeEventCount());
+        mLog.info(result.toString());
+        return result;
+    }
+
+    /**
+     * Creates the channel to decode with, either from the playlist or from the default configuration for the decoder
+     * type, and loads the playlist aliases and channel maps into the models.
+     */
+    private Channel getChannel(AliasModel aliasModel, ChannelMapModel channelMapModel) throws IOException
+    {
+        if(mPlaylist != null)
+        {
+            JacksonXmlModule xmlModule = new JacksonXmlModule();
+            xmlModule.setDefaultUseWrapper(false);
+            ObjectMapper objectMapper = new XmlMapper(xmlModule)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+            PlaylistV2 playlist;
+
+            try(InputStream in = Files.newInputStream(mPlaylist))
+            {
+                playlist = objectMapper.readValue(in, PlaylistV2.class);
+            }
+
+            aliasModel.addAliases(playlist.getAliases());
+            channelMapModel.addChannelMaps(playlist.getChannelMaps());
+
+            if(mChannelName != null)
+            {
+                for(Channel channel: playlist.getChannels())
+                {
+                    if(mChannelName.equals(channel.getName()))
+                    {
+                        return channel;
+                    }
+                }
+
+                throw new IOException("Channel [" + mChannelName + "] not found in playlist [" + mPlaylist + "]");
+            }
+        }
+
+        Channel channel = new Channel(mDecoderType.name());
+        channel.setDecodeConfiguration(DecoderFactory.getDecodeConfiguration(mDecoderType));
+        return channel;
+    }
+
+    /**
+     * Finds the supported recordings in the list of files and folders
+     */
+    public static List<File> getRecordings(List<String> paths)
+    {
+        List<File> recordings = new ArrayList<>();
+
+        for(String path: paths)
+        {
+            File file = new File(path);
+
+            if(file.isDirectory())
+            {
+                File[] files = file.listFiles((dir, name) -> name.toLowerCase().endsWith(".wav") ||
+                    name.toLowerCase().endsWith(CompressedComplexFormat.FILE_EXTENSION));
+
+                if(files != null)
+                {
+                    Arrays.sort(files);
+
+                    for(File child: files)
+                    {
+                        if(ComplexWaveSource.supports(child))
+                        {
+                            recordings.add(child);
+                        }
+                    }
+                }
+            }
+            else if(file.exists() && ComplexWaveSource.supports(file))
+            {
+                recordings.add(file);
+            }
+            else
+            {
+                mLog.error("Ignoring unsupported or missing recording [" + path + "]");
+            }
+        }
+
+        return recordings;
+    }
+
+    public static void main(String[] args)
+    {
+        Map<String,String> options = new HashMap<>();
+        List<String> paths = new ArrayList<>();
+
+        for(int x = 0; x < args.length; x++)
+        {
+            if(args[x].startsWith("-") && x + 1 < args.length)
+            {
+                options.put(args[x].substring(1).toLowerCase(), args[++x]);
+            }
+            else
+            {
+                paths.add(args[x]);
+            }
+        }
+
+        if(paths.isEmpty())
+        {
+            mLog.error("No recordings specified - usage: RecordingBatchDecoder [-decoder P25_PHASE1] " +
+                "[-playlist playlist.xml -channel name] [-output folder] [-threads 1] [-audio alias|all|none] " +
+                "recording.wav|folder ...");
+            System.exit(1);
+        }
+
+        UserPreferences userPreferences = new UserPreferences();
+        boolean success = false;
+
+        try
+        {
+            DecoderType decoderType = DecoderType.valueOf(options.getOrDefault("decoder", "P25_PHASE1")
+                .toUpperCase());
+
+            if(!DecoderType.PRIMARY_DECODERS.contains(decoderType))
+            {
+                throw new IllegalArgumentException("Decoder [" + decoderType + "] is not a primary decoder");
+            }
+
+            Path playlist = options.containsKey("playlist") ? Paths.get(options.get("playlist")) : null;
+            String channelName = options.get("channel");
+
+            if(channelName != null && playlist == null)
+            {
+                throw new IllegalArgumentException("Channel [" + channelName + "] requires a playlist");
+            }
+
+            String audio = options.getOrDefault("audio", AUDIO_ALIAS).toLowerCase();
+
+            if(!audio.equals(AUDIO_ALIAS) && !audio.equals(AUDIO_ALL) && !audio.equals(AUDIO_NONE))
+            {
+                throw new IllegalArgumentException("Audio [" + audio + "] must be alias, all or none");
+            }
+
+            Path output = Paths.get(options.getOrDefault("output", "."));
+            int threads = Integer.parseInt(options.getOrDefault("threads", "1"));
+
+            if(threads < 1)
+            {
+                throw new IllegalArgumentException("Threads [" + threads + "] must be 1 or more");
+            }
+
+            List<File> recordings = getRecordings(paths);
+
+            if(recordings.isEmpty())
+            {
+                throw new IllegalArgumentException("No supported recordings found");
+            }
+
+            RecordingBatchDecoder batchDecoder = new RecordingBatchDecoder(userPreferences, decoderType, playlist,
+                channelName, output, audio);
+            success = batchDecoder.decode(recordings, Math.min(threads, recordings.size()));
+        }
+        catch(IllegalArgumentException iae)
+        {
+            mLog.error("Invalid batch decoder configuration - " + iae.getMessage());
+            System.exit(1);
+        }
+        catch(InterruptedException ie)
+        {
+            mLog.error("Batch decoding interrupted");
+        }
+
+        System.exit(success ? 0 : 1);
+    }
+
+    /**
+     * Decoding results for a recording
+     */
+    public static class Result
+    {
+        private File mRecording;
+        private double mRecordingSeconds;
+        private double mElapsedSeconds;
+        private long mMessageCount;
+        private long mDecodeEventCount;
+
+        public Result(File recording, double recordingSeconds, double elapsedSeconds, long messageCount,
+                      long decodeEventCount)
+        {
+            mRecording = recording;
+            mRecordingSeconds = recordingSeconds;
+            mElapsedSeconds = elapsedSeconds;
+            mMessageCount = messageCount;
+            mDecodeEventCount = decodeEventCount;
+        }
+
+        public File getRecording()
+        {
+            return mRecording;
+        }
+
+        public double getRecordingSeconds()
+        {
+            return mRecordingSeconds;
+        }
+
+        public double getElapsedSeconds()
+        {
+            return mElapsedSeconds;
+        }
+
+        public long getMessageCount()
+        {
+            return mMessageCount;
+        }
+
+        public long getDecodeEventCount()
+        {
+            return mDecodeEventCount;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Decoded [" + mRecording.getName() + "] Recording Time [" +
+                DECIMAL_FORMAT.format(mRecordingSeconds) + " sec] Elapsed [" + DECIMAL_FORMAT.format(mElapsedSeconds) +
+                " sec] Speed [" + DECIMAL_FORMAT.format(mRecordingSeconds / Math.max(mElapsedSeconds, 0.001)) +
+                "x real time] Messages [" + mMessageCount + "] Events [" + mDecodeEventCount + "]";
+        }
+    }
+
+    /**
+     * Counts the decoded messages and events for a recording
+     */
+    public static class RecordingMonitor extends Module implements IMessageListener, IDecodeEventListener
+    {
+        private AtomicLong mMessageCount = new AtomicLong();
+        private AtomicLong mDecodeEventCount = new AtomicLong();
+        private final Listener<IMessage> mMessageListener = message -> mMessageCount.incrementAndGet();
+        private final Listener<IDecodeEvent> mDecodeEventListener = decodeEvent -> mDecodeEventCount.incrementAndGet();
+
+        public long getMessageCount()
+        {
+            return mMessageCount.get();
+        }
+
+        public long getDecodeEventCount()
+        {
+            return mDecodeEventCount.get();
+        }
+
+        @Override
+        public Listener<IMessage> getMessageListener()
+        {
+            return mMessageListener;
+        }
+
+        @Override
+        public Listener<IDecodeEvent> getDecodeEventListener()
+        {
+            return mDecodeEventListener;
+        }
+
+        @Override
+        public void reset()
+        {
+        }
+
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+    }
+
+    /**
+     * Flags every audio segment as recordable before passing it to the audio recording manager
+     */
+    public static class RecordAllAudioSegmentListener implements Listener<AudioSegment>
+    {
+        private Listener<AudioSegment> mListener;
+
+        public RecordAllAudioSegmentListener(Listener<AudioSegment> listener)
+        {
+            mListener = listener;
+        }
+
+        @Override
+        public void receive(AudioSegment audioSegment)
+        {
+            audioSegment.recordAudioProperty().set(true);
+            mListener.receive(audioSegment);
+        }
+    }
+}
@@ -175,7 +175,7 @@ public class DFTProcessor implements Listener<ReusableComplexBuffer>, ISourceEve
             int initialDelay = 0;
             int period = (int) (1000 / mFrameRate);
 
-            mProcessorTaskHandle = ThreadPool.SCHEDULED.scheduleAtFixedRate(new DFTCalculationTask(), initialDelay, period,
+            mProcessorTaskHandle = ThreadPool.HOUSEKEEPING.scheduleAtFixedRate(new DFTCalculationTask(), initialDelay, period,
                 TimeUnit.MILLISECONDS);
         }
     }
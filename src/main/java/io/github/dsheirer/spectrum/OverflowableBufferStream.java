@@ -213,23 +213,11 @@ public class OverflowableBufferStream extends OverflowableTransferQueue<Reusable
     }
 
     /**
-     * Clears all elements from the queue and resets the internal counter to 0
+     * Decrements the user count on each buffer that is being cleared from the queue
      */
     @Override
-    public void clear()
+    protected void discard(ReusableComplexBuffer reusableComplexBuffer)
     {
-        synchronized(mQueue)
-        {
-            ReusableComplexBuffer buffer = mQueue.poll();
-
-            while(buffer != null)
-            {
-                buffer.decrementUserCount();
-                buffer = mQueue.poll();
-            }
-
-            mCounter.set(0);
-            mOverflow.set(false);
-        }
+        reusableComplexBuffer.decrementUserCount();
     }
-}
+}
\ No newline at end of file
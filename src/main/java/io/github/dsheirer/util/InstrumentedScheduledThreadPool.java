@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.util;
+
+import io.github.dsheirer.controller.NamingThreadFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scheduled thread pool executor that tracks task start latency and rejected tasks.
+ *
+ * Task start latency is the time between when a task was due to run (submission time for immediate tasks, or the
+ * scheduled trigger time for delayed and periodic tasks) and when a pool thread actually started running it.  A
+ * growing latency indicates that the pool is saturated and that periodic tasks are running late.
+ */
+public class InstrumentedScheduledThreadPool extends ScheduledThreadPoolExecutor
+{
+    private final String mName;
+    private final int mPriority;
+    private final LongAdder mLatencyTotal = new LongAdder();
+    private final LongAdder mLatencyCount = new LongAdder();
+    private final AtomicLong mLatencyMaximum = new AtomicLong();
+    private final LongAdder mRejectedTaskCount = new LongAdder();
+
+    /**
+     * Constructs an instance
+     *
+     * @param name of the pool, used as the thread name prefix
+     * @param threadCount number of core threads
+     * @param priority for each pool thread
+     */
+    public InstrumentedScheduledThreadPool(String name, int threadCount, int priority)
+    {
+        super(threadCount, new NamingThreadFactory("sdrtrunk " + name, priority));
+        mName = name;
+        mPriority = priority;
+
+        setRejectedExecutionHandler((runnable, executor) -> {
+            mRejectedTaskCount.increment();
+            throw new RejectedExecutionException("Task rejected from thread pool [" + mName + "]");
+        });
+    }
+
+    /**
+     * Name of this thread pool
+     */
+    public String getName()
+    {
+        return mName;
+    }
+
+    /**
+     * Priority assigned to each thread in this pool
+     */
+    public int getThreadPriority()
+    {
+        return mPriority;
+    }
+
+    /**
+     * Number of tasks currently waiting in the queue, including periodic tasks waiting for their next trigger time
+     */
+    public int getQueueDepth()
+    {
+        return getQueue().size();
+    }
+
+    /**
+     * Number of tasks that were rejected by this pool
+     */
+    public long getRejectedTaskCount()
+    {
+        return mRejectedTaskCount.sum();
+    }
+
+    /**
+     * Average task start latency in nanoseconds since construction or the last resetMetrics()
+     */
+    public long getAverageLatency()
+    {
+        long count = mLatencyCount.sum();
+        return count > 0 ? mLatencyTotal.sum() / count : 0;
+    }
+
+    /**
+     * Maximum task start latency in nanoseconds since construction or the last resetMetrics()
+     */
+    public long getMaximumLatency()
+    {
+        return mLatencyMaximum.get();
+    }
+
+    /**
+     * Resets the task latency and rejected task metrics
+     */
+    public void resetMetrics()
+    {
+        mLatencyTotal.reset();
+        mLatencyCount.reset();
+        mLatencyMaximum.set(0);
+        mRejectedTaskCount.reset();
+    }
+
+    /**
+     * Snapshot of the current metrics for this pool
+     */
+    public ThreadPoolMetrics getMetrics()
+    {
+        return new ThreadPoolMetrics(mName, getPoolSize(), getActiveCount(), getQueueDepth(), getCompletedTaskCount(),
+            getRejectedTaskCount(), getAverageLatency(), getMaximumLatency());
+    }
+
+    /**
+     * Records the start latency for a task that is about to run
+     */
+    private void recordLatency(long latency)
+    {
+        if(latency < 0)
+        {
+            latency = 0;
+        }
+
+        mLatencyTotal.add(latency);
+        mLatencyCount.increment();
+
+        if(latency > mLatencyMaximum.get())
+        {
+            mLatencyMaximum.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable, RunnableScheduledFuture<V> task)
+    {
+        return new InstrumentedTask<>(task);
+    }
+
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(Callable<V> callable, RunnableScheduledFuture<V> task)
+    {
+        return new InstrumentedTask<>(task);
+    }
+
+    /**
+     * Wraps the scheduled task to measure how late the task starts relative to its trigger time.  Periodic tasks are
+     * requeued by the executor using this wrapper, so each periodic execution is measured.
+     */
+    private class InstrumentedTask<V> implements RunnableScheduledFuture<V>
+    {
+        private final RunnableScheduledFuture<V> mTask;
+
+        public InstrumentedTask(RunnableScheduledFuture<V> task)
+        {
+            mTask = task;
+        }
+
+        @Override
+        public void run()
+        {
+            //A task that is due reports a zero or negative delay, so the negated delay is the start latency
+            recordLatency(-mTask.getDelay(TimeUnit.NANOSECONDS));
+            mTask.run();
+        }
+
+        @Override
+        public boolean isPeriodic()
+        {
+            return mTask.isPeriodic();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit)
+        {
+            return mTask.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed other)
+        {
+            if(other instanceof InstrumentedTask)
+            {
+                return mTask.compareTo(((InstrumentedTask<?>)other).mTask);
+            }
+
+            return mTask.compareTo(other);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning)
+        {
+            return mTask.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled()
+        {
+            return mTask.isCancelled();
+        }
+
+        @Override
+        public boolean isDone()
+        {
+            return mTask.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException
+        {
+            return mTask.get();
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException
+        {
+            return mTask.get(timeout, unit);
+        }
+    }
+}
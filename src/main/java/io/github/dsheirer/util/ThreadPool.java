@@ -18,27 +18,51 @@
  ******************************************************************************/
 package io.github.dsheirer.util;
 
-import io.github.dsheirer.controller.NamingThreadFactory;
 import org.apache.commons.math3.util.FastMath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Application-wide thread pools, isolated by workload so that a slow task in one subsystem (e.g. an audio broadcaster
+ * connection or MP3 encode) can't delay sample processing in another subsystem and cause tuner buffer overflows.
+ *
+ * DSP - real-time tuner sample delivery and channelizer processing
+ * DECODE - channel sample processing and decoding
+ * AUDIO_IO - audio playback, recording, streaming and duplicate call detection
+ * HOUSEKEEPING - user interface tasks, settings persistence and other deferred work
+ *
+ * Thread count and thread priority for each pool can be configured with JVM system properties, for example:
+ *
+ *   -Dsdrtrunk.threadpool.dsp.threads=4 -Dsdrtrunk.threadpool.dsp.priority=8
+ *
+ * Per-pool queue depth, task start latency and rejected task metrics are available from getMetrics().
+ */
 public class ThreadPool
 {
     private final static Logger mLog = LoggerFactory.getLogger(ThreadPool.class);
 
+    private static final String PROPERTY_PREFIX = "sdrtrunk.threadpool.";
     private static int CORES = Runtime.getRuntime().availableProcessors();
-    public static ScheduledExecutorService SCHEDULED;
+
+    public static InstrumentedScheduledThreadPool DSP;
+    public static InstrumentedScheduledThreadPool DECODE;
+    public static InstrumentedScheduledThreadPool AUDIO_IO;
+    public static InstrumentedScheduledThreadPool HOUSEKEEPING;
+
+    private static List<InstrumentedScheduledThreadPool> POOLS = new ArrayList<>();
 
     static
     {
-        //Create a scheduled thread pool sized according to the available processors/cores, minimum 2
+        //Size the processing pools according to the available processors/cores, minimum 2
         CORES = (FastMath.max(CORES, 2));
 
-        SCHEDULED = Executors.newScheduledThreadPool(CORES, new NamingThreadFactory("sdrtrunk"));
+        DSP = create("dsp", CORES, Thread.NORM_PRIORITY);
+        DECODE = create("decode", CORES, Thread.NORM_PRIORITY);
+        AUDIO_IO = create("audio", 2, Thread.NORM_PRIORITY);
+        HOUSEKEEPING = create("housekeeping", 2, Thread.NORM_PRIORITY);
     }
 
     /**
@@ -48,8 +72,50 @@ public class ThreadPool
     {
     }
 
+    /**
+     * Creates a thread pool, applying any thread count and priority system property overrides
+     */
+    private static InstrumentedScheduledThreadPool create(String name, int defaultThreads, int defaultPriority)
+    {
+        int threads = FastMath.max(Integer.getInteger(PROPERTY_PREFIX + name + ".threads", defaultThreads), 1);
+        int priority = Integer.getInteger(PROPERTY_PREFIX + name + ".priority", defaultPriority);
+        InstrumentedScheduledThreadPool pool = new InstrumentedScheduledThreadPool(name, threads, priority);
+        POOLS.add(pool);
+        return pool;
+    }
+
+    /**
+     * Snapshot of the metrics for each of the application thread pools
+     */
+    public static List<ThreadPoolMetrics> getMetrics()
+    {
+        List<ThreadPoolMetrics> metrics = new ArrayList<>();
+
+        for(InstrumentedScheduledThreadPool pool: POOLS)
+        {
+            metrics.add(pool.getMetrics());
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Logs the current metrics for each of the application thread pools
+     */
+    public static void logMetrics()
+    {
+        for(ThreadPoolMetrics metrics: getMetrics())
+        {
+            mLog.info(metrics.toString());
+        }
+    }
+
     public static void logSettings()
     {
-        mLog.info("Application thread pool created with [" + CORES + "] threads");
+        for(InstrumentedScheduledThreadPool pool: POOLS)
+        {
+            mLog.info("Application thread pool [" + pool.getName() + "] created with [" + pool.getCorePoolSize() +
+                "] threads at priority [" + pool.getThreadPriority() + "]");
+        }
     }
 }
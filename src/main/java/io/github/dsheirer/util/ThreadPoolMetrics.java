@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time snapshot of thread pool metrics
+ */
+public class ThreadPoolMetrics
+{
+    private String mName;
+    private int mPoolSize;
+    private int mActiveCount;
+    private int mQueueDepth;
+    private long mCompletedTaskCount;
+    private long mRejectedTaskCount;
+    private long mAverageLatency;
+    private long mMaximumLatency;
+
+    /**
+     * Constructs an instance
+     *
+     * @param name of the thread pool
+     * @param poolSize current number of threads in the pool
+     * @param activeCount number of threads actively running tasks
+     * @param queueDepth number of queued tasks
+     * @param completedTaskCount number of completed tasks
+     * @param rejectedTaskCount number of rejected tasks
+     * @param averageLatency average task start latency in nanoseconds
+     * @param maximumLatency maximum task start latency in nanoseconds
+     */
+    public ThreadPoolMetrics(String name, int poolSize, int activeCount, int queueDepth, long completedTaskCount,
+                             long rejectedTaskCount, long averageLatency, long maximumLatency)
+    {
+        mName = name;
+        mPoolSize = poolSize;
+        mActiveCount = activeCount;
+        mQueueDepth = queueDepth;
+        mCompletedTaskCount = completedTaskCount;
+        mRejectedTaskCount = rejectedTaskCount;
+        mAverageLatency = averageLatency;
+        mMaximumLatency = maximumLatency;
+    }
+
+    public String getName()
+    {
+        return mName;
+    }
+
+    public int getPoolSize()
+    {
+        return mPoolSize;
+    }
+
+    public int getActiveCount()
+    {
+        return mActiveCount;
+    }
+
+    public int getQueueDepth()
+    {
+        return mQueueDepth;
+    }
+
+    public long getCompletedTaskCount()
+    {
+        return mCompletedTaskCount;
+    }
+
+    public long getRejectedTaskCount()
+    {
+        return mRejectedTaskCount;
+    }
+
+    /**
+     * Average task start latency in nanoseconds
+     */
+    public long getAverageLatency()
+    {
+        return mAverageLatency;
+    }
+
+    /**
+     * Maximum task start latency in nanoseconds
+     */
+    public long getMaximumLatency()
+    {
+        return mMaximumLatency;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Thread Pool [" + mName + "] Threads [" + mPoolSize + "] Active [" + mActiveCount + "] Queued [" +
+            mQueueDepth + "] Completed [" + mCompletedTaskCount + "] Rejected [" + mRejectedTaskCount +
+            "] Latency Average [" + TimeUnit.NANOSECONDS.toMicros(mAverageLatency) + " us] Maximum [" +
+            TimeUnit.NANOSECONDS.toMicros(mMaximumLatency) + " us]";
+    }
+}
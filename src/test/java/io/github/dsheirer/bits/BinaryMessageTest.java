@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.bits;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+public class BinaryMessageTest
+{
+    private static final int MESSAGE_SIZE = 196;
+    private static final int ITERATIONS = 2000;
+
+    /**
+     * Verifies word-based field extraction from contiguous ranges and from field index arrays, including fields
+     * that cross a word boundary and fields made of several runs of indices, against a bit-by-bit reference.
+     */
+    @Test
+    void extractsFields()
+    {
+        Random random = new Random(0);
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            BitSet reference = getRandomBits(random);
+            BinaryMessage message = getMessage(reference);
+
+            int width = 1 + random.nextInt(63);
+            int start = random.nextInt(MESSAGE_SIZE - width);
+            int end = start + width - 1;
+
+            Assertions.assertEquals(getValue(reference, start, end), message.getLong(start, end));
+
+            if(width < 32)
+            {
+                Assertions.assertEquals((int)getValue(reference, start, end), message.getInt(start, end));
+            }
+
+            int[] field = new int[width];
+
+            for(int y = 0; y < width; y++)
+            {
+                field[y] = random.nextInt(4) == 0 ? random.nextInt(MESSAGE_SIZE) : start + y;
+            }
+
+            long expected = 0;
+
+            for(int index : field)
+            {
+                expected = (expected << 1) | (reference.get(index) ? 1 : 0);
+            }
+
+            Assertions.assertEquals(expected, message.getLong(field));
+        }
+    }
+
+    /**
+     * Verifies bulk load, xor and rotate operations across word boundaries against a bit-by-bit reference.
+     */
+    @Test
+    void modifiesFields()
+    {
+        Random random = new Random(1);
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            BitSet reference = getRandomBits(random);
+            BinaryMessage message = getMessage(reference);
+
+            int width = 2 + random.nextInt(63);
+            int start = random.nextInt(MESSAGE_SIZE - width);
+            int end = start + width - 1;
+            long value = random.nextLong();
+
+            switch(random.nextInt(3))
+            {
+                case 0:
+                    message.load(start, width, value);
+
+                    for(int y = 0; y < width; y++)
+                    {
+                        reference.set(start + y, ((value >>> (width - y - 1)) & 1) == 1);
+                    }
+                    break;
+                case 1:
+                    int mask = (int)value;
+                    message.xor(start, width, mask);
+
+                    for(int y = 0; y < width; y++)
+                    {
+                        //The integer mask is sign extended for fields wider than 32 bits
+                        if((((long)mask >>> (width - y - 1)) & 1) == 1)
+                        {
+                            reference.flip(start + y);
+                        }
+                    }
+                    break;
+                case 2:
+                    int places = random.nextInt(2 * width);
+                    message.rotateLeft(places, start, end);
+
+                    BitSet original = (BitSet)reference.clone();
+
+                    for(int y = 0; y < width; y++)
+                    {
+                        reference.set(start + y, original.get(start + ((y + places) % width)));
+                    }
+                    break;
+            }
+
+            for(int y = 0; y < MESSAGE_SIZE; y++)
+            {
+                Assertions.assertEquals(reference.get(y), message.get(y), "Bit " + y);
+            }
+        }
+    }
+
+    /**
+     * Verifies that sub-messages copy the bit range and size, and that corrected messages produce corrected
+     * sub-messages.
+     */
+    @Test
+    void copiesSubMessages()
+    {
+        Random random = new Random(2);
+
+        for(int x = 0; x < ITERATIONS; x++)
+        {
+            BitSet reference = getRandomBits(random);
+            CorrectedBinaryMessage message = new CorrectedBinaryMessage(getMessage(reference));
+
+            int start = random.nextInt(MESSAGE_SIZE);
+            int end = start + random.nextInt(MESSAGE_SIZE - start + 1);
+
+            BinaryMessage subMessage = message.getSubMessage(start, end);
+
+            Assertions.assertTrue(subMessage instanceof CorrectedBinaryMessage);
+            Assertions.assertEquals(end - start, subMessage.size());
+            Assertions.assertEquals(reference.get(start, end), subMessage.toBitSet());
+        }
+    }
+
+    private static BitSet getRandomBits(Random random)
+    {
+        BitSet bits = new BitSet();
+
+        for(int x = 0; x < MESSAGE_SIZE; x++)
+        {
+            bits.set(x, random.nextBoolean());
+        }
+
+        return bits;
+    }
+
+    private static BinaryMessage getMessage(BitSet bits)
+    {
+        return new BinaryMessage(bits, MESSAGE_SIZE);
+    }
+
+    private static long getValue(BitSet bits, int start, int end)
+    {
+        long value = 0;
+
+        for(int x = start; x <= end; x++)
+        {
+            value = (value << 1) | (bits.get(x) ? 1 : 0);
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.sample.Listener;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ContinuousBufferProcessorTest
+{
+    private static final long LISTENER_TIMEOUT_MS = 3000;
+
+    /**
+     * Verifies that stopping while the listener is blocked beyond the stop timeout returns without clearing the
+     * queue on the calling thread, and that the signalled thread clears the queue once the listener returns.
+     */
+    @Test
+    void stopHandsOffClearWhenListenerIsBlocked() throws Exception
+    {
+        BlockingListener listener = new BlockingListener();
+        ContinuousBufferProcessor<Integer> processor = getProcessor(listener);
+
+        processor.start();
+        processor.receive(1);
+        Assertions.assertTrue(listener.mEntered.await(5, TimeUnit.SECONDS));
+
+        processor.receive(2);
+        processor.stop();
+
+        Assertions.assertEquals(1, processor.mQueue.getSize(), "Queue cleared while the listener was processing");
+
+        listener.mRelease.countDown();
+
+        waitForEmptyQueue(processor);
+        Assertions.assertEquals(1, listener.mReceived.get(), "Cleared buffers dispatched to the listener");
+        Assertions.assertEquals(1, listener.mMaximumConcurrency.get());
+    }
+
+    /**
+     * Verifies that flushing while the listener is blocked beyond the stop timeout flushes the remaining buffers from
+     * the signalled thread after the listener returns, without concurrent calls to the listener.
+     */
+    @Test
+    void flushAndStopHandsOffFlushWhenListenerIsBlocked() throws Exception
+    {
+        BlockingListener listener = new BlockingListener();
+        ContinuousBufferProcessor<Integer> processor = getProcessor(listener);
+
+        processor.start();
+        processor.receive(1);
+        Assertions.assertTrue(listener.mEntered.await(5, TimeUnit.SECONDS));
+
+        processor.receive(2);
+        processor.flushAndStop();
+
+        listener.mRelease.countDown();
+
+        waitForEmptyQueue(processor);
+        waitForReceived(listener, 2);
+        Assertions.assertEquals(1, listener.mMaximumConcurrency.get());
+    }
+
+    /**
+     * Verifies that a processor restarted while the previous signalled thread is still blocked in the listener does
+     * not dispatch to the listener until the previous thread exits.
+     */
+    @Test
+    void restartWaitsForBlockedListener() throws Exception
+    {
+        BlockingListener listener = new BlockingListener();
+        ContinuousBufferProcessor<Integer> processor = getProcessor(listener);
+
+        processor.start();
+        processor.receive(1);
+        Assertions.assertTrue(listener.mEntered.await(5, TimeUnit.SECONDS));
+
+        processor.stop();
+        processor.start();
+        processor.receive(2);
+
+        Thread.sleep(100);
+        Assertions.assertEquals(0, listener.mReceived.get(), "Restarted processor dispatched before previous exit");
+
+        listener.mRelease.countDown();
+
+        waitForReceived(listener, 2);
+        processor.stop();
+        Assertions.assertEquals(1, listener.mMaximumConcurrency.get());
+    }
+
+    private static ContinuousBufferProcessor<Integer> getProcessor(BlockingListener listener)
+    {
+        ContinuousBufferProcessor<Integer> processor = new ContinuousBufferProcessor<>(100, 50);
+        processor.setSignalledProcessing(1, 1);
+        processor.setListener(listener);
+        return processor;
+    }
+
+    private static void waitForEmptyQueue(ContinuousBufferProcessor<Integer> processor) throws InterruptedException
+    {
+        long timeout = System.currentTimeMillis() + 5000;
+
+        while(processor.mQueue.getSize() > 0 && System.currentTimeMillis() < timeout)
+        {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertEquals(0, processor.mQueue.getSize());
+    }
+
+    private static void waitForReceived(BlockingListener listener, int count) throws InterruptedException
+    {
+        long timeout = System.currentTimeMillis() + 5000;
+
+        while(listener.mReceived.get() < count && System.currentTimeMillis() < timeout)
+        {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertEquals(count, listener.mReceived.get());
+    }
+
+    /**
+     * Listener that blocks on the first dispatch until released, or until well beyond the stop timeout, and tracks
+     * the received element count and the maximum number of concurrent calls.
+     */
+    private static class BlockingListener implements Listener<List<Integer>>
+    {
+        private CountDownLatch mEntered = new CountDownLatch(1);
+        private CountDownLatch mRelease = new CountDownLatch(1);
+        private AtomicInteger mReceived = new AtomicInteger();
+        private AtomicInteger mConcurrency = new AtomicInteger();
+        private AtomicInteger mMaximumConcurrency = new AtomicInteger();
+
+        @Override
+        public void receive(List<Integer> elements)
+        {
+            int concurrency = mConcurrency.incrementAndGet();
+            mMaximumConcurrency.accumulateAndGet(concurrency, Math::max);
+
+            try
+            {
+                if(mEntered.getCount() > 0)
+                {
+                    mEntered.countDown();
+                    mRelease.await(LISTENER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                }
+
+                mReceived.addAndGet(elements.size());
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                mConcurrency.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class PrunedInverseDFTTest
+{
+    private static final int[] CHANNEL_COUNTS = {8, 96, 240, 800};
+    private static final float TOLERANCE = 1e-5f;
+
+    /**
+     * Verifies that the pruned transform output at each requested channel index matches a double precision inverse
+     * DFT scaled by 1/N, as the requested channel set grows, and that the non-requested positions are untouched.
+     */
+    @Test
+    void matchesScaledInverseDFT()
+    {
+        Random random = new Random(0);
+
+        for(int channelCount: CHANNEL_COUNTS)
+        {
+            PrunedInverseDFT pruned = new PrunedInverseDFT(channelCount);
+            boolean[] requested = new boolean[channelCount];
+
+            for(int x = 0; x < 8; x++)
+            {
+                int channel = random.nextInt(channelCount);
+                requested[channel] = true;
+                pruned.requestChannel(channel);
+
+                assertInverse(random, pruned, requested);
+            }
+        }
+    }
+
+    /**
+     * Verifies that clearing and re-requesting a different channel set updates the active channels, and that
+     * out of range channel indices are ignored.
+     */
+    @Test
+    void updatesRequestedChannels()
+    {
+        Random random = new Random(1);
+        int channelCount = 96;
+        PrunedInverseDFT pruned = new PrunedInverseDFT(channelCount);
+
+        boolean[] requested = new boolean[channelCount];
+        requested[3] = true;
+        requested[50] = true;
+        pruned.requestChannel(3);
+        pruned.requestChannel(50);
+        pruned.requestChannel(-1);
+        pruned.requestChannel(channelCount);
+        assertInverse(random, pruned, requested);
+        Assertions.assertEquals(2, pruned.getActiveChannelCount());
+
+        requested = new boolean[channelCount];
+        requested[0] = true;
+        requested[channelCount - 1] = true;
+        requested[47] = true;
+        pruned.clearRequestedChannels();
+        pruned.requestChannel(0);
+        pruned.requestChannel(channelCount - 1);
+        pruned.requestChannel(47);
+        assertInverse(random, pruned, requested);
+        Assertions.assertEquals(3, pruned.getActiveChannelCount());
+
+        pruned.clearRequestedChannels();
+        Assertions.assertEquals(0, pruned.applyRequestedChannels());
+    }
+
+    /**
+     * Verifies the heuristic crossover for common channelizer sizes.
+     */
+    @Test
+    void crossoverChannelCount()
+    {
+        Assertions.assertEquals(3, PrunedInverseDFT.getCrossoverChannelCount(96));
+        Assertions.assertEquals(4, PrunedInverseDFT.getCrossoverChannelCount(240));
+        Assertions.assertEquals(5, PrunedInverseDFT.getCrossoverChannelCount(400));
+        Assertions.assertEquals(5, PrunedInverseDFT.getCrossoverChannelCount(800));
+    }
+
+    /**
+     * Applies the requested channels and compares the pruned transform of random samples against the scaled inverse
+     * DFT at the requested channel positions and against the input samples at the non-requested positions.
+     */
+    private static void assertInverse(Random random, PrunedInverseDFT pruned, boolean[] requested)
+    {
+        int channelCount = requested.length;
+        int requestedCount = 0;
+
+        for(boolean channel: requested)
+        {
+            requestedCount += channel ? 1 : 0;
+        }
+
+        Assertions.assertEquals(requestedCount, pruned.applyRequestedChannels());
+
+        float[] samples = new float[channelCount * 2];
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+
+        float[] transformed = samples.clone();
+        pruned.inverse(transformed);
+
+        for(int channel = 0; channel < channelCount; channel++)
+        {
+            String description = "Channels " + channelCount + " index " + channel;
+
+            if(requested[channel])
+            {
+                double inphase = 0.0;
+                double quadrature = 0.0;
+
+                for(int n = 0; n < channelCount; n++)
+                {
+                    double angle = 2.0 * Math.PI * (((long)channel * n) % channelCount) / channelCount;
+                    double cosine = Math.cos(angle);
+                    double sine = Math.sin(angle);
+                    inphase += samples[2 * n] * cosine - samples[2 * n + 1] * sine;
+                    quadrature += samples[2 * n] * sine + samples[2 * n + 1] * cosine;
+                }
+
+                Assertions.assertEquals((float)(inphase / channelCount), transformed[2 * channel], TOLERANCE,
+                    description + " inphase");
+                Assertions.assertEquals((float)(quadrature / channelCount), transformed[2 * channel + 1], TOLERANCE,
+                    description + " quadrature");
+            }
+            else
+            {
+                Assertions.assertEquals(Float.floatToIntBits(samples[2 * channel]),
+                    Float.floatToIntBits(transformed[2 * channel]), description + " inphase");
+                Assertions.assertEquals(Float.floatToIntBits(samples[2 * channel + 1]),
+                    Float.floatToIntBits(transformed[2 * channel + 1]), description + " quadrature");
+            }
+        }
+    }
+}
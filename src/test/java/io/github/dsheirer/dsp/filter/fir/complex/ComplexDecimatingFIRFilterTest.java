@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.fir.complex;
+
+import io.github.dsheirer.dsp.filter.Filters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class ComplexDecimatingFIRFilterTest
+{
+    private static final int SAMPLE_COUNT = 2048;
+    private static final int[] DECIMATIONS = {1, 2, 6, 7, 12};
+
+    /**
+     * Verifies that decimating filter output, for blocks of varying length, is bit-identical to the full rate
+     * ComplexFIRFilter2 output where only every decimation-th sample is kept.
+     */
+    @Test
+    void matchesFullRateFilterAndDiscard()
+    {
+        Random random = new Random(0);
+        float[] samples = getSamples(random);
+
+        for(float[] coefficients: getCoefficients(random))
+        {
+            for(int decimation: DECIMATIONS)
+            {
+                String description = "Taps " + coefficients.length + " decimation " + decimation;
+                float[] expected = filterAndDiscard(coefficients, decimation, samples);
+
+                ComplexDecimatingFIRFilter filter = new ComplexDecimatingFIRFilter(coefficients, decimation);
+                float[] decimated = new float[samples.length];
+                int offset = 0;
+                int count = 0;
+                int length = 2;
+
+                while(offset < samples.length)
+                {
+                    int end = Math.min(samples.length, offset + length);
+                    float[] block = new float[end - offset];
+                    System.arraycopy(samples, offset, block, 0, block.length);
+
+                    int expectedCount = filter.getOutputCount(block.length / 2);
+                    int blockCount = filter.filter(block, block);
+                    Assertions.assertEquals(expectedCount, blockCount, description + " output count");
+
+                    System.arraycopy(block, 0, decimated, 2 * count, 2 * blockCount);
+                    count += blockCount;
+                    offset = end;
+                    length = length * 3 + 2;
+                }
+
+                Assertions.assertEquals(expected.length / 2, count, description + " total output count");
+
+                for(int x = 0; x < expected.length; x++)
+                {
+                    Assertions.assertEquals(Float.floatToIntBits(expected[x]), Float.floatToIntBits(decimated[x]),
+                        description + " sample " + x);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies that filtering a leading portion of the samples array with the length argument only consumes that
+     * portion, as used when chaining decimation stages over a single working array.
+     */
+    @Test
+    void filtersLeadingLength()
+    {
+        Random random = new Random(1);
+        float[] samples = getSamples(random);
+        float[] coefficients = Filters.HALF_BAND_FILTER_27T.getCoefficients();
+        int length = samples.length / 2;
+
+        float[] leading = new float[length];
+        System.arraycopy(samples, 0, leading, 0, length);
+        float[] expected = filterAndDiscard(coefficients, 2, leading);
+
+        float[] working = samples.clone();
+        int count = new ComplexDecimatingFIRFilter(coefficients, 2).filter(working, length, working);
+
+        Assertions.assertEquals(expected.length / 2, count);
+
+        for(int x = 0; x < expected.length; x++)
+        {
+            Assertions.assertEquals(Float.floatToIntBits(expected[x]), Float.floatToIntBits(working[x]), "Sample " + x);
+        }
+    }
+
+    /**
+     * Half-band, symmetric and asymmetric filter coefficients
+     */
+    private static float[][] getCoefficients(Random random)
+    {
+        float[] asymmetric = new float[37];
+
+        for(int x = 0; x < asymmetric.length; x++)
+        {
+            asymmetric[x] = random.nextFloat() - 0.5f;
+        }
+
+        float[] symmetric = new float[64];
+
+        for(int x = 0; x < symmetric.length / 2; x++)
+        {
+            symmetric[x] = random.nextFloat() - 0.5f;
+            symmetric[symmetric.length - x - 1] = symmetric[x];
+        }
+
+        return new float[][]{Filters.HALF_BAND_FILTER_27T.getCoefficients(), symmetric, asymmetric};
+    }
+
+    /**
+     * Random interleaved complex samples
+     */
+    private static float[] getSamples(Random random)
+    {
+        float[] samples = new float[SAMPLE_COUNT * 2];
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+
+        return samples;
+    }
+
+    /**
+     * Filters the interleaved samples at the full rate and keeps every decimation-th complex sample.
+     */
+    private static float[] filterAndDiscard(float[] coefficients, int decimation, float[] samples)
+    {
+        float[] filtered = new float[samples.length];
+        new ComplexFIRFilter2(coefficients).filter(samples, filtered);
+
+        int sampleCount = samples.length / 2;
+        float[] decimated = new float[sampleCount / decimation * 2];
+
+        for(int x = 0; x < decimated.length / 2; x++)
+        {
+            int index = (x + 1) * decimation - 1;
+            decimated[2 * x] = filtered[2 * index];
+            decimated[2 * x + 1] = filtered[2 * index + 1];
+        }
+
+        return decimated;
+    }
+}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.fir.complex;
+
+import io.github.dsheirer.dsp.filter.Filters;
+import io.github.dsheirer.dsp.filter.fir.FIRKernel;
+import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ComplexFIRFilter2Test
+{
+    private static final int SAMPLE_COUNT = 2048;
+    private static final float GAIN = 1.5f;
+
+    /**
+     * Verifies that block filtering of interleaved samples, split across several calls, is bit-identical to filtering
+     * the I and Q samples with a pair of direct form (GENERAL kernel) real filters.
+     */
+    @Test
+    void blockFilterMatchesRealFilterPair()
+    {
+        Random random = new Random(0);
+        float[] samples = getSamples(random);
+
+        for(float[] coefficients: getCoefficients(random))
+        {
+            Assertions.assertArrayEquals(filterRealPair(coefficients, samples),
+                filterBlocks(new ComplexFIRFilter2(coefficients, GAIN), samples), coefficients.length + " taps");
+        }
+    }
+
+    /**
+     * Verifies that sample at a time filtering with filterInphase() and filterQuadrature() is bit-identical to
+     * filtering with a pair of direct form (GENERAL kernel) real filters.
+     */
+    @Test
+    void sampleFilterMatchesRealFilterPair()
+    {
+        Random random = new Random(1);
+        float[] samples = getSamples(random);
+
+        for(float[] coefficients: getCoefficients(random))
+        {
+            float[] expected = filterRealPair(coefficients, samples);
+            ComplexFIRFilter2 filter = new ComplexFIRFilter2(coefficients, GAIN);
+
+            for(int x = 0; x < samples.length; x += 2)
+            {
+                Assertions.assertEquals(Float.floatToIntBits(expected[x]),
+                    Float.floatToIntBits(filter.filterInphase(samples[x])), "Inphase " + x);
+                Assertions.assertEquals(Float.floatToIntBits(expected[x + 1]),
+                    Float.floatToIntBits(filter.filterQuadrature(samples[x + 1])), "Quadrature " + x);
+                Assertions.assertEquals(Float.floatToIntBits(expected[x]),
+                    Float.floatToIntBits(filter.currentInphaseValue()), "Inphase " + x);
+                Assertions.assertEquals(Float.floatToIntBits(expected[x + 1]),
+                    Float.floatToIntBits(filter.currentQuadratureValue()), "Quadrature " + x);
+            }
+        }
+    }
+
+    /**
+     * Half-band, symmetric and asymmetric filter coefficients
+     */
+    private static float[][] getCoefficients(Random random)
+    {
+        float[] asymmetric = new float[37];
+
+        for(int x = 0; x < asymmetric.length; x++)
+        {
+            asymmetric[x] = random.nextFloat() - 0.5f;
+        }
+
+        float[] symmetric = new float[40];
+
+        for(int x = 0; x < symmetric.length / 2; x++)
+        {
+            symmetric[x] = random.nextFloat() - 0.5f;
+            symmetric[symmetric.length - x - 1] = symmetric[x];
+        }
+
+        return new float[][]{Filters.HALF_BAND_FILTER_27T.getCoefficients(),
+            Filters.HALF_BAND_FILTER_47T.getCoefficients(), symmetric, asymmetric, new float[]{0.75f}};
+    }
+
+    /**
+     * Random interleaved complex samples
+     */
+    private static float[] getSamples(Random random)
+    {
+        float[] samples = new float[SAMPLE_COUNT * 2];
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+
+        return samples;
+    }
+
+    /**
+     * Filters the interleaved samples with a pair of direct form real filters, one each for I and Q.
+     */
+    private static float[] filterRealPair(float[] coefficients, float[] samples)
+    {
+        RealFIRFilter2 inphaseFilter = new RealFIRFilter2(coefficients, GAIN, FIRKernel.GENERAL);
+        RealFIRFilter2 quadratureFilter = new RealFIRFilter2(coefficients, GAIN, FIRKernel.GENERAL);
+        float[] filtered = new float[samples.length];
+
+        for(int x = 0; x < samples.length; x += 2)
+        {
+            filtered[x] = inphaseFilter.filter(samples[x]);
+            filtered[x + 1] = quadratureFilter.filter(samples[x + 1]);
+        }
+
+        return filtered;
+    }
+
+    /**
+     * Filters the interleaved samples in blocks of varying length to exercise the filter state across block
+     * boundaries.
+     */
+    private static float[] filterBlocks(ComplexFIRFilter2 filter, float[] samples)
+    {
+        float[] filtered = new float[samples.length];
+        int offset = 0;
+        int length = 2;
+
+        while(offset < samples.length)
+        {
+            int end = Math.min(samples.length, offset + length);
+            float[] block = Arrays.copyOfRange(samples, offset, end);
+            filter.filter(block, block);
+            System.arraycopy(block, 0, filtered, offset, block.length);
+            offset = end;
+            length = length * 3 + 2;
+        }
+
+        return filtered;
+    }
+}
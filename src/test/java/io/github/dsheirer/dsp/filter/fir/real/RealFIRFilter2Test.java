@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.fir.real;
+
+import io.github.dsheirer.dsp.filter.Filters;
+import io.github.dsheirer.dsp.filter.fir.FIRKernel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class RealFIRFilter2Test
+{
+    private static final int SAMPLE_COUNT = 2048;
+    private static final float TOLERANCE = 1e-5f;
+
+    /**
+     * Verifies that the direct form (GENERAL) kernel output is bit-identical to a direct form convolution over the
+     * sample history, for sample at a time filtering and for block filtering split across several calls.
+     */
+    @Test
+    void generalKernelMatchesDirectForm()
+    {
+        Random random = new Random(0);
+        float[] samples = getSamples(random);
+
+        for(float[] coefficients: getCoefficients(random))
+        {
+            float[] expected = convolve(coefficients, samples);
+
+            RealFIRFilter2 filter = new RealFIRFilter2(coefficients, 1.0f, FIRKernel.GENERAL);
+
+            for(int x = 0; x < samples.length; x++)
+            {
+                Assertions.assertEquals(Float.floatToIntBits(expected[x]),
+                    Float.floatToIntBits(filter.filter(samples[x])), "Sample " + x);
+            }
+
+            Assertions.assertArrayEquals(expected, filterBlocks(new RealFIRFilter2(coefficients, 1.0f,
+                FIRKernel.GENERAL), samples));
+        }
+    }
+
+    /**
+     * Verifies that the automatically selected (symmetric and half-band) kernels produce the direct form output
+     * within the floating point rounding tolerance.
+     */
+    @Test
+    void selectedKernelMatchesDirectForm()
+    {
+        Random random = new Random(1);
+        float[] samples = getSamples(random);
+
+        for(float[] coefficients: getCoefficients(random))
+        {
+            float[] expected = convolve(coefficients, samples);
+
+            RealFIRFilter2 filter = new RealFIRFilter2(coefficients);
+            float[] filtered = filterBlocks(new RealFIRFilter2(coefficients), samples);
+
+            for(int x = 0; x < samples.length; x++)
+            {
+                Assertions.assertEquals(expected[x], filter.filter(samples[x]), TOLERANCE,
+                    filter.getKernel() + " sample " + x);
+                Assertions.assertEquals(expected[x], filtered[x], TOLERANCE, filter.getKernel() + " sample " + x);
+            }
+        }
+    }
+
+    /**
+     * Half-band, symmetric and asymmetric filter coefficients
+     */
+    private static float[][] getCoefficients(Random random)
+    {
+        float[] asymmetric = new float[37];
+
+        for(int x = 0; x < asymmetric.length; x++)
+        {
+            asymmetric[x] = random.nextFloat() - 0.5f;
+        }
+
+        float[] symmetric = new float[40];
+
+        for(int x = 0; x < symmetric.length / 2; x++)
+        {
+            symmetric[x] = random.nextFloat() - 0.5f;
+            symmetric[symmetric.length - x - 1] = symmetric[x];
+        }
+
+        return new float[][]{Filters.HALF_BAND_FILTER_27T.getCoefficients(),
+            Filters.FIR_HALF_BAND_31T_ONE_EIGHTH_FCO.getCoefficients(),
+            Filters.HALF_BAND_FILTER_47T.getCoefficients(), symmetric, asymmetric};
+    }
+
+    private static float[] getSamples(Random random)
+    {
+        float[] samples = new float[SAMPLE_COUNT];
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+
+        return samples;
+    }
+
+    /**
+     * Filters the samples in blocks of varying length to exercise the filter state across block boundaries.
+     */
+    private static float[] filterBlocks(RealFIRFilter2 filter, float[] samples)
+    {
+        float[] filtered = new float[samples.length];
+        int offset = 0;
+        int length = 1;
+
+        while(offset < samples.length)
+        {
+            int end = Math.min(samples.length, offset + length);
+            float[] block = Arrays.copyOfRange(samples, offset, end);
+            filter.filter(block, block);
+            System.arraycopy(block, 0, filtered, offset, block.length);
+            offset = end;
+            length = length * 3 + 1;
+        }
+
+        return filtered;
+    }
+
+    /**
+     * Direct form convolution with the newest sample multiplied by the first coefficient, using the same
+     * accumulation order as the shifting delay line implementation.
+     */
+    private static float[] convolve(float[] coefficients, float[] samples)
+    {
+        float[] filtered = new float[samples.length];
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            float accumulator = 0.0f;
+
+            for(int y = 0; y < coefficients.length; y++)
+            {
+                float sample = x - y >= 0 ? samples[x - y] : 0.0f;
+                accumulator = Math.fma(sample, coefficients[y], accumulator);
+            }
+
+            filtered[x] = accumulator;
+        }
+
+        return filtered;
+    }
+}
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.edac;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class BerlekempMasseyTest
+{
+    //RS(24,12,13) shortened from RS(63,51): 12 parity symbols, 6 correctable errors
+    private static final int NN = 63;
+    private static final int KK = 51;
+    private static final int PARITY = NN - KK;
+    private static final int SHORTENED_LENGTH = 24;
+    private static final int ITERATIONS = 200;
+
+    private static final ReedSolomon_24_12_13_P25 DECODER = new ReedSolomon_24_12_13_P25();
+
+    /**
+     * Verifies that errors-and-erasures decoding corrects every combination of errors and erasures where
+     * (2 x errors) + erasures does not exceed the 12 parity symbols, including erasures where the received symbol
+     * happens to be correct.
+     */
+    @Test
+    void correctsErrorsAndErasures()
+    {
+        Random random = new Random(0);
+
+        for(int errors = 0; errors <= PARITY / 2; errors++)
+        {
+            for(int erasures = 0; erasures <= PARITY - 2 * errors; erasures++)
+            {
+                for(int x = 0; x < ITERATIONS; x++)
+                {
+                    int[] codeword = getCodeword(random);
+                    int[] positions = getPositions(random, errors + erasures);
+                    int[] received = codeword.clone();
+
+                    //The first positions are erased (and corrupted when odd) and the remaining positions are errors
+                    for(int y = 0; y < erasures; y++)
+                    {
+                        if(y % 2 == 1)
+                        {
+                            received[positions[y]] ^= 1 + random.nextInt(NN);
+                        }
+                    }
+
+                    for(int y = erasures; y < positions.length; y++)
+                    {
+                        received[positions[y]] ^= 1 + random.nextInt(NN);
+                    }
+
+                    int[] output = new int[NN];
+                    String description = "Errors " + errors + " erasures " + erasures + " positions " +
+                        Arrays.toString(positions);
+
+                    Assertions.assertFalse(DECODER.decode(received, output, positions, erasures), description);
+                    Assertions.assertArrayEquals(codeword, output, description);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies that erasing the known positions of 7 to 12 symbol errors, which is beyond the 6 symbol errors-only
+     * correction capability, recovers the codeword.
+     */
+    @Test
+    void correctsErasuresBeyondErrorCapability()
+    {
+        Random random = new Random(1);
+
+        for(int erasures = PARITY / 2 + 1; erasures <= PARITY; erasures++)
+        {
+            for(int x = 0; x < ITERATIONS; x++)
+            {
+                int[] codeword = getCodeword(random);
+                int[] positions = getPositions(random, erasures);
+                int[] received = codeword.clone();
+
+                for(int position : positions)
+                {
+                    received[position] ^= 1 + random.nextInt(NN);
+                }
+
+                int[] output = new int[NN];
+                boolean irrecoverable = DECODER.decode(received, output);
+                Assertions.assertTrue(irrecoverable || !Arrays.equals(codeword, output),
+                    "Errors-only decode recovered " + erasures + " errors");
+
+                Assertions.assertFalse(DECODER.decode(received, output, positions, erasures));
+                Assertions.assertArrayEquals(codeword, output);
+            }
+        }
+    }
+
+    /**
+     * Verifies that more erasures than parity symbols are reported as irrecoverable and the received symbols are
+     * returned unchanged, and that an erasure count of zero is the same as errors-only decoding.
+     */
+    @Test
+    void handlesErasureCountLimits()
+    {
+        Random random = new Random(2);
+        int[] codeword = getCodeword(random);
+        int[] positions = getPositions(random, PARITY + 1);
+        int[] received = codeword.clone();
+
+        for(int position : positions)
+        {
+            received[position] ^= 1 + random.nextInt(NN);
+        }
+
+        int[] output = new int[NN];
+        Assertions.assertTrue(DECODER.decode(received, output, positions, positions.length));
+        Assertions.assertArrayEquals(received, output);
+
+        received = codeword.clone();
+        received[positions[0]] ^= 1;
+        Assertions.assertFalse(DECODER.decode(received, output, positions, 0));
+        Assertions.assertArrayEquals(codeword, output);
+    }
+
+    /**
+     * Random shortened codeword: 12 random data symbols at positions 12-23, zero (shortened) data symbols at
+     * positions 24-62 and the 12 parity symbols at positions 0-11.
+     */
+    private static int[] getCodeword(Random random)
+    {
+        int[] data = new int[KK];
+
+        for(int x = 0; x < SHORTENED_LENGTH - PARITY; x++)
+        {
+            data[x] = random.nextInt(NN + 1);
+        }
+
+        int[] codeword = encode(data);
+
+        int[] output = new int[NN];
+        Assertions.assertFalse(DECODER.decode(codeword, output));
+        Assertions.assertArrayEquals(codeword, output, "Test encoder produced an invalid codeword");
+
+        return codeword;
+    }
+
+    /**
+     * Distinct random symbol positions within the shortened codeword
+     */
+    private static int[] getPositions(Random random, int count)
+    {
+        int[] positions = new int[SHORTENED_LENGTH];
+
+        for(int x = 0; x < positions.length; x++)
+        {
+            positions[x] = x;
+        }
+
+        for(int x = 0; x < count; x++)
+        {
+            int swap = x + random.nextInt(positions.length - x);
+            int position = positions[swap];
+            positions[swap] = positions[x];
+            positions[x] = position;
+        }
+
+        return Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Systematic encoder using the decoder's generator polynomial (index form).  Returns the codeword with the
+     * parity symbols at positions 0 to (PARITY - 1) followed by the data symbols.
+     */
+    private static int[] encode(int[] data)
+    {
+        int[] parity = new int[PARITY];
+
+        for(int x = KK - 1; x >= 0; x--)
+        {
+            int feedback = DECODER.index_of[data[x] ^ parity[PARITY - 1]];
+
+            for(int y = PARITY - 1; y > 0; y--)
+            {
+                parity[y] = parity[y - 1];
+
+                if(feedback != -1 && DECODER.gg[y] != -1)
+                {
+                    parity[y] ^= DECODER.alpha_to[(DECODER.gg[y] + feedback) % NN];
+                }
+            }
+
+            parity[0] = feedback != -1 ? DECODER.alpha_to[(DECODER.gg[0] + feedback) % NN] : 0;
+        }
+
+        int[] codeword = new int[NN];
+        System.arraycopy(parity, 0, codeword, 0, PARITY);
+        System.arraycopy(data, 0, codeword, PARITY, KK);
+        return codeword;
+    }
+}
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.edac;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class GolayTest
+{
+    /**
+     * Codeword start offsets: the start of the message and an offset where the codeword crosses a 64-bit word
+     * boundary, with random bits before and after the codeword.
+     */
+    private static final int[] OFFSETS = {0, 53};
+    private static final int PADDING = 29;
+    private static final int[] DATA = {0x000, 0xFFF, 0x5A5, 0x3C7, 0x801, 0x0F0, 0xA3E, 0x124};
+
+    /**
+     * Verifies that Golay(24,12) corrects every 1-3 bit error pattern without modifying the bits outside of the
+     * codeword, and that 4 bit error patterns are detected and left uncorrected.
+     */
+    @Test
+    void golay24CorrectsErrors()
+    {
+        Random random = new Random(0);
+        List<Integer> errorPatterns = getErrorPatterns(24, 3);
+        List<Integer> uncorrectablePatterns = getErrorPatterns(24, 4);
+        uncorrectablePatterns.removeIf(errorPattern -> Integer.bitCount(errorPattern) < 4);
+
+        for(int offset: OFFSETS)
+        {
+            for(int data: DATA)
+            {
+                int codeword = Golay24.encode(data);
+
+                for(int errorPattern: errorPatterns)
+                {
+                    CorrectedBinaryMessage expected = getMessage(random, offset, 24, codeword);
+                    CorrectedBinaryMessage message = copy(expected, offset, 24, codeword ^ errorPattern);
+
+                    int result = Golay24.checkAndCorrect(message, offset);
+
+                    Assertions.assertEquals(errorPattern == 0 ? 0 : 1, result, description(offset, errorPattern));
+                    Assertions.assertEquals(Integer.bitCount(errorPattern), message.getCorrectedBitCount());
+                    Assertions.assertEquals(expected, message, description(offset, errorPattern));
+                }
+            }
+
+            int codeword = Golay24.encode(DATA[2]);
+
+            for(int errorPattern: uncorrectablePatterns)
+            {
+                CorrectedBinaryMessage received = getMessage(random, offset, 24, codeword ^ errorPattern);
+                CorrectedBinaryMessage message = copy(received, offset, 24, codeword ^ errorPattern);
+
+                Assertions.assertEquals(2, Golay24.checkAndCorrect(message, offset));
+                Assertions.assertEquals(0, message.getCorrectedBitCount());
+                Assertions.assertEquals(received, message, description(offset, errorPattern));
+            }
+        }
+    }
+
+    /**
+     * Verifies that Golay(23,12) corrects every 1-3 bit error pattern without modifying the bits outside of the
+     * codeword.
+     */
+    @Test
+    void golay23CorrectsErrors()
+    {
+        Random random = new Random(1);
+        List<Integer> errorPatterns = getErrorPatterns(23, 3);
+
+        for(int offset: OFFSETS)
+        {
+            for(int data: DATA)
+            {
+                int codeword = Golay23.encode(data);
+
+                for(int errorPattern: errorPatterns)
+                {
+                    CorrectedBinaryMessage expected = getMessage(random, offset, 23, codeword);
+                    CorrectedBinaryMessage message = copy(expected, offset, 23, codeword ^ errorPattern);
+
+                    Assertions.assertEquals(Integer.bitCount(errorPattern), Golay23.checkAndCorrect(message, offset),
+                        description(offset, errorPattern));
+                    Assertions.assertEquals(expected, message, description(offset, errorPattern));
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies that the shortened Golay(18,6) code corrects every 1-3 bit error pattern without modifying the bits
+     * outside of the codeword.
+     */
+    @Test
+    void golay18CorrectsErrors()
+    {
+        Random random = new Random(2);
+        List<Integer> errorPatterns = getErrorPatterns(18, 3);
+
+        for(int offset: OFFSETS)
+        {
+            for(int data: DATA)
+            {
+                int codeword = Golay24.encode(data & 0x3F);
+
+                for(int errorPattern: errorPatterns)
+                {
+                    CorrectedBinaryMessage expected = getMessage(random, offset, 18, codeword);
+                    CorrectedBinaryMessage message = copy(expected, offset, 18, codeword ^ errorPattern);
+
+                    Golay18.checkAndCorrect(message, offset);
+
+                    Assertions.assertEquals(Integer.bitCount(errorPattern), message.getCorrectedBitCount());
+                    Assertions.assertEquals(expected, message, description(offset, errorPattern));
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies that the shortened Golay(18,6) code rejects received codewords where the nearest Golay(24,12)
+     * codeword has errors in the six shortened bits, which are always zero, and leaves the message unmodified.
+     */
+    @Test
+    void golay18RejectsShortenedBitErrors()
+    {
+        Random random = new Random(3);
+        List<Integer> errorPatterns = getErrorPatterns(18, 2);
+
+        for(int offset: OFFSETS)
+        {
+            for(int data = 0; data < 0x1000; data++)
+            {
+                int shortenedBitErrors = Integer.bitCount(data >> 6);
+
+                if(shortenedBitErrors == 0 || shortenedBitErrors > 3)
+                {
+                    continue;
+                }
+
+                int codeword = Golay24.encode(data) & 0x3FFFF;
+
+                for(int errorPattern: errorPatterns)
+                {
+                    if(Integer.bitCount(errorPattern) > 3 - shortenedBitErrors)
+                    {
+                        continue;
+                    }
+
+                    int received = codeword ^ errorPattern;
+
+                    Assertions.assertEquals(Golay24.UNCORRECTABLE, Golay18.correct(received));
+
+                    CorrectedBinaryMessage expected = getMessage(random, offset, 18, received);
+                    CorrectedBinaryMessage message = copy(expected, offset, 18, received);
+
+                    Golay18.checkAndCorrect(message, offset);
+
+                    Assertions.assertEquals(0, message.getCorrectedBitCount());
+                    Assertions.assertEquals(expected, message, description(offset, errorPattern));
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a message with random bits and the codeword loaded at the offset.
+     */
+    private static CorrectedBinaryMessage getMessage(Random random, int offset, int width, int codeword)
+    {
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(offset + width + PADDING);
+
+        for(int x = 0; x < message.size(); x++)
+        {
+            message.set(x, random.nextBoolean());
+        }
+
+        message.load(offset, width, codeword);
+        return message;
+    }
+
+    /**
+     * Copies the message and loads the codeword at the offset in the copy.
+     */
+    private static CorrectedBinaryMessage copy(BinaryMessage message, int offset, int width, int codeword)
+    {
+        CorrectedBinaryMessage copy = new CorrectedBinaryMessage(message);
+        copy.load(offset, width, codeword);
+        return copy;
+    }
+
+    /**
+     * All error patterns of the bit width with a weight of max weight or less, including the zero (no error) pattern.
+     */
+    private static List<Integer> getErrorPatterns(int width, int maxWeight)
+    {
+        List<Integer> patterns = new ArrayList<>();
+
+        for(int pattern = 0; pattern < (1 << width); pattern++)
+        {
+            if(Integer.bitCount(pattern) <= maxWeight)
+            {
+                patterns.add(pattern);
+            }
+        }
+
+        return patterns;
+    }
+
+    private static String description(int offset, int errorPattern)
+    {
+        return "Offset " + offset + " error pattern " + Integer.toHexString(errorPattern);
+    }
+}
@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.edac.trellis;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.dsp.symbol.SymbolReliability;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class ViterbiTrellisTest
+{
+    private static final int SYMBOL_COUNT = 49;
+    private static final int MESSAGES_PER_ERROR_COUNT = 200;
+
+    /**
+     * Verifies that the array-based trellis produces the same decoded values and corrected bit counts as the
+     * node/path based reference decoder for random messages with random bit error patterns.
+     */
+    @Test
+    void matchesReferenceDecoder()
+    {
+        compare(new ViterbiDecoder_1_2_P25(), P25_1_2_Node.TRANSITION_MATRIX);
+        compare(new ViterbiDecoder_3_4_P25(), P25_3_4_Node.TRANSITION_MATRIX);
+        compare(new ViterbiDecoder_3_4_DMR(), DMR_3_4_Node.DMR_TRANSITION_MATRIX);
+    }
+
+    /**
+     * Verifies that error-free encoded messages are decoded to the original input values.
+     */
+    @Test
+    void decodesErrorFreeMessages()
+    {
+        ViterbiDecoder_1_2_P25 decoder = new ViterbiDecoder_1_2_P25();
+        Random random = new Random(1);
+
+        for(int x = 0; x < MESSAGES_PER_ERROR_COUNT; x++)
+        {
+            int[] inputs = getInputs(random, 2);
+            CorrectedBinaryMessage decoded = decoder.decode(encode(inputs, P25_1_2_Node.TRANSITION_MATRIX));
+
+            Assertions.assertEquals(0, decoded.getCorrectedBitCount());
+
+            for(int y = 0; y < inputs.length; y++)
+            {
+                Assertions.assertEquals(inputs[y], decoded.getInt(y * 2, y * 2 + 1));
+            }
+        }
+    }
+
+    /**
+     * Verifies that soft decision decoding with every bit at maximum reliability produces the same decoded values
+     * and corrected bit counts as hard decision decoding, for random messages with random bit error patterns.
+     */
+    @Test
+    void softDecisionMatchesHardDecisionAtMaximumReliability()
+    {
+        compareSoft(new ViterbiDecoder_1_2_P25(), P25_1_2_Node.TRANSITION_MATRIX);
+        compareSoft(new ViterbiDecoder_3_4_P25(), P25_3_4_Node.TRANSITION_MATRIX);
+        compareSoft(new ViterbiDecoder_3_4_DMR(), DMR_3_4_Node.DMR_TRANSITION_MATRIX);
+    }
+
+    /**
+     * Verifies that soft decision decoding recovers messages with a known pattern of bit errors that hard decision
+     * decoding can't correct, when the errored bits are erased (reliability zero) or have low reliability.  One bit
+     * is flipped in every (1/2 rate) or every second (3/4 rate) output value, alternating between erased and low
+     * reliability bits.
+     */
+    @Test
+    void softDecisionCorrectsUnreliableBitErrors()
+    {
+        correctUnreliable(new ViterbiDecoder_1_2_P25(), P25_1_2_Node.TRANSITION_MATRIX, 1);
+        correctUnreliable(new ViterbiDecoder_3_4_P25(), P25_3_4_Node.TRANSITION_MATRIX, 2);
+        correctUnreliable(new ViterbiDecoder_3_4_DMR(), DMR_3_4_Node.DMR_TRANSITION_MATRIX, 2);
+    }
+
+    private static void compareSoft(ViterbiDecoder decoder, int[][] transitionMatrix)
+    {
+        Random random = new Random(2);
+        byte[] reliabilities = new byte[SYMBOL_COUNT * 4];
+        Arrays.fill(reliabilities, SymbolReliability.MAXIMUM);
+
+        for(int errors = 0; errors <= 16; errors++)
+        {
+            for(int x = 0; x < MESSAGES_PER_ERROR_COUNT; x++)
+            {
+                BinaryMessage encoded = encode(getInputs(random, decoder.getInputBitLength()), transitionMatrix);
+
+                for(int y = 0; y < errors; y++)
+                {
+                    encoded.flip(random.nextInt(encoded.size()));
+                }
+
+                int[] symbols = getSymbols(encoded);
+                CorrectedBinaryMessage hard = decoder.decodeMessage(symbols);
+                CorrectedBinaryMessage soft = decoder.decodeMessage(symbols, reliabilities);
+
+                Assertions.assertEquals(hard.getCorrectedBitCount(), soft.getCorrectedBitCount());
+                Assertions.assertEquals(hard.toBitSet(), soft.toBitSet());
+            }
+        }
+    }
+
+    private static void correctUnreliable(ViterbiDecoder decoder, int[][] transitionMatrix, int period)
+    {
+        Random random = new Random(3);
+        int inputBitLength = decoder.getInputBitLength();
+        int hardFailures = 0;
+
+        for(int x = 0; x < MESSAGES_PER_ERROR_COUNT; x++)
+        {
+            int[] inputs = getInputs(random, inputBitLength);
+            BinaryMessage encoded = encode(inputs, transitionMatrix);
+            byte[] reliabilities = new byte[encoded.size()];
+            Arrays.fill(reliabilities, SymbolReliability.MAXIMUM);
+            int errors = 0;
+
+            for(int symbol = 0; symbol < SYMBOL_COUNT; symbol += period)
+            {
+                int bit = symbol * 4 + random.nextInt(4);
+                encoded.flip(bit);
+                reliabilities[bit] = (byte)(errors++ % 2 == 0 ? 0 : 2);
+            }
+
+            int[] symbols = getSymbols(encoded);
+            CorrectedBinaryMessage soft = decoder.decodeMessage(symbols, reliabilities);
+
+            Assertions.assertEquals(errors, soft.getCorrectedBitCount());
+
+            for(int y = 0; y < inputs.length; y++)
+            {
+                Assertions.assertEquals(inputs[y], soft.getInt(y * inputBitLength, (y + 1) * inputBitLength - 1),
+                    "Input " + y);
+            }
+
+            CorrectedBinaryMessage hard = decoder.decodeMessage(symbols);
+
+            for(int y = 0; y < inputs.length; y++)
+            {
+                if(inputs[y] != hard.getInt(y * inputBitLength, (y + 1) * inputBitLength - 1))
+                {
+                    hardFailures++;
+                    break;
+                }
+            }
+        }
+
+        Assertions.assertTrue(hardFailures > 0, "Error pattern is correctable with hard decisions");
+    }
+
+    private static int[] getSymbols(BinaryMessage encoded)
+    {
+        int[] symbols = new int[SYMBOL_COUNT];
+
+        for(int y = 0; y < SYMBOL_COUNT; y++)
+        {
+            symbols[y] = encoded.getInt(y * 4, y * 4 + 3);
+        }
+
+        return symbols;
+    }
+
+    private static void compare(ViterbiDecoder decoder, int[][] transitionMatrix)
+    {
+        Random random = new Random(0);
+        int inputBitLength = decoder.getInputBitLength();
+
+        for(int errors = 0; errors <= 16; errors++)
+        {
+            for(int x = 0; x < MESSAGES_PER_ERROR_COUNT; x++)
+            {
+                BinaryMessage encoded = encode(getInputs(random, inputBitLength), transitionMatrix);
+
+                for(int y = 0; y < errors; y++)
+                {
+                    encoded.flip(random.nextInt(encoded.size()));
+                }
+
+                int[] symbols = new int[SYMBOL_COUNT];
+
+                for(int y = 0; y < SYMBOL_COUNT; y++)
+                {
+                    symbols[y] = encoded.getInt(y * 4, y * 4 + 3);
+                }
+
+                Path path = decoder.decode(symbols);
+                CorrectedBinaryMessage decoded = decoder.decodeMessage(symbols);
+                List<Node> nodes = path.getNodes();
+
+                Assertions.assertEquals(path.getError(), decoded.getCorrectedBitCount());
+                Assertions.assertEquals((nodes.size() - 2) * inputBitLength, decoded.size());
+
+                for(int y = 1; y < nodes.size() - 1; y++)
+                {
+                    int offset = (y - 1) * inputBitLength;
+                    Assertions.assertEquals(nodes.get(y).getInputValue(),
+                        decoded.getInt(offset, offset + inputBitLength - 1));
+                }
+            }
+        }
+    }
+
+    private static int[] getInputs(Random random, int inputBitLength)
+    {
+        int[] inputs = new int[SYMBOL_COUNT - 1];
+
+        for(int x = 0; x < inputs.length; x++)
+        {
+            inputs[x] = random.nextInt(1 << inputBitLength);
+        }
+
+        return inputs;
+    }
+
+    /**
+     * Trellis encodes the input values followed by a flushing zero input value, producing one 4-bit output value per
+     * input value from the encoder state (previous input value) and the input value.
+     */
+    private static BinaryMessage encode(int[] inputs, int[][] transitionMatrix)
+    {
+        BinaryMessage encoded = new BinaryMessage((inputs.length + 1) * 4);
+        int state = 0;
+
+        for(int x = 0; x <= inputs.length; x++)
+        {
+            int input = x < inputs.length ? inputs[x] : 0;
+            encoded.load(x * 4, 4, transitionMatrix[state][input]);
+            state = input;
+        }
+
+        return encoded;
+    }
+}
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.source.tuner.airspy;
+
+import io.github.dsheirer.dsp.filter.Filters;
+import io.github.dsheirer.dsp.filter.dc.DCRemovalFilter;
+import io.github.dsheirer.dsp.filter.fir.FIRKernel;
+import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+public class AirspySampleConverterTest
+{
+    private static final int SAMPLE_COUNT = 8192;
+    private static final int TRANSFER_COUNT = 3;
+    private static final float REFERENCE_TOLERANCE = 1e-5f;
+
+    //Output samples discarded while the filters and the DC removal average settle
+    private static final int SETTLING_SAMPLES = 1024;
+    private static final double MAGNITUDE_TOLERANCE = 0.001;
+    private static final double PHASE_TOLERANCE = 1e-4;
+
+    /**
+     * Verifies that the fused FS/4 half-band conversion matches the unfused reference chain of DC removal, FS/4
+     * mixing and half-band filtering and decimation by 2, for unpacked and packed samples across consecutive
+     * transfers.
+     */
+    @Test
+    void fusedConversionMatchesReferenceChain()
+    {
+        for(boolean packed: new boolean[]{false, true})
+        {
+            Random random = new Random(0);
+            AirspySampleConverter converter = getConverter(AirspyConversionMode.FS4_HALF_BAND, packed);
+            ReferenceConverter reference = new ReferenceConverter();
+
+            for(int transfer = 0; transfer < TRANSFER_COUNT; transfer++)
+            {
+                int[] values = new int[SAMPLE_COUNT];
+
+                for(int x = 0; x < values.length; x++)
+                {
+                    values[x] = random.nextInt(4096);
+                }
+
+                float[] expected = reference.convert(values);
+                float[] samples = convert(converter, values, packed);
+
+                Assertions.assertEquals(expected.length, samples.length);
+
+                for(int x = 0; x < expected.length; x++)
+                {
+                    Assertions.assertEquals(expected[x], samples[x], REFERENCE_TOLERANCE,
+                        (packed ? "Packed" : "Unpacked") + " transfer " + transfer + " sample " + x);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies that the fused FS/4 half-band conversion produces the same complex tone amplitude and frequency,
+     * including the spectral orientation, as the hilbert transform conversion for real tones across the band.  The
+     * two modes sample the complex output at a half output sample offset from each other, so the outputs are compared
+     * by magnitude and by the phase change between samples rather than sample for sample.
+     */
+    @Test
+    void fusedConversionMatchesHilbertConversion()
+    {
+        for(boolean packed: new boolean[]{false, true})
+        {
+            for(double frequency: new double[]{0.06, 0.13, 0.2, 0.24, 0.26, 0.3, 0.37, 0.44})
+            {
+                int[] values = new int[SAMPLE_COUNT];
+
+                for(int x = 0; x < values.length; x++)
+                {
+                    values[x] = 2048 + (int)Math.round(1500.0 * Math.cos(2.0 * Math.PI * frequency * x + 0.3));
+                }
+
+                float[] hilbert = convert(getConverter(AirspyConversionMode.HILBERT, packed), values, packed);
+                float[] fused = convert(getConverter(AirspyConversionMode.FS4_HALF_BAND, packed), values, packed);
+
+                String description = (packed ? "Packed" : "Unpacked") + " tone " + frequency;
+
+                for(int x = SETTLING_SAMPLES; x < fused.length / 2 - 1; x++)
+                {
+                    Assertions.assertEquals(getMagnitude(hilbert, x), getMagnitude(fused, x), MAGNITUDE_TOLERANCE,
+                        description + " magnitude at sample " + x);
+                }
+
+                Assertions.assertEquals(getPhaseChange(hilbert), getPhaseChange(fused), PHASE_TOLERANCE,
+                    description + " phase change");
+            }
+        }
+    }
+
+    private static AirspySampleConverter getConverter(AirspyConversionMode mode, boolean packed)
+    {
+        AirspySampleConverter converter = new AirspySampleConverter();
+        converter.setConversionMode(mode);
+        converter.setSamplePacking(packed);
+        return converter;
+    }
+
+    /**
+     * Loads the unsigned 12-bit values into a native buffer in the unpacked or packed format and converts the buffer.
+     */
+    private static float[] convert(AirspySampleConverter converter, int[] values, boolean packed)
+    {
+        ByteBuffer nativeBuffer;
+
+        if(packed)
+        {
+            nativeBuffer = ByteBuffer.allocateDirect(values.length / 2 * 3);
+
+            for(int x = 0; x < values.length; x += 2)
+            {
+                nativeBuffer.put((byte)(values[x] >> 4));
+                nativeBuffer.put((byte)(((values[x] & 0xF) << 4) | (values[x + 1] >> 8)));
+                nativeBuffer.put((byte)values[x + 1]);
+            }
+        }
+        else
+        {
+            nativeBuffer = ByteBuffer.allocateDirect(values.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+
+            for(int value: values)
+            {
+                nativeBuffer.putShort((short)value);
+            }
+        }
+
+        ReusableComplexBuffer buffer = converter.convert(nativeBuffer, nativeBuffer.capacity());
+        float[] samples = buffer.getSamples().clone();
+        buffer.decrementUserCount();
+        return samples;
+    }
+
+    private static double getMagnitude(float[] samples, int index)
+    {
+        return Math.hypot(samples[2 * index], samples[2 * index + 1]);
+    }
+
+    /**
+     * Average phase change in radians between consecutive complex samples after the settling period
+     */
+    private static double getPhaseChange(float[] samples)
+    {
+        double phaseChange = 0.0;
+        int count = 0;
+
+        for(int x = SETTLING_SAMPLES; x < samples.length / 2 - 1; x++)
+        {
+            double inphase = samples[2 * x];
+            double quadrature = samples[2 * x + 1];
+            double nextInphase = samples[2 * x + 2];
+            double nextQuadrature = samples[2 * x + 3];
+
+            phaseChange += Math.atan2(nextQuadrature * inphase - nextInphase * quadrature,
+                nextInphase * inphase + nextQuadrature * quadrature);
+            count++;
+        }
+
+        return phaseChange / count;
+    }
+
+    /**
+     * Unfused reference conversion: DC removal, FS/4 mixing by the sequence 1, j, -1, -j, and filtering each of the
+     * inphase and quadrature rails at the real sample rate with the half-band filter (gain of 2), keeping every
+     * other filtered sample.
+     */
+    private static class ReferenceConverter
+    {
+        private DCRemovalFilter mDCFilter = new DCRemovalFilter(0.01f);
+        private RealFIRFilter2 mInphaseFilter =
+            new RealFIRFilter2(Filters.HALF_BAND_FILTER_47T.getCoefficients(), 2.0f, FIRKernel.GENERAL);
+        private RealFIRFilter2 mQuadratureFilter =
+            new RealFIRFilter2(Filters.HALF_BAND_FILTER_47T.getCoefficients(), 2.0f, FIRKernel.GENERAL);
+        private int mMixerPointer;
+
+        public float[] convert(int[] values)
+        {
+            float[] samples = new float[values.length];
+
+            for(int x = 0; x < values.length; x++)
+            {
+                float sample = mDCFilter.filter(AirspySampleConverter.scale(values[x]));
+                float inphase = 0.0f;
+                float quadrature = 0.0f;
+
+                switch(mMixerPointer)
+                {
+                    case 0:
+                        inphase = sample;
+                        break;
+                    case 1:
+                        quadrature = sample;
+                        break;
+                    case 2:
+                        inphase = -sample;
+                        break;
+                    case 3:
+                        quadrature = -sample;
+                        break;
+                }
+
+                mMixerPointer = (mMixerPointer + 1) % 4;
+
+                float filteredInphase = mInphaseFilter.filter(inphase);
+                float filteredQuadrature = mQuadratureFilter.filter(quadrature);
+
+                if(x % 2 == 1)
+                {
+                    samples[x - 1] = filteredInphase;
+                    samples[x] = filteredQuadrature;
+                }
+            }
+
+            return samples;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.source.tuner.usb;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class USBTransferSizingTest
+{
+    private static final double[] SAMPLE_RATES = {240000.0, 2400000.0, 3000000.0, 6000000.0, 10000000.0};
+    private static final double[] BYTES_PER_SAMPLE = {2.0, 3.0, 4.0};
+
+    /**
+     * Verifies that buffers hold at least 1 millisecond of samples for every latency budget, including the minimum
+     * budget at the highest sample rates, and no more than the latency budget when that is larger than the minimum
+     * buffer size.
+     */
+    @Test
+    void buffersHoldAtLeastOneMillisecond()
+    {
+        for(double sampleRate: SAMPLE_RATES)
+        {
+            for(double bytesPerSample: BYTES_PER_SAMPLE)
+            {
+                double bytesPerMillisecond = sampleRate * bytesPerSample / 1000.0;
+
+                for(int latencyBudget = 1; latencyBudget <= 100; latencyBudget++)
+                {
+                    USBTransferSizing sizing = USBTransferSizing.fromSampleRate(sampleRate, bytesPerSample,
+                        latencyBudget);
+                    String description = "Rate " + sampleRate + " bytes/sample " + bytesPerSample + " budget " +
+                        latencyBudget + " " + sizing;
+
+                    int bufferSize = sizing.getBufferSize();
+
+                    Assertions.assertEquals(0, bufferSize & (bufferSize - 1), description);
+                    Assertions.assertTrue(bufferSize >= USBTransferSizing.MINIMUM_BUFFER_SIZE, description);
+                    Assertions.assertTrue(bufferSize <= USBTransferSizing.MAXIMUM_BUFFER_SIZE, description);
+                    Assertions.assertTrue(bufferSize >= bytesPerMillisecond, description);
+
+                    if(bufferSize > USBTransferSizing.MINIMUM_BUFFER_SIZE && bufferSize / 2 >= bytesPerMillisecond)
+                    {
+                        Assertions.assertTrue(bufferSize <= bytesPerMillisecond * latencyBudget, description);
+                    }
+
+                    Assertions.assertTrue(sizing.getTransferCount() >= USBTransferSizing.MINIMUM_TRANSFER_COUNT,
+                        description);
+                    Assertions.assertTrue(sizing.getTransferCount() <= USBTransferSizing.MAXIMUM_TRANSFER_COUNT,
+                        description);
+                }
+            }
+        }
+    }
+}
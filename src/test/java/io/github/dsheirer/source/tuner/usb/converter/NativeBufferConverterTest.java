@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.source.tuner.usb.converter;
+
+import io.github.dsheirer.dsp.filter.dc.DCRemovalFilter;
+import io.github.dsheirer.dsp.filter.hilbert.HilbertTransform;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.source.tuner.airspy.AirspySampleConverter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class NativeBufferConverterTest
+{
+    private static final int BUFFER_SIZE = 16384;
+    private static final int[] TRANSFER_LENGTHS = {BUFFER_SIZE, BUFFER_SIZE - 1000, BUFFER_SIZE};
+
+    /**
+     * Verifies that the 8-bit converters produce the same samples as the previous per-byte conversion, for full and
+     * partial transfers.
+     */
+    @Test
+    void convertsByteSamples()
+    {
+        Random random = new Random(0);
+        ByteBuffer nativeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        NativeBufferConverter unsigned = new ByteSampleConverter();
+        NativeBufferConverter signed = new SignedByteSampleConverter();
+
+        for(int length: TRANSFER_LENGTHS)
+        {
+            byte[] bytes = fill(random, nativeBuffer);
+            int sampleCount = length / 2 * 2;
+
+            float[] unsignedSamples = getSamples(unsigned, nativeBuffer, length);
+            float[] signedSamples = getSamples(signed, nativeBuffer, length);
+
+            Assertions.assertEquals(sampleCount, unsignedSamples.length);
+            Assertions.assertEquals(sampleCount, signedSamples.length);
+
+            for(int x = 0; x < sampleCount; x++)
+            {
+                Assertions.assertEquals(Float.floatToIntBits((float)((bytes[x] & 0xFF) - 127) / 128.0f),
+                    Float.floatToIntBits(unsignedSamples[x]), "Unsigned sample " + x);
+                Assertions.assertEquals(Float.floatToIntBits((float)bytes[x] / 128.0f),
+                    Float.floatToIntBits(signedSamples[x]), "Signed sample " + x);
+            }
+        }
+    }
+
+    /**
+     * Verifies that the Airspy converter produces the same samples as the previous per-byte conversion followed by
+     * DC removal and the hilbert transform, for unpacked and packed samples across consecutive transfers.
+     */
+    @Test
+    void convertsAirspySamples()
+    {
+        for(boolean packed: new boolean[]{false, true})
+        {
+            Random random = new Random(1);
+            ByteBuffer nativeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            AirspySampleConverter converter = new AirspySampleConverter();
+            converter.setSamplePacking(packed);
+            DCRemovalFilter dcFilter = new DCRemovalFilter(0.01f);
+            HilbertTransform hilbertTransform = new HilbertTransform();
+
+            for(int length: TRANSFER_LENGTHS)
+            {
+                byte[] bytes = fill(random, nativeBuffer);
+                float[] expected = packed ? unpack12(bytes, length) : unpack16(bytes, length);
+                dcFilter.filter(expected);
+                expected = hilbertTransform.filter(expected);
+
+                float[] samples = getSamples(converter, nativeBuffer, length);
+
+                Assertions.assertEquals(expected.length, samples.length);
+
+                for(int x = 0; x < expected.length; x++)
+                {
+                    Assertions.assertEquals(Float.floatToIntBits(expected[x]), Float.floatToIntBits(samples[x]),
+                        (packed ? "Packed" : "Unpacked") + " sample " + x);
+                }
+            }
+        }
+    }
+
+    private static byte[] fill(Random random, ByteBuffer nativeBuffer)
+    {
+        byte[] bytes = new byte[nativeBuffer.capacity()];
+        random.nextBytes(bytes);
+        nativeBuffer.clear();
+        nativeBuffer.put(bytes);
+        return bytes;
+    }
+
+    private static float[] getSamples(NativeBufferConverter converter, ByteBuffer nativeBuffer, int length)
+    {
+        ReusableComplexBuffer buffer = converter.convert(nativeBuffer, length);
+        float[] samples = buffer.getSamples().clone();
+        buffer.decrementUserCount();
+        return samples;
+    }
+
+    /**
+     * Unsigned 12-bit samples in little-endian 16-bit words
+     */
+    private static float[] unpack16(byte[] bytes, int length)
+    {
+        float[] samples = new float[length / 4 * 2];
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = AirspySampleConverter.scale((bytes[2 * x] & 0xFF) | (bytes[2 * x + 1] << 8));
+        }
+
+        return samples;
+    }
+
+    /**
+     * Pairs of unsigned 12-bit samples packed into 3 bytes
+     */
+    private static float[] unpack12(byte[] bytes, int length)
+    {
+        float[] samples = new float[length / 3 * 2];
+
+        for(int x = 0; x < samples.length; x += 2)
+        {
+            int offset = x / 2 * 3;
+            samples[x] = AirspySampleConverter.scale(((bytes[offset] << 4) & 0xFF0) | ((bytes[offset + 1] >> 4) & 0xF));
+            samples[x + 1] = AirspySampleConverter.scale(((bytes[offset + 1] << 8) & 0xF00) |
+                (bytes[offset + 2] & 0xFF));
+        }
+
+        return samples;
+    }
+}